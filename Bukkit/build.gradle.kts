@@ -34,6 +34,7 @@ dependencies {
     }
     compileOnly("com.fastasyncworldedit:FastAsyncWorldEdit-Bukkit") { isTransitive = false }
     testImplementation("com.fastasyncworldedit:FastAsyncWorldEdit-Bukkit") { isTransitive = false }
+    testImplementation(libs.worldeditCore)
     compileOnly("com.github.MilkBowl:VaultAPI") {
         exclude(group = "org.bukkit")
     }
@@ -35,8 +35,10 @@ import com.plotsquared.bukkit.listener.BlockEventListener117;
 import com.plotsquared.bukkit.listener.ChunkListener;
 import com.plotsquared.bukkit.listener.EntityEventListener;
 import com.plotsquared.bukkit.listener.EntitySpawnListener;
+import com.plotsquared.bukkit.listener.EntitySpawnListener117;
 import com.plotsquared.bukkit.listener.PaperListener;
 import com.plotsquared.bukkit.listener.PaperListener113;
+import com.plotsquared.bukkit.listener.PaperListener117;
 import com.plotsquared.bukkit.listener.PlayerEventListener;
 import com.plotsquared.bukkit.listener.ProjectileEventListener;
 import com.plotsquared.bukkit.listener.ServerListener;
@@ -49,6 +51,7 @@ import com.plotsquared.bukkit.player.BukkitPlayer;
 import com.plotsquared.bukkit.player.BukkitPlayerManager;
 import com.plotsquared.bukkit.util.BukkitUtil;
 import com.plotsquared.bukkit.util.BukkitWorld;
+import com.plotsquared.bukkit.util.PlotEntityCounter;
 import com.plotsquared.bukkit.util.SetGenCB;
 import com.plotsquared.bukkit.util.UpdateUtility;
 import com.plotsquared.bukkit.util.task.BukkitTaskManager;
@@ -94,6 +97,7 @@ import com.plotsquared.core.plot.flag.implementations.ServerPlotFlag;
 import com.plotsquared.core.plot.world.PlotAreaManager;
 import com.plotsquared.core.plot.world.SinglePlotArea;
 import com.plotsquared.core.plot.world.SinglePlotAreaManager;
+import com.plotsquared.core.queue.ChunkWorkScheduler;
 import com.plotsquared.core.setup.PlotAreaBuilder;
 import com.plotsquared.core.setup.SettingsNodesWrapper;
 import com.plotsquared.core.util.EventDispatcher;
@@ -102,6 +106,7 @@ import com.plotsquared.core.util.PlatformWorldManager;
 import com.plotsquared.core.util.PlayerManager;
 import com.plotsquared.core.util.PremiumVerification;
 import com.plotsquared.core.util.ReflectionUtils;
+import com.plotsquared.core.util.RegionFileTrimmer;
 import com.plotsquared.core.util.SetupUtils;
 import com.plotsquared.core.util.WorldUtil;
 import com.plotsquared.core.util.task.TaskManager;
@@ -264,6 +269,9 @@ public final class BukkitPlatform extends JavaPlugin implements Listener, PlotPl
 
         final PlotSquared plotSquared = new PlotSquared(this, "Bukkit");
 
+        // Worlds are not loaded yet, so scheduled trims can safely rewrite their region files
+        RegionFileTrimmer.runScheduled();
+
         // FastAsyncWorldEdit
         if (Settings.FAWE_Components.FAWE_HOOK) {
             Plugin fawe = getServer().getPluginManager().getPlugin("FastAsyncWorldEdit");
@@ -291,6 +299,10 @@ public final class BukkitPlatform extends JavaPlugin implements Listener, PlotPl
                 );
         this.injector.injectMembers(this);
 
+        if (PaperLib.isPaper()) {
+            this.injector.getInstance(ChunkWorkScheduler.class).setTickTimeSupplier(Bukkit::getAverageTickTime);
+        }
+
         this.serverLocale = Locale.forLanguageTag(Settings.Enabled_Components.DEFAULT_LOCALE);
 
         if (PremiumVerification.isPremium() && Settings.Enabled_Components.UPDATE_NOTIFICATIONS) {
@@ -355,14 +367,22 @@ public final class BukkitPlatform extends JavaPlugin implements Listener, PlotPl
             getServer().getPluginManager().registerEvents(injector().getInstance(ProjectileEventListener.class), this);
             getServer().getPluginManager().registerEvents(injector().getInstance(ServerListener.class), this);
             getServer().getPluginManager().registerEvents(injector().getInstance(EntitySpawnListener.class), this);
+            if (serverVersion()[1] >= 17) {
+                getServer().getPluginManager().registerEvents(injector().getInstance(EntitySpawnListener117.class), this);
+            }
             if (PaperLib.isPaper() && Settings.Paper_Components.PAPER_LISTENERS) {
                 if (serverVersion()[1] == 13) {
                     getServer().getPluginManager().registerEvents(injector().getInstance(PaperListener113.class), this);
                 } else {
                     getServer().getPluginManager().registerEvents(injector().getInstance(PaperListener.class), this);
                 }
+                if (serverVersion()[1] >= 17) {
+                    getServer().getPluginManager().registerEvents(injector().getInstance(PaperListener117.class), this);
+                }
             } else {
                 getServer().getPluginManager().registerEvents(injector().getInstance(SpigotListener.class), this);
+                // Unlike Paper, Spigot does not report every entity removal, drop removed entities from the tracked counts
+                TaskManager.runTaskRepeat(injector().getInstance(PlotEntityCounter.class)::prune, TaskTime.seconds(5L));
             }
             this.plotListener.startRunnable();
         }
@@ -364,13 +364,11 @@ public class BlockEventListener implements Listener {
                 return;
             }
             if (!plot.isAdded(plotPlayer.getUUID())) {
-                List<BlockTypeWrapper> destroy = plot.getFlag(BreakFlag.class);
+                BreakFlag destroy = plot.getFlagContainer().getFlag(BreakFlag.class);
                 Block block = event.getBlock();
                 final BlockType blockType = BukkitAdapter.asBlockType(block.getType());
-                for (final BlockTypeWrapper blockTypeWrapper : destroy) {
-                    if (blockTypeWrapper.accepts(blockType)) {
-                        return;
-                    }
+                if (destroy.accepts(blockType)) {
+                    return;
                 }
                 if (Permissions
                         .hasPermission(plotPlayer, Permission.PERMISSION_ADMIN_DESTROY_OTHER)) {
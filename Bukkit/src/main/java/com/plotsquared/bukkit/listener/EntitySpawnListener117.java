@@ -0,0 +1,61 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.bukkit.listener;
+
+import com.google.inject.Inject;
+import com.plotsquared.bukkit.util.PlotEntityCounter;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.EntitiesLoadEvent;
+import org.bukkit.event.world.EntitiesUnloadEvent;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Since 1.17, entities are loaded separately from their chunk, so {@link org.bukkit.Chunk#getEntities()}
+ * is empty when the chunk load event is fired.
+ *
+ * @since 6.11.0
+ */
+@SuppressWarnings("unused")
+public class EntitySpawnListener117 implements Listener {
+
+    private final PlotEntityCounter entityCounter;
+
+    @Inject
+    public EntitySpawnListener117(final @NonNull PlotEntityCounter entityCounter) {
+        this.entityCounter = entityCounter;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesLoad(EntitiesLoadEvent event) {
+        for (final Entity entity : event.getEntities()) {
+            this.entityCounter.add(entity);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesUnload(EntitiesUnloadEvent event) {
+        for (final Entity entity : event.getEntities()) {
+            this.entityCounter.remove(entity);
+        }
+    }
+
+}
@@ -19,7 +19,9 @@
 package com.plotsquared.bukkit.listener;
 
 import com.destroystokyo.paper.event.block.BeaconEffectEvent;
+import com.destroystokyo.paper.event.entity.EntityAddToWorldEvent;
 import com.destroystokyo.paper.event.entity.EntityPathfindEvent;
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
 import com.destroystokyo.paper.event.entity.PlayerNaturallySpawnCreaturesEvent;
 import com.destroystokyo.paper.event.entity.PreCreatureSpawnEvent;
 import com.destroystokyo.paper.event.entity.PreSpawnerSpawnEvent;
@@ -28,6 +30,7 @@ import com.destroystokyo.paper.event.player.PlayerLaunchProjectileEvent;
 import com.destroystokyo.paper.event.server.AsyncTabCompleteEvent;
 import com.google.inject.Inject;
 import com.plotsquared.bukkit.util.BukkitUtil;
+import com.plotsquared.bukkit.util.PlotEntityCounter;
 import com.plotsquared.core.command.Command;
 import com.plotsquared.core.command.MainCommand;
 import com.plotsquared.core.configuration.Settings;
@@ -74,11 +77,13 @@ import java.util.regex.Pattern;
 public class PaperListener implements Listener {
 
     private final PlotAreaManager plotAreaManager;
+    private final PlotEntityCounter entityCounter;
     private Chunk lastChunk;
 
     @Inject
-    public PaperListener(final @NonNull PlotAreaManager plotAreaManager) {
+    public PaperListener(final @NonNull PlotAreaManager plotAreaManager, final @NonNull PlotEntityCounter entityCounter) {
         this.plotAreaManager = plotAreaManager;
+        this.entityCounter = entityCounter;
     }
 
     @EventHandler
@@ -443,6 +448,16 @@ public class PaperListener implements Listener {
         }
     }
 
+    @EventHandler
+    public void onEntityAddToWorld(final EntityAddToWorldEvent event) {
+        this.entityCounter.add(event.getEntity());
+    }
+
+    @EventHandler
+    public void onEntityRemoveFromWorld(final EntityRemoveFromWorldEvent event) {
+        this.entityCounter.remove(event.getEntity());
+    }
+
     private boolean getBooleanFlagValue(@NonNull FlagContainer container,
                                         @NonNull Class<? extends BooleanFlag<?>> flagClass,
                                         boolean defaultValue) {
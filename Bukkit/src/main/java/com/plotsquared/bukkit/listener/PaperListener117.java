@@ -0,0 +1,40 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.bukkit.listener;
+
+import com.plotsquared.core.plot.flag.types.BlockTypeListFlag;
+import io.papermc.paper.event.server.ServerResourcesReloadedEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+
+/**
+ * Events specific to Paper 1.17 and above.
+ *
+ * @since 6.11.0
+ */
+@SuppressWarnings("unused")
+public class PaperListener117 implements Listener {
+
+    @EventHandler
+    public void onServerResourcesReloaded(final ServerResourcesReloadedEvent event) {
+        // Block tags may have changed, compiled block list flag values are rebuilt lazily
+        BlockTypeListFlag.invalidateCompiledBlockTypes();
+    }
+
+}
@@ -557,29 +557,23 @@ public class PlayerEventListener implements Listener {
                 return;
             }
             Plot now = area.getPlot(location);
-            Plot lastPlot;
-            try (final MetaDataAccess<Plot> lastPlotAccess =
-                         pp.accessTemporaryMetaData(PlayerMetaDataKeys.TEMPORARY_LAST_PLOT)) {
-                lastPlot = lastPlotAccess.get().orElse(null);
-            }
+            Plot lastPlot = pp.getTemporaryMetaData(PlayerMetaDataKeys.TEMPORARY_LAST_PLOT);
             if (now == null) {
-                try (final MetaDataAccess<Boolean> kickAccess =
-                             pp.accessTemporaryMetaData(PlayerMetaDataKeys.TEMPORARY_KICK)) {
-                    if (lastPlot != null && !plotListener.plotExit(pp, lastPlot) && this.tmpTeleport && !kickAccess.get().orElse(false)) {
-                        pp.sendMessage(
-                                TranslatableCaption.of("permission.no_permission_event"),
-                                Template.of("node", String.valueOf(Permission.PERMISSION_ADMIN_EXIT_DENIED))
-                        );
-                        this.tmpTeleport = false;
-                        if (lastPlot.equals(BukkitUtil.adapt(from).getPlot())) {
-                            player.teleport(from);
-                        } else {
-                            player.teleport(player.getWorld().getSpawnLocation());
-                        }
-                        this.tmpTeleport = true;
-                        event.setCancelled(true);
-                        return;
+                if (lastPlot != null && !plotListener.plotExit(pp, lastPlot) && this.tmpTeleport
+                        && !Boolean.TRUE.equals(pp.getTemporaryMetaData(PlayerMetaDataKeys.TEMPORARY_KICK))) {
+                    pp.sendMessage(
+                            TranslatableCaption.of("permission.no_permission_event"),
+                            Template.of("node", String.valueOf(Permission.PERMISSION_ADMIN_EXIT_DENIED))
+                    );
+                    this.tmpTeleport = false;
+                    if (lastPlot.equals(BukkitUtil.adapt(from).getPlot())) {
+                        player.teleport(from);
+                    } else {
+                        player.teleport(player.getWorld().getSpawnLocation());
                     }
+                    this.tmpTeleport = true;
+                    event.setCancelled(true);
+                    return;
                 }
             } else if (now.equals(lastPlot)) {
                 ForceFieldListener.handleForcefield(player, pp, now);
@@ -647,29 +641,23 @@ public class PlayerEventListener implements Listener {
                 return;
             }
             Plot plot = area.getPlot(location);
-            Plot lastPlot;
-            try (final MetaDataAccess<Plot> lastPlotAccess =
-                         pp.accessTemporaryMetaData(PlayerMetaDataKeys.TEMPORARY_LAST_PLOT)) {
-                lastPlot = lastPlotAccess.get().orElse(null);
-            }
+            Plot lastPlot = pp.getTemporaryMetaData(PlayerMetaDataKeys.TEMPORARY_LAST_PLOT);
             if (plot == null) {
-                try (final MetaDataAccess<Boolean> kickAccess =
-                             pp.accessTemporaryMetaData(PlayerMetaDataKeys.TEMPORARY_KICK)) {
-                    if (lastPlot != null && !plotListener.plotExit(pp, lastPlot) && this.tmpTeleport && !kickAccess.get().orElse(false)) {
-                        pp.sendMessage(
-                                TranslatableCaption.of("permission.no_permission_event"),
-                                Template.of("node", String.valueOf(Permission.PERMISSION_ADMIN_EXIT_DENIED))
-                        );
-                        this.tmpTeleport = false;
-                        if (lastPlot.equals(BukkitUtil.adapt(from).getPlot())) {
-                            player.teleport(from);
-                        } else {
-                            player.teleport(player.getWorld().getSpawnLocation());
-                        }
-                        this.tmpTeleport = true;
-                        event.setCancelled(true);
-                        return;
+                if (lastPlot != null && !plotListener.plotExit(pp, lastPlot) && this.tmpTeleport
+                        && !Boolean.TRUE.equals(pp.getTemporaryMetaData(PlayerMetaDataKeys.TEMPORARY_KICK))) {
+                    pp.sendMessage(
+                            TranslatableCaption.of("permission.no_permission_event"),
+                            Template.of("node", String.valueOf(Permission.PERMISSION_ADMIN_EXIT_DENIED))
+                    );
+                    this.tmpTeleport = false;
+                    if (lastPlot.equals(BukkitUtil.adapt(from).getPlot())) {
+                        player.teleport(from);
+                    } else {
+                        player.teleport(player.getWorld().getSpawnLocation());
                     }
+                    this.tmpTeleport = true;
+                    event.setCancelled(true);
+                    return;
                 }
             } else if (plot.equals(lastPlot)) {
                 ForceFieldListener.handleForcefield(player, pp, plot);
@@ -23,8 +23,8 @@ import com.google.inject.assistedinject.Assisted;
 import com.plotsquared.bukkit.BukkitPlatform;
 import com.plotsquared.core.PlotSquared;
 import com.plotsquared.core.queue.ChunkCoordinator;
+import com.plotsquared.core.queue.ChunkWorkScheduler;
 import com.plotsquared.core.queue.subscriber.ProgressSubscriber;
-import com.plotsquared.core.util.task.PlotSquaredTask;
 import com.plotsquared.core.util.task.TaskManager;
 import com.plotsquared.core.util.task.TaskTime;
 import com.sk89q.worldedit.math.BlockVector2;
@@ -41,6 +41,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
@@ -70,9 +71,9 @@ public final class BukkitChunkCoordinator extends ChunkCoordinator {
     private final AtomicInteger expectedSize;
     private final AtomicInteger loadingChunks = new AtomicInteger();
     private final boolean forceSync;
+    private final ChunkWorkScheduler scheduler;
 
     private int batchSize;
-    private PlotSquaredTask task;
     private volatile boolean shouldCancel;
     private boolean finished;
 
@@ -87,7 +88,8 @@ public final class BukkitChunkCoordinator extends ChunkCoordinator {
             @Assisted final @NonNull Consumer<Throwable> throwableConsumer,
             @Assisted("unloadAfter") final boolean unloadAfter,
             @Assisted final @NonNull Collection<ProgressSubscriber> progressSubscribers,
-            @Assisted("forceSync") final boolean forceSync
+            @Assisted("forceSync") final boolean forceSync,
+            final @NonNull ChunkWorkScheduler scheduler
     ) {
         this.requestedChunks = new LinkedBlockingQueue<>(requestedChunks);
         this.availableChunks = new LinkedBlockingQueue<>();
@@ -103,6 +105,7 @@ public final class BukkitChunkCoordinator extends ChunkCoordinator {
         this.bukkitWorld = Bukkit.getWorld(world.getName());
         this.progressSubscribers.addAll(progressSubscribers);
         this.forceSync = forceSync;
+        this.scheduler = scheduler;
     }
 
     @Override
@@ -111,7 +114,7 @@ public final class BukkitChunkCoordinator extends ChunkCoordinator {
             // Request initial batch
             this.requestBatch();
             // Wait until next tick to give the chunks a chance to be loaded
-            TaskManager.runTaskLater(() -> task = TaskManager.runTaskRepeat(this, TaskTime.ticks(1)), TaskTime.ticks(1));
+            TaskManager.runTaskLater(() -> scheduler.submit(this), TaskTime.ticks(1));
         } else {
             try {
                 while (!shouldCancel && !requestedChunks.isEmpty()) {
@@ -139,15 +142,21 @@ public final class BukkitChunkCoordinator extends ChunkCoordinator {
             for (final ProgressSubscriber subscriber : this.progressSubscribers) {
                 subscriber.notifyEnd();
             }
-            if (task != null) {
-                task.cancel();
-            }
+            scheduler.complete(this);
             finished = true;
         }
     }
 
     @Override
     public void run() {
+        tick(TimeUnit.MILLISECONDS.toNanos(this.maxIterationTime));
+    }
+
+    @Override
+    public int tick(final long budget) {
+        if (finished) {
+            return 0;
+        }
         if (shouldCancel) {
             if (unloadAfter) {
                 Chunk chunk;
@@ -156,7 +165,7 @@ public final class BukkitChunkCoordinator extends ChunkCoordinator {
                 }
             }
             finish();
-            return;
+            return 0;
         }
 
         Chunk chunk = this.availableChunks.poll();
@@ -168,12 +177,14 @@ public final class BukkitChunkCoordinator extends ChunkCoordinator {
                     requestBatch();
                 }
             }
-            return;
+            return 0;
         }
-        long[] iterationTime = new long[2];
+        final long start = System.nanoTime();
+        final long deadline = start + Math.min(budget, TimeUnit.MILLISECONDS.toNanos(this.maxIterationTime));
+        long last = start;
+        long iterationTime;
         int processedChunks = 0;
         do {
-            final long start = System.currentTimeMillis();
             try {
                 this.chunkConsumer.accept(BlockVector2.at(chunk.getX(), chunk.getZ()));
             } catch (final Throwable throwable) {
@@ -183,12 +194,15 @@ public final class BukkitChunkCoordinator extends ChunkCoordinator {
                 this.freeChunk(chunk);
             }
             processedChunks++;
-            final long end = System.currentTimeMillis();
-            // Update iteration time
-            iterationTime[0] = iterationTime[1];
-            iterationTime[1] = end - start;
-        } while (iterationTime[0] + iterationTime[1] < this.maxIterationTime * 2 && (chunk = availableChunks.poll()) != null);
-        if (processedChunks < this.batchSize) {
+            final long end = System.nanoTime();
+            iterationTime = end - last;
+            last = end;
+            // Stop if the next chunk is expected to exceed the budget
+        } while (last + iterationTime <= deadline && (chunk = availableChunks.poll()) != null);
+        if (chunk == null && processedChunks >= this.batchSize) {
+            // Ran out of loaded chunks before running out of time
+            this.batchSize++;
+        } else if (processedChunks < this.batchSize) {
             // Adjust batch size based on the amount of processed chunks per tick
             this.batchSize = processedChunks;
         }
@@ -206,6 +220,7 @@ public final class BukkitChunkCoordinator extends ChunkCoordinator {
                 this.requestBatch();
             }
         }
+        return processedChunks;
     }
 
     /**
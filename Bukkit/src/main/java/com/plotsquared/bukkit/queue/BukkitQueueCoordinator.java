@@ -21,6 +21,7 @@ package com.plotsquared.bukkit.queue;
 import com.google.inject.Inject;
 import com.plotsquared.bukkit.schematic.StateWrapper;
 import com.plotsquared.bukkit.util.BukkitBlockUtil;
+import com.plotsquared.core.PlotSquared;
 import com.plotsquared.core.configuration.Settings;
 import com.plotsquared.core.inject.factory.ChunkCoordinatorBuilderFactory;
 import com.plotsquared.core.inject.factory.ChunkCoordinatorFactory;
@@ -43,19 +44,28 @@ import com.sk89q.worldedit.world.World;
 import com.sk89q.worldedit.world.biome.BiomeType;
 import com.sk89q.worldedit.world.block.BaseBlock;
 import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockTypes;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.block.Block;
 import org.bukkit.block.Container;
 import org.bukkit.block.data.BlockData;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 public class BukkitQueueCoordinator extends BasicQueueCoordinator {
 
+    private static final Logger LOGGER = LogManager.getLogger("PlotSquared/" + BukkitQueueCoordinator.class.getSimpleName());
+
     private static final SideEffectSet NO_SIDE_EFFECT_SET;
     private static final SideEffectSet EDGE_SIDE_EFFECT_SET;
     private static final SideEffectSet LIGHTING_SIDE_EFFECT_SET;
@@ -83,12 +93,26 @@ public class BukkitQueueCoordinator extends BasicQueueCoordinator {
     @Inject
     private ChunkCoordinatorFactory chunkCoordinatorFactory;
     private ChunkCoordinator chunkCoordinator;
+    private long bulkWritten;
+    private long bulkUnchanged;
+    private long sectionsUnchanged;
+    private long writeNanos;
 
     @Inject
     public BukkitQueueCoordinator(@NonNull World world) {
         super(world);
     }
 
+    /**
+     * Release the resources cached for a world by the queues, called when the world is unloaded.
+     *
+     * @param world unloaded world
+     * @since 6.11.0
+     */
+    public static void releaseWorld(final org.bukkit.@NonNull World world) {
+        BulkChunkWriter.releaseWorld(world.getUID());
+    }
+
     @Override
     public BlockState getBlock(int x, int y, int z) {
         Block block = getBukkitWorld().getBlockAt(x, y, z);
@@ -131,39 +155,49 @@ public class BukkitQueueCoordinator extends BasicQueueCoordinator {
                                 && blockVector2.getBlockX() < getRegenEnd()[0] && blockVector2.getBlockZ() < getRegenEnd()[1];
                 int sx = blockVector2.getX() << 4;
                 int sz = blockVector2.getZ() << 4;
+                final long start = System.nanoTime();
+                final BulkChunkWriter writer = createBulkWriter(blockVector2);
+                final BaseBlock[] section = writer == null ? null : new BaseBlock[4096];
                 if (isRegenChunk) {
-                    for (int layer = getMinLayer(); layer <= getMaxLayer(); layer++) {
-                        for (int y = 0; y < 16; y++) {
-                            for (int x = 0; x < 16; x++) {
-                                for (int z = 0; z < 16; z++) {
-                                    x += sx;
-                                    y += layer << 4;
-                                    z += sz;
-                                    BaseBlock block = regenClipboard.getFullBlock(BlockVector3.at(x, y, z));
-                                    if (block != null) {
-                                        boolean edge = Settings.QUEUE.UPDATE_EDGES && isEdgeRegen(x & 15, z & 15, blockVector2);
-                                        setWorldBlock(x, y, z, block, blockVector2, edge);
-                                    }
-                                }
+                    for (int layer = getMinY() >> 4; layer <= getMaxY() >> 4; layer++) {
+                        for (int j = 0; j < 4096; j++) {
+                            int y = ChunkUtil.getY(layer, j);
+                            if (y < getMinY() || y > getMaxY()) {
+                                continue;
+                            }
+                            int lx = ChunkUtil.getX(j);
+                            int lz = ChunkUtil.getZ(j);
+                            int x = sx + lx;
+                            int z = sz + lz;
+                            BaseBlock block = regenClipboard.getFullBlock(BlockVector3.at(x, y, z));
+                            if (block != null) {
+                                boolean edge = Settings.QUEUE.UPDATE_EDGES && isEdgeRegen(lx, lz, blockVector2);
+                                placeBlock(section, j, x, y, z, block, blockVector2, edge);
                             }
                         }
+                        writeSection(writer, section, layer << 4, blockVector2);
                     }
                 }
                 // Allow regen and then blocks to be placed (plot schematic etc)
                 if (localChunk == null) {
+                    recordBulkWrite(writer, start);
                     return;
                 }
-                for (int layer = 0; layer < localChunk.getBaseblocks().length; layer++) {
-                    BaseBlock[] blocksLayer = localChunk.getBaseblocks()[layer];
-                    if (blocksLayer == null) {
+                // Only chunks with sections filled with a single block are compared with a snapshot
+                final BaseBlock[] uniforms = Settings.QUEUE.SKIP_UNCHANGED_SECTIONS && !isRegenChunk
+                        ? getUniformSections(localChunk)
+                        : null;
+                final ChunkSnapshot snapshot = uniforms != null ? getChunkSnapshot(blockVector2) : null;
+                for (int layer = 0; layer < localChunk.getSectionCount(); layer++) {
+                    if (!localChunk.hasBlocks(layer)) {
                         continue;
                     }
-                    for (int j = 0; j < blocksLayer.length; j++) {
-                        if (blocksLayer[j] == null) {
-                            continue;
-                        }
-                        BaseBlock block = blocksLayer[j];
-
+                    if (snapshot != null && uniforms[layer] != null && isSectionUnchanged(snapshot, layer, uniforms[layer])) {
+                        this.sectionsUnchanged++;
+                        continue;
+                    }
+                    for (int j = 0; j < 4096; j++) {
+                        BaseBlock block = localChunk.getBlock(layer, j);
                         if (block != null) {
                             int lx = ChunkUtil.getX(j);
                             int lz = ChunkUtil.getZ(j);
@@ -173,28 +207,28 @@ public class BukkitQueueCoordinator extends BasicQueueCoordinator {
                             boolean edge = Settings.QUEUE.UPDATE_EDGES && isEdge(y >> 4, lx, y & 15, lz, blockVector2,
                                     localChunk
                             );
-                            setWorldBlock(x, y, z, block, blockVector2, edge);
+                            placeBlock(section, j, x, y, z, block, blockVector2, edge);
                         }
                     }
+                    writeSection(writer, section, (layer + localChunk.getMinSection()) << 4, blockVector2);
                 }
-                for (int layer = 0; layer < localChunk.getBiomes().length; layer++) {
-                    BiomeType[] biomesLayer = localChunk.getBiomes()[layer];
-                    if (biomesLayer == null) {
+                for (int layer = 0; layer < localChunk.getSectionCount(); layer++) {
+                    if (!localChunk.hasBiomes(layer)) {
                         continue;
                     }
-                    for (int j = 0; j < biomesLayer.length; j++) {
-                        if (biomesLayer[j] == null) {
-                            continue;
-                        }
-                        BiomeType biome = biomesLayer[j];
+                    for (int j = 0; j < 4096; j++) {
+                        BiomeType biome = localChunk.getBiome(layer, j);
                         if (biome != null) {
-                            int x = sx + ChunkUtil.getX(j);
-                            int y = ChunkUtil.getY(layer, j);
-                            int z = sz + ChunkUtil.getZ(j);
-                            getWorld().setBiome(BlockVector3.at(x, y, z), biome);
+                            int lx = ChunkUtil.getX(j);
+                            int y = ChunkUtil.getY(layer + localChunk.getMinSection(), j);
+                            int lz = ChunkUtil.getZ(j);
+                            if (writer == null || !writer.setBiome(lx, y, lz, biome)) {
+                                getWorld().setBiome(BlockVector3.at(sx + lx, y, sz + lz), biome);
+                            }
                         }
                     }
                 }
+                recordBulkWrite(writer, start);
                 if (localChunk.getTiles().size() > 0) {
                     localChunk.getTiles().forEach((blockVector3, tag) -> {
                         try {
@@ -221,18 +255,166 @@ public class BukkitQueueCoordinator extends BasicQueueCoordinator {
                         .inWorld(getWorld())
                         .withChunks(getBlockChunks().keySet())
                         .withChunks(read)
-                        .withInitialBatchSize(3)
-                        .withMaxIterationTime(40)
                         .withThrowableConsumer(Throwable::printStackTrace)
-                        .withFinalAction(getCompleteTask())
+                        .withFinalAction(getFinalAction())
                         .withConsumer(consumer)
                         .unloadAfter(isUnloadAfter())
                         .withProgressSubscribers(getProgressSubscribers())
+                        .withPriority(getPriority())
                         .forceSync(isForceSync())
                         .build();
         return super.enqueue();
     }
 
+    /**
+     * Get a writer that applies whole sections to the loaded chunk, or {@code null} if blocks must be set through
+     * WorldEdit one at a time
+     */
+    private @Nullable BulkChunkWriter createBulkWriter(@NonNull BlockVector2 blockVector2) {
+        if (!Settings.QUEUE.BULK_WRITES || getSideEffectSet() != null
+                || !PlotSquared.get().isMainThread(Thread.currentThread())) {
+            return null;
+        }
+        final Chunk chunk;
+        if (getChunkObject() instanceof Chunk chunkObject
+                && chunkObject.getX() == blockVector2.getX() && chunkObject.getZ() == blockVector2.getZ()) {
+            chunk = chunkObject;
+        } else if (getBukkitWorld().isChunkLoaded(blockVector2.getX(), blockVector2.getZ())) {
+            chunk = getBukkitWorld().getChunkAt(blockVector2.getX(), blockVector2.getZ());
+        } else {
+            return null;
+        }
+        return BulkChunkWriter.create(chunk, getWorld(), getLightingMode(), getSideEffectSet(SideEffectState.NONE));
+    }
+
+    /**
+     * Place a block into the section buffer of the bulk writer if there is one, and through WorldEdit otherwise. Edge
+     * blocks always go through WorldEdit as they need to update their neighbours.
+     */
+    private void placeBlock(
+            @Nullable BaseBlock[] section, int j, int x, int y, int z, @NonNull BaseBlock block,
+            @NonNull BlockVector2 blockVector2, boolean edge
+    ) {
+        if (edge || section == null) {
+            setWorldBlock(x, y, z, block, blockVector2, edge);
+        } else {
+            section[j] = block;
+        }
+    }
+
+    /**
+     * Write and clear the buffered section. Blocks the writer rejects are set through WorldEdit.
+     */
+    private void writeSection(
+            @Nullable BulkChunkWriter writer, @Nullable BaseBlock[] section, int minY,
+            @NonNull BlockVector2 blockVector2
+    ) {
+        if (writer == null || section == null) {
+            return;
+        }
+        final int sx = blockVector2.getX() << 4;
+        final int sz = blockVector2.getZ() << 4;
+        writer.writeSection(minY, section, j -> setWorldBlock(sx + ChunkUtil.getX(j), minY + ChunkUtil.getY(0, j),
+                sz + ChunkUtil.getZ(j), section[j], blockVector2, false
+        ));
+        Arrays.fill(section, null);
+    }
+
+    /**
+     * Get a snapshot of a loaded chunk to compare queued sections against, or {@code null} if the chunk is not loaded
+     * or this is not the main thread
+     */
+    private @Nullable ChunkSnapshot getChunkSnapshot(@NonNull BlockVector2 blockVector2) {
+        if (!PlotSquared.get().isMainThread(Thread.currentThread())) {
+            return null;
+        }
+        if (getChunkObject() instanceof Chunk chunkObject
+                && chunkObject.getX() == blockVector2.getX() && chunkObject.getZ() == blockVector2.getZ()) {
+            return chunkObject.getChunkSnapshot(false, false, false);
+        }
+        if (!getBukkitWorld().isChunkLoaded(blockVector2.getX(), blockVector2.getZ())) {
+            return null;
+        }
+        return getBukkitWorld().getChunkAt(blockVector2.getX(), blockVector2.getZ()).getChunkSnapshot(false, false, false);
+    }
+
+    /**
+     * Get the blocks the sections of a chunk are filled with, for sections that can be compared with a snapshot
+     *
+     * @param localChunk queued chunk
+     * @return the block per section index, or {@code null} if no section is filled with a single block
+     */
+    private static @Nullable BaseBlock[] getUniformSections(@NonNull LocalChunk localChunk) {
+        BaseBlock[] uniforms = null;
+        for (int layer = 0; layer < localChunk.getSectionCount(); layer++) {
+            if (!localChunk.hasBlocks(layer)) {
+                continue;
+            }
+            final BaseBlock uniform = localChunk.getUniformBlock(layer);
+            if (uniform != null && !uniform.hasNbtData()) {
+                if (uniforms == null) {
+                    uniforms = new BaseBlock[localChunk.getSectionCount()];
+                }
+                uniforms[layer] = uniform;
+            }
+        }
+        return uniforms;
+    }
+
+    /**
+     * Check whether every block of a section already is the block the section is going to be filled with
+     *
+     * @param snapshot chunk snapshot
+     * @param layer    section index, where 0 is the lowest section of the world
+     * @param block    block the section is filled with
+     */
+    private boolean isSectionUnchanged(@NonNull ChunkSnapshot snapshot, int layer, @NonNull BaseBlock block) {
+        // Only plain air may use the empty section flag. Cave and void air are compared block by block,
+        // as an empty section may just as well consist of plain air.
+        if (block.getBlockType() == BlockTypes.AIR && snapshot.isSectionEmpty(layer)) {
+            return true;
+        }
+        final BlockData data = BukkitAdapter.adapt(block);
+        final int minY = getWorld().getMinY() + (layer << 4);
+        for (int y = minY; y < minY + 16; y++) {
+            for (int x = 0; x < 16; x++) {
+                for (int z = 0; z < 16; z++) {
+                    if (!snapshot.getBlockData(x, y, z).equals(data)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private void recordBulkWrite(@Nullable BulkChunkWriter writer, long start) {
+        if (writer != null) {
+            this.bulkWritten += writer.getWritten();
+            this.bulkUnchanged += writer.getUnchanged();
+        }
+        this.writeNanos += System.nanoTime() - start;
+    }
+
+    private @Nullable Runnable getFinalAction() {
+        final Runnable whenDone = getCompleteTask();
+        if (!Settings.DEBUG) {
+            return whenDone;
+        }
+        return () -> {
+            final long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(this.writeNanos));
+            LOGGER.info(
+                    "Queue in world {} wrote {} blocks directly ({} already matched, {} skipped in unchanged sections)"
+                            + " in {}ms, {} blocks/ms",
+                    getWorld().getName(), this.bulkWritten, this.bulkUnchanged, this.sectionsUnchanged * 4096, millis,
+                    (this.bulkWritten + this.bulkUnchanged + this.sectionsUnchanged * 4096) / millis
+            );
+            if (whenDone != null) {
+                whenDone.run();
+            }
+        };
+    }
+
     /**
      * Set a block to the world. First tries WNA but defaults to normal block setting methods if that fails
      */
@@ -301,63 +483,62 @@ public class BukkitQueueCoordinator extends BasicQueueCoordinator {
 
     private boolean isEdge(int layer, int x, int y, int z, BlockVector2 blockVector2, LocalChunk localChunk) {
         int layerIndex = (layer - localChunk.getMinSection());
-        if (layer == localChunk.getMinSection() || layerIndex == localChunk.getBaseblocks().length - 1) {
+        if (layer == localChunk.getMinSection() || layerIndex == localChunk.getSectionCount() - 1) {
             return false;
         }
         if (x == 0) {
             LocalChunk localChunkX = getBlockChunks().get(blockVector2.withX(blockVector2.getX() - 1));
-            if (localChunkX == null || localChunkX.getBaseblocks()[layerIndex] == null ||
-                    localChunkX.getBaseblocks()[layerIndex][ChunkUtil.getJ(15, y, z)] != null) {
+            if (localChunkX == null || !localChunkX.hasBlocks(layerIndex) ||
+                    localChunkX.getBlock(layerIndex, ChunkUtil.getJ(15, y, z)) != null) {
                 return true;
             }
         } else if (x == 15) {
             LocalChunk localChunkX = getBlockChunks().get(blockVector2.withX(blockVector2.getX() + 1));
-            if (localChunkX == null || localChunkX.getBaseblocks()[layerIndex] == null ||
-                    localChunkX.getBaseblocks()[layerIndex][ChunkUtil.getJ(0, y, z)] != null) {
+            if (localChunkX == null || !localChunkX.hasBlocks(layerIndex) ||
+                    localChunkX.getBlock(layerIndex, ChunkUtil.getJ(0, y, z)) != null) {
                 return true;
             }
         }
         if (z == 0) {
             LocalChunk localChunkZ = getBlockChunks().get(blockVector2.withZ(blockVector2.getZ() - 1));
-            if (localChunkZ == null || localChunkZ.getBaseblocks()[layerIndex] == null ||
-                    localChunkZ.getBaseblocks()[layerIndex][ChunkUtil.getJ(x, y, 15)] != null) {
+            if (localChunkZ == null || !localChunkZ.hasBlocks(layerIndex) ||
+                    localChunkZ.getBlock(layerIndex, ChunkUtil.getJ(x, y, 15)) != null) {
                 return true;
             }
         } else if (z == 15) {
             LocalChunk localChunkZ = getBlockChunks().get(blockVector2.withZ(blockVector2.getZ() + 1));
-            if (localChunkZ == null || localChunkZ.getBaseblocks()[layerIndex] == null ||
-                    localChunkZ.getBaseblocks()[layerIndex][ChunkUtil.getJ(x, y, 0)] != null) {
+            if (localChunkZ == null || !localChunkZ.hasBlocks(layerIndex) ||
+                    localChunkZ.getBlock(layerIndex, ChunkUtil.getJ(x, y, 0)) != null) {
                 return true;
             }
         }
         if (y == 0) {
-            if (localChunk.getBaseblocks()[layerIndex - 1] == null ||
-                    localChunk.getBaseblocks()[layerIndex][ChunkUtil.getJ(x, 15, z)] != null) {
+            if (!localChunk.hasBlocks(layerIndex - 1) ||
+                    localChunk.getBlock(layerIndex, ChunkUtil.getJ(x, 15, z)) != null) {
                 return true;
             }
         } else if (y == 15) {
-            if (localChunk.getBaseblocks()[layerIndex + 1] == null ||
-                    localChunk.getBaseblocks()[layerIndex][ChunkUtil.getJ(x, 0, z)] != null) {
+            if (!localChunk.hasBlocks(layerIndex + 1) ||
+                    localChunk.getBlock(layerIndex, ChunkUtil.getJ(x, 0, z)) != null) {
                 return true;
             }
         }
-        BaseBlock[] baseBlocks = localChunk.getBaseblocks()[layerIndex];
-        if (x > 0 && baseBlocks[ChunkUtil.getJ(x - 1, y, z)] == null) {
+        if (x > 0 && localChunk.getBlock(layerIndex, ChunkUtil.getJ(x - 1, y, z)) == null) {
             return true;
         }
-        if (x < 15 && baseBlocks[ChunkUtil.getJ(x + 1, y, z)] == null) {
+        if (x < 15 && localChunk.getBlock(layerIndex, ChunkUtil.getJ(x + 1, y, z)) == null) {
             return true;
         }
-        if (y > 0 && baseBlocks[ChunkUtil.getJ(x, y - 1, z)] == null) {
+        if (y > 0 && localChunk.getBlock(layerIndex, ChunkUtil.getJ(x, y - 1, z)) == null) {
             return true;
         }
-        if (y < 15 && baseBlocks[ChunkUtil.getJ(x, y + 1, z)] == null) {
+        if (y < 15 && localChunk.getBlock(layerIndex, ChunkUtil.getJ(x, y + 1, z)) == null) {
             return true;
         }
-        if (z > 0 && baseBlocks[ChunkUtil.getJ(x, y, z - 1)] == null) {
+        if (z > 0 && localChunk.getBlock(layerIndex, ChunkUtil.getJ(x, y, z - 1)) == null) {
             return true;
         }
-        return z < 15 && baseBlocks[ChunkUtil.getJ(x, y, z + 1)] == null;
+        return z < 15 && localChunk.getBlock(layerIndex, ChunkUtil.getJ(x, y, z + 1)) == null;
     }
 
     private boolean isEdgeRegen(int x, int z, BlockVector2 blockVector2) {
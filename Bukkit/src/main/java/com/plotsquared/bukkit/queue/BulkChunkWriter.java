@@ -0,0 +1,242 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.bukkit.queue;
+
+import com.plotsquared.core.queue.LightingMode;
+import com.plotsquared.core.util.ChunkUtil;
+import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.bukkit.WorldEditPlugin;
+import com.sk89q.worldedit.bukkit.adapter.BukkitImplAdapter;
+import com.sk89q.worldedit.internal.wna.WorldNativeAccess;
+import com.sk89q.worldedit.util.SideEffectSet;
+import com.sk89q.worldedit.world.World;
+import com.sk89q.worldedit.world.biome.BiomeType;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bukkit.Chunk;
+import org.bukkit.block.Biome;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.data.BlockData;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+/**
+ * Writes whole sections of blocks, and biomes, of a single loaded chunk. Conversions of WorldEdit blocks and biomes
+ * are cached for the lifetime of the writer, and blocks that already match the target are skipped.
+ * <p>
+ * Sections are written through WorldEdit's native world access when the WorldEdit adapter provides one, which only
+ * updates lighting where the {@link LightingMode} asks for it. Otherwise, blocks are written through the Bukkit chunk
+ * API, which always lets the server update lighting, so that is only used with {@link LightingMode#ALL}.
+ * <p>
+ * Either way, blocks are still stored one at a time: WorldEdit has no API to replace the palette of a native chunk
+ * section, so what is saved is the per block chunk lookup, state conversion and WorldEdit extent overhead.
+ * <p>
+ * Blocks with NBT data, and blocks replacing a tile entity, are rejected so that they can be placed through WorldEdit,
+ * which takes care of the tile entity data. Must only be used on the main thread.
+ */
+final class BulkChunkWriter {
+
+    private static final Logger LOGGER = LogManager.getLogger("PlotSquared/" + BulkChunkWriter.class.getSimpleName());
+
+    /**
+     * Native access by world UUID. The native access references its world, so entries are removed when the world is
+     * unloaded, see {@link #releaseWorld(UUID)}.
+     */
+    private static final Map<UUID, WorldNativeAccess<?, ?, ?>> NATIVE_ACCESS = new HashMap<>();
+    private static boolean nativeUnsupported;
+
+    private final Chunk chunk;
+    private final @Nullable NativeSectionWriter<?, ?, ?> nativeWriter;
+    private final Map<BaseBlock, BlockData> blockData = new HashMap<>();
+    private final Map<BiomeType, Biome> biomes = new HashMap<>();
+    private final Set<Long> tiles = new HashSet<>();
+    private int written;
+    private int unchanged;
+
+    private BulkChunkWriter(final @NonNull Chunk chunk, final @Nullable NativeSectionWriter<?, ?, ?> nativeWriter) {
+        this.chunk = chunk;
+        this.nativeWriter = nativeWriter;
+        for (final BlockState tile : chunk.getTileEntities()) {
+            this.tiles.add(key(tile.getX() & 15, tile.getY(), tile.getZ() & 15));
+        }
+    }
+
+    /**
+     * Create a writer for a loaded chunk
+     *
+     * @param chunk        chunk to write to
+     * @param world        WorldEdit world of the chunk
+     * @param lightingMode lighting mode of the queue
+     * @param sideEffects  side effects to apply to written blocks
+     * @return the writer, or {@code null} if blocks must be set through WorldEdit one at a time to honour the lighting
+     *         mode
+     */
+    static @Nullable BulkChunkWriter create(
+            final @NonNull Chunk chunk, final @NonNull World world, final @NonNull LightingMode lightingMode,
+            final @NonNull SideEffectSet sideEffects
+    ) {
+        final WorldNativeAccess<?, ?, ?> access = getNativeAccess(chunk.getWorld());
+        if (access != null) {
+            return new BulkChunkWriter(chunk, new NativeSectionWriter<>(access, chunk.getX(), chunk.getZ(), lightingMode,
+                    sideEffects, position -> world.getBlock(position).getBlockType().getMaterial().getLightValue()
+            ));
+        }
+        if (lightingMode == LightingMode.ALL) {
+            return new BulkChunkWriter(chunk, null);
+        }
+        return null;
+    }
+
+    /**
+     * Get the native access of a world, or {@code null} if the WorldEdit adapter does not provide one.
+     * <p>
+     * WorldEdit does not expose its Bukkit adapter publicly, so it is looked up reflectively. If that fails, the Bukkit
+     * chunk API is used for the rest of the session.
+     */
+    private static @Nullable WorldNativeAccess<?, ?, ?> getNativeAccess(final org.bukkit.@NonNull World world) {
+        if (nativeUnsupported) {
+            return null;
+        }
+        WorldNativeAccess<?, ?, ?> access = NATIVE_ACCESS.get(world.getUID());
+        if (access == null) {
+            try {
+                final Method getAdapter = WorldEditPlugin.class.getDeclaredMethod("getBukkitImplAdapter");
+                getAdapter.setAccessible(true);
+                if (!(getAdapter.invoke(WorldEditPlugin.getInstance()) instanceof BukkitImplAdapter<?> adapter)) {
+                    LOGGER.info("WorldEdit has no adapter for this server version, queued blocks are written through Bukkit");
+                    nativeUnsupported = true;
+                    return null;
+                }
+                access = adapter.createWorldNativeAccess(world);
+            } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+                LOGGER.warn("Failed to access WorldEdit's native world access, queued blocks are written through Bukkit", e);
+                nativeUnsupported = true;
+                return null;
+            }
+            NATIVE_ACCESS.put(world.getUID(), access);
+        }
+        return access;
+    }
+
+    /**
+     * Drop the cached native access of a world
+     *
+     * @param world UUID of the unloaded world
+     */
+    static void releaseWorld(final @NonNull UUID world) {
+        NATIVE_ACCESS.remove(world);
+    }
+
+    private static long key(final int x, final int y, final int z) {
+        return ((long) y << 8) | (x << 4) | z;
+    }
+
+    /**
+     * Write a section of blocks to the chunk
+     *
+     * @param minY     lowest y coordinate of the section
+     * @param blocks   blocks indexed by {@link ChunkUtil#getJ(int, int, int)}, {@code null} entries are left as they are.
+     *                 Rejected blocks are removed from the array.
+     * @param rejected receives the index of every block that could not be written and must be set through WorldEdit
+     *                 instead
+     */
+    void writeSection(final int minY, final @NonNull BaseBlock[] blocks, final @NonNull IntConsumer rejected) {
+        for (int j = 0; j < blocks.length; j++) {
+            final BaseBlock block = blocks[j];
+            if (block == null) {
+                continue;
+            }
+            final int x = ChunkUtil.getX(j);
+            final int y = ChunkUtil.getY(0, j) + minY;
+            final int z = ChunkUtil.getZ(j);
+            if (block.hasNbtData() || !this.tiles.isEmpty() && this.tiles.contains(key(x, y, z))) {
+                rejected.accept(j);
+                blocks[j] = null;
+            } else if (this.nativeWriter == null) {
+                this.setBlock(x, y, z, block);
+            }
+        }
+        if (this.nativeWriter != null) {
+            this.nativeWriter.write(minY, blocks, rejected);
+        }
+    }
+
+    private void setBlock(final int x, final int y, final int z, final @NonNull BaseBlock block) {
+        final BlockData data = this.blockData.computeIfAbsent(block, BukkitAdapter::adapt);
+        final Block existing = this.chunk.getBlock(x, y, z);
+        if (existing.getBlockData().equals(data)) {
+            this.unchanged++;
+            return;
+        }
+        existing.setBlockData(data, false);
+        this.written++;
+    }
+
+    /**
+     * Set a biome in the chunk
+     *
+     * @param x     chunk-relative x coordinate
+     * @param y     y coordinate
+     * @param z     chunk-relative z coordinate
+     * @param biome biome to set
+     * @return {@code false} if the biome is not known to Bukkit and must be set through WorldEdit instead
+     */
+    boolean setBiome(final int x, final int y, final int z, final @NonNull BiomeType biome) {
+        final Biome bukkitBiome = this.biomes.computeIfAbsent(biome, BulkChunkWriter::adapt);
+        if (bukkitBiome == null) {
+            return false;
+        }
+        this.chunk.getBlock(x, y, z).setBiome(bukkitBiome);
+        return true;
+    }
+
+    private static Biome adapt(final @NonNull BiomeType biome) {
+        try {
+            return BukkitAdapter.adapt(biome);
+        } catch (IllegalArgumentException ignored) {
+            // Custom (datapack) biomes are not part of the Bukkit enum
+            return null;
+        }
+    }
+
+    /**
+     * Get the number of blocks that were changed by this writer
+     */
+    int getWritten() {
+        return this.nativeWriter == null ? this.written : this.nativeWriter.getWritten();
+    }
+
+    /**
+     * Get the number of blocks that were skipped as they already matched
+     */
+    int getUnchanged() {
+        return this.nativeWriter == null ? this.unchanged : this.nativeWriter.getUnchanged();
+    }
+
+}
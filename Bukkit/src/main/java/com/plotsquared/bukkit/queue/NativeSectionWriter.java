@@ -0,0 +1,166 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.bukkit.queue;
+
+import com.plotsquared.core.queue.LightingMode;
+import com.plotsquared.core.util.ChunkUtil;
+import com.sk89q.worldedit.internal.wna.WorldNativeAccess;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.util.SideEffectSet;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Writes whole sections of a single chunk through WorldEdit's native world access. The native chunk is looked up once,
+ * every distinct block is converted to its native state once, and blocks that already match are skipped. Lighting is
+ * only updated where the {@link LightingMode} asks for it.
+ *
+ * @param <NC>  native chunk
+ * @param <NBS> native block state
+ * @param <NP>  native block position
+ */
+final class NativeSectionWriter<NC, NBS, NP> {
+
+    private final WorldNativeAccess<NC, NBS, NP> access;
+    private final NC chunk;
+    private final int blockX;
+    private final int blockZ;
+    private final LightingMode lightingMode;
+    private final SideEffectSet sideEffects;
+    private final ToIntFunction<BlockVector3> replacedLight;
+    private final Map<BaseBlock, NBS> natives = new HashMap<>();
+    private final Map<NBS, Integer> lightValues = new HashMap<>();
+    private final NBS[] section;
+    private int written;
+    private int unchanged;
+
+    /**
+     * @param access        native access of the world
+     * @param chunkX        chunk x coordinate
+     * @param chunkZ        chunk z coordinate
+     * @param lightingMode  lighting mode of the queue
+     * @param sideEffects   side effects to apply to written blocks
+     * @param replacedLight gets the light value of the block currently at a position, only used for
+     *                      {@link LightingMode#REPLACEMENT}
+     */
+    @SuppressWarnings("unchecked")
+    NativeSectionWriter(
+            final @NonNull WorldNativeAccess<NC, NBS, NP> access, final int chunkX, final int chunkZ,
+            final @NonNull LightingMode lightingMode, final @NonNull SideEffectSet sideEffects,
+            final @NonNull ToIntFunction<BlockVector3> replacedLight
+    ) {
+        this.access = access;
+        this.chunk = access.getChunk(chunkX, chunkZ);
+        this.blockX = chunkX << 4;
+        this.blockZ = chunkZ << 4;
+        this.lightingMode = lightingMode;
+        this.sideEffects = sideEffects;
+        this.replacedLight = replacedLight;
+        this.section = (NBS[]) new Object[4096];
+    }
+
+    /**
+     * Write a section of blocks
+     *
+     * @param minY     lowest y coordinate of the section
+     * @param blocks   blocks indexed by {@link ChunkUtil#getJ(int, int, int)}, {@code null} entries are left as they are
+     * @param rejected receives the index of every block that could not be written
+     */
+    void write(final int minY, final @NonNull BaseBlock[] blocks, final @NonNull IntConsumer rejected) {
+        for (int j = 0; j < blocks.length; j++) {
+            final BaseBlock block = blocks[j];
+            this.section[j] = block == null ? null : this.natives.computeIfAbsent(block, this::toNative);
+        }
+        this.writeNative(minY, this.section, rejected);
+    }
+
+    /**
+     * Write a section of native block states
+     *
+     * @param minY     lowest y coordinate of the section
+     * @param section  states indexed by {@link ChunkUtil#getJ(int, int, int)}, {@code null} entries are left as they are
+     * @param rejected receives the index of every block that could not be written
+     */
+    void writeNative(final int minY, final @NonNull NBS[] section, final @NonNull IntConsumer rejected) {
+        this.access.setCurrentSideEffectSet(this.sideEffects);
+        for (int j = 0; j < section.length; j++) {
+            final NBS state = section[j];
+            if (state == null) {
+                continue;
+            }
+            final int x = this.blockX + ChunkUtil.getX(j);
+            final int y = ChunkUtil.getY(0, j) + minY;
+            final int z = this.blockZ + ChunkUtil.getZ(j);
+            final NP position = this.access.getPosition(x, y, z);
+            final NBS previous = this.access.getBlockState(this.chunk, position);
+            if (previous.equals(state)) {
+                this.unchanged++;
+                continue;
+            }
+            final boolean lighting = this.isLighting(previous, state, x, y, z);
+            if (this.access.setBlockState(this.chunk, position, state) == null) {
+                rejected.accept(j);
+                continue;
+            }
+            if (lighting) {
+                this.access.updateLightingForBlock(position);
+            }
+            this.access.markAndNotifyBlock(position, this.chunk, previous, state, this.sideEffects);
+            this.written++;
+        }
+    }
+
+    private NBS toNative(final @NonNull BaseBlock block) {
+        final NBS state = this.access.toNative(block.toImmutableState());
+        this.lightValues.putIfAbsent(state, block.getBlockType().getMaterial().getLightValue());
+        return state;
+    }
+
+    private boolean isLighting(final @NonNull NBS previous, final @NonNull NBS state, final int x, final int y, final int z) {
+        return switch (this.lightingMode) {
+            case NONE -> false;
+            case PLACEMENT -> this.lightValues.getOrDefault(state, 0) > 0;
+            case REPLACEMENT -> this.lightValues.getOrDefault(state, 0) > 0 || this.lightValues.computeIfAbsent(
+                    previous,
+                    ignored -> this.replacedLight.applyAsInt(BlockVector3.at(x, y, z))
+            ) > 0;
+            case ALL -> true;
+        };
+    }
+
+    /**
+     * Get the number of blocks that were changed by this writer
+     */
+    int getWritten() {
+        return this.written;
+    }
+
+    /**
+     * Get the number of blocks that were skipped as they already matched
+     */
+    int getUnchanged() {
+        return this.unchanged;
+    }
+
+}
@@ -34,14 +34,11 @@ import com.plotsquared.core.queue.ScopedQueueCoordinator;
 import com.plotsquared.core.util.ChunkManager;
 import com.plotsquared.core.util.RegionManager;
 import com.plotsquared.core.util.WorldUtil;
-import com.plotsquared.core.util.entity.EntityCategories;
 import com.plotsquared.core.util.task.RunnableVal;
-import com.sk89q.worldedit.bukkit.BukkitAdapter;
 import com.sk89q.worldedit.bukkit.BukkitWorld;
 import com.sk89q.worldedit.regions.CuboidRegion;
 import com.sk89q.worldedit.world.block.BaseBlock;
 import com.sk89q.worldedit.world.block.BlockTypes;
-import io.papermc.lib.PaperLib;
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
 import org.bukkit.World;
@@ -55,25 +52,20 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
-import static com.plotsquared.core.util.entity.EntityCategories.CAP_ANIMAL;
-import static com.plotsquared.core.util.entity.EntityCategories.CAP_ENTITY;
-import static com.plotsquared.core.util.entity.EntityCategories.CAP_MISC;
-import static com.plotsquared.core.util.entity.EntityCategories.CAP_MOB;
-import static com.plotsquared.core.util.entity.EntityCategories.CAP_MONSTER;
-import static com.plotsquared.core.util.entity.EntityCategories.CAP_VEHICLE;
-
 @Singleton
 public class BukkitRegionManager extends RegionManager {
 
     private final GlobalBlockQueue blockQueue;
+    private final PlotEntityCounter entityCounter;
 
     @Inject
     public BukkitRegionManager(
             @NonNull WorldUtil worldUtil, @NonNull GlobalBlockQueue blockQueue, @NonNull
-            ProgressSubscriberFactory subscriberFactory
+            ProgressSubscriberFactory subscriberFactory, @NonNull PlotEntityCounter entityCounter
     ) {
         super(worldUtil, blockQueue, subscriberFactory);
         this.blockQueue = blockQueue;
+        this.entityCounter = entityCounter;
     }
 
     @Override
@@ -88,9 +80,9 @@ public class BukkitRegionManager extends RegionManager {
 
     @Override
     public int[] countEntities(@NonNull Plot plot) {
-        int[] existing = (int[]) plot.getMeta("EntityCount");
-        if (existing != null && (System.currentTimeMillis() - (long) plot.getMeta("EntityCountTime") < 1000)) {
-            return existing;
+        final int[] tracked = this.entityCounter.getCounts(plot);
+        if (tracked != null) {
+            return tracked;
         }
         PlotArea area = plot.getArea();
         World world = BukkitUtil.getWorld(area.getWorldName());
@@ -122,24 +114,23 @@ public class BukkitRegionManager extends RegionManager {
             }
         }
 
-        int[] count = new int[6];
+        final List<Entity> found = new ArrayList<>();
         if (doWhole) {
             for (Entity entity : entities) {
                 org.bukkit.Location location = entity.getLocation();
-                PaperLib.getChunkAtAsync(location).thenAccept(chunk -> {
-                    if (chunks.contains(chunk)) {
-                        int X = chunk.getX();
-                        int Z = chunk.getZ();
-                        if (X > bx && X < tx && Z > bz && Z < tz) {
-                            count(count, entity);
-                        } else {
-                            Plot other = area.getPlot(BukkitUtil.adapt(location));
-                            if (plot.equals(other)) {
-                                count(count, entity);
-                            }
-                        }
+                int X = location.getBlockX() >> 4;
+                int Z = location.getBlockZ() >> 4;
+                if (X < bx || X > tx || Z < bz || Z > tz) {
+                    continue;
+                }
+                if (X > bx && X < tx && Z > bz && Z < tz) {
+                    found.add(entity);
+                } else {
+                    Plot other = area.getPlot(BukkitUtil.adapt(location));
+                    if (plot.equals(other)) {
+                        found.add(entity);
                     }
-                });
+                }
             }
         } else {
             for (Chunk chunk : chunks) {
@@ -150,15 +141,15 @@ public class BukkitRegionManager extends RegionManager {
                     if (X == bx || X == tx || Z == bz || Z == tz) {
                         Plot other = area.getPlot(BukkitUtil.adapt(entity.getLocation()));
                         if (plot.equals(other)) {
-                            count(count, entity);
+                            found.add(entity);
                         }
                     } else {
-                        count(count, entity);
+                        found.add(entity);
                     }
                 }
             }
         }
-        return count;
+        return this.entityCounter.reconcile(plot, found);
     }
 
     @Override
@@ -322,25 +313,4 @@ public class BukkitRegionManager extends RegionManager {
         }
     }
 
-    private void count(int[] count, @NonNull Entity entity) {
-        final com.sk89q.worldedit.world.entity.EntityType entityType = BukkitAdapter.adapt(entity.getType());
-
-        if (EntityCategories.PLAYER.contains(entityType)) {
-            return;
-        } else if (EntityCategories.PROJECTILE.contains(entityType) || EntityCategories.OTHER.contains(entityType) || EntityCategories.HANGING
-                .contains(entityType)) {
-            count[CAP_MISC]++;
-        } else if (EntityCategories.ANIMAL.contains(entityType) || EntityCategories.VILLAGER.contains(entityType) || EntityCategories.TAMEABLE
-                .contains(entityType)) {
-            count[CAP_MOB]++;
-            count[CAP_ANIMAL]++;
-        } else if (EntityCategories.VEHICLE.contains(entityType)) {
-            count[CAP_VEHICLE]++;
-        } else if (EntityCategories.HOSTILE.contains(entityType)) {
-            count[CAP_MOB]++;
-            count[CAP_MONSTER]++;
-        }
-        count[CAP_ENTITY]++;
-    }
-
 }
@@ -0,0 +1,216 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.bukkit.util;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Per-plot entity counts, keyed by entity UUID so that no entity instances are retained. Each
+ * entity is stored with the bit set of the {@link com.plotsquared.core.util.entity.EntityCategories
+ * cap categories} it counts towards (bit {@code i} for category index {@code i}).
+ *
+ * @param <P> Plot type
+ */
+final class EntityCountIndex<P> {
+
+    static final int CATEGORIES = 6;
+
+    private final Map<P, Counts> counts = new HashMap<>();
+    private final Map<UUID, Counts> attributed = new HashMap<>();
+
+    /**
+     * Add a value to every category of a category bit set
+     *
+     * @param count      Counts per category, updated in place
+     * @param categories Category bit set
+     * @param delta      Value to add
+     */
+    static void apply(final int[] count, final int categories, final int delta) {
+        for (int i = 0; i < CATEGORIES; i++) {
+            if ((categories & (1 << i)) != 0) {
+                count[i] += delta;
+            }
+        }
+    }
+
+    /**
+     * Get the counts of a plot
+     *
+     * @param plot   Plot
+     * @param now    Current time in milliseconds
+     * @param maxAge Time after which counts have to be reconciled, in milliseconds
+     * @return a copy of the counts, or {@code null} if the plot is not tracked or has to be reconciled
+     */
+    int @Nullable [] getCounts(final @NonNull P plot, final long now, final long maxAge) {
+        final Counts counts = this.counts.get(plot);
+        if (counts == null || now - counts.reconciledAt > maxAge) {
+            return null;
+        }
+        return counts.count.clone();
+    }
+
+    /**
+     * Replace the counts of a plot with the result of a full scan. Plots that have not been
+     * reconciled for ten times the given age are dropped.
+     *
+     * @param plot     Plot
+     * @param entities Category bit set of every entity in the plot, by entity UUID
+     * @param now      Current time in milliseconds
+     * @param maxAge   Time after which counts have to be reconciled, in milliseconds
+     * @return a copy of the new counts
+     */
+    int @NonNull [] reconcile(
+            final @NonNull P plot,
+            final @NonNull Map<UUID, Integer> entities,
+            final long now,
+            final long maxAge
+    ) {
+        this.evictStale(now, maxAge * 10);
+        final Counts previous = this.counts.remove(plot);
+        if (previous != null) {
+            this.detach(previous);
+        }
+        final Counts counts = new Counts(now);
+        entities.forEach((uuid, categories) -> this.attribute(counts, uuid, categories));
+        this.counts.put(plot, counts);
+        return counts.count.clone();
+    }
+
+    /**
+     * @return {@code true} if no plot is tracked
+     */
+    boolean isEmpty() {
+        return this.counts.isEmpty();
+    }
+
+    /**
+     * @param uuid Entity UUID
+     * @return {@code true} if the entity is counted for a plot
+     */
+    boolean contains(final @NonNull UUID uuid) {
+        return this.attributed.containsKey(uuid);
+    }
+
+    /**
+     * Count an entity for a plot, if the plot is tracked and the entity is not counted yet
+     *
+     * @param plot       Plot the entity is in
+     * @param uuid       Entity UUID
+     * @param categories Category bit set of the entity
+     */
+    void add(final @NonNull P plot, final @NonNull UUID uuid, final int categories) {
+        if (this.attributed.containsKey(uuid)) {
+            return;
+        }
+        final Counts counts = this.counts.get(plot);
+        if (counts != null) {
+            this.attribute(counts, uuid, categories);
+        }
+    }
+
+    /**
+     * Stop counting an entity
+     *
+     * @param uuid Entity UUID
+     */
+    void remove(final @NonNull UUID uuid) {
+        final Counts counts = this.attributed.remove(uuid);
+        if (counts != null) {
+            final Integer categories = counts.entities.remove(uuid);
+            if (categories != null) {
+                apply(counts.count, categories, -1);
+            }
+        }
+    }
+
+    /**
+     * Stop counting every entity that no longer exists
+     *
+     * @param exists Whether the entity with the given UUID still exists
+     * @return the number of entities that were removed
+     */
+    int prune(final @NonNull Predicate<UUID> exists) {
+        int removed = 0;
+        final Iterator<Map.Entry<UUID, Counts>> iterator = this.attributed.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<UUID, Counts> entry = iterator.next();
+            if (!exists.test(entry.getKey())) {
+                iterator.remove();
+                final Counts counts = entry.getValue();
+                final Integer categories = counts.entities.remove(entry.getKey());
+                if (categories != null) {
+                    apply(counts.count, categories, -1);
+                }
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private void attribute(final @NonNull Counts counts, final @NonNull UUID uuid, final int categories) {
+        if (counts.entities.putIfAbsent(uuid, categories) == null) {
+            apply(counts.count, categories, 1);
+            final Counts previous = this.attributed.put(uuid, counts);
+            if (previous != null && previous != counts) {
+                final Integer previousCategories = previous.entities.remove(uuid);
+                if (previousCategories != null) {
+                    apply(previous.count, previousCategories, -1);
+                }
+            }
+        }
+    }
+
+    private void detach(final @NonNull Counts counts) {
+        for (final UUID uuid : counts.entities.keySet()) {
+            this.attributed.remove(uuid, counts);
+        }
+    }
+
+    private void evictStale(final long now, final long maxAge) {
+        // Plots that have not been reconciled for a while are no longer checked for caps
+        final Iterator<Counts> iterator = this.counts.values().iterator();
+        while (iterator.hasNext()) {
+            final Counts counts = iterator.next();
+            if (now - counts.reconciledAt > maxAge) {
+                iterator.remove();
+                this.detach(counts);
+            }
+        }
+    }
+
+    private static final class Counts {
+
+        private final int[] count = new int[CATEGORIES];
+        private final Map<UUID, Integer> entities = new HashMap<>();
+        private final long reconciledAt;
+
+        private Counts(final long reconciledAt) {
+            this.reconciledAt = reconciledAt;
+        }
+
+    }
+
+}
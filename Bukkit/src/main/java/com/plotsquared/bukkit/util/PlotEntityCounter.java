@@ -0,0 +1,167 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.bukkit.util;
+
+import com.google.inject.Singleton;
+import com.plotsquared.core.configuration.Settings;
+import com.plotsquared.core.location.Location;
+import com.plotsquared.core.plot.Plot;
+import com.plotsquared.core.plot.PlotArea;
+import com.plotsquared.core.util.entity.EntityCategories;
+import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.plotsquared.core.util.entity.EntityCategories.CAP_ANIMAL;
+import static com.plotsquared.core.util.entity.EntityCategories.CAP_ENTITY;
+import static com.plotsquared.core.util.entity.EntityCategories.CAP_MISC;
+import static com.plotsquared.core.util.entity.EntityCategories.CAP_MOB;
+import static com.plotsquared.core.util.entity.EntityCategories.CAP_MONSTER;
+import static com.plotsquared.core.util.entity.EntityCategories.CAP_VEHICLE;
+
+/**
+ * Keeps per-plot entity counts up to date from entity events, so entity cap checks do not
+ * have to scan the chunks of a plot on every spawn.
+ * <p>
+ * A plot is only tracked once its entities have been counted by a full scan. Afterwards,
+ * entities spawned or loaded in the plot are added to its counts and removed again when they
+ * die, despawn, are picked up or are unloaded. Entities are attributed to the plot they were
+ * first seen in; counts are replaced by a full scan once they are older than
+ * {@link Settings.General#ENTITY_COUNT_RECONCILE_INTERVAL}. Entities are tracked by their UUID
+ * only, no entity instances are retained.
+ * <p>
+ * Only Paper reports every entity removal. Elsewhere, {@link #prune()} has to be called
+ * periodically to drop tracked entities that were removed without an event.
+ */
+@Singleton
+public class PlotEntityCounter {
+
+    private final EntityCountIndex<Plot> index = new EntityCountIndex<>();
+
+    /**
+     * Get the {@link EntityCategories cap categories} an entity counts towards, as a bit set
+     * with bit {@code i} set for category index {@code i}
+     *
+     * @param entity Entity
+     * @return Category bit set
+     * @since 6.11.0
+     */
+    public static int getCategories(final @NonNull Entity entity) {
+        final com.sk89q.worldedit.world.entity.EntityType entityType = BukkitAdapter.adapt(entity.getType());
+
+        int categories = 0;
+        if (EntityCategories.PLAYER.contains(entityType)) {
+            return categories;
+        } else if (EntityCategories.PROJECTILE.contains(entityType) || EntityCategories.OTHER.contains(entityType) || EntityCategories.HANGING
+                .contains(entityType)) {
+            categories |= 1 << CAP_MISC;
+        } else if (EntityCategories.ANIMAL.contains(entityType) || EntityCategories.VILLAGER.contains(entityType) || EntityCategories.TAMEABLE
+                .contains(entityType)) {
+            categories |= 1 << CAP_MOB;
+            categories |= 1 << CAP_ANIMAL;
+        } else if (EntityCategories.VEHICLE.contains(entityType)) {
+            categories |= 1 << CAP_VEHICLE;
+        } else if (EntityCategories.HOSTILE.contains(entityType)) {
+            categories |= 1 << CAP_MOB;
+            categories |= 1 << CAP_MONSTER;
+        }
+        categories |= 1 << CAP_ENTITY;
+        return categories;
+    }
+
+    /**
+     * Get the tracked entity counts of a plot
+     *
+     * @param plot Plot (not including connected plots)
+     * @return a copy of the counts, or {@code null} if the plot is not tracked or its counts
+     *         need to be reconciled
+     */
+    public synchronized int[] getCounts(final @NonNull Plot plot) {
+        return this.index.getCounts(plot, System.currentTimeMillis(), getMaxAge());
+    }
+
+    /**
+     * Replace the tracked counts of a plot with the result of a full scan
+     *
+     * @param plot     Plot (not including connected plots)
+     * @param entities Entities found in the plot
+     * @return the counts of the given entities
+     */
+    public synchronized int[] reconcile(final @NonNull Plot plot, final @NonNull Collection<Entity> entities) {
+        final Map<UUID, Integer> categories = new HashMap<>(entities.size());
+        for (final Entity entity : entities) {
+            categories.put(entity.getUniqueId(), getCategories(entity));
+        }
+        return this.index.reconcile(plot, categories, System.currentTimeMillis(), getMaxAge());
+    }
+
+    /**
+     * Count an entity that was spawned or loaded, if the plot it is in is tracked
+     *
+     * @param entity Entity
+     */
+    public synchronized void add(final @NonNull Entity entity) {
+        if (this.index.isEmpty() || this.index.contains(entity.getUniqueId())) {
+            return;
+        }
+        final Location location = BukkitUtil.adapt(entity.getLocation());
+        final PlotArea area = location.getPlotArea();
+        if (area == null) {
+            return;
+        }
+        final Plot plot = area.getPlotAbs(location);
+        if (plot != null) {
+            this.index.add(plot, entity.getUniqueId(), getCategories(entity));
+        }
+    }
+
+    /**
+     * Stop counting an entity that died, was removed or unloaded
+     *
+     * @param entity Entity
+     */
+    public synchronized void remove(final @NonNull Entity entity) {
+        this.index.remove(entity.getUniqueId());
+    }
+
+    /**
+     * Stop counting entities that were removed without an event. Must be called from the main
+     * thread.
+     *
+     * @since 6.11.0
+     */
+    public synchronized void prune() {
+        this.index.prune(uuid -> {
+            final Entity entity = Bukkit.getEntity(uuid);
+            return entity != null && entity.isValid();
+        });
+    }
+
+    private static long getMaxAge() {
+        return TimeUnit.SECONDS.toMillis(Settings.General.ENTITY_COUNT_RECONCILE_INTERVAL);
+    }
+
+}
@@ -21,6 +21,7 @@ package com.plotsquared.bukkit.util.fawe;
 import com.fastasyncworldedit.bukkit.regions.plotsquared.FaweDelegateRegionManager;
 import com.google.inject.Inject;
 import com.plotsquared.bukkit.util.BukkitRegionManager;
+import com.plotsquared.bukkit.util.PlotEntityCounter;
 import com.plotsquared.core.configuration.Settings;
 import com.plotsquared.core.generator.HybridPlotManager;
 import com.plotsquared.core.inject.factory.ProgressSubscriberFactory;
@@ -48,9 +49,9 @@ public class FaweRegionManager extends BukkitRegionManager {
     @Inject
     public FaweRegionManager(
             @NonNull WorldUtil worldUtil, @NonNull GlobalBlockQueue blockQueue, @NonNull
-            ProgressSubscriberFactory subscriberFactory
+            ProgressSubscriberFactory subscriberFactory, @NonNull PlotEntityCounter entityCounter
     ) {
-        super(worldUtil, blockQueue, subscriberFactory);
+        super(worldUtil, blockQueue, subscriberFactory, entityCounter);
     }
 
     @Override
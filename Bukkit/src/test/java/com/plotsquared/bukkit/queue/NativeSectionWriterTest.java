@@ -0,0 +1,299 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.bukkit.queue;
+
+import com.plotsquared.core.queue.LightingMode;
+import com.plotsquared.core.util.ChunkUtil;
+import com.sk89q.jnbt.CompoundTag;
+import com.sk89q.worldedit.internal.wna.WorldNativeAccess;
+import com.sk89q.worldedit.util.SideEffectSet;
+import com.sk89q.worldedit.world.block.BlockState;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class NativeSectionWriterTest {
+
+    private static final Logger LOGGER = LogManager.getLogger("PlotSquared/" + NativeSectionWriterTest.class.getSimpleName());
+
+    private static final String STONE = "stone";
+    private static final String DIRT = "dirt";
+
+    @Test
+    public void writesOnlyChangedBlocks() {
+        FakeAccess access = new FakeAccess();
+        String[] section = filled(STONE);
+        section[ChunkUtil.getJ(3, 4, 5)] = null;
+        access.fill(0, 0, 0, DIRT);
+        access.set(0, 0, 0, 1, 2, 3, STONE);
+
+        NativeSectionWriter<FakeChunk, String, Position> writer = writer(access, 0, 0, LightingMode.NONE);
+        List<Integer> rejected = new ArrayList<>();
+        writer.writeNative(0, section, rejected::add);
+
+        Assertions.assertTrue(rejected.isEmpty());
+        Assertions.assertEquals(4094, writer.getWritten());
+        Assertions.assertEquals(1, writer.getUnchanged());
+        Assertions.assertEquals(DIRT, access.get(0, 0, 3, 4, 5));
+        Assertions.assertEquals(STONE, access.get(0, 0, 15, 15, 15));
+        Assertions.assertEquals(4094, access.marked);
+    }
+
+    @Test
+    public void writesToChunkAndHeight() {
+        FakeAccess access = new FakeAccess();
+        NativeSectionWriter<FakeChunk, String, Position> writer = writer(access, -2, 3, LightingMode.NONE);
+        String[] section = new String[4096];
+        section[ChunkUtil.getJ(1, 2, 3)] = STONE;
+        writer.writeNative(-64, section, j -> Assertions.fail());
+
+        Assertions.assertEquals(STONE, access.blocks.get(new Position(-32 + 1, -64 + 2, 48 + 3)));
+        Assertions.assertEquals(1, access.blocks.size());
+    }
+
+    @Test
+    public void rejectsBlocksTheChunkRefuses() {
+        FakeAccess access = new FakeAccess();
+        access.refuse = DIRT;
+        NativeSectionWriter<FakeChunk, String, Position> writer = writer(access, 0, 0, LightingMode.NONE);
+        String[] section = new String[4096];
+        section[7] = DIRT;
+        section[8] = STONE;
+        List<Integer> rejected = new ArrayList<>();
+        writer.writeNative(0, section, rejected::add);
+
+        Assertions.assertEquals(List.of(7), rejected);
+        Assertions.assertEquals(1, writer.getWritten());
+    }
+
+    @Test
+    public void lightingFollowsMode() {
+        FakeAccess none = new FakeAccess();
+        writer(none, 0, 0, LightingMode.NONE).writeNative(0, filled(STONE), j -> {
+        });
+        Assertions.assertEquals(0, none.lit);
+
+        FakeAccess all = new FakeAccess();
+        NativeSectionWriter<FakeChunk, String, Position> writer = writer(all, 0, 0, LightingMode.ALL);
+        writer.writeNative(0, filled(STONE), j -> {
+        });
+        // blocks that already match are not relit
+        writer.writeNative(0, filled(STONE), j -> {
+        });
+        Assertions.assertEquals(4096, all.lit);
+
+        FakeAccess replacement = new FakeAccess();
+        replacement.fill(0, 0, 0, DIRT);
+        List<Integer> lookups = new ArrayList<>();
+        new NativeSectionWriter<>(replacement, 0, 0, LightingMode.REPLACEMENT, SideEffectSet.none(), position -> {
+            lookups.add(position.getBlockY());
+            return 15;
+        }).writeNative(0, filled(STONE), j -> {
+        });
+        // the light value of the replaced state is looked up once
+        Assertions.assertEquals(1, lookups.size());
+        Assertions.assertEquals(4096, replacement.lit);
+    }
+
+    /**
+     * Compares writing sections with setting every block on its own through the native access, the way
+     * {@link WorldNativeAccess#setBlock} does, and logs the blocks per millisecond of both.
+     */
+    @Test
+    public void benchmarkBlocksPerMillisecond() {
+        final int chunks = 64;
+        final int sections = 8;
+        final int rounds = 5;
+        String[] section = filled(STONE);
+
+        long perBlockNanos = Long.MAX_VALUE;
+        long sectionNanos = Long.MAX_VALUE;
+        for (int round = 0; round < rounds; round++) {
+            FakeAccess perBlock = new FakeAccess();
+            long start = System.nanoTime();
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                for (int layer = 0; layer < sections; layer++) {
+                    for (int j = 0; j < 4096; j++) {
+                        setBlock(perBlock, chunk, ChunkUtil.getX(j) + (chunk << 4), ChunkUtil.getY(layer, j),
+                                ChunkUtil.getZ(j), section[j]
+                        );
+                    }
+                }
+            }
+            perBlockNanos = Math.min(perBlockNanos, System.nanoTime() - start);
+
+            FakeAccess bulk = new FakeAccess();
+            start = System.nanoTime();
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                NativeSectionWriter<FakeChunk, String, Position> writer = writer(bulk, chunk, 0, LightingMode.NONE);
+                for (int layer = 0; layer < sections; layer++) {
+                    writer.writeNative(layer << 4, section, j -> {
+                    });
+                }
+            }
+            sectionNanos = Math.min(sectionNanos, System.nanoTime() - start);
+            Assertions.assertEquals(perBlock.blocks, bulk.blocks);
+        }
+        long blocks = (long) chunks * sections * 4096;
+        LOGGER.info("Per block: {} blocks/ms, sections: {} blocks/ms",
+                blocks * 1_000_000 / Math.max(1, perBlockNanos), blocks * 1_000_000 / Math.max(1, sectionNanos)
+        );
+    }
+
+    /**
+     * Set a block the way {@link WorldNativeAccess#setBlock} does
+     */
+    private static void setBlock(FakeAccess access, int chunkX, int x, int y, int z, String state) {
+        FakeChunk chunk = access.getChunk(chunkX, 0);
+        Position position = access.getPosition(x, y, z);
+        String previous = access.getBlockState(chunk, position);
+        if (access.setBlockState(chunk, position, state) != null) {
+            access.markAndNotifyBlock(position, chunk, previous, state, SideEffectSet.none());
+        }
+    }
+
+    private static NativeSectionWriter<FakeChunk, String, Position> writer(
+            FakeAccess access, int chunkX, int chunkZ, LightingMode lightingMode
+    ) {
+        return new NativeSectionWriter<>(access, chunkX, chunkZ, lightingMode, SideEffectSet.none(), position -> 0);
+    }
+
+    private static String[] filled(String state) {
+        String[] section = new String[4096];
+        Arrays.fill(section, state);
+        return section;
+    }
+
+    private record Position(int x, int y, int z) {
+
+    }
+
+    private static final class FakeChunk {
+
+    }
+
+    /**
+     * In-memory world, where unset blocks are air
+     */
+    private static final class FakeAccess implements WorldNativeAccess<FakeChunk, String, Position> {
+
+        private final Map<Long, FakeChunk> chunks = new HashMap<>();
+        private final Map<Position, String> blocks = new HashMap<>();
+        private String refuse;
+        private int lit;
+        private int marked;
+
+        void fill(int chunkX, int chunkZ, int minY, String state) {
+            for (int j = 0; j < 4096; j++) {
+                set(chunkX, chunkZ, ChunkUtil.getX(j), ChunkUtil.getY(0, j) + minY, ChunkUtil.getZ(j), state);
+            }
+        }
+
+        void set(int chunkX, int chunkZ, int x, int y, int z, String state) {
+            blocks.put(new Position((chunkX << 4) + x, y, (chunkZ << 4) + z), state);
+        }
+
+        String get(int chunkX, int chunkZ, int x, int y, int z) {
+            return blocks.get(new Position((chunkX << 4) + x, y, (chunkZ << 4) + z));
+        }
+
+        @Override
+        public void setCurrentSideEffectSet(SideEffectSet sideEffectSet) {
+        }
+
+        @Override
+        public FakeChunk getChunk(int x, int z) {
+            return chunks.computeIfAbsent(((long) x << 32) | (z & 0xFFFFFFFFL), key -> new FakeChunk());
+        }
+
+        @Override
+        public String toNative(BlockState state) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getBlockState(FakeChunk chunk, Position position) {
+            return blocks.getOrDefault(position, "air");
+        }
+
+        @Override
+        public String setBlockState(FakeChunk chunk, Position position, String state) {
+            if (state.equals(refuse)) {
+                return null;
+            }
+            String previous = blocks.put(position, state);
+            return previous == null ? "air" : previous;
+        }
+
+        @Override
+        public String getValidBlockForPosition(String block, Position position) {
+            return block;
+        }
+
+        @Override
+        public Position getPosition(int x, int y, int z) {
+            return new Position(x, y, z);
+        }
+
+        @Override
+        public void updateLightingForBlock(Position position) {
+            lit++;
+        }
+
+        @Override
+        public boolean updateTileEntity(Position position, CompoundTag tag) {
+            return false;
+        }
+
+        @Override
+        public void notifyBlockUpdate(FakeChunk chunk, Position position, String oldState, String newState) {
+        }
+
+        @Override
+        public boolean isChunkTicking(FakeChunk chunk) {
+            return true;
+        }
+
+        @Override
+        public void markBlockChanged(FakeChunk chunk, Position position) {
+            marked++;
+        }
+
+        @Override
+        public void notifyNeighbors(Position pos, String oldState, String newState) {
+        }
+
+        @Override
+        public void updateNeighbors(Position pos, String oldState, String newState, int recursionLimit) {
+        }
+
+        @Override
+        public void onBlockStateChange(Position pos, String oldState, String newState) {
+        }
+
+    }
+
+}
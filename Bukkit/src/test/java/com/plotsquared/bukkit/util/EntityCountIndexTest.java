@@ -0,0 +1,196 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.bukkit.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+public class EntityCountIndexTest {
+
+    private static final long MAX_AGE = 60_000L;
+    // Category bit sets as produced by PlotEntityCounter#getCategories
+    private static final int MISC = 0b100001;
+    private static final int ANIMAL = 0b001011;
+    private static final int VEHICLE = 0b010001;
+    private static final int MONSTER = 0b001101;
+    private static final int[] KINDS = {MISC, ANIMAL, VEHICLE, MONSTER, 0};
+
+    private long lastId;
+
+    /**
+     * Count entities the way BukkitRegionManager#countEntities did before counts were tracked,
+     * by adding every entity found in the plot to the categories it belongs to
+     */
+    private static int[] countEntities(final String plot, final Map<UUID, Entity> world) {
+        final int[] count = new int[EntityCountIndex.CATEGORIES];
+        for (final Entity entity : world.values()) {
+            if (!entity.plot.equals(plot)) {
+                continue;
+            }
+            for (int i = 0; i < count.length; i++) {
+                if ((entity.categories & (1 << i)) != 0) {
+                    count[i]++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static Map<UUID, Integer> scan(final String plot, final Map<UUID, Entity> world) {
+        final Map<UUID, Integer> found = new HashMap<>();
+        world.forEach((uuid, entity) -> {
+            if (entity.plot.equals(plot)) {
+                found.put(uuid, entity.categories);
+            }
+        });
+        return found;
+    }
+
+    private Entity spawn(final Map<UUID, Entity> world, final String plot, final int categories) {
+        final Entity entity = new Entity(new UUID(0, ++this.lastId), plot, categories);
+        world.put(entity.uuid, entity);
+        return entity;
+    }
+
+    @Test
+    public void testReconcileMatchesCountEntities() {
+        final Random random = new Random(1);
+        final Map<UUID, Entity> world = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            spawn(world, "plot-" + random.nextInt(3), KINDS[random.nextInt(KINDS.length)]);
+        }
+        final EntityCountIndex<String> index = new EntityCountIndex<>();
+        for (int plot = 0; plot < 3; plot++) {
+            final String id = "plot-" + plot;
+            final int[] expected = countEntities(id, world);
+            Assertions.assertArrayEquals(expected, index.reconcile(id, scan(id, world), 0, MAX_AGE));
+            Assertions.assertArrayEquals(expected, index.getCounts(id, 0, MAX_AGE));
+        }
+    }
+
+    @Test
+    public void testEventsMatchCountEntities() {
+        final Random random = new Random(2);
+        final Map<UUID, Entity> world = new HashMap<>();
+        final EntityCountIndex<String> index = new EntityCountIndex<>();
+        index.reconcile("a", scan("a", world), 0, MAX_AGE);
+        index.reconcile("b", scan("b", world), 0, MAX_AGE);
+        final List<Entity> alive = new ArrayList<>();
+        for (int step = 0; step < 1000; step++) {
+            if (alive.isEmpty() || random.nextInt(3) > 0) {
+                final Entity entity = spawn(world, random.nextBoolean() ? "a" : "b", KINDS[random.nextInt(KINDS.length)]);
+                alive.add(entity);
+                index.add(entity.plot, entity.uuid, entity.categories);
+            } else {
+                final Entity entity = alive.remove(random.nextInt(alive.size()));
+                world.remove(entity.uuid);
+                index.remove(entity.uuid);
+            }
+            Assertions.assertArrayEquals(countEntities("a", world), index.getCounts("a", 0, MAX_AGE));
+            Assertions.assertArrayEquals(countEntities("b", world), index.getCounts("b", 0, MAX_AGE));
+        }
+    }
+
+    @Test
+    public void testPruneMatchesCountEntities() {
+        final Random random = new Random(3);
+        final Map<UUID, Entity> world = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            spawn(world, "a", KINDS[random.nextInt(KINDS.length)]);
+        }
+        final EntityCountIndex<String> index = new EntityCountIndex<>();
+        index.reconcile("a", scan("a", world), 0, MAX_AGE);
+
+        // Entities removed without an event are still counted until they are pruned
+        final List<UUID> removed = new ArrayList<>(world.keySet()).subList(0, 40);
+        removed.forEach(world::remove);
+        Assertions.assertEquals(40, index.prune(world::containsKey));
+        Assertions.assertArrayEquals(countEntities("a", world), index.getCounts("a", 0, MAX_AGE));
+        Assertions.assertEquals(0, index.prune(world::containsKey));
+        // Removal events for pruned entities are ignored
+        removed.forEach(index::remove);
+        Assertions.assertArrayEquals(countEntities("a", world), index.getCounts("a", 0, MAX_AGE));
+    }
+
+    @Test
+    public void testMovedEntityIsReattributedOnReconcile() {
+        final Map<UUID, Entity> world = new HashMap<>();
+        final Entity entity = spawn(world, "a", MONSTER);
+        spawn(world, "b", ANIMAL);
+        final EntityCountIndex<String> index = new EntityCountIndex<>();
+        index.reconcile("a", scan("a", world), 0, MAX_AGE);
+        index.reconcile("b", scan("b", world), 0, MAX_AGE);
+
+        // Moving does not fire an event, the entity stays attributed to the plot it was seen in
+        entity.plot = "b";
+        index.add("b", entity.uuid, entity.categories);
+        Assertions.assertArrayEquals(new int[]{1, 0, 1, 1, 0, 0}, index.getCounts("a", 0, MAX_AGE));
+
+        Assertions.assertArrayEquals(countEntities("b", world), index.reconcile("b", scan("b", world), 1, MAX_AGE));
+        Assertions.assertArrayEquals(countEntities("a", world), index.getCounts("a", 1, MAX_AGE));
+        index.remove(entity.uuid);
+        Assertions.assertArrayEquals(countEntities("a", world), index.getCounts("a", 1, MAX_AGE));
+        Assertions.assertArrayEquals(new int[]{1, 1, 0, 1, 0, 0}, index.getCounts("b", 1, MAX_AGE));
+    }
+
+    @Test
+    public void testUntrackedAndStalePlots() {
+        final EntityCountIndex<String> index = new EntityCountIndex<>();
+        final UUID uuid = new UUID(0, 1);
+        Assertions.assertTrue(index.isEmpty());
+        index.add("a", uuid, MISC);
+        Assertions.assertFalse(index.contains(uuid));
+        Assertions.assertNull(index.getCounts("a", 0, MAX_AGE));
+
+        index.reconcile("a", Map.of(), 0, MAX_AGE);
+        index.add("a", uuid, MISC);
+        // Adding an entity twice counts it once
+        index.add("a", uuid, MISC);
+        Assertions.assertArrayEquals(new int[]{1, 0, 0, 0, 0, 1}, index.getCounts("a", MAX_AGE, MAX_AGE));
+        // Counts have to be reconciled once they are too old
+        Assertions.assertNull(index.getCounts("a", MAX_AGE + 1, MAX_AGE));
+
+        // Plots that are not reconciled for ten intervals are dropped with their entities
+        index.reconcile("b", Map.of(), MAX_AGE * 10 + 1, MAX_AGE);
+        Assertions.assertFalse(index.contains(uuid));
+        Assertions.assertNull(index.getCounts("a", 0, MAX_AGE));
+    }
+
+    private static final class Entity {
+
+        private final UUID uuid;
+        private final int categories;
+        private String plot;
+
+        private Entity(final UUID uuid, final String plot, final int categories) {
+            this.uuid = uuid;
+            this.plot = plot;
+            this.categories = categories;
+        }
+
+    }
+
+}
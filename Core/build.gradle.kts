@@ -44,6 +44,9 @@ dependencies {
     api(libs.arkitektonika)
     api("com.intellectualsites.paster:Paster")
     api("com.intellectualsites.informative-annotations:informative-annotations")
+
+    // Tests
+    testImplementation(libs.sqlite)
 }
 
 tasks.processResources {
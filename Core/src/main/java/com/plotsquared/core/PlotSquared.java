@@ -39,6 +39,7 @@ import com.plotsquared.core.generator.GeneratorWrapper;
 import com.plotsquared.core.generator.HybridPlotWorld;
 import com.plotsquared.core.generator.HybridUtils;
 import com.plotsquared.core.generator.IndependentPlotGenerator;
+import com.plotsquared.core.generator.RoadRegenJob;
 import com.plotsquared.core.inject.factory.HybridPlotWorldFactory;
 import com.plotsquared.core.listener.PlotListener;
 import com.plotsquared.core.location.Location;
@@ -82,13 +83,10 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
 import java.sql.SQLException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -396,39 +394,7 @@ public class PlotSquared {
         if (!Settings.Enabled_Components.PERSISTENT_ROAD_REGEN) {
             return;
         }
-        File file = new File(
-                this.platform.getDirectory() + File.separator + "persistent_regen_data_" + plotArea.getId()
-                        + "_" + plotArea.getWorldName());
-        if (!file.exists()) {
-            return;
-        }
-        TaskManager.runTaskAsync(() -> {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-                List<Object> list = (List<Object>) ois.readObject();
-                ArrayList<int[]> regionInts = (ArrayList<int[]>) list.get(0);
-                ArrayList<int[]> chunkInts = (ArrayList<int[]>) list.get(1);
-                HashSet<BlockVector2> regions = new HashSet<>();
-                Set<BlockVector2> chunks = new HashSet<>();
-                regionInts.forEach(l -> regions.add(BlockVector2.at(l[0], l[1])));
-                chunkInts.forEach(l -> chunks.add(BlockVector2.at(l[0], l[1])));
-                int height = (int) list.get(2);
-                LOGGER.info(
-                        "Incomplete road regeneration found. Restarting in world {} with height {}",
-                        plotArea.getWorldName(),
-                        height
-                );
-                LOGGER.info("- Regions: {}", regions.size());
-                LOGGER.info("- Chunks: {}", chunks.size());
-                HybridUtils.UPDATE = true;
-                PlotSquared.platform().hybridUtils().scheduleRoadUpdate(plotArea, regions, height, chunks);
-            } catch (IOException | ClassNotFoundException e) {
-                LOGGER.error("Error restarting road regeneration", e);
-            } finally {
-                if (!file.delete()) {
-                    LOGGER.error("Error deleting persistent_regen_data_{}. Please delete this file manually", plotArea.getId());
-                }
-            }
-        });
+        TaskManager.runTaskAsync(() -> this.platform.hybridUtils().resumeRoadUpdate(plotArea));
     }
 
     /**
@@ -1240,38 +1206,19 @@ public class PlotSquared {
      * Handle road regen persistence
      */
     private void checkRoadRegenPersistence() {
-        if (!HybridUtils.UPDATE || !Settings.Enabled_Components.PERSISTENT_ROAD_REGEN || (
-                HybridUtils.regions.isEmpty() && HybridUtils.chunks.isEmpty())) {
-            return;
-        }
-        LOGGER.info("Road regeneration incomplete. Saving incomplete regions to disk");
-        LOGGER.info("- regions: {}", HybridUtils.regions.size());
-        LOGGER.info("- chunks: {}", HybridUtils.chunks.size());
-        ArrayList<int[]> regions = new ArrayList<>();
-        ArrayList<int[]> chunks = new ArrayList<>();
-        for (BlockVector2 r : HybridUtils.regions) {
-            regions.add(new int[]{r.getBlockX(), r.getBlockZ()});
-        }
-        for (BlockVector2 c : HybridUtils.chunks) {
-            chunks.add(new int[]{c.getBlockX(), c.getBlockZ()});
-        }
-        List<Object> list = new ArrayList<>();
-        list.add(regions);
-        list.add(chunks);
-        list.add(HybridUtils.height);
-        File file = new File(
-                this.platform.getDirectory() + File.separator + "persistent_regen_data_" + HybridUtils.area
-                        .getId() + "_" + HybridUtils.area.getWorldName());
-        if (file.exists() && !file.delete()) {
-            LOGGER.error("persistent_regene_data file already exists and could not be deleted");
+        if (!Settings.Enabled_Components.PERSISTENT_ROAD_REGEN) {
             return;
         }
-        try (ObjectOutputStream oos = new ObjectOutputStream(
-                Files.newOutputStream(file.toPath(), StandardOpenOption.CREATE_NEW))) {
-            oos.writeObject(list);
-        } catch (IOException e) {
-            LOGGER.error("Error creating persistent_region_data file", e);
+        HybridUtils hybridUtils = this.platform.hybridUtils();
+        for (RoadRegenJob job : hybridUtils.getRoadRegenJobs()) {
+            LOGGER.info(
+                    "Road regeneration in area {} incomplete. Saving {} regions and {} chunks to disk",
+                    job.getArea(),
+                    job.getRemainingRegions(),
+                    job.getRemainingChunks()
+            );
         }
+        hybridUtils.saveRoadRegenJobs();
     }
 
     /**
@@ -0,0 +1,157 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.backup;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A deduplicated plot backup. The backed up volume (the bounding box of the plot regions) is
+ * split into chunk sections of at most 16x16x16 blocks, which are referenced by the hash they
+ * are stored under in the {@link SectionStore}.
+ */
+final class BackupManifest {
+
+    static final String EXTENSION = ".p2backup";
+
+    static final int SECTION_SIZE = 16;
+
+    private static final int MAGIC = 0x50324250; // P2BP
+    private static final int VERSION = 1;
+    private static final int HASH_LENGTH = 32;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final int width;
+    private final int height;
+    private final int length;
+    private final String[] sections;
+
+    BackupManifest(final int width, final int height, final int length) {
+        this.width = width;
+        this.height = height;
+        this.length = length;
+        this.sections = new String[this.getSectionsX() * this.getSectionsY() * this.getSectionsZ()];
+    }
+
+    static boolean isManifest(final @NonNull Path path) {
+        return path.getFileName().toString().endsWith(EXTENSION);
+    }
+
+    static @NonNull BackupManifest read(final @NonNull Path file) throws IOException {
+        try (DataInputStream stream = new DataInputStream(new GZIPInputStream(Files.newInputStream(file)))) {
+            if (stream.readInt() != MAGIC) {
+                throw new IOException("Not a plot backup manifest: " + file);
+            }
+            final int version = stream.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported plot backup manifest version " + version + ": " + file);
+            }
+            final BackupManifest manifest = new BackupManifest(stream.readInt(), stream.readInt(), stream.readInt());
+            final byte[] hash = new byte[HASH_LENGTH];
+            for (int i = 0; i < manifest.sections.length; i++) {
+                stream.readFully(hash);
+                manifest.sections[i] = HEX.formatHex(hash);
+            }
+            return manifest;
+        }
+    }
+
+    /**
+     * Write the manifest. The file is only replaced once the manifest was written completely.
+     *
+     * @param file Manifest file
+     * @throws IOException if the manifest could not be written
+     */
+    void write(final @NonNull Path file) throws IOException {
+        final Path temp = Files.createTempFile(file.getParent(), "manifest", ".tmp");
+        try {
+            try (DataOutputStream stream = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(temp)))) {
+                stream.writeInt(MAGIC);
+                stream.writeInt(VERSION);
+                stream.writeInt(this.width);
+                stream.writeInt(this.height);
+                stream.writeInt(this.length);
+                for (final String section : this.sections) {
+                    stream.write(HEX.parseHex(section));
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    int getWidth() {
+        return this.width;
+    }
+
+    int getHeight() {
+        return this.height;
+    }
+
+    int getLength() {
+        return this.length;
+    }
+
+    int getSectionsX() {
+        return (this.width + SECTION_SIZE - 1) / SECTION_SIZE;
+    }
+
+    int getSectionsY() {
+        return (this.height + SECTION_SIZE - 1) / SECTION_SIZE;
+    }
+
+    int getSectionsZ() {
+        return (this.length + SECTION_SIZE - 1) / SECTION_SIZE;
+    }
+
+    int getSectionIndex(final int sectionX, final int sectionY, final int sectionZ) {
+        return (sectionY * this.getSectionsZ() + sectionZ) * this.getSectionsX() + sectionX;
+    }
+
+    @NonNull String getSection(final int index) {
+        return this.sections[index];
+    }
+
+    void setSection(final int index, final @NonNull String hash) {
+        this.sections[index] = hash;
+    }
+
+    boolean isComplete() {
+        return Arrays.stream(this.sections).allMatch(Objects::nonNull);
+    }
+
+    @NonNull Set<String> getSectionHashes() {
+        return new HashSet<>(Arrays.asList(this.sections));
+    }
+
+}
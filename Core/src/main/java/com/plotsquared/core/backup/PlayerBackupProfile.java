@@ -20,12 +20,14 @@ package com.plotsquared.core.backup;
 
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
+import com.plotsquared.core.configuration.Settings;
 import com.plotsquared.core.configuration.caption.TranslatableCaption;
 import com.plotsquared.core.player.ConsolePlayer;
 import com.plotsquared.core.player.PlotPlayer;
 import com.plotsquared.core.plot.Plot;
 import com.plotsquared.core.plot.schematic.Schematic;
 import com.plotsquared.core.util.SchematicHandler;
+import com.plotsquared.core.util.WorldUtil;
 import com.plotsquared.core.util.task.RunnableVal;
 import com.plotsquared.core.util.task.TaskManager;
 import net.kyori.adventure.text.minimessage.MiniMessage;
@@ -57,23 +59,26 @@ public class PlayerBackupProfile implements BackupProfile {
     private final Plot plot;
     private final BackupManager backupManager;
     private final SchematicHandler schematicHandler;
+    private final WorldUtil worldUtil;
     private final Object backupLock = new Object();
     private volatile List<Backup> backupCache;
 
     @Inject
     public PlayerBackupProfile(
             @Assisted final @NonNull UUID owner, @Assisted final @NonNull Plot plot,
-            final @NonNull BackupManager backupManager, final @NonNull SchematicHandler schematicHandler
+            final @NonNull BackupManager backupManager, final @NonNull SchematicHandler schematicHandler,
+            final @NonNull WorldUtil worldUtil
     ) {
         this.owner = owner;
         this.plot = plot;
         this.backupManager = backupManager;
         this.schematicHandler = schematicHandler;
+        this.worldUtil = worldUtil;
     }
 
     private static boolean isValidFile(final @NonNull Path path) {
         final String name = path.getFileName().toString();
-        return name.endsWith(".schem") || name.endsWith(".schematic");
+        return name.endsWith(".schem") || name.endsWith(".schematic") || BackupManifest.isManifest(path);
     }
 
     private static Path resolve(final @NonNull Path parent, final String child) {
@@ -137,6 +142,7 @@ public class PlayerBackupProfile implements BackupProfile {
             }
             backups.forEach(Backup::delete);
             this.backupCache = null;
+            this.collectGarbage();
         });
     }
 
@@ -152,16 +158,39 @@ public class PlayerBackupProfile implements BackupProfile {
         final CompletableFuture<Backup> future = new CompletableFuture<>();
         this.listBackups().thenAcceptAsync(backups -> {
             synchronized (this.backupLock) {
-                if (backups.size() == backupManager.getBackupLimit()) {
-                    backups.get(backups.size() - 1).delete();
+                boolean deleted = false;
+                for (int i = backups.size() - 1; i >= 0 && i >= backupManager.getBackupLimit() - 1; i--) {
+                    backups.get(i).delete();
+                    deleted = true;
                 }
-                final List<Plot> plots = Collections.singletonList(plot);
-                final boolean result = this.schematicHandler.exportAll(plots, getBackupDirectory().toFile(),
-                        "%world%-%id%-" + System.currentTimeMillis(), () ->
-                                future.complete(new Backup(this, System.currentTimeMillis(), null))
-                );
-                if (!result) {
-                    future.completeExceptionally(new RuntimeException("Failed to complete the backup"));
+                if (Settings.Backup.DEDUPLICATE) {
+                    final String name = plot.getWorldName() + '-' + plot.getId().toDashSeparatedString()
+                            + '-' + System.currentTimeMillis() + BackupManifest.EXTENSION;
+                    final Path file = getBackupDirectory().resolve(name);
+                    SectionBackups.create(
+                            this.worldUtil.getWeWorld(plot.getWorldName()),
+                            plot.getRegions(),
+                            SectionStore.of(backupManager.getBackupPath()),
+                            file
+                    ).whenComplete((result, throwable) -> {
+                        if (throwable != null) {
+                            future.completeExceptionally(throwable);
+                        } else {
+                            future.complete(new Backup(this, System.currentTimeMillis(), file));
+                        }
+                    });
+                    if (deleted) {
+                        this.collectGarbage();
+                    }
+                } else {
+                    final List<Plot> plots = Collections.singletonList(plot);
+                    final boolean result = this.schematicHandler.exportAll(plots, getBackupDirectory().toFile(),
+                            "%world%-%id%-" + System.currentTimeMillis(), () ->
+                                    future.complete(new Backup(this, System.currentTimeMillis(), null))
+                    );
+                    if (!result) {
+                        future.completeExceptionally(new RuntimeException("Failed to complete the backup"));
+                    }
                 }
                 this.backupCache = null;
             }
@@ -178,8 +207,16 @@ public class PlayerBackupProfile implements BackupProfile {
             TaskManager.runTaskAsync(() -> {
                 Schematic schematic = null;
                 try {
-                    schematic = this.schematicHandler.getSchematic(backup.getFile().toFile());
-                } catch (SchematicHandler.UnsupportedFormatException e) {
+                    if (BackupManifest.isManifest(backup.getFile())) {
+                        final BackupManifest manifest = BackupManifest.read(backup.getFile());
+                        schematic = new Schematic(SectionBackups.restore(
+                                manifest,
+                                SectionStore.of(backupManager.getBackupPath())
+                        ));
+                    } else {
+                        schematic = this.schematicHandler.getSchematic(backup.getFile().toFile());
+                    }
+                } catch (SchematicHandler.UnsupportedFormatException | IOException e) {
                     e.printStackTrace();
                 }
                 if (schematic == null) {
@@ -214,4 +251,8 @@ public class PlayerBackupProfile implements BackupProfile {
         return future;
     }
 
+    private void collectGarbage() {
+        TaskManager.runTaskAsync(SectionStore.of(backupManager.getBackupPath())::collectGarbage);
+    }
+
 }
@@ -0,0 +1,436 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.backup;
+
+import com.plotsquared.core.util.BlockUtil;
+import com.plotsquared.core.util.RegionUtil;
+import com.plotsquared.core.util.task.TaskManager;
+import com.plotsquared.core.util.task.YieldRunnable;
+import com.sk89q.jnbt.CompoundTag;
+import com.sk89q.jnbt.IntArrayTag;
+import com.sk89q.jnbt.NBTInputStream;
+import com.sk89q.jnbt.NBTOutputStream;
+import com.sk89q.jnbt.Tag;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.math.BlockVector2;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.regions.RegionIntersection;
+import com.sk89q.worldedit.world.World;
+import com.sk89q.worldedit.world.biome.BiomeType;
+import com.sk89q.worldedit.world.biome.BiomeTypes;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockTypes;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Creates and restores {@link BackupManifest deduplicated backups}.
+ * <p>
+ * A section is serialized as its own block state palette, the varint encoded palette index of
+ * every block (y, z, x order), its tile entities and, for the bottom sections, the biome of every
+ * column. Serialization is deterministic, so unchanged sections hash to the same value and are
+ * only stored once.
+ */
+final class SectionBackups {
+
+    private static final long MAX_SLICE_MILLIS = 40;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private SectionBackups() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Back up the given regions. Sections are read and serialized in time-limited slices on the
+     * main thread, the sections of each slice are then written asynchronously. Only sections
+     * that are not yet in the store are written.
+     *
+     * @param world        World to read
+     * @param regions      Regions to back up, everything else inside their bounding box is stored as air
+     * @param store        Section store
+     * @param manifestFile File the manifest is written to once all sections are stored
+     * @return a future completing once the manifest was written
+     */
+    static @NonNull CompletableFuture<Void> create(
+            final @NonNull World world,
+            final @NonNull Set<CuboidRegion> regions,
+            final @NonNull SectionStore store,
+            final @NonNull Path manifestFile
+    ) {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        store.beginWrite();
+        future.whenComplete((result, throwable) -> store.endWrite());
+        TaskManager.runTask(new CreateTask(world, regions, store, manifestFile, future));
+        return future;
+    }
+
+    /**
+     * Reassemble a backup into a clipboard, with its minimum point at the origin
+     *
+     * @param manifest Backup manifest
+     * @param store    Section store
+     * @return the restored clipboard
+     * @throws IOException if a section could not be read
+     */
+    static @NonNull Clipboard restore(final @NonNull BackupManifest manifest, final @NonNull SectionStore store)
+            throws IOException {
+        final Clipboard clipboard = new BlockArrayClipboard(new CuboidRegion(
+                BlockVector3.ZERO,
+                BlockVector3.at(manifest.getWidth() - 1, manifest.getHeight() - 1, manifest.getLength() - 1)
+        ));
+        final Map<String, byte[]> sections = new HashMap<>();
+        for (int sectionY = 0; sectionY < manifest.getSectionsY(); sectionY++) {
+            for (int sectionZ = 0; sectionZ < manifest.getSectionsZ(); sectionZ++) {
+                for (int sectionX = 0; sectionX < manifest.getSectionsX(); sectionX++) {
+                    final String hash = manifest.getSection(manifest.getSectionIndex(sectionX, sectionY, sectionZ));
+                    byte[] data = sections.get(hash);
+                    if (data == null) {
+                        data = store.read(hash);
+                        sections.put(hash, data);
+                    }
+                    try {
+                        readSection(clipboard, manifest, sectionX, sectionY, sectionZ, data);
+                    } catch (WorldEditException e) {
+                        throw new IOException("Failed to restore section " + hash, e);
+                    }
+                }
+            }
+        }
+        return clipboard;
+    }
+
+    private static void readSection(
+            final @NonNull Clipboard clipboard,
+            final @NonNull BackupManifest manifest,
+            final int sectionX,
+            final int sectionY,
+            final int sectionZ,
+            final byte[] data
+    ) throws IOException, WorldEditException {
+        final int offsetX = sectionX * BackupManifest.SECTION_SIZE;
+        final int offsetY = sectionY * BackupManifest.SECTION_SIZE;
+        final int offsetZ = sectionZ * BackupManifest.SECTION_SIZE;
+        final int sizeX = Math.min(BackupManifest.SECTION_SIZE, manifest.getWidth() - offsetX);
+        final int sizeY = Math.min(BackupManifest.SECTION_SIZE, manifest.getHeight() - offsetY);
+        final int sizeZ = Math.min(BackupManifest.SECTION_SIZE, manifest.getLength() - offsetZ);
+
+        final ByteArrayInputStream bytes = new ByteArrayInputStream(data);
+        final DataInputStream in = new DataInputStream(bytes);
+        final BlockState[] palette = new BlockState[in.readInt()];
+        for (int i = 0; i < palette.length; i++) {
+            final String state = in.readUTF();
+            palette[i] = BlockUtil.get(state);
+            if (palette[i] == null) {
+                palette[i] = BlockTypes.AIR.getDefaultState();
+            }
+        }
+        final int[] blocks = new int[sizeX * sizeY * sizeZ];
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = readVarInt(in);
+        }
+        final Map<Integer, CompoundTag> tiles = new HashMap<>();
+        final int tileCount = in.readInt();
+        if (tileCount > 0) {
+            // NBTInputStream does not buffer, so it can share the underlying stream
+            final NBTInputStream nbt = new NBTInputStream(bytes);
+            for (int i = 0; i < tileCount; i++) {
+                final Map<String, Tag> values = new HashMap<>(((CompoundTag) nbt.readNamedTag().getTag()).getValue());
+                final int[] pos = ((IntArrayTag) values.remove("Pos")).getValue();
+                tiles.put((pos[1] * sizeZ + pos[2]) * sizeX + pos[0], new CompoundTag(values));
+            }
+        }
+        int index = 0;
+        for (int y = 0; y < sizeY; y++) {
+            for (int z = 0; z < sizeZ; z++) {
+                for (int x = 0; x < sizeX; x++) {
+                    final BlockState state = palette[blocks[index]];
+                    final CompoundTag tile = tiles.get(index);
+                    final BlockVector3 position = BlockVector3.at(offsetX + x, offsetY + y, offsetZ + z);
+                    if (tile != null) {
+                        clipboard.setBlock(position, state.toBaseBlock(tile));
+                    } else {
+                        clipboard.setBlock(position, state);
+                    }
+                    index++;
+                }
+            }
+        }
+        if (in.readBoolean()) {
+            final BiomeType[] biomes = new BiomeType[in.readInt()];
+            for (int i = 0; i < biomes.length; i++) {
+                biomes[i] = BiomeTypes.get(in.readUTF());
+            }
+            for (int z = 0; z < sizeZ; z++) {
+                for (int x = 0; x < sizeX; x++) {
+                    final BiomeType biome = biomes[readVarInt(in)];
+                    if (biome != null) {
+                        clipboard.setBiome(BlockVector3.at(offsetX + x, 0, offsetZ + z), biome);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void writeVarInt(final @NonNull OutputStream stream, int value) throws IOException {
+        while ((value & -128) != 0) {
+            stream.write(value & 127 | 128);
+            value >>>= 7;
+        }
+        stream.write(value);
+    }
+
+    private static int readVarInt(final @NonNull InputStream stream) throws IOException {
+        int value = 0;
+        int shift = 0;
+        int read;
+        do {
+            read = stream.read();
+            if (read == -1) {
+                throw new IOException("Unexpected end of section data");
+            }
+            value |= (read & 127) << shift;
+            shift += 7;
+        } while ((read & 128) != 0);
+        return value;
+    }
+
+    private static final class CreateTask implements YieldRunnable {
+
+        private final World world;
+        private final RegionIntersection intersection;
+        private final boolean multipleRegions;
+        private final SectionStore store;
+        private final Path manifestFile;
+        private final CompletableFuture<Void> future;
+        private final BlockVector3 minimum;
+        private final BackupManifest manifest;
+        private final MessageDigest digest;
+        private final Set<String> queued = new HashSet<>();
+        private final List<CompletableFuture<Void>> writes = new ArrayList<>();
+        private Map<String, byte[]> batch = new HashMap<>();
+        private int sectionIndex;
+
+        private CreateTask(
+                final @NonNull World world,
+                final @NonNull Set<CuboidRegion> regions,
+                final @NonNull SectionStore store,
+                final @NonNull Path manifestFile,
+                final @NonNull CompletableFuture<Void> future
+        ) {
+            this.world = world;
+            this.intersection = new RegionIntersection(new ArrayList<>(regions));
+            this.multipleRegions = regions.size() > 1;
+            this.store = store;
+            this.manifestFile = manifestFile;
+            this.future = future;
+            final CuboidRegion aabb = RegionUtil.getAxisAlignedBoundingBox(regions);
+            this.minimum = aabb.getMinimumPoint();
+            this.manifest = new BackupManifest(aabb.getWidth(), aabb.getHeight(), aabb.getLength());
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (this.future.isDone()) {
+                // A previous slice failed to store its sections
+                return;
+            }
+            try {
+                final long start = System.currentTimeMillis();
+                final int sectionsX = this.manifest.getSectionsX();
+                final int sectionsZ = this.manifest.getSectionsZ();
+                final int sectionCount = sectionsX * this.manifest.getSectionsY() * sectionsZ;
+                for (; this.sectionIndex < sectionCount; this.sectionIndex++) {
+                    if (System.currentTimeMillis() - start > MAX_SLICE_MILLIS) {
+                        this.storeBatch();
+                        this.yield();
+                        return;
+                    }
+                    final int sectionX = this.sectionIndex % sectionsX;
+                    final int sectionZ = (this.sectionIndex / sectionsX) % sectionsZ;
+                    final int sectionY = this.sectionIndex / sectionsX / sectionsZ;
+                    final byte[] data = this.writeSection(sectionX, sectionY, sectionZ);
+                    final String hash = HEX.formatHex(this.digest.digest(data));
+                    if (this.queued.add(hash)) {
+                        this.batch.put(hash, data);
+                    }
+                    this.manifest.setSection(this.manifest.getSectionIndex(sectionX, sectionY, sectionZ), hash);
+                }
+                this.storeBatch();
+            } catch (Throwable throwable) {
+                this.future.completeExceptionally(throwable);
+                return;
+            }
+            // The manifest may only reference sections that are stored
+            CompletableFuture.allOf(this.writes.toArray(new CompletableFuture[0])).whenComplete((result, throwable) -> {
+                if (throwable != null) {
+                    this.future.completeExceptionally(throwable);
+                    return;
+                }
+                TaskManager.runTaskAsync(() -> {
+                    try {
+                        this.manifest.write(this.manifestFile);
+                        this.future.complete(null);
+                    } catch (Throwable e) {
+                        this.future.completeExceptionally(e);
+                    }
+                });
+            });
+        }
+
+        private void storeBatch() {
+            if (this.batch.isEmpty()) {
+                return;
+            }
+            final Map<String, byte[]> sections = this.batch;
+            this.batch = new HashMap<>();
+            final CompletableFuture<Void> write = new CompletableFuture<>();
+            this.writes.add(write);
+            TaskManager.runTaskAsync(() -> {
+                try {
+                    for (final Map.Entry<String, byte[]> section : sections.entrySet()) {
+                        this.store.store(section.getKey(), section.getValue());
+                    }
+                    write.complete(null);
+                } catch (Throwable throwable) {
+                    write.completeExceptionally(throwable);
+                    this.future.completeExceptionally(throwable);
+                }
+            });
+        }
+
+        private byte[] writeSection(final int sectionX, final int sectionY, final int sectionZ) throws IOException {
+            final int offsetX = sectionX * BackupManifest.SECTION_SIZE;
+            final int offsetY = sectionY * BackupManifest.SECTION_SIZE;
+            final int offsetZ = sectionZ * BackupManifest.SECTION_SIZE;
+            final int sizeX = Math.min(BackupManifest.SECTION_SIZE, this.manifest.getWidth() - offsetX);
+            final int sizeY = Math.min(BackupManifest.SECTION_SIZE, this.manifest.getHeight() - offsetY);
+            final int sizeZ = Math.min(BackupManifest.SECTION_SIZE, this.manifest.getLength() - offsetZ);
+            final int baseX = this.minimum.getX() + offsetX;
+            final int baseY = this.minimum.getY() + offsetY;
+            final int baseZ = this.minimum.getZ() + offsetZ;
+
+            final Map<BlockState, Integer> palette = new LinkedHashMap<>();
+            final int[] blocks = new int[sizeX * sizeY * sizeZ];
+            final List<CompoundTag> tiles = new ArrayList<>();
+            int index = 0;
+            for (int y = 0; y < sizeY; y++) {
+                for (int z = 0; z < sizeZ; z++) {
+                    for (int x = 0; x < sizeX; x++) {
+                        final BlockVector3 point = BlockVector3.at(baseX + x, baseY + y, baseZ + z);
+                        final BlockState state;
+                        if (this.multipleRegions && !this.intersection.contains(point)) {
+                            state = BlockTypes.AIR.getDefaultState();
+                        } else {
+                            final BaseBlock block = this.world.getFullBlock(point);
+                            state = block.toImmutableState();
+                            if (block.getNbtData() != null) {
+                                final Map<String, Tag> values = new HashMap<>(block.getNbtData().getValue());
+                                // Positions are kept in NBT, we don't want that.
+                                values.remove("x");
+                                values.remove("y");
+                                values.remove("z");
+                                values.put("Pos", new IntArrayTag(new int[]{x, y, z}));
+                                tiles.add(new CompoundTag(values));
+                            }
+                        }
+                        Integer id = palette.get(state);
+                        if (id == null) {
+                            id = palette.size();
+                            palette.put(state, id);
+                        }
+                        blocks[index++] = id;
+                    }
+                }
+            }
+
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(palette.size());
+            for (final BlockState state : palette.keySet()) {
+                out.writeUTF(state.getAsString());
+            }
+            for (final int block : blocks) {
+                writeVarInt(out, block);
+            }
+            out.writeInt(tiles.size());
+            if (!tiles.isEmpty()) {
+                // NBTOutputStream does not buffer, so it can share the underlying stream
+                final NBTOutputStream nbt = new NBTOutputStream(bytes);
+                for (final CompoundTag tile : tiles) {
+                    nbt.writeNamedTag("", tile);
+                }
+            }
+            out.writeBoolean(sectionY == 0);
+            if (sectionY == 0) {
+                final Map<String, Integer> biomePalette = new LinkedHashMap<>();
+                final int[] biomes = new int[sizeX * sizeZ];
+                for (int z = 0; z < sizeZ; z++) {
+                    for (int x = 0; x < sizeX; x++) {
+                        final String biome = this.world.getBiome(BlockVector2.at(baseX + x, baseZ + z)).getId();
+                        Integer id = biomePalette.get(biome);
+                        if (id == null) {
+                            id = biomePalette.size();
+                            biomePalette.put(biome, id);
+                        }
+                        biomes[z * sizeX + x] = id;
+                    }
+                }
+                out.writeInt(biomePalette.size());
+                for (final String biome : biomePalette.keySet()) {
+                    out.writeUTF(biome);
+                }
+                for (final int biome : biomes) {
+                    writeVarInt(out, biome);
+                }
+            }
+            out.flush();
+            return bytes.toByteArray();
+        }
+
+    }
+
+}
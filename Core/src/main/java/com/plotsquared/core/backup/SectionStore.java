@@ -0,0 +1,197 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.backup;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content addressed store of serialized chunk sections shared by all deduplicated backups
+ * stored in one backup directory. Sections are stored compressed under their SHA-256 hash, so
+ * a section that did not change between two backups is only written once.
+ * <p>
+ * Sections that are no longer referenced by any {@link BackupManifest} are removed by
+ * {@link #collectGarbage()}. Backups that are being written register themselves using
+ * {@link #beginWrite()}, and garbage collection is postponed until all of them finished, so
+ * that sections a backup relies on are not removed before its manifest exists.
+ */
+final class SectionStore {
+
+    static final String DIRECTORY_NAME = "sections";
+
+    private static final Logger LOGGER = LogManager.getLogger("PlotSquared/" + SectionStore.class.getSimpleName());
+    private static final Map<Path, SectionStore> stores = new ConcurrentHashMap<>();
+
+    private final Path backupPath;
+    private final Path root;
+    private int activeWriters;
+    private boolean collecting;
+    private boolean collectionPending;
+
+    private SectionStore(final @NonNull Path backupPath) {
+        this.backupPath = backupPath;
+        this.root = backupPath.resolve(DIRECTORY_NAME);
+    }
+
+    /**
+     * Get the section store of a backup directory
+     *
+     * @param backupPath Backup directory, see {@link BackupManager#getBackupPath()}
+     * @return the store
+     */
+    static @NonNull SectionStore of(final @NonNull Path backupPath) {
+        return stores.computeIfAbsent(backupPath.toAbsolutePath().normalize(), SectionStore::new);
+    }
+
+    private @NonNull Path getFile(final @NonNull String hash) {
+        return this.root.resolve(hash.substring(0, 2)).resolve(hash + ".gz");
+    }
+
+    /**
+     * Store a section unless a section with the same hash is already stored
+     *
+     * @param hash SHA-256 hash of the section data
+     * @param data Serialized section
+     * @return {@code true} if the section was written, {@code false} if it already existed
+     * @throws IOException if the section could not be written
+     */
+    boolean store(final @NonNull String hash, final byte[] data) throws IOException {
+        final Path file = this.getFile(hash);
+        if (Files.exists(file)) {
+            return false;
+        }
+        Files.createDirectories(file.getParent());
+        final Path temp = Files.createTempFile(file.getParent(), hash, ".tmp");
+        try {
+            try (OutputStream stream = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                stream.write(data);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return true;
+    }
+
+    /**
+     * Read a stored section
+     *
+     * @param hash SHA-256 hash of the section data
+     * @return the serialized section
+     * @throws IOException if the section does not exist or could not be read
+     */
+    byte[] read(final @NonNull String hash) throws IOException {
+        try (InputStream stream = new GZIPInputStream(Files.newInputStream(this.getFile(hash)))) {
+            return stream.readAllBytes();
+        }
+    }
+
+    /**
+     * Register a backup that is about to store sections. Blocks while garbage is collected.
+     */
+    synchronized void beginWrite() {
+        while (this.collecting) {
+            try {
+                this.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        this.activeWriters++;
+    }
+
+    /**
+     * Unregister a backup registered using {@link #beginWrite()}, once its manifest has been
+     * written or it failed
+     */
+    void endWrite() {
+        final boolean collect;
+        synchronized (this) {
+            this.activeWriters--;
+            collect = this.activeWriters == 0 && this.collectionPending;
+        }
+        if (collect) {
+            this.collectGarbage();
+        }
+    }
+
+    /**
+     * Delete all sections that are not referenced by any manifest in the backup directory.
+     * If backups are currently being written, the collection runs once they finished.
+     */
+    void collectGarbage() {
+        synchronized (this) {
+            if (this.activeWriters > 0 || this.collecting) {
+                this.collectionPending = true;
+                return;
+            }
+            this.collecting = true;
+            this.collectionPending = false;
+        }
+        try {
+            final Set<String> live = new HashSet<>();
+            try (Stream<Path> manifests = Files.walk(this.backupPath)) {
+                for (final Path manifest : (Iterable<Path>) manifests.filter(BackupManifest::isManifest)::iterator) {
+                    live.addAll(BackupManifest.read(manifest).getSectionHashes());
+                }
+            }
+            if (!Files.exists(this.root)) {
+                return;
+            }
+            int deleted = 0;
+            try (Stream<Path> sections = Files.walk(this.root)) {
+                for (final Path section : (Iterable<Path>) sections.filter(Files::isRegularFile)::iterator) {
+                    final String name = section.getFileName().toString();
+                    if (!name.endsWith(".gz") || !live.contains(name.substring(0, name.length() - 3))) {
+                        Files.deleteIfExists(section);
+                        deleted++;
+                    }
+                }
+            }
+            if (deleted > 0) {
+                LOGGER.info("Removed {} unreferenced backup section(s)", deleted);
+            }
+        } catch (IOException e) {
+            // Never delete anything based on an incomplete set of live sections
+            LOGGER.error("Failed to collect unreferenced backup sections", e);
+        } finally {
+            synchronized (this) {
+                this.collecting = false;
+                this.notifyAll();
+            }
+        }
+    }
+
+}
@@ -18,12 +18,18 @@
  */
 package com.plotsquared.core.command;
 
+import com.google.common.cache.CacheStats;
 import com.google.inject.Inject;
 import com.plotsquared.core.PlotSquared;
 import com.plotsquared.core.configuration.caption.StaticCaption;
 import com.plotsquared.core.configuration.caption.TranslatableCaption;
+import com.plotsquared.core.database.DBFunc;
+import com.plotsquared.core.database.SQLManager;
+import com.plotsquared.core.generator.HybridPlotWorld;
 import com.plotsquared.core.player.PlotPlayer;
+import com.plotsquared.core.plot.PlotArea;
 import com.plotsquared.core.plot.world.PlotAreaManager;
+import com.plotsquared.core.queue.ChunkWorkScheduler;
 import com.plotsquared.core.util.StringMan;
 import com.plotsquared.core.util.WorldUtil;
 import com.plotsquared.core.util.entity.EntityCategories;
@@ -53,14 +59,17 @@ public class Debug extends SubCommand {
 
     private final PlotAreaManager plotAreaManager;
     private final WorldUtil worldUtil;
+    private final ChunkWorkScheduler chunkWorkScheduler;
 
     @Inject
     public Debug(
             final @NonNull PlotAreaManager plotAreaManager,
-            final @NonNull WorldUtil worldUtil
+            final @NonNull WorldUtil worldUtil,
+            final @NonNull ChunkWorkScheduler chunkWorkScheduler
     ) {
         this.plotAreaManager = plotAreaManager;
         this.worldUtil = worldUtil;
+        this.chunkWorkScheduler = chunkWorkScheduler;
     }
 
     @Override
@@ -68,7 +77,11 @@ public class Debug extends SubCommand {
         if (args.length == 0) {
             player.sendMessage(
                     TranslatableCaption.of("commandconfig.command_syntax"),
-                    Template.of("value", "/plot debug <loadedchunks | player | debug-players | entitytypes | msg>")
+                    Template.of(
+                            "value",
+                            "/plot debug <loadedchunks | player | debug-players | entitytypes | queue | generator | database"
+                                    + " | msg>"
+                    )
             );
         }
         if (args.length > 0) {
@@ -91,6 +104,49 @@ public class Debug extends SubCommand {
                             - start) + "ms) using thread: " + Thread.currentThread().getName())));
             return true;
         }
+        if (args.length > 0 && "queue".equalsIgnoreCase(args[0])) {
+            player.sendMessage(StaticCaption.of(String.format(
+                    Locale.ENGLISH,
+                    "Queue: %d coordinators, %d chunks remaining, %.1f chunks/s, %.1fms budget per tick",
+                    this.chunkWorkScheduler.getActiveCoordinators(),
+                    this.chunkWorkScheduler.getQueueDepth(),
+                    this.chunkWorkScheduler.getChunksPerSecond(),
+                    this.chunkWorkScheduler.getTickBudget()
+            )));
+            return true;
+        }
+        if (args.length > 0 && "generator".equalsIgnoreCase(args[0])) {
+            for (final PlotArea area : this.plotAreaManager.getAllPlotAreas()) {
+                if (!(area instanceof HybridPlotWorld hybridPlotWorld)) {
+                    continue;
+                }
+                final CacheStats stats = hybridPlotWorld.getChunkTemplateStats();
+                player.sendMessage(StaticCaption.of(String.format(
+                        Locale.ENGLISH,
+                        "%s: %d chunk templates cached, %d hits, %d misses (%.1f%% hit rate)",
+                        area,
+                        hybridPlotWorld.getChunkTemplateCount(),
+                        stats.hitCount(),
+                        stats.missCount(),
+                        stats.hitRate() * 100
+                )));
+            }
+            return true;
+        }
+        if (args.length > 0 && "database".equalsIgnoreCase(args[0])) {
+            if (!(DBFunc.dbManager instanceof SQLManager sqlManager)) {
+                player.sendMessage(StaticCaption.of("Database: statement counters are not available"));
+                return true;
+            }
+            player.sendMessage(StaticCaption.of(String.format(
+                    Locale.ENGLISH,
+                    "Database: %d statements queued, %d coalesced, %d executed",
+                    sqlManager.getEnqueuedStatements(),
+                    sqlManager.getCoalescedStatements(),
+                    sqlManager.getExecutedStatements()
+            )));
+            return true;
+        }
         if (args.length > 0 && "uuids".equalsIgnoreCase(args[0])) {
             final Collection<UUIDMapping> mappings = PlotSquared.get().getImpromptuUUIDPipeline().getAllImmediately();
             player.sendMessage(
@@ -166,7 +222,7 @@ public class Debug extends SubCommand {
 
     @Override
     public Collection<Command> tab(final PlotPlayer<?> player, String[] args, boolean space) {
-        return Stream.of("loadedchunks", "debug-players", "entitytypes")
+        return Stream.of("loadedchunks", "debug-players", "entitytypes", "queue", "generator", "database")
                 .filter(value -> value.startsWith(args[0].toLowerCase(Locale.ENGLISH)))
                 .map(value -> new Command(null, false, value, "plots.admin", RequiredType.NONE, null) {
                 }).collect(Collectors.toList());
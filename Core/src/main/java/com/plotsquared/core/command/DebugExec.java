@@ -25,6 +25,7 @@ import com.plotsquared.core.configuration.caption.TranslatableCaption;
 import com.plotsquared.core.events.PlotFlagRemoveEvent;
 import com.plotsquared.core.events.Result;
 import com.plotsquared.core.generator.HybridUtils;
+import com.plotsquared.core.generator.RoadRegenJob;
 import com.plotsquared.core.player.PlotPlayer;
 import com.plotsquared.core.plot.Plot;
 import com.plotsquared.core.plot.PlotArea;
@@ -43,7 +44,6 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.stream.Collectors;
@@ -197,24 +197,33 @@ public class DebugExec extends SubCommand {
                         );
                         return false;
                     }
-                    boolean result;
-                    if (HybridUtils.regions != null) {
-                        result = this.hybridUtils.scheduleRoadUpdate(area, HybridUtils.regions, 0, new LinkedHashSet<>());
-                    } else {
-                        result = this.hybridUtils.scheduleRoadUpdate(area, 0);
-                    }
-                    if (!result) {
+                    if (!this.hybridUtils.scheduleRoadUpdate(area, 0)) {
                         player.sendMessage(TranslatableCaption.of("debugexec.mass_schematic_update_in_progress"));
                         return false;
                     }
                     return true;
                 }
                 case "stop-rgar" -> {
-                    if (!HybridUtils.UPDATE) {
+                    boolean cancelled = false;
+                    if (args.length == 2) {
+                        PlotArea area = this.plotAreaManager.getPlotAreaByString(args[1]);
+                        if (area == null) {
+                            player.sendMessage(
+                                    TranslatableCaption.of("errors.not_valid_plot_world"),
+                                    Template.of("value", args[1])
+                            );
+                            return false;
+                        }
+                        cancelled = this.hybridUtils.cancelRoadUpdate(area);
+                    } else {
+                        for (RoadRegenJob job : this.hybridUtils.getRoadRegenJobs()) {
+                            cancelled |= this.hybridUtils.cancelRoadUpdate(job.getArea());
+                        }
+                    }
+                    if (!cancelled) {
                         player.sendMessage(TranslatableCaption.of("debugexec.task_not_running"));
                         return false;
                     }
-                    HybridUtils.UPDATE = false;
                     player.sendMessage(TranslatableCaption.of("debugexec.task_cancelled"));
                     return true;
                 }
@@ -20,16 +20,14 @@ package com.plotsquared.core.command;
 
 import com.google.inject.Inject;
 import com.plotsquared.core.PlotSquared;
-import com.plotsquared.core.configuration.caption.StaticCaption;
 import com.plotsquared.core.configuration.caption.TranslatableCaption;
-import com.plotsquared.core.location.Location;
 import com.plotsquared.core.player.PlotPlayer;
 import com.plotsquared.core.plot.Plot;
 import com.plotsquared.core.plot.world.PlotAreaManager;
 import com.plotsquared.core.queue.GlobalBlockQueue;
 import com.plotsquared.core.queue.QueueCoordinator;
+import com.plotsquared.core.util.RegionFileTrimmer;
 import com.plotsquared.core.util.RegionManager;
-import com.plotsquared.core.util.RegionUtil;
 import com.plotsquared.core.util.WorldUtil;
 import com.plotsquared.core.util.query.PlotQuery;
 import com.plotsquared.core.util.task.RunnableVal;
@@ -37,19 +35,23 @@ import com.plotsquared.core.util.task.RunnableVal2;
 import com.plotsquared.core.util.task.TaskManager;
 import com.plotsquared.core.util.task.TaskTime;
 import com.sk89q.worldedit.math.BlockVector2;
-import com.sk89q.worldedit.regions.CuboidRegion;
+import net.kyori.adventure.text.minimessage.Template;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 
 @CommandDeclaration(command = "trim",
         permission = "plots.admin",
-        usage = "/plot trim <world> [regenerate]",
+        usage = "/plot trim <world> [regenerate|chunks]",
         requiredType = RequiredType.CONSOLE,
         category = CommandCategory.ADMINISTRATION)
 public class Trim extends SubCommand {
@@ -90,35 +92,15 @@ public class Trim extends SubCommand {
             return false;
         }
         TranslatableCaption.of("trim.trim_starting");
-        final List<Plot> plots = PlotQuery.newQuery().inWorld(world).asList();
-        if (PlotSquared.platform().expireManager() != null) {
-            plots.removeAll(PlotSquared.platform().expireManager().getPendingExpired());
-        }
-        result.value1 = new HashSet<>(PlotSquared.platform().worldUtil().getChunkChunks(world));
-        result.value2 = new HashSet<>();
-        StaticCaption.of(" - MCA #: " + result.value1.size());
-        StaticCaption.of(" - CHUNKS: " + (result.value1.size() * 1024) + " (max)");
-        StaticCaption.of(" - TIME ESTIMATE: 12 Parsecs");
-        TaskManager.getPlatformImplementation().objectTask(plots, new RunnableVal<>() {
-            @Override
-            public void run(Plot plot) {
-                Location pos1 = plot.getCorners()[0];
-                Location pos2 = plot.getCorners()[1];
-                int ccx1 = pos1.getX() >> 9;
-                int ccz1 = pos1.getZ() >> 9;
-                int ccx2 = pos2.getX() >> 9;
-                int ccz2 = pos2.getZ() >> 9;
-                for (int x = ccx1; x <= ccx2; x++) {
-                    for (int z = ccz1; z <= ccz2; z++) {
-                        BlockVector2 loc = BlockVector2.at(x, z);
-                        if (result.value1.remove(loc)) {
-                            result.value2.add(loc);
-                        }
-                    }
-                }
-            }
-        }).thenAccept(ignore ->
-                TaskManager.getPlatformImplementation().taskLater(result, TaskTime.ticks(1L)));
+        TrimPlanner.create(world).thenAccept(planner -> {
+            result.value1 = new HashSet<>();
+            result.value2 = new HashSet<>();
+            planner.classify(PlotSquared.platform().worldUtil().getChunkChunks(world), result.value1, result.value2);
+            TaskManager.runTask(result);
+        }).exceptionally(throwable -> {
+            LOGGER.error("Failed to plan trim of world {}", world, throwable);
+            return null;
+        });
         return true;
     }
 
@@ -138,78 +120,88 @@ public class Trim extends SubCommand {
             return false;
         }
         Trim.TASK = true;
+        final boolean chunks = args.length == 2 && args[1].equalsIgnoreCase("chunks");
         final boolean regen = args.length == 2 && Boolean.parseBoolean(args[1]);
-        getTrimRegions(world, new RunnableVal2<>() {
-            @Override
-            public void run(Set<BlockVector2> viable, final Set<BlockVector2> nonViable) {
-                Runnable regenTask;
-                if (regen) {
-                    LOGGER.info("Starting regen task");
-                    LOGGER.info(" - This is a VERY slow command");
-                    LOGGER.info(" - It will say 'Trim done!' when complete");
-                    regenTask = new Runnable() {
-                        @Override
-                        public void run() {
-                            if (nonViable.isEmpty()) {
-                                Trim.TASK = false;
-                                player.sendMessage(TranslatableCaption.of("trim.trim_done"));
-                                LOGGER.info("Trim done!");
-                                return;
-                            }
-                            Iterator<BlockVector2> iterator = nonViable.iterator();
-                            BlockVector2 mcr = iterator.next();
-                            iterator.remove();
-                            int cbx = mcr.getX() << 5;
-                            int cbz = mcr.getZ() << 5;
-                            // get all 1024 chunks
-                            HashSet<BlockVector2> chunks = new HashSet<>();
-                            for (int x = cbx; x < cbx + 32; x++) {
-                                for (int z = cbz; z < cbz + 32; z++) {
-                                    BlockVector2 loc = BlockVector2.at(x, z);
-                                    chunks.add(loc);
-                                }
-                            }
-                            int bx = cbx << 4;
-                            int bz = cbz << 4;
-                            CuboidRegion region =
-                                    RegionUtil.createRegion(bx, bx + 511, 0, 0, bz, bz + 511);
-                            for (Plot plot : PlotQuery.newQuery().inWorld(world)) {
-                                Location bot = plot.getBottomAbs();
-                                Location top = plot.getExtendedTopAbs();
-                                CuboidRegion plotReg = RegionUtil
-                                        .createRegion(bot.getX(), top.getX(), 0, 0, bot.getZ(), top.getZ());
-                                if (!RegionUtil.intersects(region, plotReg)) {
-                                    continue;
-                                }
-                                for (int x = plotReg.getMinimumPoint().getX() >> 4;
-                                     x <= plotReg.getMaximumPoint().getX() >> 4; x++) {
-                                    for (int z = plotReg.getMinimumPoint().getZ() >> 4;
-                                         z <= plotReg.getMaximumPoint().getZ() >> 4; z++) {
-                                        BlockVector2 loc = BlockVector2.at(x, z);
-                                        chunks.remove(loc);
-                                    }
-                                }
+        final Set<BlockVector2> resumed = regen ? TrimPlanner.loadProgress(world) : null;
+        TrimPlanner.create(world).thenAccept(planner -> TaskManager.runTask(() -> {
+            final Set<BlockVector2> viable = new HashSet<>();
+            final Set<BlockVector2> nonViable = new LinkedHashSet<>();
+            if (resumed != null) {
+                // Region files were already deleted before the trim was interrupted
+                LOGGER.info("Resuming trim of world {} ({} regions remaining)", world, resumed.size());
+                nonViable.addAll(resumed);
+            } else {
+                planner.classify(worldUtil.getChunkChunks(world), viable, nonViable);
+            }
+            Runnable regenTask;
+            if (regen) {
+                LOGGER.info("Starting regen task");
+                LOGGER.info(" - This is a VERY slow command");
+                LOGGER.info(" - It will say 'Trim done!' when complete");
+                TrimPlanner.saveProgress(world, nonViable);
+                regenTask = new Runnable() {
+                    @Override
+                    public void run() {
+                        if (nonViable.isEmpty()) {
+                            TrimPlanner.saveProgress(world, nonViable);
+                            Trim.TASK = false;
+                            player.sendMessage(TranslatableCaption.of("trim.trim_done"));
+                            LOGGER.info("Trim done!");
+                            return;
+                        }
+                        Iterator<BlockVector2> iterator = nonViable.iterator();
+                        BlockVector2 mcr = iterator.next();
+                        iterator.remove();
+                        final Set<BlockVector2> chunks = planner.getUnoccupiedChunks(mcr);
+                        final QueueCoordinator queue = blockQueue.getNewQueue(worldUtil.getWeWorld(world));
+                        TaskManager.getPlatformImplementation().objectTask(chunks, new RunnableVal<>() {
+                            @Override
+                            public void run(BlockVector2 value) {
+                                queue.regenChunk(value.getX(), value.getZ());
                             }
-                            final QueueCoordinator queue = blockQueue.getNewQueue(worldUtil.getWeWorld(world));
-                            TaskManager.getPlatformImplementation().objectTask(chunks, new RunnableVal<>() {
-                                @Override
-                                public void run(BlockVector2 value) {
-                                    queue.regenChunk(value.getX(), value.getZ());
-                                }
-                            }).thenAccept(ignore -> TaskManager.getPlatformImplementation()
-                                    .taskLater(this, TaskTime.ticks(1L)));
+                        }).thenAccept(ignore -> {
+                            TrimPlanner.saveProgress(world, nonViable);
+                            TaskManager.getPlatformImplementation().taskLater(this, TaskTime.ticks(1L));
+                        });
+                    }
+                };
+            } else if (chunks) {
+                // Region files can only be rewritten while the server does not have them open
+                final Map<BlockVector2, BitSet> keep = new HashMap<>();
+                for (final BlockVector2 region : nonViable) {
+                    keep.put(region, planner.getOccupiedChunks(region));
+                }
+                regenTask = () -> TaskManager.runTaskAsync(() -> {
+                    try {
+                        RegionFileTrimmer.schedule(world, keep);
+                        // Plots claimed since the trim was planned
+                        for (final Plot plot : PlotQuery.newQuery().inWorld(world).asList()) {
+                            RegionFileTrimmer.keep(plot);
                         }
-                    };
-                } else {
-                    regenTask = () -> {
+                    } catch (IOException e) {
+                        LOGGER.error("Failed to schedule trim of world {}", world, e);
+                        return;
+                    } finally {
                         Trim.TASK = false;
-                        player.sendMessage(TranslatableCaption.of("trim.trim_done"));
-                        LOGGER.info("Trim done!");
-                    };
-                }
-                regionManager.deleteRegionFiles(world, viable, regenTask);
-
+                    }
+                    player.sendMessage(
+                            TranslatableCaption.of("trim.trim_scheduled"),
+                            Template.of("amount", String.valueOf(keep.size()))
+                    );
+                    LOGGER.info("Trim of {} region files scheduled for the next startup", keep.size());
+                });
+            } else {
+                regenTask = () -> {
+                    Trim.TASK = false;
+                    player.sendMessage(TranslatableCaption.of("trim.trim_done"));
+                    LOGGER.info("Trim done!");
+                };
             }
+            regionManager.deleteRegionFiles(world, viable, regenTask);
+        })).exceptionally(throwable -> {
+            Trim.TASK = false;
+            LOGGER.error("Failed to plan trim of world {}", world, throwable);
+            return null;
         });
         return true;
     }
@@ -0,0 +1,220 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.command;
+
+import com.plotsquared.core.PlotSquared;
+import com.plotsquared.core.location.Location;
+import com.plotsquared.core.plot.Plot;
+import com.plotsquared.core.util.RegionFileTrimmer;
+import com.plotsquared.core.util.query.PlotQuery;
+import com.plotsquared.core.util.task.TaskManager;
+import com.sk89q.worldedit.math.BlockVector2;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Plans which region files and chunks of a world are not covered by any plot and can be trimmed.
+ * <p>
+ * The planner marks the chunks of every plot (including the roads of merged plots) in a
+ * 1024 bit map per region file once, so that every region file and chunk can be classified
+ * without iterating the plots again. Progress of a regenerating trim is stored on disk, so that
+ * an interrupted trim can be resumed.
+ */
+final class TrimPlanner {
+
+    private static final Logger LOGGER = LogManager.getLogger("PlotSquared/" + TrimPlanner.class.getSimpleName());
+
+    private final Map<BlockVector2, long[]> occupied = new HashMap<>();
+
+    TrimPlanner() {
+    }
+
+    /**
+     * Build the plan for a world off the main thread. Plots that are pending expiry are still
+     * occupied, as they are only deleted once their expiry is confirmed.
+     *
+     * @param world World name
+     * @return a future completing with the planner
+     */
+    static @NonNull CompletableFuture<TrimPlanner> create(final @NonNull String world) {
+        final CompletableFuture<TrimPlanner> future = new CompletableFuture<>();
+        TaskManager.runTaskAsync(() -> {
+            try {
+                final List<Plot> plots = PlotQuery.newQuery().inWorld(world).asList();
+                final TrimPlanner planner = new TrimPlanner();
+                for (final Plot plot : plots) {
+                    final Location bottom = plot.getBottomAbs();
+                    final Location top = plot.getExtendedTopAbs();
+                    planner.markOccupied(bottom.getX(), bottom.getZ(), top.getX(), top.getZ());
+                }
+                future.complete(planner);
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Mark the chunks overlapping an area as occupied
+     *
+     * @param minX Minimum block x coordinate (inclusive)
+     * @param minZ Minimum block z coordinate (inclusive)
+     * @param maxX Maximum block x coordinate (inclusive)
+     * @param maxZ Maximum block z coordinate (inclusive)
+     */
+    void markOccupied(final int minX, final int minZ, final int maxX, final int maxZ) {
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                final long[] bits = this.occupied.computeIfAbsent(
+                        BlockVector2.at(chunkX >> 5, chunkZ >> 5),
+                        key -> new long[16]
+                );
+                final int index = RegionFileTrimmer.getIndex(chunkX, chunkZ);
+                bits[index >> 6] |= 1L << index;
+            }
+        }
+    }
+
+    /**
+     * Sort region files into those that contain no plot chunk at all and those that do
+     *
+     * @param regions   Region file coordinates
+     * @param viable    Receives the regions that can be deleted
+     * @param nonViable Receives the regions that have to be kept
+     */
+    void classify(
+            final @NonNull Collection<BlockVector2> regions,
+            final @NonNull Set<BlockVector2> viable,
+            final @NonNull Set<BlockVector2> nonViable
+    ) {
+        for (final BlockVector2 region : regions) {
+            if (this.occupied.containsKey(region)) {
+                nonViable.add(region);
+            } else {
+                viable.add(region);
+            }
+        }
+    }
+
+    /**
+     * Get the chunks of a region file that are not covered by any plot
+     *
+     * @param region Region file coordinates
+     * @return chunk coordinates
+     */
+    @NonNull Set<BlockVector2> getUnoccupiedChunks(final @NonNull BlockVector2 region) {
+        final long[] bits = this.occupied.get(region);
+        final Set<BlockVector2> chunks = new HashSet<>();
+        final int chunkX = region.getX() << 5;
+        final int chunkZ = region.getZ() << 5;
+        for (int x = chunkX; x < chunkX + 32; x++) {
+            for (int z = chunkZ; z < chunkZ + 32; z++) {
+                final int index = RegionFileTrimmer.getIndex(x, z);
+                if (bits == null || (bits[index >> 6] & 1L << index) == 0) {
+                    chunks.add(BlockVector2.at(x, z));
+                }
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Get the chunks of a region file that are covered by a plot
+     *
+     * @param region Region file coordinates
+     * @return location table indices of the chunks, see {@link RegionFileTrimmer#getIndex(int, int)}
+     */
+    @NonNull BitSet getOccupiedChunks(final @NonNull BlockVector2 region) {
+        final long[] bits = this.occupied.get(region);
+        return bits == null ? new BitSet() : BitSet.valueOf(bits);
+    }
+
+    private static @NonNull Path getProgressFile(final @NonNull String world) {
+        return PlotSquared.platform().getDirectory().toPath().resolve("trim").resolve(world + ".txt");
+    }
+
+    /**
+     * Get the regions that were still to be regenerated when a trim of the world was interrupted
+     *
+     * @param world World name
+     * @return the remaining regions, or {@code null} if there is no trim to resume
+     */
+    static @Nullable Set<BlockVector2> loadProgress(final @NonNull String world) {
+        final Path file = getProgressFile(world);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            final Set<BlockVector2> regions = new LinkedHashSet<>();
+            for (final String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                final String[] split = line.split(";");
+                if (split.length == 2) {
+                    regions.add(BlockVector2.at(Integer.parseInt(split[0]), Integer.parseInt(split[1])));
+                }
+            }
+            return regions;
+        } catch (IOException | NumberFormatException e) {
+            LOGGER.error("Failed to read trim progress of world {}", world, e);
+            return null;
+        }
+    }
+
+    /**
+     * Store the regions that are still to be regenerated, or remove the progress once there are none
+     *
+     * @param world   World name
+     * @param regions Remaining regions
+     */
+    static void saveProgress(final @NonNull String world, final @NonNull Collection<BlockVector2> regions) {
+        final Path file = getProgressFile(world);
+        try {
+            if (regions.isEmpty()) {
+                Files.deleteIfExists(file);
+                return;
+            }
+            final List<String> lines = new ArrayList<>(regions.size());
+            for (final BlockVector2 region : regions) {
+                lines.add(region.getX() + ";" + region.getZ());
+            }
+            Files.createDirectories(file.getParent());
+            Files.write(file, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOGGER.error("Failed to store trim progress of world {}", world, e);
+        }
+    }
+
+}
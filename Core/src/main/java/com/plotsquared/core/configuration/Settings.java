@@ -279,6 +279,12 @@ public class Settings extends Config {
         public static boolean MERGE_REPLACE_WALL = true;
         @Comment("Always show explosion Particles, even if explosion flag is set to false")
         public static boolean ALWAYS_SHOW_EXPLOSIONS = false;
+        @Comment({"Number of generated chunk layouts to keep per plot world, reused for every chunk at the same position",
+                "in the plot grid. Not used for worlds with randomised plot components. Set to 0 to disable"})
+        public static int CHUNK_TEMPLATE_CACHE_SIZE = 1024;
+        @Comment({"Seconds after which the tracked entity counts of a plot are replaced by a full recount",
+                "Entities are tracked as they spawn and despawn, this corrects entities that moved between plots"})
+        public static int ENTITY_COUNT_RECONCILE_INTERVAL = 60;
         @Comment({"Blocks that may not be used in plot components",
                 "Checkout the wiki article regarding plot components before modifying: https://intellectualsites.github.io/plotsquared-documentation/customization/plot-components"})
         public static List<String>
@@ -541,6 +547,9 @@ public class Settings extends Config {
                 BACKUP_LIMIT = 3;
         @Comment("Whether or not backups should be deleted when the plot is unclaimed")
         public static boolean DELETE_ON_UNCLAIM = true;
+        @Comment({"Store backups as 16x16x16 sections shared between all backups",
+                "Unchanged sections are only stored once, older .schem backups can still be restored"})
+        public static boolean DEDUPLICATE = true;
 
     }
 
@@ -671,6 +680,15 @@ public class Settings extends Config {
         @Comment({"Initial number of chunks to process by the queue. This can be increased or",
                 "decreased by the queue based on the actual iteration time compared to above."})
         public static int INITIAL_BATCH_SIZE = 5;
+        @Comment({"Total time per tick in ms that all queues together may spend completing chunk tasks.",
+                "Lowered automatically when the rest of the server needs more of the tick. Queues started by",
+                "players are served before background work such as expiry and road regeneration."})
+        public static int TICK_BUDGET = 30;
+        @Comment("Time per tick in ms chunk tasks may always spend, even when the server is overloaded.")
+        public static int MIN_TICK_BUDGET = 2;
+        @Comment({"Percentage of the tick budget reserved for background work while it is waiting, so that it",
+                "still makes progress while players keep queues busy."})
+        public static int BACKGROUND_SHARE = 10;
         @Comment("Notify progress of the queue to the player or console.")
         public static boolean NOTIFY_PROGRESS = true;
         @Comment("Interval in ms to notify player or console of progress.")
@@ -687,6 +705,16 @@ public class Settings extends Config {
         @Comment({"If blocks at the edges of queued operations should be set causing updates",
                 " - Slightly slower, but prevents issues such as fences left connected to nothing"})
         public static boolean UPDATE_EDGES = true;
+        @Comment({"If queued blocks should be written directly to loaded chunks instead of one at a time through WorldEdit",
+                " - Blocks that are already in place are skipped",
+                " - Blocks with NBT data and blocks at the edges of queued operations are still set through WorldEdit",
+                " - Whole sections are written through WorldEdit's native world access, honouring the lighting mode",
+                " - Without native world access, blocks are only written directly with lighting mode 3"})
+        public static boolean BULK_WRITES = true;
+        @Comment({"If sections that are filled with a single block (e.g. when clearing a plot) should be compared",
+                "with the loaded chunk before they are written",
+                " - Sections that already match, such as the air above a mostly empty plot, are skipped entirely"})
+        public static boolean SKIP_UNCHANGED_SECTIONS = true;
 
     }
 
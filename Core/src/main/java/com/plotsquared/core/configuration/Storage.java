@@ -63,4 +63,15 @@ public class Storage extends Config {
 
     }
 
+
+    @Comment("Database writer settings")
+    public static final class Writer {
+
+        @Comment({"The number of connections used to write changes to the database",
+                "Changes are distributed by plot, so changes to the same plot are always written in order",
+                "SQLite only allows a single writer at a time, so values above 1 are mainly useful for MySQL"})
+        public static int CONNECTIONS = 1;
+
+    }
+
 }
@@ -0,0 +1,150 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.database;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.sql.PreparedStatement;
+
+/**
+ * A queued plot statement that also affects the row of another plot, such as a move or swap.
+ * <p>
+ * A {@link #createMarker() marker} is queued for the other plot. The statement is only flushed
+ * once the marker reached the head of its queue, i.e. once every task queued for the other
+ * plot before the statement has been flushed. Tasks queued for the other plot after the
+ * statement wait behind the marker until the statement has been {@link #release() released}
+ * after its commit. This keeps the statements of both plots in order even if they are flushed
+ * by different writers.
+ */
+abstract class BarrierStatement extends SQLManager.UniqueStatement {
+
+    private volatile boolean reached;
+    private volatile boolean released;
+    private volatile boolean committed;
+
+    BarrierStatement(final @Nullable String method) {
+        super(method);
+    }
+
+    /**
+     * Check whether the head of a queue can be flushed (or, for a released marker, dropped)
+     *
+     * @param head      Head of the queue
+     * @param onReached Called when a marker reached the head of its queue for the first time
+     * @return {@code true} if the head can be taken from the queue
+     */
+    static boolean isReady(final SQLManager.@Nullable UniqueStatement head, final @NonNull Runnable onReached) {
+        if (head instanceof Marker marker) {
+            if (!marker.statement.reached) {
+                marker.statement.reached = true;
+                onReached.run();
+            }
+            return marker.statement.released;
+        }
+        if (head instanceof BarrierStatement statement) {
+            return statement.reached;
+        }
+        return head != null;
+    }
+
+    /**
+     * Check whether a queued statement is a barrier statement or marker
+     *
+     * @param statement Queued statement
+     * @return {@code true} if statements must not be reordered across it
+     */
+    static boolean isBarrier(final SQLManager.@Nullable UniqueStatement statement) {
+        return statement instanceof BarrierStatement || statement instanceof Marker;
+    }
+
+    /**
+     * Check whether a queued statement is a marker, which is dropped instead of flushed
+     *
+     * @param statement Queued statement
+     * @return {@code true} if the statement is a marker
+     */
+    static boolean isMarker(final SQLManager.@Nullable UniqueStatement statement) {
+        return statement instanceof Marker;
+    }
+
+    /**
+     * Create the marker to queue for the other plot
+     *
+     * @return marker
+     */
+    SQLManager.@NonNull UniqueStatement createMarker() {
+        return new Marker(this);
+    }
+
+    /**
+     * Mark the statement as flushable without a marker, used when both plots share a queue
+     */
+    void withoutMarker() {
+        this.reached = true;
+        this.released = true;
+    }
+
+    /**
+     * Mark the transaction containing the statement as committed. Called before the statement
+     * is released.
+     */
+    final void markCommitted() {
+        this.committed = true;
+    }
+
+    /**
+     * Release the tasks of the other plot. Called once the statement has been committed, or
+     * failed, so that the other plot is never blocked forever.
+     */
+    final void release() {
+        this.reached = true;
+        this.released = true;
+        this.released(this.committed);
+    }
+
+    /**
+     * Called when the statement is released
+     *
+     * @param committed whether the transaction containing the statement was committed
+     */
+    void released(final boolean committed) {
+    }
+
+    private static final class Marker extends SQLManager.UniqueStatement {
+
+        private final BarrierStatement statement;
+
+        private Marker(final @NonNull BarrierStatement statement) {
+            super("barrier");
+            this.statement = statement;
+        }
+
+        @Override
+        public PreparedStatement get() {
+            return null;
+        }
+
+        @Override
+        public void set(PreparedStatement statement) {
+        }
+
+    }
+
+}
@@ -33,6 +33,17 @@ public abstract class Database {
 
     public abstract Connection forceConnection() throws SQLException, ClassNotFoundException;
 
+    /**
+     * Opens a new connection with the database that is not tracked by this instance,
+     * e.g. for additional database writers. The caller is responsible for closing it.
+     *
+     * @return Opened connection
+     * @throws SQLException           if the connection can not be opened
+     * @throws ClassNotFoundException if the driver cannot be found
+     * @since 6.11.0
+     */
+    public abstract Connection createConnection() throws SQLException, ClassNotFoundException;
+
     /**
      * Opens a connection with the database.
      *
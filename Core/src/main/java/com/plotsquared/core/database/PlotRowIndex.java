@@ -0,0 +1,84 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.database;
+
+import com.plotsquared.core.plot.PlotId;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of plot row ids, keyed by plot area and plot id. Populated when plots are loaded
+ * and inserted, so that statements never have to look up the row id of a plot.
+ */
+final class PlotRowIndex {
+
+    private final Map<String, Map<PlotId, Integer>> rows = new ConcurrentHashMap<>();
+
+    /**
+     * Get the row id of a plot
+     *
+     * @param area Plot area, as stored in the {@code world} column
+     * @param id   Plot id
+     * @return the row id, or {@code 0} if the plot is not indexed
+     */
+    int get(final @NonNull String area, final @NonNull PlotId id) {
+        final Map<PlotId, Integer> areaRows = this.rows.get(area);
+        if (areaRows == null) {
+            return 0;
+        }
+        final Integer row = areaRows.get(id);
+        return row == null ? 0 : row;
+    }
+
+    void put(final @NonNull String area, final @NonNull PlotId id, final int row) {
+        this.rows.computeIfAbsent(area, key -> new ConcurrentHashMap<>()).put(id, row);
+    }
+
+    /**
+     * Remove a plot, if it is still mapped to the given row
+     *
+     * @param area Plot area
+     * @param id   Plot id
+     * @param row  Row id
+     */
+    void remove(final @NonNull String area, final @NonNull PlotId id, final int row) {
+        final Map<PlotId, Integer> areaRows = this.rows.get(area);
+        if (areaRows != null) {
+            areaRows.remove(id, row);
+        }
+    }
+
+    /**
+     * Remove every plot mapped to one of the given rows
+     *
+     * @param rows Row ids
+     */
+    void removeRows(final @NonNull Collection<Integer> rows) {
+        final Set<Integer> removed = new HashSet<>(rows);
+        for (final Map<PlotId, Integer> areaRows : this.rows.values()) {
+            areaRows.values().removeIf(removed::contains);
+        }
+    }
+
+}
@@ -47,6 +47,7 @@ import com.plotsquared.core.util.task.TaskManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
@@ -72,13 +73,27 @@ import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
 
 
 @SuppressWarnings("SqlDialectInspection")
 public class SQLManager implements AbstractDB {
 
     private static final Logger LOGGER = LogManager.getLogger("PlotSquared/" + SQLManager.class.getSimpleName());
+    /**
+     * Number of rows fetched per round trip when loading large tables
+     */
+    private static final int FETCH_SIZE = 1000;
 
     // Public final
     public final String SET_OWNER;
@@ -128,9 +143,31 @@ public class SQLManager implements AbstractDB {
      * cluster_settings
      */
     public volatile ConcurrentHashMap<PlotCluster, Queue<UniqueStatement>> clusterTasks;
+    /**
+     * Signalled (and {@link #signals} incremented) whenever tasks are queued or a writer made
+     * progress that other writers may wait for
+     */
+    private final ReentrantLock signalLock = new ReentrantLock();
+    private final Condition taskSignal = this.signalLock.newCondition();
+    /**
+     * Global tasks hold the write lock, per-plot/player/cluster batches the read lock,
+     * so that global tasks never interleave with other writes
+     */
+    private final ReentrantReadWriteLock batchLock = new ReentrantReadWriteLock();
+    private final ThreadLocal<Connection> writerConnection = new ThreadLocal<>();
+    private final AtomicInteger activeBatches = new AtomicInteger();
+    private final int writers;
+    /**
+     * Row ids of loaded and inserted plots
+     */
+    private final PlotRowIndex plotRows = new PlotRowIndex();
+    private final AtomicLong enqueuedStatements = new AtomicLong();
+    private final AtomicLong coalescedStatements = new AtomicLong();
+    private final AtomicLong executedStatements = new AtomicLong();
     // Private
-    private Connection connection;
-    private boolean closed = false;
+    private volatile Connection connection;
+    private volatile boolean closed = false;
+    private long signals;
 
     /**
      * Constructor
@@ -146,6 +183,33 @@ public class SQLManager implements AbstractDB {
             final @NonNull EventDispatcher eventDispatcher,
             final @NonNull PlotListener plotListener,
             @WorldConfig final @NonNull YamlConfiguration worldConfiguration
+    )
+            throws SQLException, ClassNotFoundException {
+        this(database, prefix, eventDispatcher, plotListener, worldConfiguration, Storage.Writer.CONNECTIONS);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param database           Database
+     * @param prefix             Table prefix
+     * @param eventDispatcher    Event dispatcher
+     * @param plotListener       Plot listener
+     * @param worldConfiguration World configuration
+     * @param writers            Number of writer threads, each with its own connection. Plot
+     *                           tasks are sharded by plot, so tasks of a single plot are still
+     *                           executed in order.
+     * @throws SQLException           if the connection can not be opened
+     * @throws ClassNotFoundException if the driver cannot be found
+     * @since 6.11.0
+     */
+    public SQLManager(
+            final @NonNull Database database,
+            final @NonNull String prefix,
+            final @NonNull EventDispatcher eventDispatcher,
+            final @NonNull PlotListener plotListener,
+            @WorldConfig final @NonNull YamlConfiguration worldConfiguration,
+            final int writers
     )
             throws SQLException, ClassNotFoundException {
         // Private final
@@ -155,6 +219,7 @@ public class SQLManager implements AbstractDB {
         this.database = database;
         this.connection = database.openConnection();
         this.mySQL = database instanceof MySQL;
+        this.writers = Math.max(1, writers);
         this.globalTasks = new ConcurrentLinkedQueue<>();
         this.notifyTasks = new ConcurrentLinkedQueue<>();
         this.plotTasks = new ConcurrentHashMap<>();
@@ -190,51 +255,168 @@ public class SQLManager implements AbstractDB {
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        TaskManager.runTaskAsync(() -> {
-            long last = System.currentTimeMillis();
-            while (!SQLManager.this.closed) {
-                boolean hasTask =
-                        !globalTasks.isEmpty() || !playerTasks.isEmpty() || !plotTasks.isEmpty()
-                                || !clusterTasks.isEmpty();
-                if (hasTask) {
-                    if (SQLManager.this.mySQL && System.currentTimeMillis() - last > 550000
-                            || !isValid()) {
-                        last = System.currentTimeMillis();
-                        reconnect();
-                    }
-                    if (!sendBatch()) {
-                        try {
-                            if (!getNotifyTasks().isEmpty()) {
-                                for (Runnable task : getNotifyTasks()) {
-                                    TaskManager.runTask(task);
-                                }
-                                getNotifyTasks().clear();
-                            }
-                            Thread.sleep(50);
-                        } catch (InterruptedException e) {
-                            e.printStackTrace();
-                        }
-                    }
-                } else {
+        for (int writer = 0; writer < this.writers; writer++) {
+            final int shard = writer;
+            TaskManager.runTaskAsync(() -> runWriter(shard));
+        }
+    }
+
+    /**
+     * Writer loop. The primary writer (shard 0) uses the main connection and handles global,
+     * player and cluster tasks as well as its share of the plot tasks. All other writers open
+     * their own connection and only flush the plot tasks of their shard.
+     *
+     * @param shard Writer index
+     */
+    private void runWriter(final int shard) {
+        if (shard != 0) {
+            while (!this.closed && this.writerConnection.get() == null) {
+                try {
+                    this.writerConnection.set(this.database.createConnection());
+                } catch (SQLException | ClassNotFoundException e) {
+                    LOGGER.error("Failed to open connection for database writer {}, retrying", shard, e);
+                    this.signalLock.lock();
                     try {
-                        Thread.sleep(1000);
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
+                        this.taskSignal.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        ex.printStackTrace();
+                    } finally {
+                        this.signalLock.unlock();
                     }
                 }
             }
-        });
+        }
+        long last = System.currentTimeMillis();
+        while (!this.closed) {
+            // Read before checking for tasks, so that no signal in between is missed
+            final long signal = getSignal();
+            final boolean hasTask = hasTasks(shard);
+            if (hasTask) {
+                if (this.mySQL && System.currentTimeMillis() - last > 550000 || !isValid()) {
+                    last = System.currentTimeMillis();
+                    reconnect();
+                }
+                this.activeBatches.incrementAndGet();
+                final boolean flushed;
+                try {
+                    flushed = sendBatch(shard);
+                } finally {
+                    this.activeBatches.decrementAndGet();
+                    // Other writers may be waiting for this batch (notify tasks, barriers)
+                    signalWriters();
+                }
+                if (flushed) {
+                    continue;
+                }
+            }
+            runNotifyTasks();
+            awaitSignal(signal, hasTask);
+        }
+        final Connection writer = this.writerConnection.get();
+        if (writer != null) {
+            this.writerConnection.remove();
+            try {
+                writer.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private long getSignal() {
+        this.signalLock.lock();
+        try {
+            return this.signals;
+        } finally {
+            this.signalLock.unlock();
+        }
+    }
+
+    /**
+     * Wait until the writers are signalled after the given signal was read.
+     *
+     * @param signal Signal read before checking for tasks
+     * @param failed {@code true} if the writer had tasks but could not flush any of them, in
+     *               which case it retries after a second even without a signal
+     */
+    private void awaitSignal(final long signal, final boolean failed) {
+        this.signalLock.lock();
+        try {
+            long remaining = TimeUnit.SECONDS.toNanos(1);
+            while (!this.closed && this.signals == signal) {
+                if (!failed) {
+                    this.taskSignal.await();
+                } else if ((remaining = this.taskSignal.awaitNanos(remaining)) <= 0) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        } finally {
+            this.signalLock.unlock();
+        }
+    }
+
+    private void signalWriters() {
+        this.signalLock.lock();
+        try {
+            this.signals++;
+            this.taskSignal.signalAll();
+        } finally {
+            this.signalLock.unlock();
+        }
+    }
+
+    private boolean hasTasks(final int shard) {
+        if (shard <= 0 && (!this.globalTasks.isEmpty() || !this.playerTasks.isEmpty() || !this.clusterTasks.isEmpty())) {
+            return true;
+        }
+        for (final Entry<Plot, Queue<UniqueStatement>> entry : this.plotTasks.entrySet()) {
+            if (isShard(entry.getKey(), shard) && isReady(entry.getValue().peek())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether the head of a plot queue can be flushed. Statements that move rows between
+     * plots wait for the tasks queued for the other plot before them, and the tasks queued for
+     * the other plot after them wait for the statement to be committed.
+     *
+     * @param head Head of the queue
+     * @return {@code true} if the head can be flushed (or dropped)
+     */
+    private boolean isReady(final @Nullable UniqueStatement head) {
+        return BarrierStatement.isReady(head, this::signalWriters);
+    }
+
+    private boolean isShard(final @NonNull Plot plot, final int shard) {
+        return shard < 0 || Math.floorMod(plot.hashCode(), this.writers) == shard;
+    }
+
+    /**
+     * Run the notify tasks once every queued statement has been flushed by all writers
+     */
+    private void runNotifyTasks() {
+        if (this.notifyTasks.isEmpty() || this.activeBatches.get() > 0 || hasTasks(-1)) {
+            return;
+        }
+        Runnable task;
+        while ((task = this.notifyTasks.poll()) != null) {
+            TaskManager.runTask(task);
+        }
     }
 
     public boolean isValid() {
         try {
-            if (connection.isClosed()) {
+            if (this.getConnection().isClosed()) {
                 return false;
             }
         } catch (SQLException e) {
             return false;
         }
-        try (PreparedStatement stmt = this.connection.prepareStatement("SELECT 1")) {
+        try (PreparedStatement stmt = this.getConnection().prepareStatement("SELECT 1")) {
             stmt.execute();
             return true;
         } catch (Throwable e) {
@@ -244,14 +426,30 @@ public class SQLManager implements AbstractDB {
 
     public void reconnect() {
         try {
-            close();
-            SQLManager.this.closed = false;
-            SQLManager.this.connection = database.forceConnection();
+            final Connection writer = this.writerConnection.get();
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (SQLException ignored) {
+                }
+                this.writerConnection.set(this.database.createConnection());
+                return;
+            }
+            reopenConnection();
         } catch (SQLException | ClassNotFoundException e) {
             e.printStackTrace();
         }
     }
 
+    private void reopenConnection() throws SQLException, ClassNotFoundException {
+        try {
+            this.connection.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        this.connection = this.database.forceConnection();
+    }
+
     public synchronized Queue<Runnable> getGlobalTasks() {
         return this.globalTasks;
     }
@@ -261,11 +459,6 @@ public class SQLManager implements AbstractDB {
     }
 
     public synchronized void addPlotTask(@NonNull Plot plot, UniqueStatement task) {
-        Queue<UniqueStatement> tasks = this.plotTasks.get(plot);
-        if (tasks == null) {
-            tasks = new ConcurrentLinkedQueue<>();
-            this.plotTasks.put(plot, tasks);
-        }
         if (task == null) {
             task = new UniqueStatement(String.valueOf(plot.hashCode())) {
 
@@ -288,18 +481,13 @@ public class SQLManager implements AbstractDB {
 
             };
         }
-        tasks.add(task);
+        addTask(this.plotTasks, plot, task);
     }
 
     public synchronized void addPlayerTask(UUID uuid, UniqueStatement task) {
         if (uuid == null) {
             return;
         }
-        Queue<UniqueStatement> tasks = this.playerTasks.get(uuid);
-        if (tasks == null) {
-            tasks = new ConcurrentLinkedQueue<>();
-            this.playerTasks.put(uuid, tasks);
-        }
         if (task == null) {
             task = new UniqueStatement(String.valueOf(uuid.hashCode())) {
 
@@ -322,15 +510,10 @@ public class SQLManager implements AbstractDB {
 
             };
         }
-        tasks.add(task);
+        addTask(this.playerTasks, uuid, task);
     }
 
     public synchronized void addClusterTask(PlotCluster cluster, UniqueStatement task) {
-        Queue<UniqueStatement> tasks = this.clusterTasks.get(cluster);
-        if (tasks == null) {
-            tasks = new ConcurrentLinkedQueue<>();
-            this.clusterTasks.put(cluster, tasks);
-        }
         if (task == null) {
             task = new UniqueStatement(String.valueOf(cluster.hashCode())) {
 
@@ -353,24 +536,168 @@ public class SQLManager implements AbstractDB {
 
             };
         }
-        tasks.add(task);
+        addTask(this.clusterTasks, cluster, task);
     }
 
     public synchronized void addGlobalTask(Runnable task) {
         getGlobalTasks().add(task);
+        signalWriters();
     }
 
     public synchronized void addNotifyTask(Runnable task) {
         if (task != null) {
             getNotifyTasks().add(task);
+            signalWriters();
         }
     }
 
+    /**
+     * Queue a statement for the source plot that moves rows between the source and the target
+     * plot. The statement is flushed once every task queued for the target before it has been
+     * flushed, and tasks queued for the target afterwards are only flushed once the statement
+     * has been committed, even if the plots are handled by different writers.
+     *
+     * @param source    Plot the statement is queued for
+     * @param target    Plot whose row is affected as well
+     * @param statement Statement
+     */
+    private synchronized void addBarrierTask(
+            final @NonNull Plot source,
+            final @NonNull Plot target,
+            final @NonNull BarrierStatement statement
+    ) {
+        if (source.equals(target)) {
+            // Both plots share a queue, which is flushed in order anyway
+            statement.withoutMarker();
+        } else {
+            addTask(this.plotTasks, target, statement.createMarker());
+        }
+        addTask(this.plotTasks, source, statement);
+    }
+
+    private <K> void addTask(
+            final @NonNull ConcurrentHashMap<K, Queue<UniqueStatement>> tasks,
+            final @NonNull K key,
+            final @NonNull UniqueStatement task
+    ) {
+        // Queue creation and insertion are atomic with the removal of empty queues in sendBatch
+        tasks.compute(key, (k, queue) -> {
+            if (queue == null) {
+                queue = new ConcurrentLinkedQueue<>();
+            }
+            // The new statement is added first, so the queue never appears empty to a writer
+            queue.add(task);
+            final int coalesced = coalesce(queue, task);
+            if (coalesced > 0) {
+                this.coalescedStatements.addAndGet(coalesced);
+            }
+            return queue;
+        });
+        this.enqueuedStatements.incrementAndGet();
+        signalWriters();
+    }
+
+    /**
+     * Remove the statements that share the {@link UniqueStatement#coalescingKey} of a statement
+     * that was just added to a queue. Statements queued before a barrier apply to the row before
+     * it was moved, so they are never replaced.
+     *
+     * @param queue Queue the statement was added to
+     * @param task  Statement
+     * @return the amount of removed statements
+     */
+    static int coalesce(final @NonNull Queue<UniqueStatement> queue, final @NonNull UniqueStatement task) {
+        if (task.coalescingKey == null) {
+            return 0;
+        }
+        UniqueStatement fence = null;
+        for (final UniqueStatement queued : queue) {
+            if (BarrierStatement.isBarrier(queued)) {
+                fence = queued;
+            }
+        }
+        boolean replaceable = fence == null;
+        int removed = 0;
+        final Iterator<UniqueStatement> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            final UniqueStatement queued = iterator.next();
+            if (queued == fence) {
+                replaceable = true;
+            } else if (replaceable && queued != task && task.coalescingKey.equals(queued.coalescingKey)) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Get the amount of statements queued for a plot, player or cluster since startup
+     *
+     * @return enqueued statements
+     * @since 6.11.0
+     */
+    public long getEnqueuedStatements() {
+        return this.enqueuedStatements.get();
+    }
+
+    /**
+     * Get the amount of queued statements that were dropped because a later statement with
+     * the same {@link UniqueStatement#coalescingKey} replaced them before they were flushed
+     *
+     * @return coalesced statements
+     * @since 6.11.0
+     */
+    public long getCoalescedStatements() {
+        return this.coalescedStatements.get();
+    }
+
+    /**
+     * Get the amount of queued statements that were flushed to the database since startup
+     *
+     * @return executed statements
+     * @since 6.11.0
+     */
+    public long getExecutedStatements() {
+        return this.executedStatements.get();
+    }
+
+    /**
+     * Flush the next batch of queued tasks of all writers on the calling thread's connection
+     *
+     * @return {@code true} if any task was flushed
+     */
     public boolean sendBatch() {
+        return sendBatch(-1);
+    }
+
+    private boolean sendBatch(final int shard) {
+        if (!getGlobalTasks().isEmpty()) {
+            if (shard > 0) {
+                // Global tasks are flushed exclusively by the primary writer before anything else
+                return false;
+            }
+            this.batchLock.writeLock().lock();
+            try {
+                return sendGlobalTask();
+            } finally {
+                this.batchLock.writeLock().unlock();
+                signalWriters();
+            }
+        }
+        this.batchLock.readLock().lock();
+        try {
+            return sendStatements(shard);
+        } finally {
+            this.batchLock.readLock().unlock();
+        }
+    }
+
+    private boolean sendGlobalTask() {
         try {
             if (!getGlobalTasks().isEmpty()) {
-                if (this.connection.getAutoCommit()) {
-                    this.connection.setAutoCommit(false);
+                if (this.getConnection().getAutoCommit()) {
+                    this.getConnection().setAutoCommit(false);
                 }
                 Runnable task = getGlobalTasks().remove();
                 if (task != null) {
@@ -388,11 +715,39 @@ public class SQLManager implements AbstractDB {
                 commit();
                 return true;
             }
+        } catch (Throwable e) {
+            LOGGER.error("============ DATABASE ERROR ============");
+            LOGGER.error("There was an error updating the database.");
+            LOGGER.error(" - It will be corrected on shutdown");
+            LOGGER.error("========================================");
+            e.printStackTrace();
+            LOGGER.error("========================================");
+        }
+        return false;
+    }
+
+    private boolean sendStatements(final int shard) {
+        final List<BarrierStatement> barriers = new ArrayList<>();
+        try {
+            return sendStatements(shard, barriers);
+        } finally {
+            // Released after the commit, or after a failure so that the other plot is not blocked forever
+            for (final BarrierStatement barrier : barriers) {
+                barrier.release();
+            }
+            if (!barriers.isEmpty()) {
+                signalWriters();
+            }
+        }
+    }
+
+    private boolean sendStatements(final int shard, final @NonNull List<BarrierStatement> barriers) {
+        try {
             int count = -1;
             if (!this.plotTasks.isEmpty()) {
                 count = Math.max(count, 0);
-                if (this.connection.getAutoCommit()) {
-                    this.connection.setAutoCommit(false);
+                if (this.getConnection().getAutoCommit()) {
+                    this.getConnection().setAutoCommit(false);
                 }
                 String method = null;
                 PreparedStatement statement = null;
@@ -403,13 +758,27 @@ public class SQLManager implements AbstractDB {
                 while (iterator.hasNext()) {
                     try {
                         Entry<Plot, Queue<UniqueStatement>> entry = iterator.next();
+                        if (!isShard(entry.getKey(), shard)) {
+                            continue;
+                        }
                         Queue<UniqueStatement> tasks = entry.getValue();
                         if (tasks.isEmpty()) {
-                            iterator.remove();
+                            removeIfEmpty(this.plotTasks, entry.getKey());
+                            continue;
+                        }
+                        if (!isReady(tasks.peek())) {
                             continue;
                         }
                         task = tasks.remove();
                         count++;
+                        if (BarrierStatement.isMarker(task)) {
+                            // Released marker, the statement it waited for has been committed
+                            task = lastTask;
+                            continue;
+                        }
+                        if (task instanceof BarrierStatement barrier) {
+                            barriers.add(barrier);
+                        }
                         if (task != null) {
                             if (task.method == null || !task.method.equals(method)
                                     || statement == null) {
@@ -422,6 +791,7 @@ public class SQLManager implements AbstractDB {
                             }
                             task.set(statement);
                             task.addBatch(statement);
+                            this.executedStatements.incrementAndGet();
                             try {
                                 if (statement.isClosed()) {
                                     statement = null;
@@ -444,10 +814,10 @@ public class SQLManager implements AbstractDB {
                     statement.close();
                 }
             }
-            if (!this.playerTasks.isEmpty()) {
+            if (shard <= 0 && !this.playerTasks.isEmpty()) {
                 count = Math.max(count, 0);
-                if (this.connection.getAutoCommit()) {
-                    this.connection.setAutoCommit(false);
+                if (this.getConnection().getAutoCommit()) {
+                    this.getConnection().setAutoCommit(false);
                 }
                 String method = null;
                 PreparedStatement statement = null;
@@ -456,11 +826,11 @@ public class SQLManager implements AbstractDB {
                 for (Entry<UUID, Queue<UniqueStatement>> entry : this.playerTasks.entrySet()) {
                     try {
                         UUID uuid = entry.getKey();
-                        if (this.playerTasks.get(uuid).isEmpty()) {
-                            this.playerTasks.remove(uuid);
+                        if (entry.getValue().isEmpty()) {
+                            removeIfEmpty(this.playerTasks, uuid);
                             continue;
                         }
-                        task = this.playerTasks.get(uuid).remove();
+                        task = entry.getValue().remove();
                         count++;
                         if (task != null) {
                             if (task.method == null || !task.method.equals(method)) {
@@ -473,6 +843,7 @@ public class SQLManager implements AbstractDB {
                             }
                             task.set(statement);
                             task.addBatch(statement);
+                            this.executedStatements.incrementAndGet();
                         }
                         lastTask = task;
                     } catch (Throwable e) {
@@ -489,10 +860,10 @@ public class SQLManager implements AbstractDB {
                     statement.close();
                 }
             }
-            if (!this.clusterTasks.isEmpty()) {
+            if (shard <= 0 && !this.clusterTasks.isEmpty()) {
                 count = Math.max(count, 0);
-                if (this.connection.getAutoCommit()) {
-                    this.connection.setAutoCommit(false);
+                if (this.getConnection().getAutoCommit()) {
+                    this.getConnection().setAutoCommit(false);
                 }
                 String method = null;
                 PreparedStatement statement = null;
@@ -502,11 +873,11 @@ public class SQLManager implements AbstractDB {
                         .entrySet()) {
                     try {
                         PlotCluster cluster = entry.getKey();
-                        if (this.clusterTasks.get(cluster).isEmpty()) {
-                            this.clusterTasks.remove(cluster);
+                        if (entry.getValue().isEmpty()) {
+                            removeIfEmpty(this.clusterTasks, cluster);
                             continue;
                         }
-                        task = this.clusterTasks.get(cluster).remove();
+                        task = entry.getValue().remove();
                         count++;
                         if (task != null) {
                             if (task.method == null || !task.method.equals(method)) {
@@ -519,6 +890,7 @@ public class SQLManager implements AbstractDB {
                             }
                             task.set(statement);
                             task.addBatch(statement);
+                            this.executedStatements.incrementAndGet();
                         }
                         lastTask = task;
                     } catch (Throwable e) {
@@ -536,20 +908,16 @@ public class SQLManager implements AbstractDB {
                 }
             }
             if (count > 0) {
-                commit();
+                if (tryCommit()) {
+                    barriers.forEach(BarrierStatement::markCommitted);
+                }
                 return true;
             }
             if (count != -1) {
-                if (!this.connection.getAutoCommit()) {
-                    this.connection.setAutoCommit(true);
+                if (!this.getConnection().getAutoCommit()) {
+                    this.getConnection().setAutoCommit(true);
                 }
             }
-            if (!this.clusterTasks.isEmpty()) {
-                this.clusterTasks.clear();
-            }
-            if (!this.plotTasks.isEmpty()) {
-                this.plotTasks.clear();
-            }
         } catch (Throwable e) {
             LOGGER.error("============ DATABASE ERROR ============");
             LOGGER.error("There was an error updating the database.");
@@ -561,7 +929,24 @@ public class SQLManager implements AbstractDB {
         return false;
     }
 
+    private static <K> void removeIfEmpty(
+            final @NonNull ConcurrentHashMap<K, Queue<UniqueStatement>> tasks,
+            final @NonNull K key
+    ) {
+        tasks.computeIfPresent(key, (k, queue) -> queue.isEmpty() ? null : queue);
+    }
+
+    /**
+     * Get the connection used by the current thread. Writer threads other than the primary
+     * writer use their own pooled connection, every other thread uses the primary connection.
+     *
+     * @return Connection
+     */
     public Connection getConnection() {
+        final Connection writer = this.writerConnection.get();
+        if (writer != null) {
+            return writer;
+        }
         return this.connection;
     }
 
@@ -573,7 +958,7 @@ public class SQLManager implements AbstractDB {
      */
     @Override
     public void setOwner(final Plot plot, final UUID uuid) {
-        addPlotTask(plot, new UniqueStatement("setOwner") {
+        addPlotTask(plot, new UniqueStatement("setOwner", "owner") {
             @Override
             public void set(PreparedStatement statement) throws SQLException {
                 statement.setString(1, uuid.toString());
@@ -584,7 +969,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(SQLManager.this.SET_OWNER);
+                return SQLManager.this.getConnection().prepareStatement(SQLManager.this.SET_OWNER);
             }
         });
     }
@@ -609,7 +994,7 @@ public class SQLManager implements AbstractDB {
                         final ArrayList<UUIDPair> denied = new ArrayList<>();
 
                         // Populating structures
-                        try (PreparedStatement stmt = SQLManager.this.connection
+                        try (PreparedStatement stmt = SQLManager.this.getConnection()
                                 .prepareStatement(SQLManager.this.GET_ALL_PLOTS);
                              ResultSet result = stmt.executeQuery()) {
                             while (result.next()) {
@@ -619,6 +1004,7 @@ public class SQLManager implements AbstractDB {
                                 PlotId plotId = PlotId.of(x, y);
                                 Plot plot = plotMap.get(plotId);
                                 idMap.put(plotId, id);
+                                SQLManager.this.plotRows.put(result.getString("world"), plotId, id);
                                 if (plot != null) {
                                     settings.add(new LegacySettings(id, plot.getSettings()));
                                     for (UUID uuid : plot.getDenied()) {
@@ -640,7 +1026,7 @@ public class SQLManager implements AbstractDB {
                                         () -> createTiers(trusted, "trusted",
                                                 () -> createTiers(denied, "denied", () -> {
                                                     try {
-                                                        SQLManager.this.connection.commit();
+                                                        SQLManager.this.getConnection().commit();
                                                     } catch (SQLException e) {
                                                         e.printStackTrace();
                                                     }
@@ -654,7 +1040,7 @@ public class SQLManager implements AbstractDB {
                     } catch (SQLException e) {
                         LOGGER.warn("Failed to set all flags and member tiers for plots", e);
                         try {
-                            SQLManager.this.connection.commit();
+                            SQLManager.this.getConnection().commit();
                         } catch (SQLException e1) {
                             e1.printStackTrace();
                         }
@@ -663,7 +1049,7 @@ public class SQLManager implements AbstractDB {
             } catch (Exception e) {
                 LOGGER.warn("Warning! Failed to set all helper for plots", e);
                 try {
-                    SQLManager.this.connection.commit();
+                    SQLManager.this.getConnection().commit();
                 } catch (SQLException e1) {
                     e1.printStackTrace();
                 }
@@ -724,7 +1110,7 @@ public class SQLManager implements AbstractDB {
     }
 
     public void createFlags(Map<PlotId, Integer> ids, List<Plot> plots, Runnable whenDone) {
-        try (final PreparedStatement preparedStatement = this.connection.prepareStatement(
+        try (final PreparedStatement preparedStatement = this.getConnection().prepareStatement(
                 "INSERT INTO `" + SQLManager.this.prefix
                         + "plot_flags`(`plot_id`, `flag`, `value`) VALUES(?, ?, ?)")) {
             for (final Plot plot : plots) {
@@ -849,13 +1235,13 @@ public class SQLManager implements AbstractDB {
                 if (last == -1) {
                     last = subList.size();
                     statement = mod.getCreateMySQL(subList.size());
-                    preparedStmt = this.connection.prepareStatement(statement);
+                    preparedStmt = this.getConnection().prepareStatement(statement);
                 }
                 if (subList.size() != last || count % 5000 == 0 && count > 0) {
                     preparedStmt.executeBatch();
                     preparedStmt.close();
                     statement = mod.getCreateMySQL(subList.size());
-                    preparedStmt = this.connection.prepareStatement(statement);
+                    preparedStmt = this.getConnection().prepareStatement(statement);
                 }
                 for (int i = 0; i < subList.size(); i++) {
                     count++;
@@ -891,13 +1277,13 @@ public class SQLManager implements AbstractDB {
                 if (last == -1) {
                     last = subList.size();
                     statement = mod.getCreateSQLite(subList.size());
-                    preparedStmt = this.connection.prepareStatement(statement);
+                    preparedStmt = this.getConnection().prepareStatement(statement);
                 }
                 if (subList.size() != last || count % 5000 == 0 && count > 0) {
                     preparedStmt.executeBatch();
                     preparedStmt.clearParameters();
                     statement = mod.getCreateSQLite(subList.size());
-                    preparedStmt = this.connection.prepareStatement(statement);
+                    preparedStmt = this.getConnection().prepareStatement(statement);
                 }
                 for (int i = 0; i < subList.size(); i++) {
                     count++;
@@ -914,7 +1300,7 @@ public class SQLManager implements AbstractDB {
             e.printStackTrace();
             LOGGER.error("2: | {}", objList.get(0).getClass().getCanonicalName());
             LOGGER.error("Could not bulk save!");
-            try (PreparedStatement preparedStmt = this.connection
+            try (PreparedStatement preparedStmt = this.getConnection()
                     .prepareStatement(mod.getCreateSQL())) {
                 for (T obj : objList) {
                     mod.setSQL(preparedStmt, obj);
@@ -932,7 +1318,7 @@ public class SQLManager implements AbstractDB {
     }
 
     public void createSettings(final ArrayList<LegacySettings> myList, final Runnable whenDone) {
-        try (final PreparedStatement preparedStatement = this.connection.prepareStatement(
+        try (final PreparedStatement preparedStatement = this.getConnection().prepareStatement(
                 "INSERT INTO `" + SQLManager.this.prefix + "plot_settings`"
                         + "(`plot_plot_id`,`biome`,`rain`,`custom_time`,`time`,`deny_entry`,`alias`,`merged`,`position`) VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
 
@@ -1060,7 +1446,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         SQLManager.this.CREATE_PLOT_SAFE,
                         Statement.RETURN_GENERATED_KEYS
                 );
@@ -1078,6 +1464,7 @@ public class SQLManager implements AbstractDB {
                     try (ResultSet keys = statement.getGeneratedKeys()) {
                         if (keys.next()) {
                             plot.temp = keys.getInt(1);
+                            SQLManager.this.plotRows.put(plot.getArea().toString(), plot.getId(), plot.temp);
                             addPlotTask(plot, new UniqueStatement(
                                     "createPlotAndSettings_settings_" + plot.hashCode()) {
                                 @Override
@@ -1088,7 +1475,7 @@ public class SQLManager implements AbstractDB {
 
                                 @Override
                                 public PreparedStatement get() throws SQLException {
-                                    return SQLManager.this.connection.prepareStatement(
+                                    return SQLManager.this.getConnection().prepareStatement(
                                             "INSERT INTO `" + SQLManager.this.prefix
                                                     + "plot_settings`(`plot_plot_id`) VALUES(?)");
                                 }
@@ -1108,16 +1495,27 @@ public class SQLManager implements AbstractDB {
     }
 
     public void commit() {
+        tryCommit();
+    }
+
+    /**
+     * Commit the current transaction of the connection used by this thread
+     *
+     * @return {@code true} if nothing was left uncommitted
+     */
+    private boolean tryCommit() {
         if (this.closed) {
-            return;
+            return false;
         }
         try {
-            if (!this.connection.getAutoCommit()) {
-                this.connection.commit();
-                this.connection.setAutoCommit(true);
+            if (!this.getConnection().getAutoCommit()) {
+                this.getConnection().commit();
+                this.getConnection().setAutoCommit(true);
             }
+            return true;
         } catch (SQLException e) {
             e.printStackTrace();
+            return false;
         }
     }
 
@@ -1135,7 +1533,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection
+                return SQLManager.this.getConnection()
                         .prepareStatement(SQLManager.this.CREATE_PLOT, Statement.RETURN_GENERATED_KEYS);
             }
 
@@ -1149,6 +1547,7 @@ public class SQLManager implements AbstractDB {
                 try (ResultSet keys = statement.getGeneratedKeys()) {
                     if (keys.next()) {
                         plot.temp = keys.getInt(1);
+                        SQLManager.this.plotRows.put(plot.getArea().toString(), plot.getId(), plot.temp);
                     }
                 }
             }
@@ -1161,7 +1560,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "INSERT INTO `" + SQLManager.this.prefix
                                 + "plot_settings`(`plot_plot_id`) VALUES(?)");
             }
@@ -1179,7 +1578,7 @@ public class SQLManager implements AbstractDB {
         String[] tables =
                 new String[]{"plot", "plot_denied", "plot_helpers", "plot_comments", "plot_trusted",
                         "plot_rating", "plot_settings", "cluster", "player_meta", "plot_flags"};
-        DatabaseMetaData meta = this.connection.getMetaData();
+        DatabaseMetaData meta = this.getConnection().getMetaData();
         int create = 0;
         for (String s : tables) {
             ResultSet set = meta.getTables(null, null, this.prefix + s, new String[]{"TABLE"});
@@ -1193,7 +1592,7 @@ public class SQLManager implements AbstractDB {
             return;
         }
         boolean addConstraint = create == tables.length;
-        try (Statement stmt = this.connection.createStatement()) {
+        try (Statement stmt = this.getConnection().createStatement()) {
             if (this.mySQL) {
                 stmt.addBatch("CREATE TABLE IF NOT EXISTS `" + this.prefix + "plot` ("
                         + "`id` INT(11) NOT NULL AUTO_INCREMENT," + "`plot_id_x` INT(11) NOT NULL,"
@@ -1339,7 +1738,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "DELETE FROM `" + SQLManager.this.prefix
                                 + "plot_settings` WHERE `plot_plot_id` = ?");
             }
@@ -1359,7 +1758,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "DELETE FROM `" + SQLManager.this.prefix
                                 + "plot_helpers` WHERE `plot_plot_id` = ?");
             }
@@ -1379,7 +1778,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "DELETE FROM `" + SQLManager.this.prefix
                                 + "plot_trusted` WHERE `plot_plot_id` = ?");
             }
@@ -1399,7 +1798,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "DELETE FROM `" + SQLManager.this.prefix
                                 + "plot_denied` WHERE `plot_plot_id` = ?");
             }
@@ -1417,7 +1816,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "DELETE FROM `" + SQLManager.this.prefix
                                 + "plot_comments` WHERE `world` = ? AND `hashcode` = ?");
             }
@@ -1437,7 +1836,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "DELETE FROM `" + SQLManager.this.prefix
                                 + "plot_rating` WHERE `plot_plot_id` = ?");
             }
@@ -1460,12 +1859,14 @@ public class SQLManager implements AbstractDB {
         addPlotTask(plot, new UniqueStatement("delete_plot") {
             @Override
             public void set(PreparedStatement statement) throws SQLException {
-                statement.setInt(1, getId(plot));
+                final int id = getId(plot);
+                statement.setInt(1, id);
+                SQLManager.this.plotRows.remove(plot.getArea().toString(), plot.getId(), id);
             }
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "DELETE FROM `" + SQLManager.this.prefix + "plot` WHERE `id` = ?");
             }
         });
@@ -1487,7 +1888,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "INSERT INTO `" + SQLManager.this.prefix
                                 + "plot_settings`(`plot_plot_id`) VALUES(?)");
             }
@@ -1505,7 +1906,7 @@ public class SQLManager implements AbstractDB {
                 return cluster.temp;
             }
             int c_id;
-            try (PreparedStatement stmt = this.connection.prepareStatement(
+            try (PreparedStatement stmt = this.getConnection().prepareStatement(
                     "SELECT `id` FROM `" + this.prefix
                             + "cluster` WHERE `pos1_x` = ? AND `pos1_z` = ? AND `pos2_x` = ? AND `pos2_z` = ? AND `world` = ? ORDER BY `timestamp` ASC")) {
                 stmt.setInt(1, cluster.getP1().getX());
@@ -1539,13 +1940,18 @@ public class SQLManager implements AbstractDB {
         if (plot.temp > 0) {
             return plot.temp;
         }
+        final int indexed = this.plotRows.get(plot.getArea().toString(), plot.getId());
+        if (indexed > 0) {
+            plot.temp = indexed;
+            return indexed;
+        }
         try {
             commit();
             if (plot.temp > 0) {
                 return plot.temp;
             }
             int id;
-            try (PreparedStatement statement = this.connection.prepareStatement(
+            try (PreparedStatement statement = this.getConnection().prepareStatement(
                     "SELECT `id` FROM `" + this.prefix
                             + "plot` WHERE `plot_id_x` = ? AND `plot_id_z` = ? AND world = ? ORDER BY `timestamp` ASC")) {
                 statement.setInt(1, plot.getId().getX());
@@ -1565,6 +1971,7 @@ public class SQLManager implements AbstractDB {
                 throw new SQLException("Plot does not exist in database");
             }
             plot.temp = id;
+            this.plotRows.put(plot.getArea().toString(), plot.getId(), id);
             return id;
         } catch (SQLException e) {
             e.printStackTrace();
@@ -1576,13 +1983,13 @@ public class SQLManager implements AbstractDB {
     public void updateTables(int[] oldVersion) {
         try {
             if (this.mySQL && !PlotSquared.get().checkVersion(oldVersion, 3, 3, 2)) {
-                try (Statement stmt = this.connection.createStatement()) {
+                try (Statement stmt = this.getConnection().createStatement()) {
                     stmt.executeUpdate(
                             "ALTER TABLE `" + this.prefix + "plots` DROP INDEX `unique_alias`");
                 } catch (SQLException ignored) {
                 }
             }
-            DatabaseMetaData data = this.connection.getMetaData();
+            DatabaseMetaData data = this.getConnection().getMetaData();
             ResultSet rs =
                     data.getColumns(null, null, this.prefix + "plot_comments", "plot_plot_id");
             if (rs.next()) {
@@ -1590,7 +1997,7 @@ public class SQLManager implements AbstractDB {
                 rs = data.getColumns(null, null, this.prefix + "plot_comments", "hashcode");
                 if (!rs.next()) {
                     rs.close();
-                    try (Statement statement = this.connection.createStatement()) {
+                    try (Statement statement = this.getConnection().createStatement()) {
                         statement.addBatch("DROP TABLE `" + this.prefix + "plot_comments`");
                         if (Storage.MySQL.USE) {
                             statement.addBatch(
@@ -1611,7 +2018,7 @@ public class SQLManager implements AbstractDB {
                         }
                         statement.executeBatch();
                     } catch (SQLException ignored) {
-                        try (Statement statement = this.connection.createStatement()) {
+                        try (Statement statement = this.getConnection().createStatement()) {
                             statement.addBatch("ALTER IGNORE TABLE `" + this.prefix
                                     + "plot_comments` ADD `inbox` VARCHAR(11) DEFAULT `public`");
                             statement.addBatch("ALTER IGNORE TABLE `" + this.prefix
@@ -1625,7 +2032,7 @@ public class SQLManager implements AbstractDB {
             rs.close();
             rs = data.getColumns(null, null, this.prefix + "plot_denied", "plot_plot_id");
             if (rs.next()) {
-                try (Statement statement = this.connection.createStatement()) {
+                try (Statement statement = this.getConnection().createStatement()) {
                     statement.executeUpdate("DELETE FROM `" + this.prefix
                             + "plot_denied` WHERE `plot_plot_id` NOT IN (SELECT `id` FROM `"
                             + this.prefix + "plot`)");
@@ -1634,7 +2041,7 @@ public class SQLManager implements AbstractDB {
                 }
 
                 rs.close();
-                try (Statement statement = this.connection.createStatement()) {
+                try (Statement statement = this.getConnection().createStatement()) {
                     for (String table : new String[]{"plot_denied", "plot_helpers",
                             "plot_trusted"}) {
                         ResultSet result = statement.executeQuery(
@@ -1706,7 +2113,7 @@ public class SQLManager implements AbstractDB {
     @Override
     public boolean convertFlags() {
         final Map<Integer, Map<String, String>> flagMap = new HashMap<>();
-        try (Statement statement = this.connection.createStatement()) {
+        try (Statement statement = this.getConnection().createStatement()) {
             try (ResultSet resultSet = statement
                     .executeQuery("SELECT * FROM `" + this.prefix + "plot_settings`")) {
                 while (resultSet.next()) {
@@ -1736,7 +2143,7 @@ public class SQLManager implements AbstractDB {
         }
         LOGGER.info("Loaded {} plot flag collections...", flagMap.size());
         LOGGER.info("Attempting to store these flags in the new table...");
-        try (final PreparedStatement preparedStatement = this.connection.prepareStatement(
+        try (final PreparedStatement preparedStatement = this.getConnection().prepareStatement(
                 "INSERT INTO `" + SQLManager.this.prefix
                         + "plot_flags`(`plot_id`, `flag`, `value`) VALUES(?, ?, ?)")) {
 
@@ -1793,6 +2200,7 @@ public class SQLManager implements AbstractDB {
      */
     @Override
     public HashMap<String, HashMap<PlotId, Plot>> getPlots() {
+        final long loadStart = System.currentTimeMillis();
         HashMap<String, HashMap<PlotId, Plot>> newPlots = new HashMap<>();
         HashMap<Integer, Plot> plots = new HashMap<>();
         try {
@@ -1815,13 +2223,16 @@ public class SQLManager implements AbstractDB {
                     }
                 }
             }
-            HashMap<String, UUID> uuids = new HashMap<>();
+            final Map<String, UUID> uuids = new ConcurrentHashMap<>();
             HashMap<String, AtomicInteger> noExist = new HashMap<>();
 
             /*
              * Getting plots
              */
-            try (Statement statement = this.connection.createStatement()) {
+            final Map<String, Long> timings = new LinkedHashMap<>();
+            long phaseStart = System.currentTimeMillis();
+            try (Statement statement = this.getConnection().createStatement()) {
+                statement.setFetchSize(FETCH_SIZE);
                 int id;
                 String o;
                 UUID user;
@@ -1908,25 +2319,34 @@ public class SQLManager implements AbstractDB {
                             map.put(p.getId(), p);
                         }
                         plots.put(id, p);
+                        this.plotRows.put(areaID, plot_id, id);
                     }
                     deleteRows(toDelete, this.prefix + "plot", "id");
                 }
-                if (Settings.Enabled_Components.RATING_CACHE) {
+            }
+            timings.put("plot", System.currentTimeMillis() - phaseStart);
+
+            /*
+             * The remaining tables only reference plots by their row id, so they are read
+             * concurrently, each on its own connection. Loaders only collect the rows, the plots
+             * are updated (and invalid rows purged) once every table was read.
+             */
+            final Set<Integer> withSettings = ConcurrentHashMap.newKeySet();
+            final Map<String, TableLoader> loaders = new LinkedHashMap<>();
+            if (Settings.Enabled_Components.RATING_CACHE) {
+                loaders.put("plot_rating", statement -> {
                     try (ResultSet r = statement.executeQuery(
                             "SELECT `plot_plot_id`, `player`, `rating` FROM `" + this.prefix
                                     + "plot_rating`")) {
                         ArrayList<Integer> toDelete = new ArrayList<>();
+                        final List<Runnable> ratings = new ArrayList<>();
                         while (r.next()) {
-                            id = r.getInt("plot_plot_id");
-                            o = r.getString("player");
-                            user = uuids.get(o);
-                            if (user == null) {
-                                user = UUID.fromString(o);
-                                uuids.put(o, user);
-                            }
+                            int id = r.getInt("plot_plot_id");
+                            UUID user = uuids.computeIfAbsent(r.getString("player"), UUID::fromString);
                             Plot plot = plots.get(id);
                             if (plot != null) {
-                                plot.getSettings().getRatings().put(user, r.getInt("rating"));
+                                final int rating = r.getInt("rating");
+                                ratings.add(() -> plot.getSettings().getRatings().put(user, rating));
                             } else if (Settings.Enabled_Components.DATABASE_PURGER) {
                                 toDelete.add(id);
                             } else {
@@ -1934,99 +2354,26 @@ public class SQLManager implements AbstractDB {
                                         + " Create this plot or set `database-purger: true` in settings.yml", id, plot);
                             }
                         }
-                        deleteRows(toDelete, this.prefix + "plot_rating", "plot_plot_id");
-                    }
-                }
-
-                /*
-                 * Getting helpers
-                 */
-                try (ResultSet r = statement.executeQuery(
-                        "SELECT `user_uuid`, `plot_plot_id` FROM `" + this.prefix + "plot_helpers`")) {
-                    ArrayList<Integer> toDelete = new ArrayList<>();
-                    while (r.next()) {
-                        id = r.getInt("plot_plot_id");
-                        o = r.getString("user_uuid");
-                        user = uuids.get(o);
-                        if (user == null) {
-                            user = UUID.fromString(o);
-                            uuids.put(o, user);
-                        }
-                        Plot plot = plots.get(id);
-                        if (plot != null) {
-                            plot.getTrusted().add(user);
-                        } else if (Settings.Enabled_Components.DATABASE_PURGER) {
-                            toDelete.add(id);
-                        } else {
-                            LOGGER.warn("Entry #{}({}) in `plot_helpers` does not exist."
-                                    + " Create this plot or set `database-purger: true` in settings.yml", id, plot);
-                        }
-                    }
-                    deleteRows(toDelete, this.prefix + "plot_helpers", "plot_plot_id");
-                }
-
-                /*
-                 * Getting trusted
-                 */
-                try (ResultSet r = statement.executeQuery(
-                        "SELECT `user_uuid`, `plot_plot_id` FROM `" + this.prefix + "plot_trusted`")) {
-                    ArrayList<Integer> toDelete = new ArrayList<>();
-                    while (r.next()) {
-                        id = r.getInt("plot_plot_id");
-                        o = r.getString("user_uuid");
-                        user = uuids.get(o);
-                        if (user == null) {
-                            user = UUID.fromString(o);
-                            uuids.put(o, user);
-                        }
-                        Plot plot = plots.get(id);
-                        if (plot != null) {
-                            plot.getMembers().add(user);
-                        } else if (Settings.Enabled_Components.DATABASE_PURGER) {
-                            toDelete.add(id);
-                        } else {
-                            LOGGER.warn("Entry #{}({}) in `plot_trusted` does not exist."
-                                    + " Create this plot or set `database-purger: true` in settings.yml", id, plot);
-                        }
-                    }
-                    deleteRows(toDelete, this.prefix + "plot_trusted", "plot_plot_id");
-                }
-
-                /*
-                 * Getting denied
-                 */
-                try (ResultSet r = statement.executeQuery(
-                        "SELECT `user_uuid`, `plot_plot_id` FROM `" + this.prefix + "plot_denied`")) {
-                    ArrayList<Integer> toDelete = new ArrayList<>();
-                    while (r.next()) {
-                        id = r.getInt("plot_plot_id");
-                        o = r.getString("user_uuid");
-                        user = uuids.get(o);
-                        if (user == null) {
-                            user = UUID.fromString(o);
-                            uuids.put(o, user);
-                        }
-                        Plot plot = plots.get(id);
-                        if (plot != null) {
-                            plot.getDenied().add(user);
-                        } else if (Settings.Enabled_Components.DATABASE_PURGER) {
-                            toDelete.add(id);
-                        } else {
-                            LOGGER.warn("Entry #{}({}) in `plot_denied` does not exist."
-                                    + " Create this plot or set `database-purger: true` in settings.yml", id, plot);
-                        }
+                        return () -> {
+                            ratings.forEach(Runnable::run);
+                            deleteRows(toDelete, this.prefix + "plot_rating", "plot_plot_id");
+                        };
                     }
-                    deleteRows(toDelete, this.prefix + "plot_denied", "plot_plot_id");
-                }
-
+                });
+            }
+            loaders.put("plot_helpers", statement -> loadPlotUsers(statement, "plot_helpers", plots, uuids, Plot::getTrusted));
+            loaders.put("plot_trusted", statement -> loadPlotUsers(statement, "plot_trusted", plots, uuids, Plot::getMembers));
+            loaders.put("plot_denied", statement -> loadPlotUsers(statement, "plot_denied", plots, uuids, Plot::getDenied));
+            loaders.put("plot_flags", statement -> {
+                // allow invalid tags, as initialized lazily. Loaders run concurrently, so this is only set for this thread
+                BlockTypeListFlag.setSkipCategoryVerification(true);
                 try (final ResultSet resultSet = statement
                         .executeQuery("SELECT * FROM `" + this.prefix + "plot_flags`")) {
-                    BlockTypeListFlag.skipCategoryVerification =
-                            true; // allow invalid tags, as initialized lazily
                     final ArrayList<Integer> toDelete = new ArrayList<>();
                     final Map<Plot, Collection<PlotFlag<?, ?>>> invalidFlags = new HashMap<>();
+                    final List<Runnable> flags = new ArrayList<>();
                     while (resultSet.next()) {
-                        id = resultSet.getInt("plot_id");
+                        int id = resultSet.getInt("plot_id");
                         final String flag = resultSet.getString("flag");
                         String value = resultSet.getString("value");
                         final Plot plot = plots.get(id);
@@ -2034,11 +2381,13 @@ public class SQLManager implements AbstractDB {
                             final PlotFlag<?, ?> plotFlag =
                                     GlobalFlagContainer.getInstance().getFlagFromString(flag);
                             if (plotFlag == null) {
-                                plot.getFlagContainer().addUnknownFlag(flag, value);
+                                final String unknownValue = value;
+                                flags.add(() -> plot.getFlagContainer().addUnknownFlag(flag, unknownValue));
                             } else {
                                 value = CaptionUtility.stripClickEvents(plotFlag, value);
                                 try {
-                                    plot.getFlagContainer().addFlag(plotFlag.parse(value));
+                                    final PlotFlag<?, ?> parsed = plotFlag.parse(value);
+                                    flags.add(() -> plot.getFlagContainer().addFlag(parsed));
                                 } catch (final FlagParseException e) {
                                     e.printStackTrace();
                                     LOGGER.error("Plot with ID {} has an invalid value:", id);
@@ -2058,35 +2407,38 @@ public class SQLManager implements AbstractDB {
                                     + " Create this plot or set `database-purger: true` in settings.yml", id, plot);
                         }
                     }
-                    BlockTypeListFlag.skipCategoryVerification =
-                            false; // don't allow invalid tags anymore
-                    if (Settings.Enabled_Components.DATABASE_PURGER) {
-                        for (final Map.Entry<Plot, Collection<PlotFlag<?, ?>>> plotFlagEntry : invalidFlags
-                                .entrySet()) {
-                            for (final PlotFlag<?, ?> flag : plotFlagEntry.getValue()) {
-                                LOGGER.info(
-                                        "Plot {} has an invalid flag ({}). A fix has been attempted",
-                                        plotFlagEntry.getKey(), flag.getName()
-                                );
-                                removeFlag(plotFlagEntry.getKey(), flag);
+                    return () -> {
+                        flags.forEach(Runnable::run);
+                        if (Settings.Enabled_Components.DATABASE_PURGER) {
+                            for (final Map.Entry<Plot, Collection<PlotFlag<?, ?>>> plotFlagEntry : invalidFlags
+                                    .entrySet()) {
+                                for (final PlotFlag<?, ?> flag : plotFlagEntry.getValue()) {
+                                    LOGGER.info(
+                                            "Plot {} has an invalid flag ({}). A fix has been attempted",
+                                            plotFlagEntry.getKey(), flag.getName()
+                                    );
+                                    removeFlag(plotFlagEntry.getKey(), flag);
+                                }
                             }
                         }
-                    }
-                    deleteRows(toDelete, this.prefix + "plot_flags", "plot_id");
-                }
-
+                        deleteRows(toDelete, this.prefix + "plot_flags", "plot_id");
+                    };
+                } finally {
+                    // don't allow invalid tags anymore
+                    BlockTypeListFlag.setSkipCategoryVerification(false);
+                }
+            });
+            loaders.put("plot_settings", statement -> {
                 try (ResultSet resultSet = statement
                         .executeQuery("SELECT * FROM `" + this.prefix + "plot_settings`")) {
                     ArrayList<Integer> toDelete = new ArrayList<>();
+                    final List<Runnable> settings = new ArrayList<>();
                     while (resultSet.next()) {
-                        id = resultSet.getInt("plot_plot_id");
+                        int id = resultSet.getInt("plot_plot_id");
                         Plot plot = plots.get(id);
                         if (plot != null) {
-                            plots.remove(id);
-                            String alias = resultSet.getString("alias");
-                            if (alias != null) {
-                                plot.getSettings().setAlias(alias);
-                            }
+                            final String alias = resultSet.getString("alias");
+                            BlockLoc position = null;
                             String pos = resultSet.getString("position");
                             switch (pos.toLowerCase()) {
                                 case "":
@@ -2097,7 +2449,7 @@ public class SQLManager implements AbstractDB {
                                     break;
                                 default:
                                     try {
-                                        plot.getSettings().setPosition(BlockLoc.fromString(pos));
+                                        position = BlockLoc.fromString(pos);
                                     } catch (Exception ignored) {
                                     }
                             }
@@ -2106,7 +2458,17 @@ public class SQLManager implements AbstractDB {
                             for (int i = 0; i < 4; i++) {
                                 merged[3 - i] = (m & 1 << i) != 0;
                             }
-                            plot.getSettings().setMerged(merged);
+                            final BlockLoc finalPosition = position;
+                            settings.add(() -> {
+                                withSettings.add(id);
+                                if (alias != null) {
+                                    plot.getSettings().setAlias(alias);
+                                }
+                                if (finalPosition != null) {
+                                    plot.getSettings().setPosition(finalPosition);
+                                }
+                                plot.getSettings().setMerged(merged);
+                            });
                         } else if (Settings.Enabled_Components.DATABASE_PURGER) {
                             toDelete.add(id);
                         } else {
@@ -2114,15 +2476,25 @@ public class SQLManager implements AbstractDB {
                                     + " Create this plot or set `database-purger: true` in settings.yml", id, plot);
                         }
                     }
-                    deleteRows(toDelete, this.prefix + "plot_settings", "plot_plot_id");
+                    return () -> {
+                        settings.forEach(Runnable::run);
+                        deleteRows(toDelete, this.prefix + "plot_settings", "plot_plot_id");
+                    };
                 }
-            }
+            });
+            timings.putAll(runTableLoaders(loaders));
+
+            plots.keySet().removeAll(withSettings);
             if (!plots.entrySet().isEmpty()) {
                 createEmptySettings(new ArrayList<>(plots.keySet()), null);
                 for (Entry<Integer, Plot> entry : plots.entrySet()) {
                     entry.getValue().getSettings();
                 }
             }
+            LOGGER.info("Loaded {} plots from the database in {}ms (per table: {})",
+                    newPlots.values().stream().mapToInt(Map::size).sum(),
+                    System.currentTimeMillis() - loadStart, timings
+            );
             boolean invalidPlot = false;
             for (Entry<String, AtomicInteger> entry : noExist.entrySet()) {
                 String worldName = entry.getKey();
@@ -2142,10 +2514,109 @@ public class SQLManager implements AbstractDB {
         return newPlots;
     }
 
+    /**
+     * Read a plot_helpers/plot_trusted/plot_denied table
+     *
+     * @return the task adding the users to the given plots
+     */
+    private @NonNull Runnable loadPlotUsers(
+            final @NonNull Statement statement,
+            final @NonNull String table,
+            final @NonNull Map<Integer, Plot> plots,
+            final @NonNull Map<String, UUID> uuids,
+            final @NonNull Function<Plot, Set<UUID>> users
+    ) throws SQLException {
+        try (ResultSet r = statement.executeQuery(
+                "SELECT `user_uuid`, `plot_plot_id` FROM `" + this.prefix + table + "`")) {
+            ArrayList<Integer> toDelete = new ArrayList<>();
+            final List<Runnable> entries = new ArrayList<>();
+            while (r.next()) {
+                int id = r.getInt("plot_plot_id");
+                UUID user = uuids.computeIfAbsent(r.getString("user_uuid"), UUID::fromString);
+                Plot plot = plots.get(id);
+                if (plot != null) {
+                    entries.add(() -> users.apply(plot).add(user));
+                } else if (Settings.Enabled_Components.DATABASE_PURGER) {
+                    toDelete.add(id);
+                } else {
+                    LOGGER.warn("Entry #{}({}) in `{}` does not exist."
+                            + " Create this plot or set `database-purger: true` in settings.yml", id, plot, table);
+                }
+            }
+            return () -> {
+                entries.forEach(Runnable::run);
+                deleteRows(toDelete, this.prefix + table, "plot_plot_id");
+            };
+        }
+    }
+
+    /**
+     * Run the given table loaders concurrently. Each loader gets its own connection. Loaders that
+     * fail (e.g. because no additional connection could be opened) are read again one after
+     * another on the current thread. As loaders do not change any state while reading, a failed
+     * read leaves nothing behind. The collected changes are applied in order on the current
+     * thread once every table was read.
+     *
+     * @param loaders Loaders by table name
+     * @return the time each loader took in milliseconds, by table name
+     */
+    private Map<String, Long> runTableLoaders(final @NonNull Map<String, TableLoader> loaders) {
+        final Map<String, Long> timings = new ConcurrentHashMap<>();
+        final Map<String, Runnable> changes = new ConcurrentHashMap<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(loaders.size());
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (final Entry<String, TableLoader> entry : loaders.entrySet()) {
+                futures.add(executor.submit(() -> {
+                    final long start = System.currentTimeMillis();
+                    try (Connection connection = this.database.createConnection();
+                         Statement statement = connection.createStatement()) {
+                        statement.setFetchSize(FETCH_SIZE);
+                        changes.put(entry.getKey(), entry.getValue().load(statement));
+                    }
+                    timings.put(entry.getKey(), System.currentTimeMillis() - start);
+                    return null;
+                }));
+            }
+            for (final Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    LOGGER.error("Failed to load plot data concurrently, retrying sequentially", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdown();
+        }
+        for (final Entry<String, TableLoader> entry : loaders.entrySet()) {
+            if (changes.containsKey(entry.getKey())) {
+                continue;
+            }
+            final long start = System.currentTimeMillis();
+            try (Statement statement = this.getConnection().createStatement()) {
+                changes.put(entry.getKey(), entry.getValue().load(statement));
+            } catch (SQLException e) {
+                LOGGER.error("Failed to load `{}`", entry.getKey(), e);
+            }
+            timings.put(entry.getKey(), System.currentTimeMillis() - start);
+        }
+        for (final String table : loaders.keySet()) {
+            final Runnable change = changes.get(table);
+            if (change != null) {
+                final long start = System.currentTimeMillis();
+                change.run();
+                timings.merge(table, System.currentTimeMillis() - start, Long::sum);
+            }
+        }
+        return timings;
+    }
+
     @Override
     public void setMerged(final Plot plot, final boolean[] merged) {
         plot.getSettings().setMerged(merged);
-        addPlotTask(plot, new UniqueStatement("setMerged") {
+        addPlotTask(plot, new UniqueStatement("setMerged", "merged") {
             @Override
             public void set(PreparedStatement statement) throws SQLException {
                 int hash = HashUtil.hash(merged);
@@ -2155,7 +2626,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "UPDATE `" + SQLManager.this.prefix
                                 + "plot_settings` SET `merged` = ? WHERE `plot_plot_id` = ?");
             }
@@ -2165,57 +2636,99 @@ public class SQLManager implements AbstractDB {
     @Override
     public CompletableFuture<Boolean> swapPlots(Plot plot1, Plot plot2) {
         final CompletableFuture<Boolean> future = new CompletableFuture<>();
-        TaskManager.runTaskAsync(() -> {
-            final int id1 = getId(plot1);
-            final int id2 = getId(plot2);
-            final PlotId pos1 = plot1.getId();
-            final PlotId pos2 = plot2.getId();
-            try (final PreparedStatement preparedStatement = this.connection.prepareStatement(
-                    "UPDATE `" + SQLManager.this.prefix
-                            + "plot` SET `plot_id_x` = ?, `plot_id_z` = ? WHERE `id` = ?")) {
-                preparedStatement.setInt(1, pos1.getX());
-                preparedStatement.setInt(2, pos1.getY());
-                preparedStatement.setInt(3, id1);
-                preparedStatement.execute();
-                preparedStatement.setInt(1, pos2.getX());
-                preparedStatement.setInt(2, pos2.getY());
-                preparedStatement.setInt(3, id2);
-                preparedStatement.execute();
-            } catch (final Exception e) {
-                LOGGER.error("Failed to persist wap of {} and {}", plot1, plot2);
-                e.printStackTrace();
-                future.complete(false);
-                return;
+        addBarrierTask(plot1, plot2, new BarrierStatement(null) {
+            private int id1;
+            private int id2;
+            private boolean executed;
+
+            @Override
+            public void set(PreparedStatement statement) throws SQLException {
+                this.id1 = getId(plot1);
+                this.id2 = getId(plot2);
+                statement.setInt(1, plot1.getId().getX());
+                statement.setInt(2, plot1.getId().getY());
+                statement.setInt(3, this.id1);
+            }
+
+            @Override
+            public void addBatch(PreparedStatement statement) throws SQLException {
+                statement.addBatch();
+                statement.setInt(1, plot2.getId().getX());
+                statement.setInt(2, plot2.getId().getY());
+                statement.setInt(3, this.id2);
+                statement.addBatch();
+            }
+
+            @Override
+            public void execute(PreparedStatement statement) throws SQLException {
+                statement.executeBatch();
+                this.executed = true;
+            }
+
+            @Override
+            public PreparedStatement get() throws SQLException {
+                return SQLManager.this.getConnection().prepareStatement(
+                        "UPDATE `" + SQLManager.this.prefix
+                                + "plot` SET `plot_id_x` = ?, `plot_id_z` = ? WHERE `id` = ?");
+            }
+
+            @Override
+            void released(final boolean committed) {
+                final boolean success = this.executed && committed;
+                if (success) {
+                    SQLManager.this.plotRows.put(plot1.getArea().toString(), plot1.getId(), this.id1);
+                    SQLManager.this.plotRows.put(plot2.getArea().toString(), plot2.getId(), this.id2);
+                } else {
+                    LOGGER.error("Failed to persist swap of {} and {}", plot1, plot2);
+                }
+                future.complete(success);
             }
-            future.complete(true);
         });
         return future;
     }
 
     @Override
     public void movePlot(final Plot original, final Plot newPlot) {
-        addPlotTask(original, new UniqueStatement("movePlot") {
+        // Not batched with other moves, so that a failed move cannot be mistaken for a committed one
+        addBarrierTask(original, newPlot, new BarrierStatement(null) {
+            private int id;
+            private boolean executed;
+
             @Override
             public void set(PreparedStatement statement) throws SQLException {
+                this.id = getId(original);
                 statement.setInt(1, newPlot.getId().getX());
                 statement.setInt(2, newPlot.getId().getY());
                 statement.setString(3, newPlot.getArea().toString());
-                statement.setInt(4, getId(original));
+                statement.setInt(4, this.id);
+            }
+
+            @Override
+            public void execute(PreparedStatement statement) throws SQLException {
+                statement.executeBatch();
+                this.executed = true;
+            }
+
+            @Override
+            void released(final boolean committed) {
+                if (this.executed && committed) {
+                    SQLManager.this.plotRows.remove(original.getArea().toString(), original.getId(), this.id);
+                    SQLManager.this.plotRows.put(newPlot.getArea().toString(), newPlot.getId(), this.id);
+                }
             }
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "UPDATE `" + SQLManager.this.prefix
                                 + "plot` SET `plot_id_x` = ?, `plot_id_z` = ?, `world` = ? WHERE `id` = ?");
             }
         });
-        addPlotTask(newPlot, null);
     }
 
     @Override
     public void setFlag(final Plot plot, final PlotFlag<?, ?> flag) {
-        addPlotTask(plot, new UniqueStatement("setFlag") {
+        addPlotTask(plot, new UniqueStatement("setFlag", "flag:" + flag.getName()) {
             @Override
             public void set(PreparedStatement statement) throws SQLException {
                 statement.setInt(1, getId(plot));
@@ -2236,14 +2749,14 @@ public class SQLManager implements AbstractDB {
                             + "plot_flags`(`plot_id`, `flag`, `value`) VALUES(?, ?, ?) "
                             + "ON CONFLICT(`plot_id`,`flag`) DO UPDATE SET `value` = ?";
                 }
-                return SQLManager.this.connection.prepareStatement(statement);
+                return SQLManager.this.getConnection().prepareStatement(statement);
             }
         });
     }
 
     @Override
     public void removeFlag(final Plot plot, final PlotFlag<?, ?> flag) {
-        addPlotTask(plot, new UniqueStatement("removeFlag") {
+        addPlotTask(plot, new UniqueStatement("removeFlag", "flag:" + flag.getName()) {
             @Override
             public void set(PreparedStatement statement) throws SQLException {
                 statement.setInt(1, getId(plot));
@@ -2252,7 +2765,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "DELETE FROM `" + SQLManager.this.prefix
                                 + "plot_flags` WHERE `plot_id` = ? AND `flag` = ?");
             }
@@ -2261,7 +2774,7 @@ public class SQLManager implements AbstractDB {
 
     @Override
     public void setAlias(final Plot plot, final String alias) {
-        addPlotTask(plot, new UniqueStatement("setAlias") {
+        addPlotTask(plot, new UniqueStatement("setAlias", "alias") {
             @Override
             public void set(PreparedStatement statement) throws SQLException {
                 statement.setString(1, alias);
@@ -2270,7 +2783,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "UPDATE `" + SQLManager.this.prefix
                                 + "plot_settings` SET `alias` = ?  WHERE `plot_plot_id` = ?");
             }
@@ -2307,32 +2820,33 @@ public class SQLManager implements AbstractDB {
                             idstr.append(stmt_prefix).append(id);
                             stmt_prefix = " OR `plot_plot_id` = ";
                         }
-                        PreparedStatement stmt = SQLManager.this.connection.prepareStatement(
+                        PreparedStatement stmt = SQLManager.this.getConnection().prepareStatement(
                                 "DELETE FROM `" + SQLManager.this.prefix
                                         + "plot_helpers` WHERE `plot_plot_id` = " + idstr);
                         stmt.executeUpdate();
                         stmt.close();
-                        stmt = SQLManager.this.connection.prepareStatement(
+                        stmt = SQLManager.this.getConnection().prepareStatement(
                                 "DELETE FROM `" + SQLManager.this.prefix
                                         + "plot_denied` WHERE `plot_plot_id` = " + idstr);
                         stmt.executeUpdate();
                         stmt.close();
-                        stmt = SQLManager.this.connection.prepareStatement(
+                        stmt = SQLManager.this.getConnection().prepareStatement(
                                 "DELETE FROM `" + SQLManager.this.prefix
                                         + "plot_settings` WHERE `plot_plot_id` = " + idstr);
                         stmt.executeUpdate();
                         stmt.close();
-                        stmt = SQLManager.this.connection.prepareStatement(
+                        stmt = SQLManager.this.getConnection().prepareStatement(
                                 "DELETE FROM `" + SQLManager.this.prefix
                                         + "plot_trusted` WHERE `plot_plot_id` = " + idstr);
                         stmt.executeUpdate();
                         stmt.close();
-                        stmt = SQLManager.this.connection.prepareStatement(
+                        stmt = SQLManager.this.getConnection().prepareStatement(
                                 "DELETE FROM `" + SQLManager.this.prefix + "plot` WHERE `id` = "
                                         + idstr2);
                         stmt.executeUpdate();
                         stmt.close();
                         commit();
+                        SQLManager.this.plotRows.removeRows(subList);
                     }
                 } catch (SQLException e) {
                     LOGGER.error("Failed to purge plots", e);
@@ -2346,7 +2860,7 @@ public class SQLManager implements AbstractDB {
     @Override
     public void purge(final PlotArea area, final Set<PlotId> plots) {
         addGlobalTask(() -> {
-            try (PreparedStatement stmt = SQLManager.this.connection.prepareStatement(
+            try (PreparedStatement stmt = SQLManager.this.getConnection().prepareStatement(
                     "SELECT `id`, `plot_id_x`, `plot_id_z` FROM `" + SQLManager.this.prefix
                             + "plot` WHERE `world` = ?")) {
                 stmt.setString(1, area.toString());
@@ -2376,7 +2890,7 @@ public class SQLManager implements AbstractDB {
 
     @Override
     public void setPosition(final Plot plot, final String position) {
-        addPlotTask(plot, new UniqueStatement("setPosition") {
+        addPlotTask(plot, new UniqueStatement("setPosition", "position") {
             @Override
             public void set(PreparedStatement statement) throws SQLException {
                 statement.setString(1, position == null ? "" : position);
@@ -2385,7 +2899,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "UPDATE `" + SQLManager.this.prefix
                                 + "plot_settings` SET `position` = ?  WHERE `plot_plot_id` = ?");
             }
@@ -2413,11 +2927,11 @@ public class SQLManager implements AbstractDB {
             @Override
             public PreparedStatement get() throws SQLException {
                 if (plot != null) {
-                    return SQLManager.this.connection.prepareStatement(
+                    return SQLManager.this.getConnection().prepareStatement(
                             "DELETE FROM `" + SQLManager.this.prefix
                                     + "plot_comments` WHERE `world` = ? AND `hashcode` = ? AND `comment` = ? AND `inbox` = ? AND `sender` = ?");
                 }
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "DELETE FROM `" + SQLManager.this.prefix
                                 + "plot_comments` WHERE `comment` = ? AND `inbox` = ? AND `sender` = ?");
             }
@@ -2441,11 +2955,11 @@ public class SQLManager implements AbstractDB {
             @Override
             public PreparedStatement get() throws SQLException {
                 if (plot != null) {
-                    return SQLManager.this.connection.prepareStatement(
+                    return SQLManager.this.getConnection().prepareStatement(
                             "DELETE FROM `" + SQLManager.this.prefix
                                     + "plot_comments` WHERE `world` = ? AND `hashcode` = ? AND `inbox` = ?");
                 }
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "DELETE FROM `" + SQLManager.this.prefix + "plot_comments` `inbox` = ?");
             }
         });
@@ -2471,11 +2985,11 @@ public class SQLManager implements AbstractDB {
             @Override
             public PreparedStatement get() throws SQLException {
                 if (plot != null) {
-                    return SQLManager.this.connection.prepareStatement(
+                    return SQLManager.this.getConnection().prepareStatement(
                             "SELECT * FROM `" + SQLManager.this.prefix
                                     + "plot_comments` WHERE `world` = ? AND `hashcode` = ? AND `inbox` = ?");
                 }
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "SELECT * FROM `" + SQLManager.this.prefix
                                 + "plot_comments` WHERE `inbox` = ?");
             }
@@ -2526,7 +3040,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "INSERT INTO `" + SQLManager.this.prefix
                                 + "plot_comments` (`world`, `hashcode`, `comment`, `inbox`, `timestamp`, `sender`) VALUES(?,?,?,?,?,?)");
             }
@@ -2544,7 +3058,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "DELETE FROM `" + SQLManager.this.prefix
                                 + "plot_helpers` WHERE `plot_plot_id` = ? AND `user_uuid` = ?");
             }
@@ -2562,7 +3076,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "DELETE FROM `" + SQLManager.this.prefix
                                 + "plot_trusted` WHERE `plot_plot_id` = ? AND `user_uuid` = ?");
             }
@@ -2580,7 +3094,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "INSERT INTO `" + SQLManager.this.prefix
                                 + "plot_helpers` (`plot_plot_id`, `user_uuid`) VALUES(?,?)");
             }
@@ -2598,7 +3112,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "INSERT INTO `" + SQLManager.this.prefix
                                 + "plot_trusted` (`plot_plot_id`, `user_uuid`) VALUES(?,?)");
             }
@@ -2616,7 +3130,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "DELETE FROM `" + SQLManager.this.prefix
                                 + "plot_denied` WHERE `plot_plot_id` = ? AND `user_uuid` = ?");
             }
@@ -2634,7 +3148,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "INSERT INTO `" + SQLManager.this.prefix
                                 + "plot_denied` (`plot_plot_id`, `user_uuid`) VALUES(?,?)");
             }
@@ -2644,7 +3158,7 @@ public class SQLManager implements AbstractDB {
     @Override
     public HashMap<UUID, Integer> getRatings(Plot plot) {
         HashMap<UUID, Integer> map = new HashMap<>();
-        try (PreparedStatement statement = this.connection.prepareStatement(
+        try (PreparedStatement statement = this.getConnection().prepareStatement(
                 "SELECT `rating`, `player` FROM `" + this.prefix
                         + "plot_rating` WHERE `plot_plot_id` = ? ")) {
             statement.setInt(1, getId(plot));
@@ -2674,7 +3188,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "INSERT INTO `" + SQLManager.this.prefix
                                 + "plot_rating` (`plot_plot_id`, `rating`, `player`) VALUES(?,?,?)");
             }
@@ -2692,7 +3206,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "DELETE FROM `" + SQLManager.this.prefix
                                 + "cluster_settings` WHERE `cluster_id` = ?");
             }
@@ -2705,7 +3219,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "DELETE FROM `" + SQLManager.this.prefix
                                 + "cluster_helpers` WHERE `cluster_id` = ?");
             }
@@ -2718,7 +3232,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "DELETE FROM `" + SQLManager.this.prefix
                                 + "cluster_invited` WHERE `cluster_id` = ?");
             }
@@ -2731,7 +3245,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "DELETE FROM `" + SQLManager.this.prefix + "cluster` WHERE `id` = ?");
             }
         });
@@ -2742,7 +3256,8 @@ public class SQLManager implements AbstractDB {
             final UUID uuid, final String key, final byte[] meta,
             final boolean replace
     ) {
-        addPlayerTask(uuid, new UniqueStatement("addPersistentMeta") {
+        // Only updates overwrite each other, inserts are never coalesced
+        addPlayerTask(uuid, new UniqueStatement("addPersistentMeta", replace ? "meta:" + key : null) {
             @Override
             public void set(PreparedStatement statement) throws SQLException {
                 if (replace) {
@@ -2759,11 +3274,11 @@ public class SQLManager implements AbstractDB {
             @Override
             public PreparedStatement get() throws SQLException {
                 if (replace) {
-                    return SQLManager.this.connection.prepareStatement(
+                    return SQLManager.this.getConnection().prepareStatement(
                             "UPDATE `" + SQLManager.this.prefix
                                     + "player_meta` SET `value` = ? WHERE `uuid` = ? AND `key` = ?");
                 } else {
-                    return SQLManager.this.connection.prepareStatement(
+                    return SQLManager.this.getConnection().prepareStatement(
                             "INSERT INTO `" + SQLManager.this.prefix
                                     + "player_meta`(`uuid`, `key`, `value`) VALUES(?, ? ,?)");
                 }
@@ -2782,7 +3297,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "DELETE FROM `" + SQLManager.this.prefix
                                 + "player_meta` WHERE `uuid` = ? AND `key` = ?");
             }
@@ -2799,7 +3314,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "SELECT * FROM `" + SQLManager.this.prefix
                                 + "player_meta` WHERE `uuid` = ? ORDER BY `meta_id` ASC");
             }
@@ -2856,7 +3371,7 @@ public class SQLManager implements AbstractDB {
             /*
              * Getting clusters
              */
-            try (Statement stmt = this.connection.createStatement()) {
+            try (Statement stmt = this.getConnection().createStatement()) {
                 ResultSet resultSet =
                         stmt.executeQuery("SELECT * FROM `" + this.prefix + "cluster`");
                 PlotCluster cluster;
@@ -2978,7 +3493,7 @@ public class SQLManager implements AbstractDB {
 
     @Override
     public void setClusterName(final PlotCluster cluster, final String name) {
-        addClusterTask(cluster, new UniqueStatement("setClusterName") {
+        addClusterTask(cluster, new UniqueStatement("setClusterName", "name") {
             @Override
             public void set(PreparedStatement statement) throws SQLException {
                 statement.setString(1, name);
@@ -2987,7 +3502,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "UPDATE `" + SQLManager.this.prefix
                                 + "cluster_settings` SET `alias` = ?  WHERE `cluster_id` = ?");
             }
@@ -3006,7 +3521,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "DELETE FROM `" + SQLManager.this.prefix
                                 + "cluster_helpers` WHERE `cluster_id` = ? AND `user_uuid` = ?");
             }
@@ -3024,7 +3539,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "INSERT INTO `" + SQLManager.this.prefix
                                 + "cluster_helpers` (`cluster_id`, `user_uuid`) VALUES(?,?)");
             }
@@ -3046,7 +3561,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         SQLManager.this.CREATE_CLUSTER,
                         Statement.RETURN_GENERATED_KEYS
                 );
@@ -3077,7 +3592,7 @@ public class SQLManager implements AbstractDB {
 
                     @Override
                     public PreparedStatement get() throws SQLException {
-                        return SQLManager.this.connection.prepareStatement(
+                        return SQLManager.this.getConnection().prepareStatement(
                                 "INSERT INTO `" + SQLManager.this.prefix
                                         + "cluster_settings`(`cluster_id`, `alias`) VALUES(?, ?)");
                     }
@@ -3104,7 +3619,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "UPDATE `" + SQLManager.this.prefix
                                 + "cluster` SET `pos1_x` = ?, `pos1_z` = ?, `pos2_x` = ?, `pos2_z` = ?  WHERE `id` = ?");
             }
@@ -3113,7 +3628,7 @@ public class SQLManager implements AbstractDB {
 
     @Override
     public void setPosition(final PlotCluster cluster, final String position) {
-        addClusterTask(cluster, new UniqueStatement("setPosition") {
+        addClusterTask(cluster, new UniqueStatement("setPosition", "position") {
             @Override
             public void set(PreparedStatement statement) throws SQLException {
                 statement.setString(1, position);
@@ -3122,7 +3637,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "UPDATE `" + SQLManager.this.prefix
                                 + "cluster_settings` SET `position` = ?  WHERE `cluster_id` = ?");
             }
@@ -3140,7 +3655,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "DELETE FROM `" + SQLManager.this.prefix
                                 + "cluster_invited` WHERE `cluster_id` = ? AND `user_uuid` = ?");
             }
@@ -3158,7 +3673,7 @@ public class SQLManager implements AbstractDB {
 
             @Override
             public PreparedStatement get() throws SQLException {
-                return SQLManager.this.connection.prepareStatement(
+                return SQLManager.this.getConnection().prepareStatement(
                         "INSERT INTO `" + SQLManager.this.prefix
                                 + "cluster_invited` (`cluster_id`, `user_uuid`) VALUES(?,?)");
             }
@@ -3167,12 +3682,10 @@ public class SQLManager implements AbstractDB {
 
     @Override
     public boolean deleteTables() {
-        try (Statement stmt = this.connection.createStatement();
-             PreparedStatement statement = this.connection
+        try (Statement stmt = this.getConnection().createStatement();
+             PreparedStatement statement = this.getConnection()
                      .prepareStatement("DROP TABLE `" + this.prefix + "plot`")) {
-            close();
-            this.closed = false;
-            SQLManager.this.connection = this.database.forceConnection();
+            reopenConnection();
             stmt.addBatch("DROP TABLE `" + this.prefix + "cluster_invited`");
             stmt.addBatch("DROP TABLE `" + this.prefix + "cluster_helpers`");
             stmt.addBatch("DROP TABLE `" + this.prefix + "cluster`");
@@ -3207,8 +3720,8 @@ public class SQLManager implements AbstractDB {
             }
         }
         try {
-            if (this.connection.getAutoCommit()) {
-                this.connection.setAutoCommit(false);
+            if (this.getConnection().getAutoCommit()) {
+                this.getConnection().setAutoCommit(false);
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -3327,7 +3840,7 @@ public class SQLManager implements AbstractDB {
     ) {
         addGlobalTask(() -> {
             if (min == null) {
-                try (PreparedStatement stmt = SQLManager.this.connection.prepareStatement(
+                try (PreparedStatement stmt = SQLManager.this.getConnection().prepareStatement(
                         "UPDATE `" + SQLManager.this.prefix
                                 + "plot` SET `world` = ? WHERE `world` = ?")) {
                     stmt.setString(1, newWorld);
@@ -3336,7 +3849,7 @@ public class SQLManager implements AbstractDB {
                 } catch (SQLException e) {
                     e.printStackTrace();
                 }
-                try (PreparedStatement stmt = SQLManager.this.connection.prepareStatement(
+                try (PreparedStatement stmt = SQLManager.this.getConnection().prepareStatement(
                         "UPDATE `" + SQLManager.this.prefix
                                 + "cluster` SET `world` = ? WHERE `world` = ?")) {
                     stmt.setString(1, newWorld);
@@ -3346,7 +3859,7 @@ public class SQLManager implements AbstractDB {
                     e.printStackTrace();
                 }
             } else {
-                try (PreparedStatement stmt = SQLManager.this.connection.prepareStatement(
+                try (PreparedStatement stmt = SQLManager.this.getConnection().prepareStatement(
                         "UPDATE `" + SQLManager.this.prefix
                                 + "plot` SET `world` = ? WHERE `world` = ? AND `plot_id_x` BETWEEN ? AND ? AND `plot_id_z` BETWEEN ? AND ?")) {
                     stmt.setString(1, newWorld);
@@ -3359,7 +3872,7 @@ public class SQLManager implements AbstractDB {
                 } catch (SQLException e) {
                     e.printStackTrace();
                 }
-                try (PreparedStatement stmt = SQLManager.this.connection.prepareStatement(
+                try (PreparedStatement stmt = SQLManager.this.getConnection().prepareStatement(
                         "UPDATE `" + SQLManager.this.prefix
                                 + "cluster` SET `world` = ? WHERE `world` = ? AND `pos1_x` <= ? AND `pos1_z` <= ? AND `pos2_x` >= ? AND `pos2_z` >= ?")) {
                     stmt.setString(1, newWorld);
@@ -3379,7 +3892,7 @@ public class SQLManager implements AbstractDB {
     @Override
     public void replaceUUID(final UUID old, final UUID now) {
         addGlobalTask(() -> {
-            try (Statement stmt = SQLManager.this.connection.createStatement()) {
+            try (Statement stmt = SQLManager.this.getConnection().createStatement()) {
                 stmt.executeUpdate(
                         "UPDATE `" + SQLManager.this.prefix + "cluster` SET `owner` = '" + now
                                 .toString() + "' WHERE `owner` = '" + old.toString() + '\'');
@@ -3408,6 +3921,7 @@ public class SQLManager implements AbstractDB {
     public void close() {
         try {
             this.closed = true;
+            signalWriters();
             this.connection.close();
         } catch (SQLException e) {
             e.printStackTrace();
@@ -3429,9 +3943,26 @@ public class SQLManager implements AbstractDB {
     public abstract static class UniqueStatement {
 
         public final String method;
+        /**
+         * Statements queued for the same plot, player or cluster that share a non-null key
+         * overwrite each other, so only the latest of them is flushed
+         *
+         * @since 6.11.0
+         */
+        public final @Nullable String coalescingKey;
 
         public UniqueStatement(String method) {
+            this(method, null);
+        }
+
+        /**
+         * @param method        Statements with the same method are batched together
+         * @param coalescingKey Key identifying the value written by this statement, or {@code null}
+         * @since 6.11.0
+         */
+        public UniqueStatement(String method, @Nullable String coalescingKey) {
             this.method = method;
+            this.coalescingKey = coalescingKey;
         }
 
         public void addBatch(PreparedStatement statement) throws SQLException {
@@ -3448,6 +3979,20 @@ public class SQLManager implements AbstractDB {
 
     }
 
+    @FunctionalInterface
+    private interface TableLoader {
+
+        /**
+         * Read a table without changing any plot
+         *
+         * @param statement Statement of the connection to read with
+         * @return the changes to apply once every table was read
+         * @throws SQLException if the table could not be read
+         */
+        @NonNull Runnable load(Statement statement) throws SQLException;
+
+    }
+
     private record UUIDPair(int id, UUID uuid) {
 
     }
@@ -0,0 +1,168 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.generator;
+
+import com.plotsquared.core.location.Location;
+import com.plotsquared.core.queue.ScopedQueueCoordinator;
+import com.plotsquared.core.util.PatternUtil;
+import com.sk89q.jnbt.CompoundTag;
+import com.sk89q.worldedit.function.pattern.Pattern;
+import com.sk89q.worldedit.world.biome.BiomeType;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pre-rendered content of a chunk generated by {@link HybridGen}. As plot worlds repeat every
+ * {@link HybridPlotWorld#SIZE} blocks, a template can be reused for every chunk with the same offset within the plot
+ * grid. Templates are immutable and identical columns share their block array.
+ */
+final class ChunkTemplate {
+
+    private final int minY;
+    private final BaseBlock[][] columns;
+    private final BiomeType[] biomes;
+
+    private ChunkTemplate(final int minY, final BaseBlock[][] columns, final BiomeType[] biomes) {
+        this.minY = minY;
+        this.columns = columns;
+        this.biomes = biomes;
+    }
+
+    /**
+     * Set the blocks and biomes of this template to the given chunk
+     *
+     * @param result chunk to set the template to
+     */
+    void apply(final @NonNull ScopedQueueCoordinator result) {
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                final int index = x << 4 | z;
+                final BaseBlock[] column = this.columns[index];
+                if (column != null) {
+                    for (int y = 0; y < column.length; y++) {
+                        if (column[y] != null) {
+                            result.setBlock(x, this.minY + y, z, column[y]);
+                        }
+                    }
+                }
+                if (this.biomes[index] != null) {
+                    result.setBiome(x, z, this.biomes[index]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Queue recording the blocks and column biomes set to a single chunk, using chunk-relative x and z coordinates.
+     * Patterns are resolved at the chunk origin, so only position independent patterns may be set.
+     */
+    static final class Recorder extends ScopedQueueCoordinator {
+
+        private final int minY;
+        private final BaseBlock[][] columns = new BaseBlock[256][];
+        private final BiomeType[] biomes = new BiomeType[256];
+
+        Recorder(final @NonNull Location min, final @NonNull Location max) {
+            super(null, min, max);
+            this.minY = min.getY();
+        }
+
+        @Override
+        public boolean setBlock(final int x, final int y, final int z, final @NonNull BaseBlock id) {
+            if (x < 0 || x > 15 || z < 0 || z > 15 || y < this.minY || y > getMax().getY()) {
+                return false;
+            }
+            final int index = x << 4 | z;
+            BaseBlock[] column = this.columns[index];
+            if (column == null) {
+                this.columns[index] = column = new BaseBlock[getMax().getY() - this.minY + 1];
+            }
+            column[y - this.minY] = id;
+            return true;
+        }
+
+        @Override
+        public boolean setBlock(final int x, final int y, final int z, final @NonNull BlockState id) {
+            return this.setBlock(x, y, z, id.toBaseBlock());
+        }
+
+        @Override
+        public boolean setBlock(final int x, final int y, final int z, final @NonNull Pattern pattern) {
+            return this.setBlock(x, y, z, PatternUtil.apply(pattern, x, y, z));
+        }
+
+        @Override
+        public boolean setBiome(final int x, final int z, final @NonNull BiomeType biome) {
+            if (x < 0 || x > 15 || z < 0 || z > 15) {
+                return false;
+            }
+            this.biomes[x << 4 | z] = biome;
+            return true;
+        }
+
+        @Override
+        public boolean setBiome(final int x, final int y, final int z, final @NonNull BiomeType biome) {
+            return false;
+        }
+
+        @Override
+        public void fillBiome(final BiomeType biome) {
+            // The plot biome is filled by the generator before a template is applied
+        }
+
+        @Override
+        public boolean setTile(final int x, final int y, final int z, final @NonNull CompoundTag tag) {
+            return false;
+        }
+
+        /**
+         * Create the template from the recorded blocks
+         *
+         * @return immutable template
+         */
+        @NonNull ChunkTemplate build() {
+            final BaseBlock[][] columns = new BaseBlock[256][];
+            final Map<List<BaseBlock>, BaseBlock[]> unique = new HashMap<>();
+            for (int i = 0; i < 256; i++) {
+                BaseBlock[] column = this.columns[i];
+                if (column == null) {
+                    continue;
+                }
+                int length = column.length;
+                while (length > 0 && column[length - 1] == null) {
+                    length--;
+                }
+                if (length == 0) {
+                    continue;
+                }
+                final BaseBlock[] trimmed = Arrays.copyOf(column, length);
+                columns[i] = unique.computeIfAbsent(Arrays.asList(trimmed), key -> trimmed);
+            }
+            return new ChunkTemplate(this.minY, columns, this.biomes.clone());
+        }
+
+    }
+
+}
@@ -27,7 +27,6 @@ import com.plotsquared.core.location.Location;
 import com.plotsquared.core.plot.PlotArea;
 import com.plotsquared.core.plot.PlotId;
 import com.plotsquared.core.queue.ScopedQueueCoordinator;
-import com.plotsquared.core.util.MathMan;
 import com.sk89q.worldedit.entity.BaseEntity;
 import com.sk89q.worldedit.entity.Entity;
 import com.sk89q.worldedit.extent.Extent;
@@ -73,17 +72,19 @@ public class HybridGen extends IndependentPlotGenerator {
         } else {
             minY = world.getMinBuildHeight();
         }
-        BaseBlock[] blocks = world.G_SCH.get(MathMan.pair(relativeX, relativeZ));
-        if (blocks != null) {
-            for (int y = 0; y < blocks.length; y++) {
-                if (blocks[y] != null) {
-                    if (!isPopulating || blocks[y].hasNbtData()) {
-                        result.setBlock(x, minY + y, z, blocks[y]);
+        SchematicOverlay overlay = world.getSchematicOverlay();
+        int column = overlay.getColumn(relativeX, relativeZ);
+        if (column != -1) {
+            for (int y = 0; y < overlay.getHeight(); y++) {
+                BaseBlock block = overlay.getBlock(column, y);
+                if (block != null) {
+                    if (!isPopulating || block.hasNbtData()) {
+                        result.setBlock(x, minY + y, z, block);
                     }
                 }
             }
         }
-        BiomeType biome = world.G_SCH_B.get(MathMan.pair(relativeX, relativeZ));
+        BiomeType biome = overlay.getBiome(relativeX, relativeZ);
         if (biome != null) {
             result.setBiome(x, z, biome);
         }
@@ -97,14 +98,6 @@ public class HybridGen extends IndependentPlotGenerator {
         HybridPlotWorld hybridPlotWorld = (HybridPlotWorld) settings;
         // Biome
         result.fillBiome(hybridPlotWorld.getPlotBiome());
-        // Bedrock
-        if (hybridPlotWorld.PLOT_BEDROCK) {
-            for (short x = 0; x < 16; x++) {
-                for (short z = 0; z < 16; z++) {
-                    result.setBlock(x, hybridPlotWorld.getMinGenHeight(), z, BlockTypes.BEDROCK.getDefaultState());
-                }
-            }
-        }
         // Coords
         Location min = result.getMin();
         int bx = min.getX() - hybridPlotWorld.ROAD_OFFSET_X;
@@ -125,6 +118,36 @@ public class HybridGen extends IndependentPlotGenerator {
         } else {
             relativeOffsetZ = (short) (bz % hybridPlotWorld.SIZE);
         }
+        // Chunks at the same offset within the plot grid are identical, so render them once and copy the result
+        ChunkTemplate template = hybridPlotWorld.getChunkTemplate(relativeOffsetX, relativeOffsetZ, () -> {
+            ChunkTemplate.Recorder recorder = new ChunkTemplate.Recorder(
+                    Location.at("", 0, min.getY(), 0),
+                    Location.at("", 15, result.getMax().getY(), 15)
+            );
+            generateBlocks(recorder, hybridPlotWorld, relativeOffsetX, relativeOffsetZ);
+            return recorder.build();
+        });
+        if (template != null) {
+            template.apply(result);
+        } else {
+            generateBlocks(result, hybridPlotWorld, relativeOffsetX, relativeOffsetZ);
+        }
+    }
+
+    private void generateBlocks(
+            ScopedQueueCoordinator result,
+            HybridPlotWorld hybridPlotWorld,
+            short relativeOffsetX,
+            short relativeOffsetZ
+    ) {
+        // Bedrock
+        if (hybridPlotWorld.PLOT_BEDROCK) {
+            for (short x = 0; x < 16; x++) {
+                for (short z = 0; z < 16; z++) {
+                    result.setBlock(x, hybridPlotWorld.getMinGenHeight(), z, BlockTypes.BEDROCK.getDefaultState());
+                }
+            }
+        }
         // The X-coordinate of a given X coordinate, relative to the
         // plot (Counting from the corner with the least positive
         // coordinates)
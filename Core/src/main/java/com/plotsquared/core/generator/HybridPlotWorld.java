@@ -18,6 +18,9 @@
  */
 package com.plotsquared.core.generator;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
 import com.intellectualsites.annotations.DoNotUse;
@@ -28,6 +31,7 @@ import com.plotsquared.core.configuration.file.YamlConfiguration;
 import com.plotsquared.core.inject.annotations.WorldConfig;
 import com.plotsquared.core.inject.factory.ProgressSubscriberFactory;
 import com.plotsquared.core.location.Location;
+import com.plotsquared.core.plot.BlockBucket;
 import com.plotsquared.core.plot.Plot;
 import com.plotsquared.core.plot.PlotArea;
 import com.plotsquared.core.plot.PlotId;
@@ -36,12 +40,14 @@ import com.plotsquared.core.plot.schematic.Schematic;
 import com.plotsquared.core.queue.GlobalBlockQueue;
 import com.plotsquared.core.util.FileUtils;
 import com.plotsquared.core.util.MathMan;
+import com.plotsquared.core.util.PatternUtil;
 import com.plotsquared.core.util.SchematicHandler;
 import com.sk89q.jnbt.CompoundTag;
 import com.sk89q.jnbt.CompoundTagBuilder;
 import com.sk89q.worldedit.entity.Entity;
 import com.sk89q.worldedit.extent.clipboard.Clipboard;
 import com.sk89q.worldedit.extent.transform.BlockTransformExtent;
+import com.sk89q.worldedit.function.pattern.Pattern;
 import com.sk89q.worldedit.internal.helper.MCDirections;
 import com.sk89q.worldedit.math.BlockVector2;
 import com.sk89q.worldedit.math.BlockVector3;
@@ -61,18 +67,31 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 public class HybridPlotWorld extends ClassicPlotWorld {
 
     private static final Logger LOGGER = LogManager.getLogger("PlotSquared/" + HybridPlotWorld.class.getSimpleName());
     private static final AffineTransform transform = new AffineTransform().rotateY(90);
+    private static final AtomicReferenceFieldUpdater<HybridPlotWorld, SchematicOverlay> SCHEMATIC_OVERLAY =
+            AtomicReferenceFieldUpdater.newUpdater(HybridPlotWorld.class, SchematicOverlay.class, "schematicOverlay");
     public boolean ROAD_SCHEMATIC_ENABLED;
     public boolean PLOT_SCHEMATIC = false;
     @Deprecated(forRemoval = true, since = "6.9.0")
     public int PLOT_SCHEMATIC_HEIGHT = -1;
     public short PATH_WIDTH_LOWER;
     public short PATH_WIDTH_UPPER;
+    /**
+     * @deprecated no longer populated, use {@link #getSchematicOverlay()}
+     */
+    @Deprecated(forRemoval = true, since = "6.11.0")
     public HashMap<Integer, BaseBlock[]> G_SCH;
+    /**
+     * @deprecated no longer populated, use {@link #getSchematicOverlay()}
+     */
+    @Deprecated(forRemoval = true, since = "6.11.0")
     public HashMap<Integer, BiomeType> G_SCH_B;
     /**
      * The Y level at which schematic generation will start, lowest of either road or plot schematic generation.
@@ -86,6 +105,11 @@ public class HybridPlotWorld extends ClassicPlotWorld {
     private boolean schem1PopulationNeeded = false;
     private boolean schem2PopulationNeeded = false;
     private boolean schem3PopulationNeeded = false;
+    private volatile SchematicOverlay schematicOverlay;
+    private final Cache<Integer, ChunkTemplate> chunkTemplates = CacheBuilder.newBuilder()
+            .maximumSize(Math.max(0, Settings.General.CHUNK_TEMPLATE_CACHE_SIZE))
+            .recordStats()
+            .build();
 
     @Inject
     private SchematicHandler schematicHandler;
@@ -227,7 +251,14 @@ public class HybridPlotWorld extends ClassicPlotWorld {
     public void setupSchematics() throws SchematicHandler.UnsupportedFormatException {
         this.G_SCH = new HashMap<>();
         this.G_SCH_B = new HashMap<>();
+        final SchematicOverlay overlay = new SchematicOverlay(this.SIZE);
+        this.loadSchematics(overlay);
+        // Publish the overlay once it is complete, so that generation never sees a partially filled one
+        this.schematicOverlay = overlay;
+        this.invalidateChunkTemplates();
+    }
 
+    private void loadSchematics(final @NonNull SchematicOverlay overlay) throws SchematicHandler.UnsupportedFormatException {
         // Try to determine root. This means that plot areas can have separate schematic
         // directories
         if (!(root =
@@ -271,7 +302,7 @@ public class HybridPlotWorld extends ClassicPlotWorld {
         SCHEM_Y = schematicStartHeight();
 
         // plotY and roadY are important to allow plot and/or road schematic "overflow" into each other without causing AIOOB
-        //  exceptions when attempting either to set blocks to, or get block from G_SCH
+        //  exceptions when attempting either to set blocks to, or get block from the schematic overlay
         // Default plot schematic start height, normalized to the minimum height schematics are pasted from.
         int plotY = PLOT_HEIGHT - SCHEM_Y;
         int minRoadWall = Settings.Schematics.USE_WALL_IN_ROAD_SCHEM_HEIGHT ? Math.min(ROAD_HEIGHT, WALL_HEIGHT) : ROAD_HEIGHT;
@@ -368,6 +399,7 @@ public class HybridPlotWorld extends ClassicPlotWorld {
                         ));
                         schem3PopulationNeeded |= id.hasNbtData();
                         addOverlayBlock(
+                                overlay,
                                 (short) (x + shift + oddshift + centerShiftX),
                                 (short) (y + plotY),
                                 (short) (z + shift + oddshift + centerShiftZ),
@@ -382,6 +414,7 @@ public class HybridPlotWorld extends ClassicPlotWorld {
                                 z + min.getBlockZ()
                         ));
                         addOverlayBiome(
+                                overlay,
                                 (short) (x + shift + oddshift + centerShiftX),
                                 (short) (z + shift + oddshift + centerShiftZ),
                                 biome
@@ -426,6 +459,7 @@ public class HybridPlotWorld extends ClassicPlotWorld {
                     ));
                     schem1PopulationNeeded |= id.hasNbtData();
                     addOverlayBlock(
+                            overlay,
                             (short) (x - shift),
                             (short) (y + roadY),
                             (short) (z + shift + oddshift),
@@ -434,6 +468,7 @@ public class HybridPlotWorld extends ClassicPlotWorld {
                             maxSchematicHeight
                     );
                     addOverlayBlock(
+                            overlay,
                             (short) (z + shift + oddshift),
                             (short) (y + roadY),
                             (short) (shift - x + (oddshift - 1)),
@@ -444,8 +479,8 @@ public class HybridPlotWorld extends ClassicPlotWorld {
                 }
                 if (blockArrayClipboard1.hasBiomes()) {
                     BiomeType biome = blockArrayClipboard1.getBiome(BlockVector2.at(x + min.getBlockX(), z + min.getBlockZ()));
-                    addOverlayBiome((short) (x - shift), (short) (z + shift + oddshift), biome);
-                    addOverlayBiome((short) (z + shift + oddshift), (short) (shift - x + (oddshift - 1)), biome);
+                    addOverlayBiome(overlay, (short) (x - shift), (short) (z + shift + oddshift), biome);
+                    addOverlayBiome(overlay, (short) (z + shift + oddshift), (short) (shift - x + (oddshift - 1)), biome);
                 }
             }
         }
@@ -470,6 +505,7 @@ public class HybridPlotWorld extends ClassicPlotWorld {
                     ));
                     schem2PopulationNeeded |= id.hasNbtData();
                     addOverlayBlock(
+                            overlay,
                             (short) (x - shift),
                             (short) (y + roadY),
                             (short) (z - shift),
@@ -480,7 +516,7 @@ public class HybridPlotWorld extends ClassicPlotWorld {
                 }
                 if (blockArrayClipboard2.hasBiomes()) {
                     BiomeType biome = blockArrayClipboard2.getBiome(BlockVector2.at(x + min.getBlockX(), z + min.getBlockZ()));
-                    addOverlayBiome((short) (x - shift), (short) (z - shift), biome);
+                    addOverlayBiome(overlay, (short) (x - shift), (short) (z - shift), biome);
                 }
             }
         }
@@ -491,6 +527,13 @@ public class HybridPlotWorld extends ClassicPlotWorld {
      */
     @Deprecated(forRemoval = true, since = "6.10.2")
     public void addOverlayBlock(short x, short y, short z, BaseBlock id, boolean rotate, int height) {
+        this.addOverlayBlock(this.getSchematicOverlay(), x, y, z, id, rotate, height);
+    }
+
+    private void addOverlayBlock(
+            @NonNull SchematicOverlay overlay, short x, short y, short z, BaseBlock id, boolean rotate,
+            int height
+    ) {
         if (z < 0) {
             z += this.SIZE;
         } else if (z >= this.SIZE) {
@@ -504,21 +547,17 @@ public class HybridPlotWorld extends ClassicPlotWorld {
         if (rotate) {
             id = rotate(id);
         }
-        int pair = MathMan.pair(x, z);
-        BaseBlock[] existing = this.G_SCH.computeIfAbsent(pair, k -> new BaseBlock[height]);
-        if (y >= height) {
+        if (!overlay.setBlock(x, y, z, id, height)) {
             if (y > lastOverlayHeightError) {
                 lastOverlayHeightError = y;
                 LOGGER.error(
                         "Error adding overlay block in world {}. `y > height`. y={}, height={}",
                         getWorldName(),
                         y,
-                        height
+                        overlay.getHeight()
                 );
             }
-            return;
         }
-        existing[y] = id;
     }
 
     /**
@@ -526,6 +565,10 @@ public class HybridPlotWorld extends ClassicPlotWorld {
      */
     @Deprecated(forRemoval = true, since = "6.10.2")
     public void addOverlayBiome(short x, short z, BiomeType id) {
+        this.addOverlayBiome(this.getSchematicOverlay(), x, z, id);
+    }
+
+    private void addOverlayBiome(@NonNull SchematicOverlay overlay, short x, short z, BiomeType id) {
         if (z < 0) {
             z += this.SIZE;
         } else if (z >= this.SIZE) {
@@ -536,8 +579,24 @@ public class HybridPlotWorld extends ClassicPlotWorld {
         } else if (x >= this.SIZE) {
             x -= this.SIZE;
         }
-        int pair = MathMan.pair(x, z);
-        this.G_SCH_B.put(pair, id);
+        overlay.setBiome(x, z, id);
+    }
+
+    /**
+     * Get the blocks and biomes of the road and plot schematics of this world. Empty if the world has no generation
+     * schematics.
+     *
+     * @return schematic overlay
+     * @since 6.11.0
+     */
+    public @NonNull SchematicOverlay getSchematicOverlay() {
+        final SchematicOverlay overlay = this.schematicOverlay;
+        if (overlay != null) {
+            return overlay;
+        }
+        // Never replace an overlay published by setupSchematics in the meantime
+        SCHEMATIC_OVERLAY.compareAndSet(this, null, new SchematicOverlay(this.SIZE));
+        return this.schematicOverlay;
     }
 
     /**
@@ -588,4 +647,70 @@ public class HybridPlotWorld extends ClassicPlotWorld {
         return this.root;
     }
 
+    /**
+     * Get the template of the chunks at the given offset within the plot grid, rendering it if it is not cached
+     *
+     * @param relativeOffsetX x offset of the chunk within the plot grid
+     * @param relativeOffsetZ z offset of the chunk within the plot grid
+     * @param loader          renders the template
+     * @return the template, or {@code null} if templates cannot be used for this world
+     */
+    @Nullable ChunkTemplate getChunkTemplate(
+            final short relativeOffsetX,
+            final short relativeOffsetZ,
+            final @NonNull Callable<ChunkTemplate> loader
+    ) {
+        if (!this.canUseChunkTemplates()) {
+            return null;
+        }
+        try {
+            return this.chunkTemplates.get(MathMan.pair(relativeOffsetX, relativeOffsetZ), loader);
+        } catch (ExecutionException e) {
+            LOGGER.error("Failed to render chunk template for world {}", this.getWorldName(), e);
+            return null;
+        }
+    }
+
+    private boolean canUseChunkTemplates() {
+        // Random block buckets must be evaluated for every chunk
+        return Settings.General.CHUNK_TEMPLATE_CACHE_SIZE > 0
+                && isConstant(this.ROAD_BLOCK) && isConstant(this.MAIN_BLOCK) && isConstant(this.TOP_BLOCK)
+                && isConstant(this.WALL_FILLING) && isConstant(this.WALL_BLOCK);
+    }
+
+    private static boolean isConstant(final @NonNull BlockBucket bucket) {
+        final Pattern pattern = bucket.toPattern();
+        return pattern == null || PatternUtil.isConstant(pattern);
+    }
+
+    /**
+     * Discard all cached chunk templates. Must be called whenever the generation settings or schematics of this world
+     * change.
+     *
+     * @since 6.11.0
+     */
+    public void invalidateChunkTemplates() {
+        this.chunkTemplates.invalidateAll();
+    }
+
+    /**
+     * Get the hit and miss statistics of the chunk template cache of this world
+     *
+     * @return cache statistics
+     * @since 6.11.0
+     */
+    public @NonNull CacheStats getChunkTemplateStats() {
+        return this.chunkTemplates.stats();
+    }
+
+    /**
+     * Get the number of cached chunk templates of this world
+     *
+     * @return cached templates
+     * @since 6.11.0
+     */
+    public long getChunkTemplateCount() {
+        return this.chunkTemplates.size();
+    }
+
 }
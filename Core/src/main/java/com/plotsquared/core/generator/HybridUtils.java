@@ -34,12 +34,10 @@ import com.plotsquared.core.plot.flag.GlobalFlagContainer;
 import com.plotsquared.core.plot.flag.PlotFlag;
 import com.plotsquared.core.plot.flag.implementations.AnalysisFlag;
 import com.plotsquared.core.plot.world.PlotAreaManager;
-import com.plotsquared.core.queue.BlockArrayCacheScopedQueueCoordinator;
 import com.plotsquared.core.queue.GlobalBlockQueue;
 import com.plotsquared.core.queue.QueueCoordinator;
 import com.plotsquared.core.util.ChunkManager;
 import com.plotsquared.core.util.EventDispatcher;
-import com.plotsquared.core.util.MathMan;
 import com.plotsquared.core.util.RegionManager;
 import com.plotsquared.core.util.RegionUtil;
 import com.plotsquared.core.util.SchematicHandler;
@@ -48,43 +46,65 @@ import com.plotsquared.core.util.task.RunnableVal;
 import com.plotsquared.core.util.task.TaskManager;
 import com.plotsquared.core.util.task.TaskTime;
 import com.sk89q.worldedit.math.BlockVector2;
-import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldedit.regions.CuboidRegion;
 import com.sk89q.worldedit.world.biome.BiomeType;
 import com.sk89q.worldedit.world.block.BaseBlock;
 import com.sk89q.worldedit.world.block.BlockState;
-import com.sk89q.worldedit.world.block.BlockType;
-import com.sk89q.worldedit.world.block.BlockTypes;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 
 public class HybridUtils {
 
     private static final Logger LOGGER = LogManager.getLogger("PlotSquared/" + HybridUtils.class.getSimpleName());
-    private static final BlockState AIR = BlockTypes.AIR.getDefaultState();
 
     public static HybridUtils manager;
+    /**
+     * @deprecated road regeneration is tracked per area, use {@link #getRoadRegenJob(PlotArea)}. No longer set, always
+     *         {@code null}.
+     */
+    @Deprecated(forRemoval = true, since = "6.11.0")
     public static Set<BlockVector2> regions;
+    /**
+     * @deprecated road regeneration is tracked per area, use {@link #getRoadRegenJob(PlotArea)}. No longer set, always
+     *         {@code 0}.
+     */
+    @Deprecated(forRemoval = true, since = "6.11.0")
     public static int height;
-    // Use ordered for reasonable chunk loading order to reduce paper unloading neighbour chunks and then us attempting to load
-    // them again, causing errors
-    public static Set<BlockVector2> chunks = new LinkedHashSet<>();
+    /**
+     * @deprecated road regeneration is tracked per area, use {@link #getRoadRegenJob(PlotArea)}. No longer updated,
+     *         always empty.
+     */
+    @Deprecated(forRemoval = true, since = "6.11.0")
+    public static Set<BlockVector2> chunks = Collections.emptySet();
+    /**
+     * @deprecated road regeneration is tracked per area, use {@link #getRoadRegenJob(PlotArea)}. No longer set, always
+     *         {@code null}.
+     */
+    @Deprecated(forRemoval = true, since = "6.11.0")
     public static PlotArea area;
+    /**
+     * Whether any road regeneration is running. Read only.
+     *
+     * @deprecated use {@link #getRoadRegenJobs()}
+     */
+    @Deprecated(forRemoval = true, since = "6.11.0")
     public static boolean UPDATE = false;
 
     private final PlotAreaManager plotAreaManager;
@@ -93,6 +113,7 @@ public class HybridUtils {
     private final WorldUtil worldUtil;
     private final SchematicHandler schematicHandler;
     private final EventDispatcher eventDispatcher;
+    private final Map<PlotArea, RoadRegenJob> roadRegenJobs = new ConcurrentHashMap<>();
 
     @Inject
     public HybridUtils(
@@ -125,8 +146,7 @@ public class HybridUtils {
          *
          * vertices: store air map and compare with neighbours
          * for each block check the adjacent
-         *  - Store all blocks then go through in second loop
-         *  - recheck each block
+         *  - done per chunk as it is read, see RegionAnalyzer
          *
          */
         TaskManager.runTaskAsync(() -> {
@@ -135,169 +155,20 @@ public class HybridUtils {
                 return;
             }
 
-            final BlockVector3 bot = region.getMinimumPoint();
-            final BlockVector3 top = region.getMaximumPoint();
-
-            final int bx = bot.getX();
-            final int bz = bot.getZ();
-            final int tx = top.getX();
-            final int tz = top.getZ();
-            final int cbx = bx >> 4;
-            final int cbz = bz >> 4;
-            final int ctx = tx >> 4;
-            final int ctz = tz >> 4;
-            final int width = tx - bx + 1;
-            final int length = tz - bz + 1;
-            final int height = area.getMaxGenHeight() - area.getMinGenHeight() + 1;
-            final int minHeight = area.getMinGenHeight();
-
-            final BlockState[][][] newBlocks = new BlockState[height][width][length];
-
-            BlockArrayCacheScopedQueueCoordinator oldBlockQueue = new BlockArrayCacheScopedQueueCoordinator(
-                    Location.at("", region.getMinimumPoint().withY(hpw.getMinGenHeight())),
-                    Location.at("", region.getMaximumPoint().withY(hpw.getMaxGenHeight()))
-            );
-
-            region.getChunks().forEach(chunkPos -> {
-                int relChunkX = chunkPos.getX() - cbx;
-                int relChunkZ = chunkPos.getZ() - cbz;
-                oldBlockQueue.setOffsetX(relChunkX << 4);
-                oldBlockQueue.setOffsetZ(relChunkZ << 4);
-                hpw.getGenerator().generateChunk(oldBlockQueue, hpw);
-            });
-
-            final BlockState[][][] oldBlocks = oldBlockQueue.getBlockStates();
-
+            final RegionAnalyzer analyzer = new RegionAnalyzer(hpw, region);
             QueueCoordinator queue = area.getQueue();
             queue.addReadChunks(region.getChunks());
-            queue.setChunkConsumer(chunkPos -> {
-                int X = chunkPos.getX();
-                int Z = chunkPos.getZ();
-                int minX;
-                if (X == cbx) {
-                    minX = bx & 15;
-                } else {
-                    minX = 0;
-                }
-                int minZ;
-                if (Z == cbz) {
-                    minZ = bz & 15;
-                } else {
-                    minZ = 0;
-                }
-                int maxX;
-                if (X == ctx) {
-                    maxX = tx & 15;
-                } else {
-                    maxX = 15;
-                }
-                int maxZ;
-                if (Z == ctz) {
-                    maxZ = tz & 15;
-                } else {
-                    maxZ = 15;
-                }
-
-                int chunkBlockX = X << 4;
-                int chunkBlockZ = Z << 4;
-
-                int xb = chunkBlockX - bx;
-                int zb = chunkBlockZ - bz;
-                for (int x = minX; x <= maxX; x++) {
-                    int xx = chunkBlockX + x;
-                    for (int z = minZ; z <= maxZ; z++) {
-                        int zz = chunkBlockZ + z;
-                        for (int yIndex = 0; yIndex < height; yIndex++) {
-                            int y = yIndex + minHeight;
-                            BlockState block = queue.getBlock(xx, y, zz);
-                            if (block == null) {
-                                block = AIR;
-                            }
-                            int xr = xb + x;
-                            int zr = zb + z;
-                            newBlocks[yIndex][xr][zr] = block;
-                        }
-                    }
-                }
-            });
-
-            final Runnable run = () -> {
-                int size = width * length;
-                int[] changes = new int[size];
-                int[] faces = new int[size];
-                int[] data = new int[size];
-                int[] air = new int[size];
-                int[] variety = new int[size];
-                int i = 0;
-                for (int x = 0; x < width; x++) {
-                    for (int z = 0; z < length; z++) {
-                        Set<BlockType> types = new HashSet<>();
-                        for (int yIndex = 0; yIndex < height; yIndex++) {
-                            BlockState old = oldBlocks[yIndex][x][z]; // Nullable
-                            try {
-                                BlockState now = newBlocks[yIndex][x][z]; // Not null
-                                if (!now.equals(old) && !(old == null && now.getBlockType().equals(BlockTypes.AIR))) {
-                                    changes[i]++;
-                                }
-                                if (now.getBlockType().getMaterial().isAir()) {
-                                    air[i]++;
-                                } else {
-                                    // check vertices
-                                    // modifications_adjacent
-                                    if (x > 0 && z > 0 && yIndex > 0 && x < width - 1 && z < length - 1 && yIndex < (height - 1)) {
-                                        if (newBlocks[yIndex - 1][x][z].getBlockType().getMaterial().isAir()) {
-                                            faces[i]++;
-                                        }
-                                        if (newBlocks[yIndex][x - 1][z].getBlockType().getMaterial().isAir()) {
-                                            faces[i]++;
-                                        }
-                                        if (newBlocks[yIndex][x][z - 1].getBlockType().getMaterial().isAir()) {
-                                            faces[i]++;
-                                        }
-                                        if (newBlocks[yIndex + 1][x][z].getBlockType().getMaterial().isAir()) {
-                                            faces[i]++;
-                                        }
-                                        if (newBlocks[yIndex][x + 1][z].getBlockType().getMaterial().isAir()) {
-                                            faces[i]++;
-                                        }
-                                        if (newBlocks[yIndex][x][z + 1].getBlockType().getMaterial().isAir()) {
-                                            faces[i]++;
-                                        }
-                                    }
-
-                                    if (!now.equals(now.getBlockType().getDefaultState())) {
-                                        data[i]++;
-                                    }
-                                    types.add(now.getBlockType());
-                                }
-                            } catch (NullPointerException e) {
-                                e.printStackTrace();
-                            }
-                        }
-                        variety[i] = types.size();
-                        i++;
-                    }
+            queue.setChunkConsumer(chunkPos -> analyzer.accept(queue, chunkPos));
+            queue.setCompleteTask(() -> analyzer.complete().whenComplete((analysis, throwable) -> {
+                if (throwable != null) {
+                    LOGGER.error("Failed to analyse region {} in world {}", region, world, throwable);
+                    return;
                 }
-                // analyze plot
-                // put in analysis obj
-
-                // run whenDone
-                PlotAnalysis analysis = new PlotAnalysis();
-                analysis.changes = (int) (MathMan.getMean(changes) * 100);
-                analysis.faces = (int) (MathMan.getMean(faces) * 100);
-                analysis.data = (int) (MathMan.getMean(data) * 100);
-                analysis.air = (int) (MathMan.getMean(air) * 100);
-                analysis.variety = (int) (MathMan.getMean(variety) * 100);
-
-                analysis.changes_sd = (int) (MathMan.getSD(changes, analysis.changes) * 100);
-                analysis.faces_sd = (int) (MathMan.getSD(faces, analysis.faces) * 100);
-                analysis.data_sd = (int) (MathMan.getSD(data, analysis.data) * 100);
-                analysis.air_sd = (int) (MathMan.getSD(air, analysis.air) * 100);
-                analysis.variety_sd = (int) (MathMan.getSD(variety, analysis.variety) * 100);
-                whenDone.value = analysis;
-                whenDone.run();
-            };
-            queue.setCompleteTask(run);
+                TaskManager.runTask(() -> {
+                    whenDone.value = analysis;
+                    whenDone.run();
+                });
+            }));
             queue.enqueue();
         });
     }
@@ -400,20 +271,44 @@ public class HybridUtils {
         return chunks;
     }
 
-    public boolean scheduleRoadUpdate(PlotArea area, int extend) {
-        if (HybridUtils.UPDATE) {
-            return false;
+    /**
+     * Get the regions (32x32 chunks) that overlap the given block region
+     *
+     * @param regions regions to filter
+     * @param region  block region
+     * @return the overlapping regions, in the order they were given
+     */
+    static @NonNull Set<BlockVector2> getOverlappingRegions(
+            final @NonNull Collection<BlockVector2> regions,
+            final @NonNull CuboidRegion region
+    ) {
+        final int minX = region.getMinimumPoint().getX() >> 9;
+        final int minZ = region.getMinimumPoint().getZ() >> 9;
+        final int maxX = region.getMaximumPoint().getX() >> 9;
+        final int maxZ = region.getMaximumPoint().getZ() >> 9;
+        final Set<BlockVector2> overlapping = new LinkedHashSet<>();
+        for (final BlockVector2 r : regions) {
+            if (r.getX() >= minX && r.getX() <= maxX && r.getZ() >= minZ && r.getZ() <= maxZ) {
+                overlapping.add(r);
+            }
         }
-        HybridUtils.UPDATE = true;
-        Set<BlockVector2> regions = this.worldUtil.getChunkChunks(area.getWorldName());
+        return overlapping;
+    }
+
+    /**
+     * Regenerate the roads of every region of the world that overlaps the given area. Only one road regeneration may
+     * run per area at a time.
+     *
+     * @param area   area to regenerate the roads of
+     * @param extend how far to extend setting air above the road
+     * @return {@code false} if the roads of the area are already being regenerated
+     */
+    public boolean scheduleRoadUpdate(PlotArea area, int extend) {
+        Set<BlockVector2> regions = getOverlappingRegions(this.worldUtil.getChunkChunks(area.getWorldName()), area.getRegion());
         return scheduleRoadUpdate(area, regions, extend, new LinkedHashSet<>());
     }
 
     public boolean scheduleSingleRegionRoadUpdate(Plot plot, int extend) {
-        if (HybridUtils.UPDATE) {
-            return false;
-        }
-        HybridUtils.UPDATE = true;
         Set<BlockVector2> regions = new HashSet<>();
         regions.add(RegionManager.getRegion(plot.getCenterSynchronous()));
         return scheduleRoadUpdate(plot.getArea(), regions, extend, new LinkedHashSet<>());
@@ -425,107 +320,99 @@ public class HybridUtils {
             final int extend,
             Set<BlockVector2> chunks
     ) {
-        HybridUtils.regions = regions;
-        HybridUtils.area = area;
-        HybridUtils.height = extend;
-        HybridUtils.chunks = chunks;
-        final int initial = 1024 * regions.size() + chunks.size();
-        final AtomicInteger count = new AtomicInteger(0);
-        TaskManager.runTask(new Runnable() {
-            @Override
-            public void run() {
-                if (!UPDATE) {
-                    Iterator<BlockVector2> iter = chunks.iterator();
-                    QueueCoordinator queue = blockQueue.getNewQueue(worldUtil.getWeWorld(area.getWorldName()));
-                    while (iter.hasNext()) {
-                        BlockVector2 chunk = iter.next();
-                        iter.remove();
-                        boolean regenedRoad = regenerateRoad(area, chunk, extend, queue);
-                        if (!regenedRoad) {
-                            LOGGER.info("Failed to regenerate roads in chunk {}", chunk);
-                        }
-                    }
-                    queue.enqueue();
-                    LOGGER.info("Cancelled road task");
-                    return;
-                }
-                count.incrementAndGet();
-                if (count.intValue() % 10 == 0) {
-                    LOGGER.info("Progress: {}%", 100 * (initial - (chunks.size() + 1024 * regions.size())) / initial);
-                }
-                if (HybridUtils.regions.isEmpty() && chunks.isEmpty()) {
-                    regeneratePlotWalls(area);
-
-                    HybridUtils.UPDATE = false;
-                    LOGGER.info("Finished road conversion");
-                    // CANCEL TASK
-                } else {
-                    final Runnable task = this;
-                    TaskManager.runTaskAsync(() -> {
-                        try {
-                            if (chunks.size() < 64) {
-                                if (!HybridUtils.regions.isEmpty()) {
-                                    Iterator<BlockVector2> iterator = HybridUtils.regions.iterator();
-                                    BlockVector2 loc = iterator.next();
-                                    iterator.remove();
-                                    LOGGER.info("Updating .mcr: {}, {} (approx 1024 chunks)", loc.getX(), loc.getZ());
-                                    LOGGER.info("- Remaining: {}", HybridUtils.regions.size());
-                                    chunks.addAll(getChunks(loc));
-                                    System.gc();
-                                }
-                            }
-                            if (!chunks.isEmpty()) {
-                                TaskManager.getPlatformImplementation().sync(() -> {
-                                    Iterator<BlockVector2> iterator = chunks.iterator();
-                                    if (chunks.size() >= 32) {
-                                        QueueCoordinator queue = blockQueue.getNewQueue(worldUtil.getWeWorld(area.getWorldName()));
-                                        for (int i = 0; i < 32; i++) {
-                                            final BlockVector2 chunk = iterator.next();
-                                            iterator.remove();
-                                            boolean regenedRoads = regenerateRoad(area, chunk, extend, queue);
-                                            if (!regenedRoads) {
-                                                LOGGER.info("Failed to regenerate the road in chunk {}", chunk);
-                                            }
-                                        }
-                                        queue.setCompleteTask(task);
-                                        queue.enqueue();
-                                        return null;
-                                    }
-                                    QueueCoordinator queue = blockQueue.getNewQueue(worldUtil.getWeWorld(area.getWorldName()));
-                                    while (!chunks.isEmpty()) {
-                                        final BlockVector2 chunk = iterator.next();
-                                        iterator.remove();
-                                        boolean regenedRoads = regenerateRoad(area, chunk, extend, queue);
-                                        if (!regenedRoads) {
-                                            LOGGER.info("Failed to regenerate road in chunk {}", chunk);
-                                        }
-                                    }
-                                    queue.setCompleteTask(task);
-                                    queue.enqueue();
-                                    return null;
-                                });
-                                return;
-                            }
-                        } catch (Exception e) {
-                            e.printStackTrace();
-                            Iterator<BlockVector2> iterator = HybridUtils.regions.iterator();
-                            BlockVector2 loc = iterator.next();
-                            iterator.remove();
-                            LOGGER.error(
-                                    "Error! Could not update '{}/region/r.{}.{}.mca' (Corrupt chunk?)",
-                                    area.getWorldHash(),
-                                    loc.getX(),
-                                    loc.getZ()
-                            );
-                        }
-                        TaskManager.runTaskLater(task, TaskTime.seconds(1L));
-                    });
-                }
-            }
-        });
+        return startRoadRegenJob(new RoadRegenJob(this, blockQueue, worldUtil, area, regions, chunks, extend,
+                this::removeRoadRegenJob
+        ));
+    }
+
+    /**
+     * Resume the road regeneration of the given area from its checkpoint file, if there is one
+     *
+     * @param area area to resume the road regeneration of
+     * @return {@code true} if a road regeneration was resumed
+     * @since 6.11.0
+     */
+    public boolean resumeRoadUpdate(final @NonNull PlotArea area) {
+        final RoadRegenJob job;
+        try {
+            job = RoadRegenJob.load(this, blockQueue, worldUtil, area, this::removeRoadRegenJob);
+        } catch (IOException e) {
+            LOGGER.error("Could not resume road regeneration in area {}", area, e);
+            return false;
+        }
+        if (job == null) {
+            return false;
+        }
+        LOGGER.info("Resuming road regeneration in area {}: {} regions and {} chunks remaining", area,
+                job.getRemainingRegions(), job.getRemainingChunks()
+        );
+        return startRoadRegenJob(job);
+    }
+
+    private boolean startRoadRegenJob(final @NonNull RoadRegenJob job) {
+        if (this.roadRegenJobs.putIfAbsent(job.getArea(), job) != null) {
+            return false;
+        }
+        HybridUtils.UPDATE = true;
+        LOGGER.info("Starting road regeneration in area {} ({} regions)", job.getArea(), job.getRemainingRegions());
+        job.start();
+        return true;
+    }
+
+    private void removeRoadRegenJob(final @NonNull RoadRegenJob job) {
+        this.roadRegenJobs.remove(job.getArea(), job);
+        HybridUtils.UPDATE = !this.roadRegenJobs.isEmpty();
+    }
+
+    /**
+     * Get the running road regeneration of the given area
+     *
+     * @param area plot area
+     * @return the job, or {@code null} if the roads of the area are not being regenerated
+     * @since 6.11.0
+     */
+    public @Nullable RoadRegenJob getRoadRegenJob(final @NonNull PlotArea area) {
+        return this.roadRegenJobs.get(area);
+    }
+
+    /**
+     * Get all running road regenerations
+     *
+     * @return unmodifiable view of the running jobs
+     * @since 6.11.0
+     */
+    public @NonNull Collection<RoadRegenJob> getRoadRegenJobs() {
+        return Collections.unmodifiableCollection(this.roadRegenJobs.values());
+    }
+
+    /**
+     * Cancel the road regeneration of the given area
+     *
+     * @param area plot area
+     * @return {@code true} if a job was cancelled
+     * @since 6.11.0
+     */
+    public boolean cancelRoadUpdate(final @NonNull PlotArea area) {
+        final RoadRegenJob job = this.roadRegenJobs.get(area);
+        if (job == null) {
+            return false;
+        }
+        job.cancel();
         return true;
     }
 
+    /**
+     * Write the checkpoints of all running road regenerations, so that they can be resumed with
+     * {@link #resumeRoadUpdate(PlotArea)}
+     *
+     * @since 6.11.0
+     */
+    public void saveRoadRegenJobs() {
+        for (final RoadRegenJob job : this.roadRegenJobs.values()) {
+            job.saveCheckpoint();
+        }
+    }
+
     public boolean setupRoadSchematic(Plot plot) {
         final String world = plot.getWorldName();
         final QueueCoordinator queue = blockQueue.getNewQueue(worldUtil.getWeWorld(world));
@@ -665,6 +552,7 @@ public class HybridUtils {
                 }
             }
             short size = plotWorld.SIZE;
+            SchematicOverlay overlay = plotWorld.getSchematicOverlay();
             for (int X = 0; X < 16; X++) {
                 short absX = (short) ((finalX + X) % size);
                 for (int Z = 0; Z < 16; Z++) {
@@ -690,11 +578,12 @@ public class HybridUtils {
                         condition = !gx || !gz || !lx || !lz;
                     }
                     if (condition) {
-                        BaseBlock[] blocks = plotWorld.G_SCH.get(MathMan.pair(absX, absZ));
+                        int column = overlay.getColumn(absX, absZ);
+                        int height = column == -1 ? 0 : overlay.getHeight();
                         int minY = Settings.Schematics.PASTE_ROAD_ON_TOP ? plotWorld.SCHEM_Y : area.getMinGenHeight() + 1;
-                        int maxDy = Math.max(extend, blocks.length);
+                        int maxDy = Math.max(extend, height);
                         for (int dy = 0; dy < maxDy; dy++) {
-                            if (dy > blocks.length - 1) {
+                            if (dy > height - 1) {
                                 queue.setBlock(
                                         finalX + X + plotWorld.ROAD_OFFSET_X,
                                         minY + dy,
@@ -702,7 +591,7 @@ public class HybridUtils {
                                         WEExtent.AIRBASE
                                 );
                             } else {
-                                BaseBlock block = blocks[dy];
+                                BaseBlock block = overlay.getBlock(column, dy);
                                 if (block != null) {
                                     queue.setBlock(
                                             finalX + X + plotWorld.ROAD_OFFSET_X,
@@ -720,7 +609,7 @@ public class HybridUtils {
                                 }
                             }
                         }
-                        BiomeType biome = plotWorld.G_SCH_B.get(MathMan.pair(absX, absZ));
+                        BiomeType biome = overlay.getBiome(absX, absZ);
                         if (biome != null) {
                             queue.setBiome(finalX + X + plotWorld.ROAD_OFFSET_X, finalZ + Z + plotWorld.ROAD_OFFSET_Z, biome);
                         } else {
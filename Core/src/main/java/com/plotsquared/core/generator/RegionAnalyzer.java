@@ -0,0 +1,146 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.generator;
+
+import com.plotsquared.core.location.Location;
+import com.plotsquared.core.plot.expiration.PlotAnalysis;
+import com.plotsquared.core.queue.BlockArrayCacheScopedQueueCoordinator;
+import com.plotsquared.core.queue.QueueCoordinator;
+import com.plotsquared.core.util.task.TaskManager;
+import com.sk89q.worldedit.math.BlockVector2;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockTypes;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Computes a {@link PlotAnalysis} of a region one chunk at a time, see {@link RegionStatistics}.
+ * <p>
+ * Only the blocks of the world are read in the chunk consumer of the queue. Generating the expected terrain of the
+ * chunk and comparing it is done asynchronously, one chunk after the other.
+ */
+final class RegionAnalyzer {
+
+    private static final BlockState AIR = BlockTypes.AIR.getDefaultState();
+    private static final RegionStatistics.BlockClassifier<BlockState> CLASSIFIER =
+            new RegionStatistics.BlockClassifier<>() {
+                @Override
+                public boolean isAir(final @NonNull BlockState block) {
+                    return block.getBlockType().getMaterial().isAir();
+                }
+
+                @Override
+                public @NonNull Object getType(final @NonNull BlockState block) {
+                    return block.getBlockType();
+                }
+
+                @Override
+                public boolean hasData(final @NonNull BlockState block) {
+                    return !block.equals(block.getBlockType().getDefaultState());
+                }
+
+                @Override
+                public boolean isChanged(final @Nullable BlockState old, final @NonNull BlockState now) {
+                    return !now.equals(old) && !(old == null && now.getBlockType().equals(BlockTypes.AIR));
+                }
+            };
+
+    private final HybridPlotWorld hpw;
+    private final int bx;
+    private final int bz;
+    private final int tx;
+    private final int tz;
+    private final int height;
+    private final int minHeight;
+    private final RegionStatistics<BlockState> statistics;
+    /**
+     * Completes once every chunk read so far has been compared
+     */
+    private volatile CompletableFuture<Void> compared = CompletableFuture.completedFuture(null);
+
+    RegionAnalyzer(final @NonNull HybridPlotWorld hpw, final @NonNull CuboidRegion region) {
+        this.hpw = hpw;
+        final BlockVector3 bot = region.getMinimumPoint();
+        final BlockVector3 top = region.getMaximumPoint();
+        this.bx = bot.getX();
+        this.bz = bot.getZ();
+        this.tx = top.getX();
+        this.tz = top.getZ();
+        this.height = hpw.getMaxGenHeight() - hpw.getMinGenHeight() + 1;
+        this.minHeight = hpw.getMinGenHeight();
+        this.statistics = new RegionStatistics<>(CLASSIFIER, tx - bx + 1, tz - bz + 1, this.height);
+    }
+
+    /**
+     * Read the part of the region within the given chunk and schedule its comparison. Must be called from the chunk
+     * consumer of the queue the chunk is read through.
+     *
+     * @param queue    queue to read the blocks from
+     * @param chunkPos chunk to analyse
+     */
+    void accept(final @NonNull QueueCoordinator queue, final @NonNull BlockVector2 chunkPos) {
+        final int chunkBlockX = chunkPos.getX() << 4;
+        final int chunkBlockZ = chunkPos.getZ() << 4;
+        // Region relative bounds of the chunk
+        final int minX = Math.max(bx, chunkBlockX) - bx;
+        final int minZ = Math.max(bz, chunkBlockZ) - bz;
+        final int maxX = Math.min(tx, chunkBlockX + 15) - bx;
+        final int maxZ = Math.min(tz, chunkBlockZ + 15) - bz;
+        final int chunkWidth = maxX - minX + 1;
+        final int chunkLength = maxZ - minZ + 1;
+
+        final BlockState[][][] newBlocks = new BlockState[height][chunkWidth][chunkLength];
+        for (int x = 0; x < chunkWidth; x++) {
+            for (int z = 0; z < chunkLength; z++) {
+                for (int yIndex = 0; yIndex < height; yIndex++) {
+                    BlockState block = queue.getBlock(bx + minX + x, yIndex + minHeight, bz + minZ + z);
+                    newBlocks[yIndex][x][z] = block == null ? AIR : block;
+                }
+            }
+        }
+        this.compared = this.compared.thenRunAsync(
+                () -> this.compare(minX, minZ, maxX, maxZ, newBlocks),
+                TaskManager::runTaskAsync
+        );
+    }
+
+    private void compare(final int minX, final int minZ, final int maxX, final int maxZ, final BlockState[][][] newBlocks) {
+        final BlockArrayCacheScopedQueueCoordinator generated = new BlockArrayCacheScopedQueueCoordinator(
+                Location.at("", bx + minX, minHeight, bz + minZ),
+                Location.at("", bx + maxX, hpw.getMaxGenHeight(), bz + maxZ)
+        );
+        hpw.getGenerator().generateChunk(generated, hpw);
+        this.statistics.compare(minX, minZ, maxX, maxZ, generated.getBlockStates(), newBlocks);
+    }
+
+    /**
+     * Create the analysis once every chunk read has been compared, see {@link RegionStatistics#complete()}. Must be
+     * called after the last chunk was read.
+     *
+     * @return a future completing with the analysis
+     */
+    @NonNull CompletableFuture<PlotAnalysis> complete() {
+        return this.compared.thenApply(ignored -> this.statistics.complete());
+    }
+
+}
@@ -0,0 +1,311 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.generator;
+
+import com.plotsquared.core.plot.expiration.PlotAnalysis;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-column statistics of a region for a {@link PlotAnalysis}, computed one chunk at a time from the expected
+ * (generated) and the actual blocks of the chunk. Only the running totals per statistic are kept.
+ * <p>
+ * Faces of blocks at chunk borders depend on the neighbouring chunk. Columns at a border are therefore kept (as bit
+ * masks of their solid and air blocks) until the neighbouring chunk has been compared, so the state kept is bounded by
+ * the border between compared and outstanding chunks rather than by the size of the region.
+ * <p>
+ * Not thread safe, chunks must be compared one after the other.
+ *
+ * @param <B> block type
+ */
+final class RegionStatistics<B> {
+
+    private final BlockClassifier<B> classifier;
+    private final int width;
+    private final int length;
+    private final int height;
+    private final int maskLength;
+    private final Map<Long, PendingColumn> pending = new HashMap<>();
+    private final Statistic changes = new Statistic();
+    private final Statistic faces = new Statistic();
+    private final Statistic data = new Statistic();
+    private final Statistic air = new Statistic();
+    private final Statistic variety = new Statistic();
+
+    /**
+     * @param classifier classifier of the compared blocks
+     * @param width      width (x) of the region
+     * @param length     length (z) of the region
+     * @param height     number of compared layers
+     */
+    RegionStatistics(final @NonNull BlockClassifier<B> classifier, final int width, final int length, final int height) {
+        this.classifier = classifier;
+        this.width = width;
+        this.length = length;
+        this.height = height;
+        this.maskLength = (height + 63) >> 6;
+    }
+
+    private static long key(final int x, final int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    private static int countShared(final long @NonNull [] a, final long @NonNull [] b) {
+        int count = 0;
+        for (int i = 0; i < a.length; i++) {
+            count += Long.bitCount(a[i] & b[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Compare the part of the region within a chunk. The arrays are indexed by layer, then by the x and z offset from
+     * the minimum corner of the compared part.
+     *
+     * @param minX      region relative minimum x of the compared part
+     * @param minZ      region relative minimum z of the compared part
+     * @param maxX      region relative maximum x of the compared part
+     * @param maxZ      region relative maximum z of the compared part
+     * @param oldBlocks expected blocks, entries may be {@code null}
+     * @param newBlocks actual blocks
+     */
+    void compare(
+            final int minX, final int minZ, final int maxX, final int maxZ,
+            final B @NonNull [][][] oldBlocks, final B @NonNull [][][] newBlocks
+    ) {
+        final int chunkWidth = maxX - minX + 1;
+        final int chunkLength = maxZ - minZ + 1;
+        for (int x = 0; x < chunkWidth; x++) {
+            final int xr = minX + x;
+            for (int z = 0; z < chunkLength; z++) {
+                final int zr = minZ + z;
+                final boolean interior = xr > 0 && zr > 0 && xr < width - 1 && zr < length - 1;
+                final PendingColumn column = new PendingColumn();
+                final long[] solidMask = new long[maskLength];
+                final long[] airMask = new long[maskLength];
+                final Set<Object> types = new HashSet<>();
+                for (int yIndex = 0; yIndex < height; yIndex++) {
+                    final B old = oldBlocks[yIndex][x][z]; // Nullable
+                    final B now = newBlocks[yIndex][x][z]; // Not null
+                    if (this.classifier.isChanged(old, now)) {
+                        column.changes++;
+                    }
+                    if (this.classifier.isAir(now)) {
+                        column.air++;
+                        airMask[yIndex >> 6] |= 1L << yIndex;
+                        continue;
+                    }
+                    if (interior && yIndex > 0 && yIndex < height - 1) {
+                        solidMask[yIndex >> 6] |= 1L << yIndex;
+                        if (this.classifier.isAir(newBlocks[yIndex - 1][x][z])) {
+                            column.faces++;
+                        }
+                        if (this.classifier.isAir(newBlocks[yIndex + 1][x][z])) {
+                            column.faces++;
+                        }
+                        if (x > 0 && this.classifier.isAir(newBlocks[yIndex][x - 1][z])) {
+                            column.faces++;
+                        }
+                        if (x < chunkWidth - 1 && this.classifier.isAir(newBlocks[yIndex][x + 1][z])) {
+                            column.faces++;
+                        }
+                        if (z > 0 && this.classifier.isAir(newBlocks[yIndex][x][z - 1])) {
+                            column.faces++;
+                        }
+                        if (z < chunkLength - 1 && this.classifier.isAir(newBlocks[yIndex][x][z + 1])) {
+                            column.faces++;
+                        }
+                    }
+                    if (this.classifier.hasData(now)) {
+                        column.data++;
+                    }
+                    types.add(this.classifier.getType(now));
+                }
+                column.variety = types.size();
+                column.solid = interior ? solidMask : null;
+                column.airMask = airMask;
+                // Neighbours in other chunks of the region
+                if (x == 0 && xr > 0) {
+                    this.link(column, xr - 1, zr);
+                }
+                if (x == chunkWidth - 1 && xr < width - 1) {
+                    this.link(column, xr + 1, zr);
+                }
+                if (z == 0 && zr > 0) {
+                    this.link(column, xr, zr - 1);
+                }
+                if (z == chunkLength - 1 && zr < length - 1) {
+                    this.link(column, xr, zr + 1);
+                }
+                if (column.missing == 0) {
+                    this.record(column);
+                } else {
+                    this.pending.put(key(xr, zr), column);
+                }
+            }
+        }
+    }
+
+    private void link(final @NonNull PendingColumn column, final int neighbourX, final int neighbourZ) {
+        final long neighbourKey = key(neighbourX, neighbourZ);
+        final PendingColumn neighbour = this.pending.get(neighbourKey);
+        if (neighbour == null) {
+            // Not compared yet, the neighbour completes this column once it is
+            column.missing++;
+            return;
+        }
+        if (column.solid != null) {
+            column.faces += countShared(column.solid, neighbour.airMask);
+        }
+        if (neighbour.solid != null) {
+            neighbour.faces += countShared(neighbour.solid, column.airMask);
+        }
+        if (--neighbour.missing == 0) {
+            this.pending.remove(neighbourKey);
+            this.record(neighbour);
+        }
+    }
+
+    private void record(final @NonNull PendingColumn column) {
+        this.changes.add(column.changes);
+        this.faces.add(column.faces);
+        this.data.add(column.data);
+        this.air.add(column.air);
+        this.variety.add(column.variety);
+    }
+
+    /**
+     * Create the analysis from everything compared so far. Columns still waiting for a neighbouring chunk that could
+     * not be read are included without the faces shared with that chunk.
+     *
+     * @return the analysis
+     */
+    @NonNull PlotAnalysis complete() {
+        for (final PendingColumn column : this.pending.values()) {
+            this.record(column);
+        }
+        this.pending.clear();
+        final int size = width * length;
+        PlotAnalysis analysis = new PlotAnalysis();
+        analysis.changes = (int) (changes.getMean(size) * 100);
+        analysis.faces = (int) (faces.getMean(size) * 100);
+        analysis.data = (int) (data.getMean(size) * 100);
+        analysis.air = (int) (air.getMean(size) * 100);
+        analysis.variety = (int) (variety.getMean(size) * 100);
+
+        analysis.changes_sd = (int) (changes.getSD(size, analysis.changes) * 100);
+        analysis.faces_sd = (int) (faces.getSD(size, analysis.faces) * 100);
+        analysis.data_sd = (int) (data.getSD(size, analysis.data) * 100);
+        analysis.air_sd = (int) (air.getSD(size, analysis.air) * 100);
+        analysis.variety_sd = (int) (variety.getSD(size, analysis.variety) * 100);
+        return analysis;
+    }
+
+    /**
+     * Classifies the blocks that are compared
+     *
+     * @param <B> block type
+     */
+    interface BlockClassifier<B> {
+
+        /**
+         * Get if a block is air
+         *
+         * @param block block
+         * @return {@code true} if the block is air
+         */
+        boolean isAir(@NonNull B block);
+
+        /**
+         * Get the type of a block, used to count the variety of a column
+         *
+         * @param block block
+         * @return block type
+         */
+        @NonNull Object getType(@NonNull B block);
+
+        /**
+         * Get if a block differs from the default state of its type
+         *
+         * @param block block
+         * @return {@code true} if the block has data
+         */
+        boolean hasData(@NonNull B block);
+
+        /**
+         * Get if the actual block differs from the expected block
+         *
+         * @param old expected block, {@code null} if nothing is generated at the position
+         * @param now actual block
+         * @return {@code true} if the block was changed
+         */
+        boolean isChanged(@Nullable B old, @NonNull B now);
+
+    }
+
+    /**
+     * Statistics of a column that are complete apart from faces shared with columns of chunks not compared yet
+     */
+    private static final class PendingColumn {
+
+        private int changes;
+        private int faces;
+        private int data;
+        private int air;
+        private int variety;
+        private long[] solid;
+        private long[] airMask;
+        private int missing;
+
+    }
+
+    /**
+     * Running sum and sum of squares of a per-column value. Columns that were never recorded count as 0, the same as
+     * the per-column arrays previously used.
+     */
+    private static final class Statistic {
+
+        private long sum;
+        private long sumSquares;
+
+        void add(final int value) {
+            this.sum += value;
+            this.sumSquares += (long) value * value;
+        }
+
+        double getMean(final int count) {
+            return (double) this.sum / count;
+        }
+
+        /**
+         * Same as {@link com.plotsquared.core.util.MathMan#getSD(int[], double)} over the recorded values
+         */
+        double getSD(final int count, final double average) {
+            final double sd = this.sumSquares - 2 * average * this.sum + count * average * average;
+            return Math.sqrt(Math.max(0D, sd) / count);
+        }
+
+    }
+
+}
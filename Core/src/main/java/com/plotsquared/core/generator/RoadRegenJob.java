@@ -0,0 +1,388 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.generator;
+
+import com.plotsquared.core.PlotSquared;
+import com.plotsquared.core.configuration.Settings;
+import com.plotsquared.core.plot.PlotArea;
+import com.plotsquared.core.queue.ChunkWorkScheduler;
+import com.plotsquared.core.queue.GlobalBlockQueue;
+import com.plotsquared.core.queue.QueueCoordinator;
+import com.plotsquared.core.util.WorldUtil;
+import com.plotsquared.core.util.task.TaskManager;
+import com.sk89q.worldedit.math.BlockVector2;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Regenerates the roads of a plot area region by region, a batch of chunks at a time.
+ * <p>
+ * The remaining work is written to a checkpoint file while the job runs (if
+ * {@link Settings.Enabled_Components#PERSISTENT_ROAD_REGEN} is enabled), so that an interrupted job can be resumed with
+ * {@link HybridUtils#resumeRoadUpdate(PlotArea)}. Chunks of a batch that was still being placed are kept in the
+ * checkpoint and are regenerated again when resuming.
+ *
+ * @since 6.11.0
+ */
+public final class RoadRegenJob {
+
+    private static final Logger LOGGER = LogManager.getLogger("PlotSquared/" + RoadRegenJob.class.getSimpleName());
+    private static final int BATCH_SIZE = 32;
+    private static final int CHECKPOINT_INTERVAL = 8;
+    private static final int REGION_CHUNKS = 1024;
+
+    private final HybridUtils hybridUtils;
+    private final GlobalBlockQueue blockQueue;
+    private final WorldUtil worldUtil;
+    private final PlotArea area;
+    private final int extend;
+    private final Set<BlockVector2> regions;
+    private final Set<BlockVector2> chunks;
+    private final Set<BlockVector2> inFlight = new HashSet<>();
+    private final int total;
+    private final AtomicInteger completed = new AtomicInteger();
+    private final Consumer<RoadRegenJob> whenDone;
+    private int batches;
+    private volatile boolean cancelled;
+    private volatile boolean finished;
+
+    RoadRegenJob(
+            final @NonNull HybridUtils hybridUtils,
+            final @NonNull GlobalBlockQueue blockQueue,
+            final @NonNull WorldUtil worldUtil,
+            final @NonNull PlotArea area,
+            final @NonNull Collection<BlockVector2> regions,
+            final @NonNull Collection<BlockVector2> chunks,
+            final int extend,
+            final @NonNull Consumer<RoadRegenJob> whenDone
+    ) {
+        this.hybridUtils = hybridUtils;
+        this.blockQueue = blockQueue;
+        this.worldUtil = worldUtil;
+        this.area = area;
+        this.extend = extend;
+        this.regions = new LinkedHashSet<>(regions);
+        // Use ordered for reasonable chunk loading order to reduce paper unloading neighbour chunks
+        this.chunks = new LinkedHashSet<>(chunks);
+        this.total = REGION_CHUNKS * this.regions.size() + this.chunks.size();
+        this.whenDone = whenDone;
+    }
+
+    /**
+     * Get the checkpoint file of the given area
+     *
+     * @param area plot area
+     * @return checkpoint file, which may not exist
+     */
+    static @NonNull File getCheckpointFile(final @NonNull PlotArea area) {
+        return new File(
+                PlotSquared.platform().getDirectory(),
+                "persistent_regen_data_" + area.getId() + "_" + area.getWorldName()
+        );
+    }
+
+    /**
+     * Load the job of an area from the checkpoint written by {@link #saveCheckpoint()}
+     *
+     * @param hybridUtils HybridUtils instance
+     * @param blockQueue  queue used to place the roads
+     * @param worldUtil   WorldUtil instance
+     * @param area        area the checkpoint belongs to
+     * @param whenDone    called when the job finishes or is cancelled
+     * @return the job, or {@code null} if there is no checkpoint for the area
+     * @throws IOException if the checkpoint could not be read
+     */
+    static @Nullable RoadRegenJob load(
+            final @NonNull HybridUtils hybridUtils,
+            final @NonNull GlobalBlockQueue blockQueue,
+            final @NonNull WorldUtil worldUtil,
+            final @NonNull PlotArea area,
+            final @NonNull Consumer<RoadRegenJob> whenDone
+    ) throws IOException {
+        final File file = getCheckpointFile(area);
+        if (!file.exists()) {
+            return null;
+        }
+        final Checkpoint checkpoint = readCheckpoint(file);
+        return new RoadRegenJob(hybridUtils, blockQueue, worldUtil, area, checkpoint.regions(), checkpoint.chunks(),
+                checkpoint.extend(), whenDone
+        );
+    }
+
+    /**
+     * Read a checkpoint file
+     *
+     * @param file checkpoint file
+     * @return the remaining work
+     * @throws IOException if the file could not be read or is not a checkpoint
+     */
+    @SuppressWarnings("unchecked")
+    static @NonNull Checkpoint readCheckpoint(final @NonNull File file) throws IOException {
+        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
+            List<Object> list = (List<Object>) ois.readObject();
+            List<int[]> regionInts = (List<int[]>) list.get(0);
+            List<int[]> chunkInts = (List<int[]>) list.get(1);
+            List<BlockVector2> regions = new ArrayList<>(regionInts.size());
+            List<BlockVector2> chunks = new ArrayList<>(chunkInts.size());
+            regionInts.forEach(l -> regions.add(BlockVector2.at(l[0], l[1])));
+            chunkInts.forEach(l -> chunks.add(BlockVector2.at(l[0], l[1])));
+            int extend = (int) list.get(2);
+            return new Checkpoint(regions, chunks, extend);
+        } catch (ClassNotFoundException | ClassCastException | IndexOutOfBoundsException e) {
+            throw new IOException("Invalid road regeneration checkpoint " + file, e);
+        }
+    }
+
+    /**
+     * Write a checkpoint file. The file is replaced atomically where supported, so an interrupted write leaves the
+     * previous checkpoint in place.
+     *
+     * @param file    checkpoint file
+     * @param regions regions that have not been started
+     * @param chunks  chunks of started regions that have not been regenerated
+     * @param extend  how far to extend setting air above the road
+     * @throws IOException if the file could not be written
+     */
+    static void writeCheckpoint(
+            final @NonNull File file,
+            final @NonNull Collection<BlockVector2> regions,
+            final @NonNull Collection<BlockVector2> chunks,
+            final int extend
+    ) throws IOException {
+        final ArrayList<int[]> regionInts = new ArrayList<>(regions.size());
+        final ArrayList<int[]> chunkInts = new ArrayList<>(chunks.size());
+        for (BlockVector2 r : regions) {
+            regionInts.add(new int[]{r.getBlockX(), r.getBlockZ()});
+        }
+        for (BlockVector2 c : chunks) {
+            chunkInts.add(new int[]{c.getBlockX(), c.getBlockZ()});
+        }
+        final List<Object> list = new ArrayList<>();
+        list.add(regionInts);
+        list.add(chunkInts);
+        list.add(extend);
+        final File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (ObjectOutputStream oos = new ObjectOutputStream(Files.newOutputStream(temp.toPath()))) {
+            oos.writeObject(list);
+        }
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Start the job
+     */
+    void start() {
+        TaskManager.runTaskAsync(this::nextBatch);
+    }
+
+    /**
+     * Stop the job once the batch that is currently being placed is done. The checkpoint is removed.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    private void nextBatch() {
+        if (this.cancelled) {
+            this.finish(false);
+            return;
+        }
+        final List<BlockVector2> batch = new ArrayList<>(BATCH_SIZE);
+        boolean checkpoint;
+        synchronized (this) {
+            checkpoint = ++this.batches % CHECKPOINT_INTERVAL == 0;
+            if (this.chunks.size() < BATCH_SIZE && !this.regions.isEmpty()) {
+                Iterator<BlockVector2> iterator = this.regions.iterator();
+                BlockVector2 region = iterator.next();
+                iterator.remove();
+                this.chunks.addAll(this.hybridUtils.getChunks(region));
+                checkpoint = true;
+            }
+            Iterator<BlockVector2> iterator = this.chunks.iterator();
+            while (batch.size() < BATCH_SIZE && iterator.hasNext()) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+            this.inFlight.addAll(batch);
+        }
+        if (batch.isEmpty()) {
+            this.finish(true);
+            return;
+        }
+        if (checkpoint) {
+            this.saveCheckpoint();
+        }
+        TaskManager.runTask(() -> {
+            try {
+                QueueCoordinator queue = this.blockQueue.getNewQueue(this.worldUtil.getWeWorld(this.area.getWorldName()));
+                queue.setPriority(ChunkWorkScheduler.Priority.BACKGROUND);
+                for (final BlockVector2 chunk : batch) {
+                    if (!this.hybridUtils.regenerateRoad(this.area, chunk, this.extend, queue)) {
+                        LOGGER.debug("Failed to regenerate the road in chunk {}", chunk);
+                    }
+                }
+                queue.setCompleteTask(() -> this.completeBatch(batch));
+                queue.enqueue();
+            } catch (Exception e) {
+                LOGGER.error("Could not regenerate roads in {} chunks of area {} (corrupt chunk?)", batch.size(), this.area, e);
+                this.completeBatch(batch);
+            }
+        });
+    }
+
+    private void completeBatch(final @NonNull List<BlockVector2> batch) {
+        synchronized (this) {
+            batch.forEach(this.inFlight::remove);
+        }
+        this.completed.addAndGet(batch.size());
+        TaskManager.runTaskAsync(this::nextBatch);
+    }
+
+    private void finish(final boolean complete) {
+        this.finished = true;
+        final File file = getCheckpointFile(this.area);
+        if (file.exists() && !file.delete()) {
+            LOGGER.error("Error deleting {}. Please delete this file manually", file.getName());
+        }
+        if (complete) {
+            TaskManager.runTask(() -> this.hybridUtils.regeneratePlotWalls(this.area));
+            LOGGER.info("Finished road regeneration in area {}", this.area);
+        } else {
+            LOGGER.info("Cancelled road regeneration in area {}", this.area);
+        }
+        this.whenDone.accept(this);
+    }
+
+    /**
+     * Write the remaining work to the checkpoint file, if persistent road regeneration is enabled
+     */
+    void saveCheckpoint() {
+        if (!Settings.Enabled_Components.PERSISTENT_ROAD_REGEN || this.finished) {
+            return;
+        }
+        final List<BlockVector2> regions;
+        final List<BlockVector2> chunks;
+        synchronized (this) {
+            regions = new ArrayList<>(this.regions);
+            // Chunks of the batch being placed are regenerated again when resuming
+            chunks = new ArrayList<>(this.inFlight.size() + this.chunks.size());
+            chunks.addAll(this.inFlight);
+            chunks.addAll(this.chunks);
+        }
+        final File file = getCheckpointFile(this.area);
+        try {
+            writeCheckpoint(file, regions, chunks, this.extend);
+        } catch (IOException e) {
+            LOGGER.error("Error saving road regeneration checkpoint {}", file.getName(), e);
+        }
+    }
+
+    /**
+     * Get the area whose roads are regenerated
+     *
+     * @return plot area
+     */
+    public @NonNull PlotArea getArea() {
+        return this.area;
+    }
+
+    /**
+     * Get the progress of the job
+     *
+     * @return progress between 0 and 1. Regions that have not been started yet are estimated at 1024 chunks each
+     */
+    public double getProgress() {
+        if (this.total == 0) {
+            return 1D;
+        }
+        return Math.min(1D, (double) this.completed.get() / this.total);
+    }
+
+    /**
+     * Get the number of chunks that have been regenerated by this job
+     *
+     * @return completed chunks
+     */
+    public int getCompletedChunks() {
+        return this.completed.get();
+    }
+
+    /**
+     * Get the number of regions (32x32 chunks) that have not been started yet
+     *
+     * @return remaining regions
+     */
+    public synchronized int getRemainingRegions() {
+        return this.regions.size();
+    }
+
+    /**
+     * Get the number of chunks of started regions that have not been regenerated yet
+     *
+     * @return remaining chunks
+     */
+    public synchronized int getRemainingChunks() {
+        return this.chunks.size() + this.inFlight.size();
+    }
+
+    /**
+     * Get whether the job has finished or been cancelled
+     *
+     * @return if the job is no longer running
+     */
+    public boolean isFinished() {
+        return this.finished;
+    }
+
+    /**
+     * Remaining work of a road regeneration job, as stored in a checkpoint file
+     *
+     * @param regions regions that have not been started
+     * @param chunks  chunks of started regions that have not been regenerated
+     * @param extend  how far to extend setting air above the road
+     */
+    record Checkpoint(@NonNull List<BlockVector2> regions, @NonNull List<BlockVector2> chunks, int extend) {
+
+    }
+
+}
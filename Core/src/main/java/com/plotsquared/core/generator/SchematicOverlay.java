@@ -0,0 +1,195 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.generator;
+
+import com.sk89q.worldedit.world.biome.BiomeType;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Blocks and biomes of the road and plot schematics of a {@link HybridPlotWorld}, for one SIZE x SIZE cell of the plot
+ * grid. Columns are addressed by their x and z coordinate relative to the cell ({@code 0 <= x, z < SIZE}) and blocks by
+ * their height above {@link HybridPlotWorld#SCHEM_Y}.
+ * <p>
+ * Every column that contains schematic data stores one palette id per block in a flat array, so a lookup is plain
+ * array indexing. All columns have the same height.
+ *
+ * @since 6.11.0
+ */
+public final class SchematicOverlay {
+
+    private static final Logger LOGGER = LogManager.getLogger("PlotSquared/" + SchematicOverlay.class.getSimpleName());
+
+    private final int size;
+    private final int[] columns;
+    private final BiomeType[] biomes;
+    private final Map<BaseBlock, Character> paletteIndex = new HashMap<>();
+    private BaseBlock[] palette = new BaseBlock[16];
+    private int paletteSize = 1;
+    private char[] blocks = new char[0];
+    private int columnCount;
+    private int height = -1;
+
+    SchematicOverlay(final int size) {
+        this.size = size;
+        this.columns = new int[size * size];
+        this.biomes = new BiomeType[size * size];
+        Arrays.fill(this.columns, -1);
+    }
+
+    /**
+     * Get the height of the columns of this overlay
+     *
+     * @return column height, 0 if no blocks were added
+     */
+    public int getHeight() {
+        return Math.max(this.height, 0);
+    }
+
+    /**
+     * Get the index of the given column, to be used with {@link #getBlock(int, int)}
+     *
+     * @param x x coordinate within the plot grid cell
+     * @param z z coordinate within the plot grid cell
+     * @return column index, or {@code -1} if the column contains no schematic data
+     */
+    public int getColumn(final int x, final int z) {
+        if (x < 0 || x >= this.size || z < 0 || z >= this.size) {
+            return -1;
+        }
+        return this.columns[x * this.size + z];
+    }
+
+    /**
+     * Get a block of a column
+     *
+     * @param column column index from {@link #getColumn(int, int)}, must not be {@code -1}
+     * @param y      height within the column, {@code 0 <= y < getHeight()}
+     * @return the block, or {@code null} if the schematic does not set a block there
+     */
+    public @Nullable BaseBlock getBlock(final int column, final int y) {
+        return this.palette[this.blocks[column * this.height + y]];
+    }
+
+    /**
+     * Get the blocks of a column as an array
+     *
+     * @param x x coordinate within the plot grid cell
+     * @param z z coordinate within the plot grid cell
+     * @return new array of the column's blocks, or {@code null} if the column contains no schematic data
+     */
+    public @Nullable BaseBlock[] getColumnBlocks(final int x, final int z) {
+        final int column = this.getColumn(x, z);
+        if (column == -1) {
+            return null;
+        }
+        final BaseBlock[] result = new BaseBlock[this.height];
+        for (int y = 0; y < this.height; y++) {
+            result[y] = this.getBlock(column, y);
+        }
+        return result;
+    }
+
+    /**
+     * Get the biome of a column
+     *
+     * @param x x coordinate within the plot grid cell
+     * @param z z coordinate within the plot grid cell
+     * @return the biome, or {@code null} if the schematic does not set a biome there
+     */
+    public @Nullable BiomeType getBiome(final int x, final int z) {
+        if (x < 0 || x >= this.size || z < 0 || z >= this.size) {
+            return null;
+        }
+        return this.biomes[x * this.size + z];
+    }
+
+    /**
+     * Set a block. The column is created even if the height is out of range. The height of the first block set defines
+     * the height of all columns.
+     *
+     * @param x      x coordinate within the plot grid cell
+     * @param y      height within the column
+     * @param z      z coordinate within the plot grid cell
+     * @param block  block to set
+     * @param height column height
+     * @return {@code false} if {@code y} is outside the column
+     */
+    boolean setBlock(final int x, final int y, final int z, final @NonNull BaseBlock block, final int height) {
+        if (x < 0 || x >= this.size || z < 0 || z >= this.size) {
+            return true;
+        }
+        if (this.height < 0) {
+            this.height = height;
+        }
+        final int index = x * this.size + z;
+        int column = this.columns[index];
+        if (column == -1) {
+            column = this.columns[index] = this.columnCount++;
+            final int required = this.columnCount * this.height;
+            if (required > this.blocks.length) {
+                this.blocks = Arrays.copyOf(this.blocks, Math.max(required, this.blocks.length * 2));
+            }
+        }
+        if (y < 0 || y >= this.height) {
+            return false;
+        }
+        this.blocks[column * this.height + y] = this.getPaletteId(block);
+        return true;
+    }
+
+    /**
+     * Set the biome of a column
+     *
+     * @param x     x coordinate within the plot grid cell
+     * @param z     z coordinate within the plot grid cell
+     * @param biome biome to set
+     */
+    void setBiome(final int x, final int z, final @NonNull BiomeType biome) {
+        if (x >= 0 && x < this.size && z >= 0 && z < this.size) {
+            this.biomes[x * this.size + z] = biome;
+        }
+    }
+
+    private char getPaletteId(final @NonNull BaseBlock block) {
+        final Character existing = this.paletteIndex.get(block);
+        if (existing != null) {
+            return existing;
+        }
+        if (this.paletteSize > Character.MAX_VALUE) {
+            LOGGER.error("Too many different blocks in the schematics of a plot world, skipping {}", block);
+            return 0;
+        }
+        if (this.paletteSize == this.palette.length) {
+            this.palette = Arrays.copyOf(this.palette, Math.min(this.palette.length * 2, Character.MAX_VALUE + 1));
+        }
+        final char id = (char) this.paletteSize++;
+        this.palette[id] = block;
+        this.paletteIndex.put(block, id);
+        return id;
+    }
+
+}
@@ -24,8 +24,9 @@ import com.google.inject.TypeLiteral;
 import com.plotsquared.core.synchronization.LockKey;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ObjIntConsumer;
 
 /**
  * Key used to access meta data
@@ -34,17 +35,20 @@ import java.util.Map;
  */
 public final class MetaDataKey<T> {
 
-    private static final Map<String, MetaDataKey<?>> keyMap = new HashMap<>();
+    private static final Map<String, MetaDataKey<?>> keyMap = new ConcurrentHashMap<>();
+    private static final Map<String, Integer> indexMap = new ConcurrentHashMap<>();
     private static final Object keyMetaData = new Object();
 
     private final String key;
     private final TypeLiteral<T> type;
     private final LockKey lockKey;
+    private final int index;
 
     private MetaDataKey(final @NonNull String key, final @NonNull TypeLiteral<T> type) {
         this.key = Preconditions.checkNotNull(key, "Key may not be null");
         this.type = Preconditions.checkNotNull(type, "Type may not be null");
         this.lockKey = LockKey.of(this.key);
+        this.index = getIndex(this.key);
     }
 
     /**
@@ -63,6 +67,24 @@ public final class MetaDataKey<T> {
         }
     }
 
+    /**
+     * Get the index of a meta data name. The index belongs to the name rather than to a key instance, so access by
+     * name and access through a key with the same name always resolve to the same index, regardless of which
+     * happens first. Names are indexed in the order they are first used.
+     *
+     * @param key Key name
+     * @return Index of the name
+     */
+    static int getIndex(final @NonNull String key) {
+        final Integer index = indexMap.get(key);
+        if (index != null) {
+            return index;
+        }
+        synchronized (keyMetaData) {
+            return indexMap.computeIfAbsent(key, missingKey -> indexMap.size());
+        }
+    }
+
     @Override
     public String toString() {
         return this.key;
@@ -94,6 +116,24 @@ public final class MetaDataKey<T> {
         return this.lockKey;
     }
 
+    /**
+     * Call the given consumer for every indexed name and its index
+     *
+     * @param consumer Consumer
+     */
+    static void forEachIndex(final @NonNull ObjIntConsumer<String> consumer) {
+        indexMap.forEach(consumer::accept);
+    }
+
+    /**
+     * Get the index of this key, see {@link #getIndex(String)}
+     *
+     * @return Key index
+     */
+    int getIndex() {
+        return this.index;
+    }
+
     /**
      * Get the meta data type
      *
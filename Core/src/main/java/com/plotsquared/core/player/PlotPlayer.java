@@ -49,7 +49,6 @@ import com.plotsquared.core.plot.world.SinglePlotAreaManager;
 import com.plotsquared.core.synchronization.LockRepository;
 import com.plotsquared.core.util.EventDispatcher;
 import com.plotsquared.core.util.Permissions;
-import com.plotsquared.core.util.query.PlotQuery;
 import com.plotsquared.core.util.task.RunnableVal;
 import com.plotsquared.core.util.task.TaskManager;
 import com.sk89q.worldedit.extension.platform.Actor;
@@ -104,9 +103,9 @@ public abstract class PlotPlayer<P> implements CommandCaller, OfflinePlotPlayer,
     private final PermissionHandler permissionHandler;
     private Map<String, byte[]> metaMap = new HashMap<>();
     /**
-     * The metadata map.
+     * The session metadata.
      */
-    private ConcurrentHashMap<String, Object> meta;
+    private final TemporaryMetaData meta = new TemporaryMetaData();
     private int hash;
     private Locale locale;
     // Delayed initialisation
@@ -211,14 +210,7 @@ public abstract class PlotPlayer<P> implements CommandCaller, OfflinePlotPlayer,
      * @param value
      */
     void setMeta(String key, Object value) {
-        if (value == null) {
-            deleteMeta(key);
-        } else {
-            if (this.meta == null) {
-                this.meta = new ConcurrentHashMap<>();
-            }
-            this.meta.put(key, value);
-        }
+        this.meta.set(key, value);
     }
 
     /**
@@ -230,10 +222,7 @@ public abstract class PlotPlayer<P> implements CommandCaller, OfflinePlotPlayer,
      */
     @SuppressWarnings("unchecked")
     <T> T getMeta(String key) {
-        if (this.meta != null) {
-            return (T) this.meta.get(key);
-        }
-        return null;
+        return (T) this.meta.get(key);
     }
 
     <T> T getMeta(String key, T defaultValue) {
@@ -244,8 +233,14 @@ public abstract class PlotPlayer<P> implements CommandCaller, OfflinePlotPlayer,
         return meta;
     }
 
+    /**
+     * Get a copy of the session metadata of this player, including metadata stored with a {@link MetaDataKey}.
+     * Changes to the returned map are not written back.
+     *
+     * @return metadata by key name
+     */
     public ConcurrentHashMap<String, Object> getMeta() {
-        return meta;
+        return this.meta.snapshot();
     }
 
     /**
@@ -256,7 +251,7 @@ public abstract class PlotPlayer<P> implements CommandCaller, OfflinePlotPlayer,
      * @param key
      */
     Object deleteMeta(String key) {
-        return this.meta == null ? null : this.meta.remove(key);
+        return this.meta.remove(key);
     }
 
     /**
@@ -378,7 +373,10 @@ public abstract class PlotPlayer<P> implements CommandCaller, OfflinePlotPlayer,
      * @return a {@link Set} of plots owned by the player
      */
     public Set<Plot> getPlots() {
-        return PlotQuery.newQuery().ownedBy(this).asSet();
+        final UUID uuid = getUUID();
+        final Set<Plot> plots = new HashSet<>();
+        this.plotAreaManager.forEachPlotArea(area -> plots.addAll(area.getPlotsAbs(uuid)));
+        return plots;
     }
 
     /**
@@ -656,7 +654,12 @@ public abstract class PlotPlayer<P> implements CommandCaller, OfflinePlotPlayer,
      * @return a {@code Set} of plots this player owns in the provided world
      */
     public Set<Plot> getPlots(String world) {
-        return PlotQuery.newQuery().inWorld(world).ownedBy(getUUID()).asSet();
+        final UUID uuid = getUUID();
+        final Set<Plot> plots = new HashSet<>();
+        for (PlotArea area : this.plotAreaManager.getPlotAreasSet(world)) {
+            plots.addAll(area.getPlotsAbs(uuid));
+        }
+        return plots;
     }
 
     public void populatePersistentMetaMap() {
@@ -788,6 +791,29 @@ public abstract class PlotPlayer<P> implements CommandCaller, OfflinePlotPlayer,
         return new TemporaryMetaDataAccess<>(this, key, this.lockRepository.lock(key.getLockKey()));
     }
 
+    /**
+     * Get the value of keyed temporary meta data without locking the key. Use this for plain reads on hot paths;
+     * read-modify-write sequences must still use {@link #accessTemporaryMetaData(MetaDataKey)}.
+     *
+     * @param key Meta data key
+     * @param <T> Meta data type
+     * @return the current value, or {@code null}
+     * @since 6.11.0
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable <T> T getTemporaryMetaData(final @NonNull MetaDataKey<T> key) {
+        return (T) this.meta.get(key);
+    }
+
+    <T> void setTemporaryMetaData(final @NonNull MetaDataKey<T> key, final @Nullable T value) {
+        this.meta.set(key, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable <T> T removeTemporaryMetaData(final @NonNull MetaDataKey<T> key) {
+        return (T) this.meta.remove(key);
+    }
+
     <T> void setPersistentMeta(
             final @NonNull MetaDataKey<T> key,
             final @NonNull T value
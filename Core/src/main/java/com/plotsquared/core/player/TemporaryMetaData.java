@@ -0,0 +1,91 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.player;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Session only meta data of a player. Values are stored in a fixed slot per meta data name (see
+ * {@link MetaDataKey#getIndex(String)}), so that reading a value is a single array access. Names with an index
+ * of {@link #SLOTS} or above are stored in a map instead.
+ */
+final class TemporaryMetaData {
+
+    static final int SLOTS = 128;
+
+    private final AtomicReferenceArray<Object> slots = new AtomicReferenceArray<>(SLOTS);
+    private final ConcurrentHashMap<String, Object> overflow = new ConcurrentHashMap<>();
+
+    @Nullable Object get(final @NonNull String key) {
+        final int index = MetaDataKey.getIndex(key);
+        return index < SLOTS ? this.slots.get(index) : this.overflow.get(key);
+    }
+
+    @Nullable Object get(final @NonNull MetaDataKey<?> key) {
+        return key.getIndex() < SLOTS ? this.slots.get(key.getIndex()) : this.overflow.get(key.toString());
+    }
+
+    void set(final @NonNull String key, final @Nullable Object value) {
+        this.set(MetaDataKey.getIndex(key), key, value);
+    }
+
+    void set(final @NonNull MetaDataKey<?> key, final @Nullable Object value) {
+        this.set(key.getIndex(), key.toString(), value);
+    }
+
+    private void set(final int index, final @NonNull String key, final @Nullable Object value) {
+        if (index < SLOTS) {
+            this.slots.set(index, value);
+        } else if (value == null) {
+            this.overflow.remove(key);
+        } else {
+            this.overflow.put(key, value);
+        }
+    }
+
+    @Nullable Object remove(final @NonNull String key) {
+        final int index = MetaDataKey.getIndex(key);
+        return index < SLOTS ? this.slots.getAndSet(index, null) : this.overflow.remove(key);
+    }
+
+    @Nullable Object remove(final @NonNull MetaDataKey<?> key) {
+        return key.getIndex() < SLOTS ? this.slots.getAndSet(key.getIndex(), null) : this.overflow.remove(key.toString());
+    }
+
+    /**
+     * Copy all values into a map
+     *
+     * @return values by meta data name
+     */
+    @NonNull ConcurrentHashMap<String, Object> snapshot() {
+        final ConcurrentHashMap<String, Object> snapshot = new ConcurrentHashMap<>(this.overflow);
+        MetaDataKey.forEachIndex((key, index) -> {
+            final Object value = index < SLOTS ? this.slots.get(index) : null;
+            if (value != null) {
+                snapshot.put(key, value);
+            }
+        });
+        return snapshot;
+    }
+
+}
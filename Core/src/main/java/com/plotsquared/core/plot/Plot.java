@@ -20,7 +20,6 @@ package com.plotsquared.core.plot;
 
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
 import com.google.inject.Inject;
 import com.plotsquared.core.PlotSquared;
 import com.plotsquared.core.command.Like;
@@ -122,9 +121,6 @@ public class Plot {
     private static final MiniMessage MINI_MESSAGE = MiniMessage.builder().build();
     private static final Cleaner CLEANER = Cleaner.create();
 
-    static Set<Plot> connected_cache;
-    static Set<CuboidRegion> regions_cache;
-
     static {
         FLAG_DECIMAL_FORMAT.setMaximumFractionDigits(340);
     }
@@ -469,7 +465,11 @@ public class Plot {
      * @param owner The new owner of this particular sub-plot.
      */
     public void setOwnerAbs(final @Nullable UUID owner) {
+        final UUID previous = this.owner;
         this.owner = owner;
+        if (this.area != null && !Objects.equals(previous, owner)) {
+            this.area.updateOwnerIndex(this, previous);
+        }
     }
 
     /**
@@ -806,17 +806,13 @@ public class Plot {
             this.origin = this;
             return this.origin;
         }
-        this.origin = this;
-        PlotId min = this.id;
-        for (Plot plot : this.getConnectedPlots()) {
-            if (plot.id.getY() < min.getY() || plot.id.getY() == min.getY() && plot.id.getX() < min.getX()) {
-                this.origin = plot;
-                min = plot.id;
+        final PlotMergeIndex.Component component = this.getConnectedComponent();
+        this.origin = component == null ? this : component.getBase();
+        if (component != null) {
+            for (Plot plot : component.getPlots()) {
+                plot.origin = this.origin;
             }
         }
-        for (Plot plot : this.getConnectedPlots()) {
-            plot.origin = this.origin;
-        }
         return this.origin;
     }
 
@@ -2128,17 +2124,15 @@ public class Plot {
                     this.origin.origin = base;
                     other.origin = base;
                     this.origin = base;
-                    connected_cache = null;
                 }
             } else {
                 if (this.origin != null) {
                     this.origin.origin = null;
                     this.origin = null;
                 }
-                connected_cache = null;
             }
+            this.invalidateMergeIndex();
             DBFunc.setMerged(this, this.getSettings().getMerged());
-            regions_cache = null;
         }
     }
 
@@ -2173,14 +2167,24 @@ public class Plot {
     }
 
     public void clearCache() {
-        connected_cache = null;
-        regions_cache = null;
+        this.invalidateMergeIndex();
         if (this.origin != null) {
             this.origin.origin = null;
             this.origin = null;
         }
     }
 
+    /**
+     * Drop the cached merged component of this plot and its neighbours from the area index,
+     * and update the occupancy of this plot now that it may have been merged or unmerged
+     */
+    void invalidateMergeIndex() {
+        if (this.area != null) {
+            this.area.getMergeIndex().invalidate(this.id);
+            this.area.updateOccupancy(this.id);
+        }
+    }
+
     /**
      * Gets the set home location or 0,Integer#MIN_VALUE,0 if no location is set<br>
      * - Does not take the default home location into account
@@ -2290,22 +2294,45 @@ public class Plot {
 
     /**
      * Gets a set of plots connected (and including) this plot<br>
-     * - This result is cached globally
+     * - This result is cached per plot area until the merge state of one of the plots changes
      *
      * @return a Set of Plots connected to this Plot
      */
     public Set<Plot> getConnectedPlots() {
-        if (this.settings == null) {
+        final PlotMergeIndex.Component component = this.getConnectedComponent();
+        if (component == null) {
             return Collections.singleton(this);
         }
+        return component.getPlots();
+    }
+
+    /**
+     * Gets the merged component containing this plot, computing and caching it in the area
+     * index if necessary
+     *
+     * @return the component, or {@code null} if this plot is not merged
+     */
+    private PlotMergeIndex.@Nullable Component getConnectedComponent() {
+        if (this.settings == null || this.area == null) {
+            return null;
+        }
         if (!this.isMerged()) {
-            return Collections.singleton(this);
+            return null;
         }
-        if (connected_cache != null && connected_cache.contains(this)) {
-            return connected_cache;
+        final PlotMergeIndex index = this.area.getMergeIndex();
+        final PlotMergeIndex.Component cached = index.get(this.id);
+        if (cached != null && cached.getPlots().contains(this)) {
+            return cached;
         }
-        regions_cache = null;
+        final long version = index.begin();
+        try {
+            return this.computeConnectedComponent(index, version);
+        } finally {
+            index.end(version);
+        }
+    }
 
+    private PlotMergeIndex.@NonNull Component computeConnectedComponent(final @NonNull PlotMergeIndex index, final long version) {
         HashSet<Plot> tmpSet = new HashSet<>();
         tmpSet.add(this);
         Plot tmp;
@@ -2409,31 +2436,30 @@ public class Plot {
                 }
             }
         }
-        connected_cache = tmpSet;
-        return tmpSet;
+        return index.publish(version, tmpSet);
     }
 
     /**
      * This will combine each plot into effective rectangular regions<br>
-     * - This result is cached globally<br>
+     * - This result is cached per plot area together with the connected plots<br>
      * - Useful for handling non rectangular shapes
      *
      * @return all regions within the plot
      */
     public @NonNull Set<CuboidRegion> getRegions() {
-        if (regions_cache != null && connected_cache != null && connected_cache.contains(this)) {
-            return regions_cache;
-        }
-        if (!this.isMerged()) {
+        final PlotMergeIndex.Component component = this.getConnectedComponent();
+        if (component == null) {
             Location pos1 = this.getBottomAbs().withY(getArea().getMinBuildHeight());
             Location pos2 = this.getTopAbs().withY(getArea().getMaxBuildHeight());
-            connected_cache = Sets.newHashSet(this);
             CuboidRegion rg = new CuboidRegion(pos1.getBlockVector3(), pos2.getBlockVector3());
-            regions_cache = Collections.singleton(rg);
-            return regions_cache;
+            return Collections.singleton(rg);
+        }
+        final Set<CuboidRegion> cached = component.getRegions();
+        if (cached != null) {
+            return cached;
         }
-        Set<Plot> plots = this.getConnectedPlots();
-        Set<CuboidRegion> regions = regions_cache = new HashSet<>();
+        Set<Plot> plots = component.getPlots();
+        Set<CuboidRegion> regions = new HashSet<>();
         Set<PlotId> visited = new HashSet<>();
         for (Plot current : plots) {
             if (visited.contains(current.getId())) {
@@ -2551,7 +2577,8 @@ public class Plot {
             BlockVector3 pos2 = BlockVector3.at(gtopabs.getX(), maxHeight, gtopabs.getZ());
             regions.add(new CuboidRegion(pos1, pos2));
         }
-        return regions;
+        component.setRegions(regions);
+        return component.getRegions();
     }
 
     /**
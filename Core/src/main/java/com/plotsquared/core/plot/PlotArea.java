@@ -29,6 +29,7 @@ import com.plotsquared.core.configuration.ConfigurationUtil;
 import com.plotsquared.core.configuration.Settings;
 import com.plotsquared.core.configuration.caption.TranslatableCaption;
 import com.plotsquared.core.configuration.file.YamlConfiguration;
+import com.plotsquared.core.database.DBFunc;
 import com.plotsquared.core.generator.GridPlotWorld;
 import com.plotsquared.core.generator.IndependentPlotGenerator;
 import com.plotsquared.core.inject.annotations.WorldConfig;
@@ -51,6 +52,7 @@ import com.plotsquared.core.queue.QueueCoordinator;
 import com.plotsquared.core.util.MathMan;
 import com.plotsquared.core.util.Permissions;
 import com.plotsquared.core.util.PlotExpression;
+import com.plotsquared.core.util.RegionFileTrimmer;
 import com.plotsquared.core.util.RegionUtil;
 import com.plotsquared.core.util.StringMan;
 import com.sk89q.worldedit.math.BlockVector2;
@@ -81,6 +83,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * @author Jesse Boyd, Alexander Söderberg
@@ -90,12 +93,21 @@ public abstract class PlotArea {
     private static final Logger LOGGER = LogManager.getLogger("PlotSquared/" + PlotArea.class.getSimpleName());
     private static final MiniMessage MINI_MESSAGE = MiniMessage.builder().build();
     private static final DecimalFormat FLAG_DECIMAL_FORMAT = new DecimalFormat("0");
+    // Rings searched for free plots beyond the ones that can contain occupied plots
+    private static final int MAX_EXTRA_SEARCH_RINGS = 64;
 
     static {
         FLAG_DECIMAL_FORMAT.setMaximumFractionDigits(340);
     }
 
     protected final ConcurrentHashMap<PlotId, Plot> plots = new ConcurrentHashMap<>();
+    private final PlotMergeIndex mergeIndex = new PlotMergeIndex();
+    private final PlotOccupancyIndex occupancyIndex = new PlotOccupancyIndex();
+    private final Object autoClaimLock = new Object();
+    /**
+     * Claimed plots by their (absolute) owner, kept in sync with {@link #plots}
+     */
+    private final PlotOwnerIndex<Plot> ownerIndex = new PlotOwnerIndex<>();
     @NonNull
     private final String worldName;
     private final String id;
@@ -662,18 +674,35 @@ public abstract class PlotArea {
         if (uuid == null) {
             return Collections.emptySet();
         }
-        final HashSet<Plot> myPlots = new HashSet<>();
-        forEachPlotAbs(value -> {
-            if (uuid.equals(value.getOwnerAbs())) {
-                myPlots.add(value);
-            }
-        });
-        return myPlots;
+        return new HashSet<>(this.ownerIndex.get(uuid));
+    }
+
+    /**
+     * Get the stored owners ({@link Plot#getOwnerAbs()}) of the claimed plots in this area
+     *
+     * @return unmodifiable live view of the owners
+     * @since 6.11.0
+     */
+    public @NonNull Set<UUID> getPlotOwners() {
+        return this.ownerIndex.owners();
     }
 
     public @NonNull Set<Plot> getPlots(final @NonNull UUID uuid) {
-        return getPlots().stream().filter(plot -> plot.isBasePlot() && plot.isOwner(uuid))
-                .collect(ImmutableSet.toImmutableSet());
+        if (DBFunc.SERVER.equals(uuid)) {
+            // Server plots are resolved through the server-plot flag rather than the stored owner
+            return getPlots().stream().filter(plot -> plot.isBasePlot() && plot.isOwner(uuid))
+                    .collect(ImmutableSet.toImmutableSet());
+        }
+        // Every base plot the uuid owns has a connected plot stored with the uuid as owner, the
+        // candidates are then filtered through isOwner to exclude server plots
+        final ImmutableSet.Builder<Plot> basePlots = ImmutableSet.builder();
+        for (final Plot plot : this.ownerIndex.get(uuid)) {
+            final Plot base = plot.getBasePlot(false);
+            if (base.isOwner(uuid)) {
+                basePlots.add(base);
+            }
+        }
+        return basePlots.build();
     }
 
     /**
@@ -707,7 +736,10 @@ public abstract class PlotArea {
     //todo check if this method is needed in this class
 
     public boolean hasPlot(final @NonNull UUID uuid) {
-        return this.plots.entrySet().stream().anyMatch(entry -> entry.getValue().isOwner(uuid));
+        if (DBFunc.SERVER.equals(uuid)) {
+            return this.plots.entrySet().stream().anyMatch(entry -> entry.getValue().isOwner(uuid));
+        }
+        return this.ownerIndex.anyMatch(uuid, plot -> plot.isOwner(uuid));
     }
 
     public int getPlotCount(final @Nullable PlotPlayer<?> player) {
@@ -816,12 +848,6 @@ public abstract class PlotArea {
         return myPlots;
     }
 
-    private void forEachPlotAbs(Consumer<Plot> run) {
-        for (final Entry<PlotId, Plot> entry : this.plots.entrySet()) {
-            run.accept(entry.getValue());
-        }
-    }
-
     public void forEachBasePlot(Consumer<Plot> run) {
         for (final Plot plot : getPlots()) {
             if (plot.isBasePlot()) {
@@ -853,7 +879,11 @@ public abstract class PlotArea {
                 metaDataAccess.set(plot);
             }
         }
-        return this.plots.put(plot.getId(), plot) == null;
+        final Plot previous = this.plots.put(plot.getId(), plot);
+        this.reindexOwner(previous, plot);
+        this.mergeIndex.invalidate(plot.getId());
+        this.updateOccupancy(plot.getId());
+        return previous == null;
     }
 
     public Plot getNextFreePlot(final PlotPlayer<?> player, @Nullable PlotId start) {
@@ -871,14 +901,26 @@ public abstract class PlotArea {
             center = PlotId.of(0, 0);
             plots = Integer.MAX_VALUE;
         }
+        final boolean partial = getType() == PlotAreaType.PARTIAL;
         for (int i = 0; i < plots; i++) {
             if (start == null) {
                 start = getMeta("lastPlot", PlotId.of(0, 0));
             } else {
                 start = start.getNextId();
             }
+            if (!partial) {
+                // The occupancy index uses absolute ids, which only match the spiral if it is centered at 0;0
+                int ring = PlotOccupancyIndex.getRing(start);
+                while (this.occupancyIndex.isRingFull(ring)) {
+                    start = PlotOccupancyIndex.getRingStart(++ring);
+                }
+            }
             PlotId currentId = PlotId.of(center.getX() + start.getX(), center.getY() + start.getY());
-            Plot plot = getPlotAbs(currentId);
+            final Plot existing = this.plots.get(currentId);
+            if (existing != null && existing.hasOwner()) {
+                continue;
+            }
+            Plot plot = existing != null ? existing : getPlotAbs(currentId);
             if (plot != null && plot.canClaim(player)) {
                 setMeta("lastPlot", start);
                 return plot;
@@ -887,8 +929,99 @@ public abstract class PlotArea {
         return null;
     }
 
+    /**
+     * Find the next rectangle of claimable plots along the claim spiral, starting after the
+     * plot stored in the {@code lastPlot} meta. Taken plots are skipped using the occupancy index
+     * of this area, plot objects are only created for candidate rectangles.
+     *
+     * @param player   Player to claim the plots for
+     * @param sizeX    Number of plots along the X axis
+     * @param sizeZ    Number of plots along the Z axis
+     * @param reserved Plot ids that must not be part of the rectangle, e.g. because they were
+     *                 already handed out to another claim
+     * @return the plots of the rectangle, or {@code null} if none was found close enough to the
+     *         occupied plots of this area
+     * @since 6.11.0
+     */
+    public @Nullable List<Plot> getNextFreePlots(
+            final @NonNull PlotPlayer<?> player, final int sizeX, final int sizeZ,
+            final @NonNull Predicate<PlotId> reserved
+    ) {
+        PlotId start = getMeta("lastPlot", PlotId.of(0, 0));
+        final int maxRing = this.occupancyIndex.getMaxRing();
+        // Any rectangle starting outside of this ring can only contain unoccupied plots
+        int limit = maxRing + Math.max(sizeX, sizeZ) + 1;
+        // Clusters and reservations may still reject those, so keep searching a few more rings,
+        // but never beyond the extent of this area
+        final PlotId min = getMin();
+        final PlotId max = getMax();
+        final long extent = Math.max(
+                Math.max(Math.abs((long) min.getX()), Math.abs((long) max.getX())),
+                Math.max(Math.abs((long) min.getY()), Math.abs((long) max.getY()))
+        );
+        final int searchLimit = (int) Math.min(extent, (long) limit + MAX_EXTRA_SEARCH_RINGS);
+        limit = Math.min(limit, searchLimit);
+        int extendedRing = -1;
+        while (true) {
+            start = start.getNextId();
+            int ring = PlotOccupancyIndex.getRing(start);
+            while (ring <= limit && this.occupancyIndex.isRingFull(ring)) {
+                start = PlotOccupancyIndex.getRingStart(++ring);
+            }
+            if (ring > limit) {
+                return null;
+            }
+            final PlotId end = PlotId.of(start.getX() + sizeX - 1, start.getY() + sizeZ - 1);
+            if (this.isFree(start, end, reserved)) {
+                final List<Plot> plots = canClaim(player, start, end);
+                if (plots != null) {
+                    setMeta("lastPlot", start);
+                    return plots;
+                }
+            }
+            if (ring > maxRing && ring != extendedRing && limit < searchLimit) {
+                // Rejected by a cluster or a reservation, search one more ring
+                extendedRing = ring;
+                limit++;
+            }
+        }
+    }
+
+    private boolean isFree(final @NonNull PlotId min, final @NonNull PlotId max, final @NonNull Predicate<PlotId> reserved) {
+        final boolean empty = this.occupancyIndex.isEmpty(min, max);
+        for (int x = min.getX(); x <= max.getX(); x++) {
+            for (int y = min.getY(); y <= max.getY(); y++) {
+                final PlotId id = PlotId.of(x, y);
+                if (reserved.test(id)) {
+                    return false;
+                }
+                if (!empty) {
+                    final Plot plot = this.plots.get(id);
+                    if (plot != null && (plot.hasOwner() || plot.isMerged())) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the lock that automatic plot claims in this area synchronize on, so that concurrent
+     * searches don't hand out the same plots
+     *
+     * @return auto claim lock
+     * @since 6.11.0
+     */
+    public @NonNull Object getAutoClaimLock() {
+        return this.autoClaimLock;
+    }
+
     public boolean addPlotIfAbsent(final @NonNull Plot plot) {
         if (this.plots.putIfAbsent(plot.getId(), plot) == null) {
+            this.reindexOwner(null, plot);
+            this.mergeIndex.invalidate(plot.getId());
+            this.updateOccupancy(plot.getId());
             for (PlotPlayer<?> pp : plot.getPlayersInPlot()) {
                 try (final MetaDataAccess<Plot> metaDataAccess = pp.accessTemporaryMetaData(
                         PlayerMetaDataKeys.TEMPORARY_LAST_PLOT)) {
@@ -901,7 +1034,11 @@ public abstract class PlotArea {
     }
 
     public boolean addPlotAbs(final @NonNull Plot plot) {
-        return this.plots.put(plot.getId(), plot) == null;
+        final Plot previous = this.plots.put(plot.getId(), plot);
+        this.reindexOwner(previous, plot);
+        this.mergeIndex.invalidate(plot.getId());
+        this.updateOccupancy(plot.getId());
+        return previous == null;
     }
 
     /**
@@ -988,7 +1125,68 @@ public abstract class PlotArea {
     }
 
     public boolean removePlot(final @NonNull PlotId id) {
-        return this.plots.remove(id) != null;
+        final Plot removed = this.plots.remove(id);
+        if (removed != null) {
+            this.ownerIndex.remove(id, removed.getOwnerAbs());
+            this.occupancyIndex.release(id);
+        }
+        this.mergeIndex.invalidate(id);
+        return removed != null;
+    }
+
+    /**
+     * Update the owner index after the owner of a plot has changed. Plots that are not
+     * registered in this area are ignored.
+     *
+     * @param plot          Plot whose owner changed
+     * @param previousOwner Previous owner, may be {@code null}
+     */
+    void updateOwnerIndex(final @NonNull Plot plot, final @Nullable UUID previousOwner) {
+        if (this.plots.get(plot.getId()) != plot) {
+            return;
+        }
+        this.ownerIndex.update(plot.getId(), previousOwner, plot.getOwnerAbs(), plot);
+        this.updateOccupancy(plot.getId());
+    }
+
+    /**
+     * Update the occupancy index after a plot was registered, removed, claimed, unclaimed,
+     * merged or unmerged. Only registered plots that are owned or merged are occupied, matching
+     * the plots that free plot searches skip.
+     *
+     * @param id Plot id
+     */
+    void updateOccupancy(final @NonNull PlotId id) {
+        final Plot plot = this.plots.get(id);
+        if (plot != null && (plot.hasOwner() || plot.isMerged())) {
+            this.occupancyIndex.occupy(id);
+            RegionFileTrimmer.keep(plot);
+        } else {
+            this.occupancyIndex.release(id);
+        }
+    }
+
+    private void reindexOwner(final @Nullable Plot previous, final @NonNull Plot plot) {
+        this.ownerIndex.update(plot.getId(), previous == null ? null : previous.getOwnerAbs(), plot.getOwnerAbs(), plot);
+    }
+
+    /**
+     * Drop the cached merged plot components of this area. Called when the area is removed, so
+     * that the plots it still references can be collected.
+     *
+     * @since 6.11.0
+     */
+    public void clearMergeIndex() {
+        this.mergeIndex.clear();
+    }
+
+    /**
+     * Get the index of merged plot components in this area
+     *
+     * @return merge index
+     */
+    @NonNull PlotMergeIndex getMergeIndex() {
+        return this.mergeIndex;
     }
 
     /**
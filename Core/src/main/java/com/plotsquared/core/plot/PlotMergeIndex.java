@@ -0,0 +1,228 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.plot;
+
+import com.plotsquared.core.location.Direction;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-area index of merged plot components. Each plot id that is part of a merged plot maps
+ * to the shared {@link Component} describing all connected plots, the base plot and the
+ * cached regions of that component.
+ * <p>
+ * Lookups are lock free. Components are built lazily by {@link Plot#getConnectedPlots()} and
+ * are dropped whenever the merge state of one of their plots (or a neighbour) changes. A
+ * component is not published if one of its plots was invalidated while it was computed, while
+ * changes to unrelated plots of the area do not prevent publication. Invalidations are only
+ * remembered while a component that started before them is still being computed.
+ */
+final class PlotMergeIndex {
+
+    private final ConcurrentHashMap<PlotId, Component> components = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    // Version at which each plot id was last invalidated, guarded by writeLock
+    private final Map<PlotId, Long> invalidations = new HashMap<>();
+    // Versions of the components currently being computed, guarded by writeLock
+    private final TreeMap<Long, Integer> computing = new TreeMap<>();
+    private volatile long version;
+    private long clearedVersion;
+
+    /**
+     * Get the cached component containing the given plot id
+     *
+     * @param id Plot id
+     * @return the component, or {@code null} if it has not been computed (or was invalidated)
+     */
+    @Nullable Component get(final @NonNull PlotId id) {
+        return this.components.get(id);
+    }
+
+    /**
+     * Start computing a component. The returned version is later handed to
+     * {@link #publish(long, Set)}, and {@link #end(long)} must be called once the computation
+     * finished or failed.
+     *
+     * @return modification version
+     */
+    long begin() {
+        synchronized (this.writeLock) {
+            final long version = this.version;
+            this.computing.merge(version, 1, Integer::sum);
+            return version;
+        }
+    }
+
+    /**
+     * Finish a computation started with {@link #begin()}, dropping the invalidations that no
+     * running computation depends on anymore
+     *
+     * @param version version returned by {@link #begin()}
+     */
+    void end(final long version) {
+        synchronized (this.writeLock) {
+            this.computing.computeIfPresent(version, (key, count) -> count == 1 ? null : count - 1);
+            if (this.computing.isEmpty()) {
+                this.invalidations.clear();
+            } else {
+                final long oldest = this.computing.firstKey();
+                this.invalidations.values().removeIf(invalidated -> invalidated <= oldest);
+            }
+        }
+    }
+
+    /**
+     * Create a component from the given set of connected plots and store it for every member,
+     * unless one of the plots was invalidated since {@code expectedVersion} was read.
+     *
+     * @param expectedVersion version returned by {@link #begin()} before the plots were collected
+     * @param plots           connected plots
+     * @return the created component (also returned if it could not be published)
+     */
+    @NonNull Component publish(final long expectedVersion, final @NonNull Set<Plot> plots) {
+        final Component component = new Component(plots);
+        final List<PlotId> ids = new ArrayList<>(plots.size());
+        for (final Plot plot : plots) {
+            ids.add(plot.getId());
+        }
+        synchronized (this.writeLock) {
+            if (this.isUnchangedSince(expectedVersion, ids)) {
+                for (final PlotId id : ids) {
+                    this.components.put(id, component);
+                }
+            }
+        }
+        return component;
+    }
+
+    /**
+     * Check whether none of the given plot ids was invalidated after the given version. As
+     * invalidating a plot also invalidates its neighbours, a change to a plot merged into the
+     * component from outside is detected as well.
+     *
+     * @param version version returned by {@link #begin()} before the plots were collected
+     * @param ids     plot ids of the component
+     * @return {@code true} if a component built from the plots is still valid
+     */
+    boolean isUnchangedSince(final long version, final @NonNull Iterable<PlotId> ids) {
+        synchronized (this.writeLock) {
+            if (this.clearedVersion > version) {
+                return false;
+            }
+            for (final PlotId id : ids) {
+                final Long invalidated = this.invalidations.get(id);
+                if (invalidated != null && invalidated > version) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Drop the components containing the given plot id and its direct neighbours
+     *
+     * @param id Plot id whose merge state (or plot instance) changed
+     */
+    void invalidate(final @NonNull PlotId id) {
+        synchronized (this.writeLock) {
+            final long version = ++this.version;
+            // Only computations that started before this change have to be told about it
+            final boolean record = !this.computing.isEmpty();
+            this.remove(id, version, record);
+            this.remove(id.getRelative(Direction.NORTH), version, record);
+            this.remove(id.getRelative(Direction.EAST), version, record);
+            this.remove(id.getRelative(Direction.SOUTH), version, record);
+            this.remove(id.getRelative(Direction.WEST), version, record);
+        }
+    }
+
+    /**
+     * Drop every cached component, e.g. because the area was removed
+     */
+    void clear() {
+        synchronized (this.writeLock) {
+            this.clearedVersion = ++this.version;
+            this.invalidations.clear();
+            this.components.clear();
+        }
+    }
+
+    private void remove(final @NonNull PlotId id, final long version, final boolean record) {
+        if (record) {
+            this.invalidations.put(id, version);
+        }
+        final Component component = this.components.remove(id);
+        if (component != null) {
+            for (final Plot plot : component.getPlots()) {
+                this.components.remove(plot.getId(), component);
+            }
+        }
+    }
+
+    /**
+     * A set of merged plots. Immutable apart from the lazily computed regions.
+     */
+    static final class Component {
+
+        private final Set<Plot> plots;
+        private final Plot base;
+        private volatile Set<CuboidRegion> regions;
+
+        private Component(final @NonNull Set<Plot> plots) {
+            this.plots = Collections.unmodifiableSet(plots);
+            Plot base = null;
+            for (final Plot plot : plots) {
+                if (base == null || plot.getId().getY() < base.getId().getY()
+                        || plot.getId().getY() == base.getId().getY() && plot.getId().getX() < base.getId().getX()) {
+                    base = plot;
+                }
+            }
+            this.base = base;
+        }
+
+        @NonNull Set<Plot> getPlots() {
+            return this.plots;
+        }
+
+        @NonNull Plot getBase() {
+            return this.base;
+        }
+
+        @Nullable Set<CuboidRegion> getRegions() {
+            return this.regions;
+        }
+
+        void setRegions(final @NonNull Set<CuboidRegion> regions) {
+            this.regions = Collections.unmodifiableSet(regions);
+        }
+
+    }
+
+}
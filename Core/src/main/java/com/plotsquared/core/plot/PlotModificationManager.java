@@ -37,6 +37,7 @@ import com.plotsquared.core.location.Direction;
 import com.plotsquared.core.location.Location;
 import com.plotsquared.core.player.PlotPlayer;
 import com.plotsquared.core.plot.flag.PlotFlag;
+import com.plotsquared.core.queue.ChunkWorkScheduler;
 import com.plotsquared.core.queue.QueueCoordinator;
 import com.plotsquared.core.util.PlayerManager;
 import com.plotsquared.core.util.task.TaskManager;
@@ -244,6 +245,10 @@ public final class PlotModificationManager {
                         TaskManager.runTask(whenDone);
                     };
                     QueueCoordinator queue = plot.getArea().getQueue();
+                    if (actor == null) {
+                        // Nobody is waiting for plots cleared without an actor, e.g. by expiry
+                        queue.setPriority(ChunkWorkScheduler.Priority.BACKGROUND);
+                    }
                     for (Plot current : plots) {
                         if (isDelete || !current.hasOwner()) {
                             manager.unClaimPlot(current, null, queue);
@@ -478,8 +483,7 @@ public final class PlotModificationManager {
                 this.plot.updateWorldBorder();
             }
         }
-        Plot.connected_cache = null;
-        Plot.regions_cache = null;
+        this.plot.invalidateMergeIndex();
         this.plot.getTrusted().clear();
         this.plot.getMembers().clear();
         this.plot.getDenied().clear();
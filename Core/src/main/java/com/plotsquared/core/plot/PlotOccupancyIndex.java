@@ -0,0 +1,150 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.plot;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-area occupancy counts of taken plots, used to skip them when searching for free plots
+ * along the claim spiral (see {@link PlotId#getNextId()}). A plot is occupied while it is
+ * registered in the area and owned or merged.
+ * <p>
+ * Occupied plots are counted per spiral ring (all plot ids with the same
+ * {@code max(|x|, |y|)}) and per 16x16 tile of plot ids, so that full rings and empty
+ * rectangles can be recognised without looking at individual plots.
+ */
+final class PlotOccupancyIndex {
+
+    private static final int TILE_SHIFT = 4;
+
+    private final Set<PlotId> occupied = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<Integer, AtomicInteger> rings = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, AtomicInteger> tiles = new ConcurrentHashMap<>();
+    private final AtomicInteger maxRing = new AtomicInteger(-1);
+
+    /**
+     * Get the spiral ring of a plot id
+     *
+     * @param id Plot id
+     * @return ring, {@code 0} for the origin
+     */
+    static int getRing(final @NonNull PlotId id) {
+        return Math.max(Math.abs(id.getX()), Math.abs(id.getY()));
+    }
+
+    /**
+     * Get the first plot id of a ring, in claim spiral order
+     *
+     * @param ring Ring, greater than zero
+     * @return first plot id of the ring
+     */
+    static @NonNull PlotId getRingStart(final int ring) {
+        return PlotId.of(ring - 1, ring);
+    }
+
+    private static int getRingSize(final int ring) {
+        return ring == 0 ? 1 : ring * 8;
+    }
+
+    private static long getTileKey(final int tileX, final int tileY) {
+        return (long) tileX << 32 | tileY & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Mark a plot id as occupied. Does nothing if it already is.
+     *
+     * @param id Plot id
+     */
+    void occupy(final @NonNull PlotId id) {
+        if (!this.occupied.add(id)) {
+            return;
+        }
+        final int ring = getRing(id);
+        this.rings.computeIfAbsent(ring, key -> new AtomicInteger()).incrementAndGet();
+        this.tiles.computeIfAbsent(
+                getTileKey(id.getX() >> TILE_SHIFT, id.getY() >> TILE_SHIFT),
+                key -> new AtomicInteger()
+        ).incrementAndGet();
+        this.maxRing.accumulateAndGet(ring, Math::max);
+    }
+
+    /**
+     * Mark a plot id as free. Does nothing if it is not occupied.
+     *
+     * @param id Plot id
+     */
+    void release(final @NonNull PlotId id) {
+        if (!this.occupied.remove(id)) {
+            return;
+        }
+        final AtomicInteger ring = this.rings.get(getRing(id));
+        if (ring != null) {
+            ring.decrementAndGet();
+        }
+        final AtomicInteger tile = this.tiles.get(getTileKey(id.getX() >> TILE_SHIFT, id.getY() >> TILE_SHIFT));
+        if (tile != null) {
+            tile.decrementAndGet();
+        }
+    }
+
+    /**
+     * Check whether every plot id of a ring is occupied
+     *
+     * @param ring Ring
+     * @return {@code true} if the ring is full
+     */
+    boolean isRingFull(final int ring) {
+        final AtomicInteger count = this.rings.get(ring);
+        return count != null && count.get() >= getRingSize(ring);
+    }
+
+    /**
+     * Get the outermost ring that ever contained an occupied plot. Every ring outside of it
+     * is empty.
+     *
+     * @return outermost ring, or {@code -1} if no plot was ever occupied
+     */
+    int getMaxRing() {
+        return this.maxRing.get();
+    }
+
+    /**
+     * Check whether the tiles overlapping a rectangle of plot ids contain no occupied plots
+     *
+     * @param min Minimum plot id (inclusive)
+     * @param max Maximum plot id (inclusive)
+     * @return {@code true} if the rectangle is definitely empty, {@code false} if it might not be
+     */
+    boolean isEmpty(final @NonNull PlotId min, final @NonNull PlotId max) {
+        for (int tileX = min.getX() >> TILE_SHIFT; tileX <= max.getX() >> TILE_SHIFT; tileX++) {
+            for (int tileY = min.getY() >> TILE_SHIFT; tileY <= max.getY() >> TILE_SHIFT; tileY++) {
+                final AtomicInteger count = this.tiles.get(getTileKey(tileX, tileY));
+                if (count != null && count.get() > 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.plot;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Per-area index of registered plots by their stored owner ({@link Plot#getOwnerAbs()}), used to
+ * look up the plots of a player without scanning every plot of the area.
+ * <p>
+ * Plots are indexed by the owner stored in the database, so server plots (see
+ * {@link com.plotsquared.core.plot.flag.implementations.ServerPlotFlag}) remain indexed under
+ * the player that claimed them. Lookups for {@link com.plotsquared.core.database.DBFunc#SERVER}
+ * therefore have to resolve the effective owner of every plot instead.
+ *
+ * @param <P> indexed plot type
+ */
+final class PlotOwnerIndex<P> {
+
+    private final ConcurrentHashMap<UUID, Map<PlotId, P>> plotsByOwner = new ConcurrentHashMap<>();
+
+    /**
+     * Move a plot from its previous owner to its current owner. Either may be {@code null} when
+     * the plot is claimed or unclaimed.
+     *
+     * @param id            Plot id
+     * @param previousOwner Previous stored owner
+     * @param owner         Current stored owner
+     * @param plot          Plot to index
+     */
+    void update(final @NonNull PlotId id, final @Nullable UUID previousOwner, final @Nullable UUID owner, final @NonNull P plot) {
+        this.remove(id, previousOwner);
+        if (owner == null) {
+            return;
+        }
+        this.plotsByOwner.compute(owner, (key, owned) -> {
+            if (owned == null) {
+                owned = new ConcurrentHashMap<>();
+            }
+            owned.put(id, plot);
+            return owned;
+        });
+    }
+
+    /**
+     * Remove a plot from the plots of an owner
+     *
+     * @param id    Plot id
+     * @param owner Stored owner, may be {@code null}
+     */
+    void remove(final @NonNull PlotId id, final @Nullable UUID owner) {
+        if (owner == null) {
+            return;
+        }
+        this.plotsByOwner.computeIfPresent(owner, (key, owned) -> {
+            owned.remove(id);
+            return owned.isEmpty() ? null : owned;
+        });
+    }
+
+    /**
+     * Get the plots stored with the given owner
+     *
+     * @param owner Stored owner
+     * @return unmodifiable live view of the indexed plots, empty if there are none
+     */
+    @NonNull Collection<P> get(final @NonNull UUID owner) {
+        final Map<PlotId, P> owned = this.plotsByOwner.get(owner);
+        if (owned == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableCollection(owned.values());
+    }
+
+    /**
+     * Get the stored owners of the indexed plots
+     *
+     * @return unmodifiable live view of the owners
+     */
+    @NonNull Set<UUID> owners() {
+        return Collections.unmodifiableSet(this.plotsByOwner.keySet());
+    }
+
+    /**
+     * Check whether any plot stored with the given owner matches a filter
+     *
+     * @param owner  Stored owner
+     * @param filter Plot filter
+     * @return {@code true} if a matching plot is indexed
+     */
+    boolean anyMatch(final @NonNull UUID owner, final @NonNull Predicate<P> filter) {
+        return this.get(owner).stream().anyMatch(filter);
+    }
+
+}
@@ -41,7 +41,6 @@ import com.plotsquared.core.plot.flag.implementations.AnalysisFlag;
 import com.plotsquared.core.plot.flag.implementations.KeepFlag;
 import com.plotsquared.core.plot.flag.implementations.ServerPlotFlag;
 import com.plotsquared.core.util.EventDispatcher;
-import com.plotsquared.core.util.query.PlotQuery;
 import com.plotsquared.core.util.task.RunnableVal;
 import com.plotsquared.core.util.task.RunnableVal3;
 import com.plotsquared.core.util.task.TaskManager;
@@ -55,10 +54,13 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
 
 public class ExpireManager {
 
@@ -69,6 +71,7 @@ public class ExpireManager {
     public static ExpireManager IMP;
     private final ConcurrentHashMap<UUID, Long> dates_cache;
     private final ConcurrentHashMap<UUID, Long> account_age_cache;
+    private final ExpiryIndex expiryIndex = new ExpiryIndex();
     private final EventDispatcher eventDispatcher;
     private final ArrayDeque<ExpiryTask> tasks;
     private volatile HashSet<Plot> plotsToDelete;
@@ -316,7 +319,7 @@ public class ExpireManager {
                     return;
                 }
                 if (plots == null) {
-                    plots = new ConcurrentLinkedDeque<>(PlotQuery.newQuery().allPlots().asList());
+                    plots = new ConcurrentLinkedDeque<>(getExpiryCandidates());
                 }
                 while (!plots.isEmpty()) {
                     if (ExpireManager.this.running != 2) {
@@ -401,17 +404,46 @@ public class ExpireManager {
         return true;
     }
 
-    public void storeDate(UUID uuid, long time) {
-        Long existing = this.dates_cache.put(uuid, time);
-        if (existing != null) {
-            long diff = time - existing;
-            if (diff > 0) {
-                Long account_age = this.account_age_cache.get(uuid);
-                if (account_age != null) {
-                    this.account_age_cache.put(uuid, account_age + diff);
+    /**
+     * Get the plots that may have expired. These are the plots whose owner has been offline for at least the shortest
+     * expiry time of all tasks, and the plots whose owner has not been looked up yet. All other plots cannot
+     * expire in this cycle, so their age is not computed at all. Candidates are looked up per owner, so plots of
+     * active owners are never visited.
+     *
+     * @return candidate plots
+     */
+    private @NonNull List<Plot> getExpiryCandidates() {
+        long minAge = Long.MAX_VALUE;
+        for (final ExpiryTask task : this.tasks) {
+            minAge = Math.min(minAge, TimeUnit.DAYS.toMillis(Math.max(0, task.getSettings().DAYS)));
+        }
+        if (minAge == Long.MAX_VALUE) {
+            return Collections.emptyList();
+        }
+        final Set<UUID> inactive = this.expiryIndex.getSeenBefore(System.currentTimeMillis() - minAge);
+        final List<Plot> candidates = new ArrayList<>();
+        for (final PlotArea area : PlotSquared.get().getPlotAreaManager().getAllPlotAreas()) {
+            // Unowned plots have an age of 0 and never expire, so they are not indexed by owner
+            for (final UUID owner : area.getPlotOwners()) {
+                if (inactive.contains(owner) || !this.dates_cache.containsKey(owner)) {
+                    candidates.addAll(area.getPlotsAbs(owner));
                 }
             }
         }
+        return candidates;
+    }
+
+    public void storeDate(UUID uuid, long time) {
+        this.dates_cache.compute(uuid, (key, existing) -> {
+            this.expiryIndex.update(key, existing, time);
+            if (existing != null) {
+                long diff = time - existing;
+                if (diff > 0) {
+                    this.account_age_cache.computeIfPresent(key, (k, accountAge) -> accountAge + diff);
+                }
+            }
+            return time;
+        });
     }
 
     public HashSet<Plot> getPendingExpired() {
@@ -473,7 +505,11 @@ public class ExpireManager {
         if (last == null) {
             OfflinePlotPlayer opp = PlotSquared.platform().playerManager().getOfflinePlayer(uuid);
             if (opp != null && (last = opp.getLastPlayed()) != 0) {
-                this.dates_cache.put(uuid, last);
+                final long lastPlayed = last;
+                last = this.dates_cache.computeIfAbsent(uuid, key -> {
+                    this.expiryIndex.update(key, null, lastPlayed);
+                    return lastPlayed;
+                });
             } else {
                 return shouldDeleteUnknownOwner ? Long.MAX_VALUE : 0;
             }
@@ -0,0 +1,91 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.plot.expiration;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Timeline of player last seen times, ordered from the oldest to the most recent. Lets the expiry task find the owners
+ * that have been offline for long enough without computing the age of every plot.
+ * <p>
+ * The index is only updated through {@link ExpireManager}, which guarantees that at most one entry exists per player
+ * by updating it atomically together with the last seen cache.
+ */
+final class ExpiryIndex {
+
+    private final ConcurrentSkipListSet<LastSeen> timeline = new ConcurrentSkipListSet<>();
+
+    /**
+     * Move a player to a new position in the timeline
+     *
+     * @param uuid     player uuid
+     * @param previous the last seen time previously stored for the player, if any
+     * @param time     the new last seen time
+     */
+    void update(final @NonNull UUID uuid, final @Nullable Long previous, final long time) {
+        if (previous != null) {
+            if (previous == time) {
+                return;
+            }
+            this.timeline.remove(new LastSeen(previous, uuid));
+        }
+        this.timeline.add(new LastSeen(time, uuid));
+    }
+
+    /**
+     * Get the players that were last seen before the given time
+     *
+     * @param cutoff timestamp in milliseconds
+     * @return players last seen before (or at) the cutoff
+     */
+    @NonNull Set<UUID> getSeenBefore(final long cutoff) {
+        final Set<UUID> players = new HashSet<>();
+        for (final LastSeen lastSeen : this.timeline.headSet(new LastSeen(cutoff, null), true)) {
+            players.add(lastSeen.uuid());
+        }
+        return players;
+    }
+
+    private record LastSeen(long time, @Nullable UUID uuid) implements Comparable<LastSeen> {
+
+        @Override
+        public int compareTo(final @NonNull LastSeen other) {
+            final int result = Long.compare(this.time, other.time);
+            if (result != 0) {
+                return result;
+            }
+            // A null uuid sorts after every player with the same time, so that it can be used as an inclusive bound
+            if (this.uuid == null) {
+                return other.uuid == null ? 0 : 1;
+            }
+            if (other.uuid == null) {
+                return -1;
+            }
+            return this.uuid.compareTo(other.uuid);
+        }
+
+    }
+
+}
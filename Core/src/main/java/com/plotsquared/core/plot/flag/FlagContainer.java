@@ -27,25 +27,37 @@ import org.apache.logging.log4j.Logger;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Container type for {@link PlotFlag plot flags}.
+ * <p>
+ * Every flag class is assigned a numeric slot on first use. Lookups through
+ * {@link #getFlag(Class)} and {@link #getFlagErased(Class)} are answered from a per-container
+ * array holding the effective flag of every slot, which is rebuilt lazily once this container
+ * or one of its parents was modified.
  */
 public class FlagContainer {
 
     private static final Logger LOGGER = LogManager.getLogger("PlotSquared/" + FlagContainer.class.getSimpleName());
 
+    private static final Map<Class<?>, Integer> flagSlots = new ConcurrentHashMap<>();
+    private static final AtomicInteger slotCount = new AtomicInteger();
+
     private final Map<String, String> unknownFlags = new HashMap<>();
     private final Map<Class<?>, PlotFlag<?, ?>> flagMap = new HashMap<>();
     private final PlotFlagUpdateHandler plotFlagUpdateHandler;
-    private final Collection<PlotFlagUpdateHandler> updateSubscribers = new HashSet<>();
+    private final Collection<PlotFlagUpdateHandler> updateSubscribers = ConcurrentHashMap.newKeySet();
     private final PlotFlagUpdateHandler unknownsRef;
     private FlagContainer parentContainer;
+    private volatile int modificationCount;
+    private volatile EffectiveFlags effectiveFlags;
 
     /**
      * Construct a new flag container with an optional parent container and update handler.
@@ -66,8 +78,8 @@ public class FlagContainer {
         this.parentContainer = parentContainer;
         this.plotFlagUpdateHandler = plotFlagUpdateHandler;
         if (!(this instanceof GlobalFlagContainer)) {
+            // Only subscribed to the global container while unknown flags are waiting to be resolved
             this.unknownsRef = this::handleUnknowns;
-            GlobalFlagContainer.getInstance().subscribe(this.unknownsRef);
         } else {
             this.unknownsRef = null;
         }
@@ -115,6 +127,24 @@ public class FlagContainer {
 
     public void setParentContainer(FlagContainer parentContainer) {
         this.parentContainer = parentContainer;
+        this.effectiveFlags = null;
+        this.modificationCount++;
+    }
+
+    /**
+     * Get the slot assigned to a flag class. Slots are dense, start at zero and are shared by
+     * all flag containers.
+     *
+     * @param flagClass Flag class
+     * @return the slot of the flag class
+     * @since 6.11.0
+     */
+    public static int getFlagSlot(final @NonNull Class<?> flagClass) {
+        final Integer slot = flagSlots.get(flagClass);
+        if (slot != null) {
+            return slot;
+        }
+        return flagSlots.computeIfAbsent(flagClass, clazz -> slotCount.getAndIncrement());
     }
 
     @SuppressWarnings("unused")
@@ -149,6 +179,7 @@ public class FlagContainer {
                     "flag name may not be more than 64 characters. Check: " + flag.getName()
             );
             final PlotFlag<?, ?> oldInstance = this.flagMap.put(flag.getClass(), flag);
+            this.modificationCount++;
             final PlotFlagUpdateType plotFlagUpdateType;
             if (oldInstance != null) {
                 plotFlagUpdateType = PlotFlagUpdateType.FLAG_UPDATED;
@@ -179,6 +210,7 @@ public class FlagContainer {
     @SuppressWarnings("unchecked")
     public <V, T extends PlotFlag<V, ?>> V removeFlag(final T flag) {
         final Object value = this.flagMap.remove(flag.getClass());
+        this.modificationCount++;
         if (this.plotFlagUpdateHandler != null) {
             this.plotFlagUpdateHandler.handle(flag, PlotFlagUpdateType.FLAG_REMOVED);
         }
@@ -215,6 +247,7 @@ public class FlagContainer {
      */
     public void clearLocal() {
         this.flagMap.clear();
+        this.modificationCount++;
     }
 
     /**
@@ -248,15 +281,7 @@ public class FlagContainer {
      * @return the plot flag
      */
     public PlotFlag<?, ?> getFlagErased(Class<?> flagClass) {
-        final PlotFlag<?, ?> flag = this.flagMap.get(flagClass);
-        if (flag != null) {
-            return flag;
-        } else {
-            if (getParentContainer() != null) {
-                return getParentContainer().getFlagErased(flagClass);
-            }
-        }
-        return null;
+        return this.getEffectiveFlag(flagClass);
     }
 
     /**
@@ -270,17 +295,64 @@ public class FlagContainer {
      * @return Flag instance
      */
     public <V, T extends PlotFlag<V, ?>> T getFlag(final Class<? extends T> flagClass) {
-        final PlotFlag<?, ?> flag = this.flagMap.get(flagClass);
+        final PlotFlag<?, ?> flag = this.getEffectiveFlag(flagClass);
         if (flag != null) {
             return castUnsafe(flag);
-        } else {
-            if (getParentContainer() != null) {
-                return getParentContainer().getFlag(flagClass);
+        }
+        return null;
+    }
+
+    private @Nullable PlotFlag<?, ?> getEffectiveFlag(final @NonNull Class<?> flagClass) {
+        final int slot = getFlagSlot(flagClass);
+        final long stamp = this.getHierarchyStamp();
+        EffectiveFlags effectiveFlags = this.effectiveFlags;
+        if (effectiveFlags == null || effectiveFlags.stamp() != stamp || slot >= effectiveFlags.flags().length) {
+            final PlotFlag<?, ?>[] flags;
+            if (effectiveFlags != null && effectiveFlags.stamp() == stamp) {
+                // A flag class was assigned a slot after the array was created, keep what we have
+                flags = Arrays.copyOf(effectiveFlags.flags(), Math.max(slot + 1, slotCount.get()));
+            } else {
+                flags = new PlotFlag<?, ?>[Math.max(slot + 1, slotCount.get())];
             }
+            effectiveFlags = new EffectiveFlags(stamp, flags);
+            this.effectiveFlags = effectiveFlags;
+        }
+        PlotFlag<?, ?> flag = effectiveFlags.flags()[slot];
+        if (flag == null) {
+            flag = this.resolveFlag(flagClass);
+            // The array is discarded once the stamp changes, so a stale write is never read
+            effectiveFlags.flags()[slot] = flag;
+        }
+        return flag;
+    }
+
+    private @Nullable PlotFlag<?, ?> resolveFlag(final @NonNull Class<?> flagClass) {
+        FlagContainer container = this;
+        while (container != null) {
+            final PlotFlag<?, ?> flag = container.flagMap.get(flagClass);
+            if (flag != null) {
+                return flag;
+            }
+            container = container.getParentContainer();
         }
         return null;
     }
 
+    /**
+     * Combine the modification counts of this container and all of its parents. The counts only
+     * ever grow, and replacing a parent drops the effective flag cache, so any modification
+     * along the hierarchy results in a different stamp.
+     */
+    private long getHierarchyStamp() {
+        long stamp = 0;
+        FlagContainer container = this;
+        while (container != null) {
+            stamp += container.modificationCount;
+            container = container.getParentContainer();
+        }
+        return stamp;
+    }
+
     /**
      * Check for flag existence in this flag container instance.
      *
@@ -327,6 +399,9 @@ public class FlagContainer {
                 } catch (final Exception ignored) {
                 }
             }
+            if (this.unknownFlags.isEmpty()) {
+                GlobalFlagContainer.getInstance().unsubscribe(this.unknownsRef);
+            }
         }
     }
 
@@ -343,6 +418,9 @@ public class FlagContainer {
      */
     public void addUnknownFlag(final String flagName, final String value) {
         this.unknownFlags.put(flagName.toLowerCase(Locale.ENGLISH), value);
+        if (this.unknownsRef != null) {
+            GlobalFlagContainer.getInstance().subscribe(this.unknownsRef);
+        }
     }
 
     /**
@@ -388,6 +466,10 @@ public class FlagContainer {
         return other instanceof FlagContainer;
     }
 
+    private record EffectiveFlags(long stamp, PlotFlag<?, ?>[] flags) {
+
+    }
+
     /**
      * Update event types used in {@link PlotFlagUpdateHandler}.
      */
@@ -29,18 +29,103 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 public abstract class BlockTypeListFlag<F extends ListFlag<BlockTypeWrapper, F>>
         extends ListFlag<BlockTypeWrapper, F> {
 
+    /**
+     * @deprecated Global and shared by all threads, use {@link #setSkipCategoryVerification(boolean)}
+     */
+    @Deprecated(forRemoval = true, since = "6.11.0")
     public static boolean skipCategoryVerification = false;
 
+    private static final ThreadLocal<Boolean> skipCategoryVerificationLocal = ThreadLocal.withInitial(() -> false);
+    private static final AtomicInteger generation = new AtomicInteger();
+
+    private volatile CompiledBlockTypes compiled;
+
     protected BlockTypeListFlag(List<BlockTypeWrapper> blockTypeList, Caption description) {
         super(blockTypeList, TranslatableCaption.of("flags.flag_category_block_list"), description);
     }
 
+    /**
+     * Drop the compiled block type sets of all block type list flags, so that they are rebuilt
+     * from the current block categories on their next use. This should be called whenever the
+     * block tags of the server are reloaded.
+     *
+     * @since 6.11.0
+     */
+    public static void invalidateCompiledBlockTypes() {
+        for (final BlockCategory category : BlockCategory.REGISTRY.values()) {
+            category.invalidateCache();
+        }
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Set whether block categories are verified when block type lists are parsed on the current
+     * thread. Unknown categories are accepted while verification is skipped, which is needed while
+     * loading flags before the block tags of the server are initialized. Callers must reset this
+     * once they are done, as threads may be reused.
+     *
+     * @param skip {@code true} to accept unknown categories on this thread
+     * @since 6.11.0
+     */
+    public static void setSkipCategoryVerification(final boolean skip) {
+        if (skip) {
+            skipCategoryVerificationLocal.set(true);
+        } else {
+            skipCategoryVerificationLocal.remove();
+        }
+    }
+
+    /**
+     * Check whether any value of this flag accepts the given block type. The values are compiled
+     * into an immutable set of block types on first use and cached on this flag instance, so this
+     * does not query block categories on every call.
+     *
+     * @param blockType Block type to check
+     * @return {@code true} if the block type is contained in this flag's list or one of its categories
+     * @since 6.11.0
+     */
+    public boolean accepts(final @NonNull BlockType blockType) {
+        final CompiledBlockTypes compiled = this.getCompiled();
+        if (compiled == null) {
+            for (final BlockTypeWrapper blockTypeWrapper : this.getValue()) {
+                if (blockTypeWrapper.accepts(blockType)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return compiled.blockTypes().contains(blockType);
+    }
+
+    private CompiledBlockTypes getCompiled() {
+        final int generation = BlockTypeListFlag.generation.get();
+        CompiledBlockTypes compiled = this.compiled;
+        if (compiled != null && compiled.generation() == generation) {
+            return compiled;
+        }
+        final Set<BlockType> blockTypes = new HashSet<>();
+        for (final BlockTypeWrapper blockTypeWrapper : this.getValue()) {
+            final Set<BlockType> accepted = blockTypeWrapper.getAcceptedBlockTypes();
+            if (accepted == null) {
+                // Block categories are not loaded yet, don't cache anything
+                return null;
+            }
+            blockTypes.addAll(accepted);
+        }
+        compiled = new CompiledBlockTypes(generation, Set.copyOf(blockTypes));
+        this.compiled = compiled;
+        return compiled;
+    }
+
     @Override
     public F parse(@NonNull String input) throws FlagParseException {
         final List<BlockTypeWrapper> parsedBlocks = new ArrayList<>();
@@ -87,7 +172,7 @@ public abstract class BlockTypeListFlag<F extends ListFlag<BlockTypeWrapper, F>>
         }
         String categoryId = blockString.substring(1);
         BlockTypeWrapper blockTypeWrapper;
-        if (skipCategoryVerification) {
+        if (skipCategoryVerification || skipCategoryVerificationLocal.get()) {
             blockTypeWrapper = BlockTypeWrapper.get(categoryId);
         } else {
             BlockCategory blockCategory = BlockCategory.REGISTRY.get(categoryId);
@@ -99,4 +184,8 @@ public abstract class BlockTypeListFlag<F extends ListFlag<BlockTypeWrapper, F>>
         return blockTypeWrapper;
     }
 
+    private record CompiledBlockTypes(int generation, Set<BlockType> blockTypes) {
+
+    }
+
 }
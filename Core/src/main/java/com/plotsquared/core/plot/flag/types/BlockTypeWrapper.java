@@ -29,8 +29,10 @@ import org.apache.logging.log4j.Logger;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Container that class either contains a {@link BlockType}
@@ -119,6 +121,26 @@ public class BlockTypeWrapper {
         }
     }
 
+    /**
+     * Get all block types accepted by this wrapper.
+     *
+     * @return the accepted block types, or {@code null} if the wrapped block category
+     *         cannot be resolved yet
+     */
+    @Nullable Set<BlockType> getAcceptedBlockTypes() {
+        if (this.getBlockType() != null) {
+            return Collections.singleton(this.getBlockType());
+        }
+        final BlockCategory category = this.getBlockCategory();
+        if (category == null) {
+            return null;
+        }
+        if (category instanceof NullBlockCategory) {
+            return Collections.emptySet();
+        }
+        return category.getAll();
+    }
+
     /**
      * Returns the block category associated with this wrapper.
      * <br>
@@ -88,6 +88,7 @@ public class DefaultPlotAreaManager implements PlotAreaManager {
         if (world == null) {
             return;
         }
+        area.clearMergeIndex();
         if (world instanceof StandardPlotWorld) {
             this.plotWorlds.remove(world.getWorld());
         } else {
@@ -150,7 +151,10 @@ public class DefaultPlotAreaManager implements PlotAreaManager {
 
     @Override
     public void removeWorld(final @NonNull String worldName) {
-        this.plotWorlds.remove(worldName);
+        final PlotWorld world = this.plotWorlds.remove(worldName);
+        if (world != null) {
+            world.getAreas().forEach(PlotArea::clearMergeIndex);
+        }
     }
 
     @Override
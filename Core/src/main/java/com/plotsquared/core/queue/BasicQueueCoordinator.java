@@ -333,6 +333,63 @@ public abstract class BasicQueueCoordinator extends QueueCoordinator {
         this.sideEffectSet = sideEffectSet;
     }
 
+    @Override
+    public void setCuboid(
+            final com.plotsquared.core.location.@NonNull Location pos1,
+            final com.plotsquared.core.location.@NonNull Location pos2,
+            final @NonNull BlockState block
+    ) {
+        fillCuboid(pos1, pos2, block.toBaseBlock(), null);
+    }
+
+    @Override
+    public void setCuboid(
+            final com.plotsquared.core.location.@NonNull Location pos1,
+            final com.plotsquared.core.location.@NonNull Location pos2,
+            final @NonNull Pattern blocks
+    ) {
+        if (PatternUtil.isConstant(blocks)) {
+            fillCuboid(pos1, pos2, PatternUtil.apply(blocks, 0, 0, 0), null);
+        } else {
+            fillCuboid(pos1, pos2, null, blocks);
+        }
+    }
+
+    /**
+     * Fill a cuboid with a single block or a pattern. The fill is recorded per chunk and only rasterised once the
+     * chunk is applied, see {@link LocalChunk#fillCuboid(int, int, int, int, int, int, BaseBlock)}.
+     */
+    private void fillCuboid(
+            final com.plotsquared.core.location.@NonNull Location pos1,
+            final com.plotsquared.core.location.@NonNull Location pos2,
+            final @Nullable BaseBlock block,
+            final @Nullable Pattern pattern
+    ) {
+        final int yMin = Math.max(Math.min(pos1.getY(), pos2.getY()), world.getMinY());
+        final int yMax = Math.min(Math.max(pos1.getY(), pos2.getY()), world.getMaxY());
+        final int xMin = Math.min(pos1.getX(), pos2.getX());
+        final int xMax = Math.max(pos1.getX(), pos2.getX());
+        final int zMin = Math.min(pos1.getZ(), pos2.getZ());
+        final int zMax = Math.max(pos1.getZ(), pos2.getZ());
+        if (yMin > yMax) {
+            return;
+        }
+        for (int chunkX = xMin >> 4; chunkX <= xMax >> 4; chunkX++) {
+            final int bxMin = Math.max(xMin, chunkX << 4) & 15;
+            final int bxMax = Math.min(xMax, (chunkX << 4) + 15) & 15;
+            for (int chunkZ = zMin >> 4; chunkZ <= zMax >> 4; chunkZ++) {
+                final int bzMin = Math.max(zMin, chunkZ << 4) & 15;
+                final int bzMax = Math.min(zMax, (chunkZ << 4) + 15) & 15;
+                final LocalChunk chunk = getChunk(chunkX, chunkZ);
+                if (block != null) {
+                    chunk.fillCuboid(bxMin, yMin, bzMin, bxMax, yMax, bzMax, block);
+                } else {
+                    chunk.fillCuboid(bxMin, yMin, bzMin, bxMax, yMax, bzMax, pattern);
+                }
+            }
+        }
+    }
+
     // Don't ask about the @NonNull placement. That's how it needs to be else it errors.
     @Override
     public void setBiomeCuboid(
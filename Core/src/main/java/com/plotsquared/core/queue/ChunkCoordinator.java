@@ -18,8 +18,13 @@
  */
 package com.plotsquared.core.queue;
 
+import com.google.common.base.Preconditions;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
 public abstract class ChunkCoordinator implements Runnable {
 
+    private ChunkWorkScheduler.Priority priority = ChunkWorkScheduler.Priority.PLAYER;
+
     /**
      * Starts the chunk coordinator. This will usually (implementation-specific-permitting) mark chunks to be loaded in batches,
      * then add them to a queue and apply tickets once loaded to prevent unloading. A repeating task will then iterate over loaded
@@ -47,4 +52,38 @@ public abstract class ChunkCoordinator implements Runnable {
      */
     public abstract int getTotalChunks();
 
+    /**
+     * Process loaded chunks for at most (approximately) the given time. Called every tick by the
+     * {@link ChunkWorkScheduler} for coordinators that have been submitted to it. Coordinators that manage their own time
+     * budget simply run once.
+     *
+     * @param budget time in nanoseconds the coordinator may spend
+     * @return the number of chunks processed
+     * @since 6.11.0
+     */
+    public int tick(final long budget) {
+        run();
+        return 0;
+    }
+
+    /**
+     * Get the scheduling priority of the coordinator
+     *
+     * @return priority
+     * @since 6.11.0
+     */
+    public @NonNull ChunkWorkScheduler.Priority getPriority() {
+        return this.priority;
+    }
+
+    /**
+     * Set the scheduling priority of the coordinator. Must be set before the coordinator is started.
+     *
+     * @param priority priority
+     * @since 6.11.0
+     */
+    public void setPriority(final @NonNull ChunkWorkScheduler.Priority priority) {
+        this.priority = Preconditions.checkNotNull(priority, "Priority may not be null");
+    }
+
 }
@@ -52,6 +52,7 @@ public class ChunkCoordinatorBuilder {
     private int initialBatchSize = Settings.QUEUE.INITIAL_BATCH_SIZE;
     private boolean unloadAfter = true;
     private boolean forceSync = false;
+    private ChunkWorkScheduler.Priority priority = ChunkWorkScheduler.Priority.PLAYER;
 
     @Inject
     public ChunkCoordinatorBuilder(@NonNull ChunkCoordinatorFactory chunkCoordinatorFactory) {
@@ -203,6 +204,18 @@ public class ChunkCoordinatorBuilder {
         return this;
     }
 
+    /**
+     * Set the priority the chunk coordinator is scheduled with. Defaults to {@link ChunkWorkScheduler.Priority#PLAYER}.
+     *
+     * @param priority scheduling priority
+     * @return this ChunkCoordinatorBuilder instance
+     * @since 6.11.0
+     */
+    public @NonNull ChunkCoordinatorBuilder withPriority(final @NonNull ChunkWorkScheduler.Priority priority) {
+        this.priority = Preconditions.checkNotNull(priority, "Priority may not be null");
+        return this;
+    }
+
     public @NonNull ChunkCoordinatorBuilder withProgressSubscriber(ProgressSubscriber progressSubscriber) {
         this.progressSubscribers.add(progressSubscriber);
         return this;
@@ -223,7 +236,7 @@ public class ChunkCoordinatorBuilder {
         Preconditions.checkNotNull(this.chunkConsumer, "No chunk consumer was supplied");
         Preconditions.checkNotNull(this.whenDone, "No final action was supplied");
         Preconditions.checkNotNull(this.throwableConsumer, "No throwable consumer was supplied");
-        return chunkCoordinatorFactory
+        final ChunkCoordinator chunkCoordinator = chunkCoordinatorFactory
                 .create(
                         this.maxIterationTime,
                         this.initialBatchSize,
@@ -236,6 +249,8 @@ public class ChunkCoordinatorBuilder {
                         this.progressSubscribers,
                         this.forceSync
                 );
+        chunkCoordinator.setPriority(this.priority);
+        return chunkCoordinator;
     }
 
 }
@@ -0,0 +1,229 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.queue;
+
+import com.google.common.base.Preconditions;
+import com.google.inject.Singleton;
+import com.plotsquared.core.configuration.Settings;
+import com.plotsquared.core.util.task.PlotSquaredTask;
+import com.plotsquared.core.util.task.TaskManager;
+import com.plotsquared.core.util.task.TaskTime;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Shares a single per-tick time budget between all running {@link ChunkCoordinator}s.
+ * <p>
+ * Every tick the budget ({@link Settings.QUEUE#TICK_BUDGET}) is reduced by however much the rest of the server needs to
+ * stay within 50ms per tick, and is then handed out to coordinators. Coordinators with {@link Priority#PLAYER} are
+ * served first, but may not use the share of the budget reserved for {@link Priority#BACKGROUND} coordinators
+ * ({@link Settings.QUEUE#BACKGROUND_SHARE}) while there are any. Background coordinators get that share and whatever
+ * the player coordinators left over. Coordinators of the same priority share their budget evenly and take turns being
+ * served first.
+ */
+@Singleton
+public final class ChunkWorkScheduler {
+
+    private static final double TICK_MILLIS = 50D;
+    private static final double SMOOTHING = 0.1D;
+
+    private final List<ChunkCoordinator> player = new ArrayList<>();
+    private final List<ChunkCoordinator> background = new ArrayList<>();
+    private @Nullable DoubleSupplier tickTimeSupplier;
+    private @Nullable PlotSquaredTask task;
+    private long lastTick;
+    private double measuredTickTime = TICK_MILLIS;
+    private double usedTime;
+    private double budget = Settings.QUEUE.TICK_BUDGET;
+    private long windowStart;
+    private int windowChunks;
+    private double chunksPerSecond;
+
+    /**
+     * Set the source of the server's average tick time in milliseconds. Without one, the tick time is estimated from the
+     * interval between ticks, which only detects load once the server runs behind.
+     *
+     * @param tickTimeSupplier average tick time supplier, or {@code null} to estimate it
+     */
+    public synchronized void setTickTimeSupplier(final @Nullable DoubleSupplier tickTimeSupplier) {
+        this.tickTimeSupplier = tickTimeSupplier;
+    }
+
+    /**
+     * Start giving the coordinator time every tick, until it is {@link #complete(ChunkCoordinator) completed}
+     *
+     * @param coordinator coordinator to schedule
+     */
+    public synchronized void submit(final @NonNull ChunkCoordinator coordinator) {
+        Preconditions.checkNotNull(coordinator, "Coordinator may not be null");
+        final List<ChunkCoordinator> list = coordinator.getPriority() == Priority.PLAYER ? this.player : this.background;
+        if (list.contains(coordinator)) {
+            return;
+        }
+        list.add(coordinator);
+        if (this.task == null) {
+            this.lastTick = System.nanoTime();
+            this.windowStart = this.lastTick;
+            this.task = TaskManager.runTaskRepeat(this::tick, TaskTime.ticks(1L));
+        }
+    }
+
+    /**
+     * Stop scheduling the coordinator
+     *
+     * @param coordinator coordinator that finished or was cancelled
+     */
+    public synchronized void complete(final @NonNull ChunkCoordinator coordinator) {
+        this.player.remove(coordinator);
+        this.background.remove(coordinator);
+    }
+
+    private void tick() {
+        final ChunkCoordinator[] playerJobs;
+        final ChunkCoordinator[] backgroundJobs;
+        final double budget;
+        final long start = System.nanoTime();
+        synchronized (this) {
+            if (this.player.isEmpty() && this.background.isEmpty()) {
+                if (this.task != null) {
+                    this.task.cancel();
+                    this.task = null;
+                }
+                this.chunksPerSecond = 0;
+                return;
+            }
+            final double interval = (start - this.lastTick) / 1_000_000D;
+            this.lastTick = start;
+            this.measuredTickTime += (interval - this.measuredTickTime) * SMOOTHING;
+            this.budget = budget = this.computeBudget();
+            playerJobs = this.player.toArray(new ChunkCoordinator[0]);
+            backgroundJobs = this.background.toArray(new ChunkCoordinator[0]);
+            // Let a different coordinator go first next tick
+            Collections.rotate(this.player, 1);
+            Collections.rotate(this.background, 1);
+        }
+        final long deadline = start + (long) (budget * 1_000_000D);
+        final double reserved = backgroundJobs.length == 0 ? 0D : budget * getBackgroundShare();
+        int processed = this.serve(playerJobs, deadline - (long) (reserved * 1_000_000D));
+        processed += this.serve(backgroundJobs, deadline);
+        final long end = System.nanoTime();
+        synchronized (this) {
+            this.usedTime += ((end - start) / 1_000_000D - this.usedTime) * SMOOTHING;
+            this.windowChunks += processed;
+            final long window = end - this.windowStart;
+            if (window >= TimeUnit.SECONDS.toNanos(1L)) {
+                this.chunksPerSecond = this.windowChunks * 1_000_000_000D / window;
+                this.windowChunks = 0;
+                this.windowStart = end;
+            }
+        }
+    }
+
+    private int serve(final ChunkCoordinator @NonNull [] jobs, final long deadline) {
+        int processed = 0;
+        for (int i = 0; i < jobs.length; i++) {
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            // Time not used by a coordinator carries over to the ones after it
+            processed += jobs[i].tick(remaining / (jobs.length - i));
+        }
+        return processed;
+    }
+
+    private static double getBackgroundShare() {
+        return Math.max(0, Math.min(100, Settings.QUEUE.BACKGROUND_SHARE)) / 100D;
+    }
+
+    private double computeBudget() {
+        final double tickTime = this.tickTimeSupplier != null ? this.tickTimeSupplier.getAsDouble() : this.measuredTickTime;
+        final double max = Settings.QUEUE.TICK_BUDGET;
+        if (this.tickTimeSupplier == null && tickTime <= TICK_MILLIS) {
+            // The tick interval does not tell how much of a tick is spent, only that the server keeps up
+            return max;
+        }
+        final double otherWork = Math.max(0D, tickTime - this.usedTime);
+        return Math.max(Settings.QUEUE.MIN_TICK_BUDGET, Math.min(max, TICK_MILLIS - otherWork));
+    }
+
+    /**
+     * Get the number of coordinators that are currently scheduled
+     *
+     * @return scheduled coordinators
+     */
+    public synchronized int getActiveCoordinators() {
+        return this.player.size() + this.background.size();
+    }
+
+    /**
+     * Get the number of chunks the scheduled coordinators still have to process
+     *
+     * @return remaining chunks
+     */
+    public synchronized int getQueueDepth() {
+        int depth = 0;
+        for (final ChunkCoordinator coordinator : this.player) {
+            depth += coordinator.getRemainingChunks();
+        }
+        for (final ChunkCoordinator coordinator : this.background) {
+            depth += coordinator.getRemainingChunks();
+        }
+        return depth;
+    }
+
+    /**
+     * Get the number of chunks processed per second, measured over the last second
+     *
+     * @return chunks per second
+     */
+    public synchronized double getChunksPerSecond() {
+        return this.chunksPerSecond;
+    }
+
+    /**
+     * Get the time budget in milliseconds that was available in the last tick
+     *
+     * @return tick budget
+     */
+    public synchronized double getTickBudget() {
+        return this.budget;
+    }
+
+    /**
+     * Scheduling priority of a {@link ChunkCoordinator}
+     */
+    public enum Priority {
+        /**
+         * Work a player is waiting for, such as clearing or regenerating their plot
+         */
+        PLAYER,
+        /**
+         * Work nobody is waiting for, such as expiry and road regeneration
+         */
+        BACKGROUND
+    }
+
+}
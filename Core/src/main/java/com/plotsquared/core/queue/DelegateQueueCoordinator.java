@@ -197,6 +197,21 @@ public class DelegateQueueCoordinator extends QueueCoordinator {
         }
     }
 
+    @Override
+    public @NonNull ChunkWorkScheduler.Priority getPriority() {
+        if (parent != null) {
+            return parent.getPriority();
+        }
+        return super.getPriority();
+    }
+
+    @Override
+    public void setPriority(@NonNull ChunkWorkScheduler.Priority priority) {
+        if (parent != null) {
+            parent.setPriority(priority);
+        }
+    }
+
     @Override
     public Runnable getCompleteTask() {
         if (parent != null) {
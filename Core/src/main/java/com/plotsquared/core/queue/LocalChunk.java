@@ -20,15 +20,21 @@ package com.plotsquared.core.queue;
 
 import com.plotsquared.core.util.ChunkUtil;
 import com.plotsquared.core.util.MathMan;
+import com.plotsquared.core.util.PatternUtil;
 import com.sk89q.jnbt.CompoundTag;
 import com.sk89q.worldedit.entity.BaseEntity;
+import com.sk89q.worldedit.function.pattern.Pattern;
 import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldedit.util.Location;
 import com.sk89q.worldedit.world.biome.BiomeType;
 import com.sk89q.worldedit.world.block.BaseBlock;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 
 public class LocalChunk {
 
@@ -37,19 +43,37 @@ public class LocalChunk {
     private final int z;
     private final int minSection;
 
-    private final BaseBlock[][] baseblocks;
-    private final BiomeType[][] biomes;
+    private final PaletteSection<BaseBlock>[] baseblocks;
+    private final PaletteSection<BiomeType>[] biomes;
     private final HashMap<BlockVector3, CompoundTag> tiles = new HashMap<>();
     private final HashMap<Location, BaseEntity> entities = new HashMap<>();
+    /**
+     * Cuboid fills in the order they were recorded. Each section is rasterised lazily, the
+     * number of fills already applied to a section is tracked in {@link #rasterizedFills}.
+     */
+    private final List<CuboidFill> fills = new ArrayList<>();
+    private final int[] rasterizedFills;
+    /**
+     * Flat arrays handed out by the deprecated {@link #getBaseblocks()} and {@link #getBiomes()}. Once requested, they
+     * replace the palette sections, so that changes made through them are still applied.
+     */
+    private BaseBlock[][] legacyBaseblocks;
+    private BiomeType[][] legacyBiomes;
 
     public LocalChunk(@NonNull QueueCoordinator parent, int x, int z) {
+        this(parent, x, z, parent.getMinLayer(), parent.getMaxLayer());
+    }
+
+    @SuppressWarnings("unchecked")
+    LocalChunk(QueueCoordinator parent, int x, int z, int minSection, int maxSection) {
         this.parent = parent;
         this.x = x;
         this.z = z;
-        this.minSection = parent.getMinLayer();
-        int sections = parent.getMaxLayer() - parent.getMinLayer() + 1;
-        baseblocks = new BaseBlock[sections][];
-        biomes = new BiomeType[sections][];
+        this.minSection = minSection;
+        int sections = maxSection - minSection + 1;
+        baseblocks = new PaletteSection[sections];
+        biomes = new PaletteSection[sections];
+        rasterizedFills = new int[sections];
     }
 
     public @NonNull QueueCoordinator getParent() {
@@ -73,12 +97,150 @@ public class LocalChunk {
         return this.minSection;
     }
 
+    /**
+     * Get the number of sections (layers) this chunk can hold.
+     *
+     * @since 6.11.0
+     */
+    public int getSectionCount() {
+        return this.baseblocks.length;
+    }
+
+    /**
+     * Get if any block has been set in the given section.
+     *
+     * @param layer section index, where 0 is the section at {@link #getMinSection()}
+     * @since 6.11.0
+     */
+    public boolean hasBlocks(final int layer) {
+        this.rasterize(layer);
+        if (this.legacyBaseblocks != null) {
+            return this.legacyBaseblocks[layer] != null;
+        }
+        return this.baseblocks[layer] != null;
+    }
+
+    /**
+     * Get the block set at the given position.
+     *
+     * @param layer section index, where 0 is the section at {@link #getMinSection()}
+     * @param j     position index within the section, see {@link ChunkUtil#getJ(int, int, int)}
+     * @return the block, or {@code null} if no block has been set at the position
+     * @since 6.11.0
+     */
+    public @Nullable BaseBlock getBlock(final int layer, final int j) {
+        this.rasterize(layer);
+        if (this.legacyBaseblocks != null) {
+            final BaseBlock[] blocks = this.legacyBaseblocks[layer];
+            return blocks == null ? null : blocks[j];
+        }
+        final PaletteSection<BaseBlock> section = this.baseblocks[layer];
+        return section == null ? null : section.get(j);
+    }
+
+    /**
+     * Get the block the whole given section has been filled with.
+     *
+     * @param layer section index, where 0 is the section at {@link #getMinSection()}
+     * @return the block, or {@code null} if the section does not consist of a single block
+     * @since 6.11.0
+     */
+    public @Nullable BaseBlock getUniformBlock(final int layer) {
+        this.rasterize(layer);
+        if (this.legacyBaseblocks != null) {
+            final BaseBlock[] blocks = this.legacyBaseblocks[layer];
+            if (blocks == null || blocks[0] == null) {
+                return null;
+            }
+            for (final BaseBlock block : blocks) {
+                if (!blocks[0].equals(block)) {
+                    return null;
+                }
+            }
+            return blocks[0];
+        }
+        final PaletteSection<BaseBlock> section = this.baseblocks[layer];
+        return section == null ? null : section.getUniform();
+    }
+
+    /**
+     * Get if any biome has been set in the given section.
+     *
+     * @param layer section index, where 0 is the section at {@link #getMinSection()}
+     * @since 6.11.0
+     */
+    public boolean hasBiomes(final int layer) {
+        if (this.legacyBiomes != null) {
+            return this.legacyBiomes[layer] != null;
+        }
+        return this.biomes[layer] != null;
+    }
+
+    /**
+     * Get the biome set at the given position.
+     *
+     * @param layer section index, where 0 is the section at {@link #getMinSection()}
+     * @param j     position index within the section, see {@link ChunkUtil#getJ(int, int, int)}
+     * @return the biome, or {@code null} if no biome has been set at the position
+     * @since 6.11.0
+     */
+    public @Nullable BiomeType getBiome(final int layer, final int j) {
+        if (this.legacyBiomes != null) {
+            final BiomeType[] biomes = this.legacyBiomes[layer];
+            return biomes == null ? null : biomes[j];
+        }
+        final PaletteSection<BiomeType> section = this.biomes[layer];
+        return section == null ? null : section.get(j);
+    }
+
+    /**
+     * Get the blocks set in this chunk, indexed by section and position. Sections without any blocks are {@code null}.
+     * Changes made to the returned arrays are applied to this chunk.
+     *
+     * @deprecated Blocks are stored in palette sections, calling this converts the whole chunk back to flat arrays
+     *         (4096 references per section) for the rest of its lifetime. Use {@link #getBlock(int, int)} and
+     *         {@link #hasBlocks(int)}.
+     */
+    @Deprecated(forRemoval = true, since = "6.11.0")
     public @NonNull BaseBlock[][] getBaseblocks() {
-        return this.baseblocks;
+        if (this.legacyBaseblocks == null) {
+            final BaseBlock[][] blocks = new BaseBlock[this.baseblocks.length][];
+            for (int i = 0; i < this.baseblocks.length; i++) {
+                this.rasterize(i);
+                if (this.baseblocks[i] != null) {
+                    blocks[i] = this.baseblocks[i].toArray(new BaseBlock[PaletteSection.SIZE]);
+                    this.baseblocks[i] = null;
+                }
+            }
+            this.legacyBaseblocks = blocks;
+        }
+        for (int i = 0; i < this.legacyBaseblocks.length; i++) {
+            this.rasterize(i);
+        }
+        return this.legacyBaseblocks;
     }
 
+    /**
+     * Get the biomes set in this chunk, indexed by section and position. Sections without any biomes are {@code null}.
+     * Changes made to the returned arrays are applied to this chunk.
+     *
+     * @deprecated Biomes are stored in palette sections, calling this converts the whole chunk back to flat arrays
+     *         (4096 references per section) for the rest of its lifetime. Use {@link #getBiome(int, int)} and
+     *         {@link #hasBiomes(int)}.
+     */
+    @Deprecated(forRemoval = true, since = "6.11.0")
     public @NonNull BiomeType[][] getBiomes() {
-        return this.biomes;
+        if (this.legacyBiomes == null) {
+            final BiomeType[][] biomes = new BiomeType[this.biomes.length][];
+            for (int i = 0; i < this.biomes.length; i++) {
+                if (this.biomes[i] != null) {
+                    biomes[i] = this.biomes[i].toArray(new BiomeType[PaletteSection.SIZE]);
+                    this.biomes[i] = null;
+                }
+            }
+            this.legacyBiomes = biomes;
+        }
+        return this.legacyBiomes;
     }
 
     public @NonNull HashMap<BlockVector3, CompoundTag> getTiles() {
@@ -88,11 +250,19 @@ public class LocalChunk {
     public void setBiome(final int x, final int y, final int z, final @NonNull BiomeType biomeType) {
         final int i = getLayerIndex(y);
         final int j = ChunkUtil.getJ(x, y, z);
-        BiomeType[] array = this.biomes[i];
-        if (array == null) {
-            array = this.biomes[i] = new BiomeType[4096];
+        if (this.legacyBiomes != null) {
+            BiomeType[] biomes = this.legacyBiomes[i];
+            if (biomes == null) {
+                biomes = this.legacyBiomes[i] = new BiomeType[PaletteSection.SIZE];
+            }
+            biomes[j] = biomeType;
+            return;
         }
-        array[j] = biomeType;
+        PaletteSection<BiomeType> section = this.biomes[i];
+        if (section == null) {
+            section = this.biomes[i] = new PaletteSection<>();
+        }
+        section.set(j, biomeType);
     }
 
     @Override
@@ -102,12 +272,62 @@ public class LocalChunk {
 
     public void setBlock(final int x, final int y, final int z, final @NonNull BaseBlock baseBlock) {
         final int i = getLayerIndex(y);
-        final int j = ChunkUtil.getJ(x, y, z);
-        BaseBlock[] array = baseblocks[i];
-        if (array == null) {
-            array = (baseblocks[i] = new BaseBlock[4096]);
-        }
-        array[j] = baseBlock;
+        this.rasterize(i);
+        this.writeBlock(i, ChunkUtil.getJ(x, y, z), baseBlock);
+    }
+
+    /**
+     * Record a fill of a cuboid within this chunk. The blocks are only created once the affected
+     * sections are read (usually when the chunk is applied to the world), so the memory used does
+     * not depend on the volume of the cuboid. Blocks set afterwards take precedence.
+     *
+     * @param minX  minimum x coordinate within the chunk (0-15)
+     * @param minY  minimum y coordinate
+     * @param minZ  minimum z coordinate within the chunk (0-15)
+     * @param maxX  maximum x coordinate within the chunk (0-15)
+     * @param maxY  maximum y coordinate
+     * @param maxZ  maximum z coordinate within the chunk (0-15)
+     * @param block block to fill the cuboid with
+     * @since 6.11.0
+     */
+    public void fillCuboid(
+            final int minX, final int minY, final int minZ, final int maxX, final int maxY, final int maxZ,
+            final @NonNull BaseBlock block
+    ) {
+        this.fills.add(new CuboidFill(minX, minY, minZ, maxX, maxY, maxZ, block, null));
+    }
+
+    /**
+     * Record a fill of a cuboid within this chunk, see {@link #fillCuboid(int, int, int, int, int, int, BaseBlock)}.
+     * The pattern is applied to each block using its world coordinates.
+     *
+     * @param minX    minimum x coordinate within the chunk (0-15)
+     * @param minY    minimum y coordinate
+     * @param minZ    minimum z coordinate within the chunk (0-15)
+     * @param maxX    maximum x coordinate within the chunk (0-15)
+     * @param maxY    maximum y coordinate
+     * @param maxZ    maximum z coordinate within the chunk (0-15)
+     * @param pattern pattern to fill the cuboid with
+     * @since 6.11.0
+     */
+    public void fillCuboid(
+            final int minX, final int minY, final int minZ, final int maxX, final int maxY, final int maxZ,
+            final @NonNull Pattern pattern
+    ) {
+        this.fills.add(new CuboidFill(minX, minY, minZ, maxX, maxY, maxZ, null, pattern));
+    }
+
+    /**
+     * Set every block of a section, replacing anything previously set in it.
+     *
+     * @param layer     section index, where 0 is the section at {@link #getMinSection()}
+     * @param baseBlock block to fill the section with
+     * @since 6.11.0
+     */
+    public void fillSection(final int layer, final @NonNull BaseBlock baseBlock) {
+        // Everything recorded so far is overwritten
+        this.rasterizedFills[layer] = this.fills.size();
+        this.fillBlocks(layer, baseBlock);
     }
 
     public void setTile(final int x, final int y, final int z, final @NonNull CompoundTag tag) {
@@ -126,4 +346,78 @@ public class LocalChunk {
         return (y >> 4) - minSection;
     }
 
+    private void writeBlock(final int layer, final int j, final @NonNull BaseBlock baseBlock) {
+        if (this.legacyBaseblocks != null) {
+            this.getLegacyBlocks(layer)[j] = baseBlock;
+            return;
+        }
+        PaletteSection<BaseBlock> section = baseblocks[layer];
+        if (section == null) {
+            section = (baseblocks[layer] = new PaletteSection<>());
+        }
+        section.set(j, baseBlock);
+    }
+
+    private void fillBlocks(final int layer, final @NonNull BaseBlock baseBlock) {
+        if (this.legacyBaseblocks != null) {
+            Arrays.fill(this.getLegacyBlocks(layer), baseBlock);
+            return;
+        }
+        PaletteSection<BaseBlock> section = baseblocks[layer];
+        if (section == null) {
+            section = (baseblocks[layer] = new PaletteSection<>());
+        }
+        section.fill(baseBlock);
+    }
+
+    private BaseBlock @NonNull [] getLegacyBlocks(final int layer) {
+        BaseBlock[] blocks = this.legacyBaseblocks[layer];
+        if (blocks == null) {
+            blocks = this.legacyBaseblocks[layer] = new BaseBlock[PaletteSection.SIZE];
+        }
+        return blocks;
+    }
+
+    /**
+     * Apply the fills recorded since the section was last rasterised
+     */
+    private void rasterize(final int layer) {
+        final int applied = this.rasterizedFills[layer];
+        if (applied == this.fills.size()) {
+            return;
+        }
+        this.rasterizedFills[layer] = this.fills.size();
+        final int sectionMinY = (layer + this.minSection) << 4;
+        final int sectionMaxY = sectionMinY + 15;
+        for (int i = applied; i < this.fills.size(); i++) {
+            final CuboidFill fill = this.fills.get(i);
+            final int minY = Math.max(fill.minY(), sectionMinY);
+            final int maxY = Math.min(fill.maxY(), sectionMaxY);
+            if (minY > maxY) {
+                continue;
+            }
+            if (fill.block() != null && minY == sectionMinY && maxY == sectionMaxY
+                    && fill.minX() == 0 && fill.maxX() == 15 && fill.minZ() == 0 && fill.maxZ() == 15) {
+                this.fillBlocks(layer, fill.block());
+                continue;
+            }
+            for (int y = minY; y <= maxY; y++) {
+                for (int x = fill.minX(); x <= fill.maxX(); x++) {
+                    for (int z = fill.minZ(); z <= fill.maxZ(); z++) {
+                        final BaseBlock block = fill.block() != null ? fill.block() :
+                                PatternUtil.apply(fill.pattern(), (this.x << 4) + x, y, (this.z << 4) + z);
+                        this.writeBlock(layer, ChunkUtil.getJ(x, y, z), block);
+                    }
+                }
+            }
+        }
+    }
+
+    private record CuboidFill(
+            int minX, int minY, int minZ, int maxX, int maxY, int maxZ,
+            @Nullable BaseBlock block, @Nullable Pattern pattern
+    ) {
+
+    }
+
 }
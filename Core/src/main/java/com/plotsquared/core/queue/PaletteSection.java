@@ -0,0 +1,198 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.queue;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A 16x16x16 section of values stored as palette indices, in the same way as Minecraft stores chunk sections. Positions
+ * are addressed by the index given by {@link com.plotsquared.core.util.ChunkUtil#getJ(int, int, int)}.
+ * <p>
+ * Palette index 0 is reserved for positions that have not been set. A section that was filled with a single value (or
+ * not written at all) does not allocate an index array.
+ *
+ * @param <T> value type
+ */
+final class PaletteSection<T> {
+
+    static final int SIZE = 4096;
+    private static final int LOOKUP_THRESHOLD = 16;
+
+    private Object[] palette = new Object[4];
+    private int paletteSize = 1;
+    private HashMap<T, Character> lookup;
+    private char[] indices;
+    private char uniform;
+    private int count;
+
+    /**
+     * Get the value at the given position
+     *
+     * @param j position index
+     * @return the value, or {@code null} if the position has not been set
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable T get(final int j) {
+        return (T) this.palette[this.indices == null ? this.uniform : this.indices[j]];
+    }
+
+    /**
+     * Set the value at the given position
+     *
+     * @param j     position index
+     * @param value value to set
+     */
+    void set(final int j, final @NonNull T value) {
+        final char index = this.indexOf(value);
+        final char previous;
+        if (this.indices == null) {
+            if (index == this.uniform) {
+                return;
+            }
+            this.indices = new char[SIZE];
+            if (this.uniform != 0) {
+                Arrays.fill(this.indices, this.uniform);
+            }
+            previous = this.uniform;
+        } else {
+            previous = this.indices[j];
+        }
+        this.indices[j] = index;
+        if (previous == 0) {
+            this.count++;
+        }
+    }
+
+    /**
+     * Set every position of the section to the given value, discarding the current palette
+     *
+     * @param value value to fill with
+     */
+    void fill(final @NonNull T value) {
+        this.palette = new Object[]{null, value};
+        this.paletteSize = 2;
+        this.lookup = null;
+        this.indices = null;
+        this.uniform = 1;
+        this.count = SIZE;
+    }
+
+    /**
+     * Get the value every position of this section is set to
+     *
+     * @return the value, or {@code null} if the section is not filled with a single value
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable T getUniform() {
+        return this.indices == null ? (T) this.palette[this.uniform] : null;
+    }
+
+    /**
+     * Get the number of positions that have been set
+     *
+     * @return number of set positions
+     */
+    int getCount() {
+        return this.count;
+    }
+
+    /**
+     * Copy the section into a flat array, with {@code null} for positions that have not been set
+     *
+     * @param array array of length {@link #SIZE} to copy into
+     * @return the given array
+     */
+    @SuppressWarnings("unchecked")
+    T @NonNull [] toArray(final T @NonNull [] array) {
+        if (this.indices == null) {
+            Arrays.fill(array, (T) this.palette[this.uniform]);
+        } else {
+            for (int j = 0; j < SIZE; j++) {
+                array[j] = (T) this.palette[this.indices[j]];
+            }
+        }
+        return array;
+    }
+
+    private char indexOf(final @NonNull T value) {
+        if (this.lookup != null) {
+            final Character index = this.lookup.get(value);
+            if (index != null) {
+                return index;
+            }
+        } else {
+            for (int i = 1; i < this.paletteSize; i++) {
+                if (value.equals(this.palette[i])) {
+                    return (char) i;
+                }
+            }
+        }
+        if (this.paletteSize == Character.MAX_VALUE) {
+            this.compact();
+        }
+        if (this.paletteSize == this.palette.length) {
+            this.palette = Arrays.copyOf(this.palette, this.paletteSize << 1);
+        }
+        final char index = (char) this.paletteSize++;
+        this.palette[index] = value;
+        if (this.lookup != null) {
+            this.lookup.put(value, index);
+        } else if (this.paletteSize > LOOKUP_THRESHOLD) {
+            this.lookup = new HashMap<>(this.paletteSize << 1);
+            for (int i = 1; i < this.paletteSize; i++) {
+                //noinspection unchecked
+                this.lookup.put((T) this.palette[i], (char) i);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Drop palette entries that are no longer referenced. Entries are never removed when positions are overwritten, so
+     * this is only needed once the index space is exhausted.
+     */
+    private void compact() {
+        final char[] remap = new char[this.paletteSize];
+        final Object[] compacted = new Object[Math.max(4, this.palette.length)];
+        int size = 1;
+        for (int j = 0; j < SIZE; j++) {
+            final char index = this.indices[j];
+            if (index != 0 && remap[index] == 0) {
+                compacted[size] = this.palette[index];
+                remap[index] = (char) size++;
+            }
+            this.indices[j] = remap[index];
+        }
+        this.palette = compacted;
+        this.paletteSize = size;
+        this.lookup = null;
+        if (size > LOOKUP_THRESHOLD) {
+            this.lookup = new HashMap<>(size << 1);
+            for (int i = 1; i < size; i++) {
+                //noinspection unchecked
+                this.lookup.put((T) this.palette[i], (char) i);
+            }
+        }
+    }
+
+}
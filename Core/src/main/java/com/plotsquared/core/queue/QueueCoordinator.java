@@ -46,6 +46,7 @@ public abstract class QueueCoordinator {
     private boolean forceSync = false;
     @Nullable
     private Object chunkObject;
+    private ChunkWorkScheduler.Priority priority = ChunkWorkScheduler.Priority.PLAYER;
     private final AtomicBoolean enqueued = new AtomicBoolean();
 
     @SuppressWarnings({"unused", "FieldCanBeLocal"})
@@ -129,6 +130,27 @@ public abstract class QueueCoordinator {
         this.forceSync = forceSync;
     }
 
+    /**
+     * Get the priority the queue is scheduled with once enqueued
+     *
+     * @return scheduling priority
+     * @since 6.11.0
+     */
+    public @NonNull ChunkWorkScheduler.Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Set the priority the queue is scheduled with once enqueued. Queues doing work that no player is waiting for (e.g.
+     * expiry or road regeneration) should use {@link ChunkWorkScheduler.Priority#BACKGROUND}.
+     *
+     * @param priority scheduling priority
+     * @since 6.11.0
+     */
+    public void setPriority(@NonNull ChunkWorkScheduler.Priority priority) {
+        this.priority = priority;
+    }
+
     /**
      * Get the Chunk Object set to the queue
      *
@@ -38,6 +38,10 @@ public interface AutoService extends Service<AutoService.AutoQuery, List<Plot>>
 
     Cache<PlotId, Plot> plotCandidateCache = CacheBuilder.newBuilder()
             .expireAfterWrite(20, TimeUnit.SECONDS).build();
+    /**
+     * @deprecated Auto claims synchronize on {@link PlotArea#getAutoClaimLock()}
+     */
+    @Deprecated(forRemoval = true, since = "6.11.0")
     Object plotLock = new Object();
 
     final class AutoQuery {
@@ -134,7 +138,7 @@ public interface AutoService extends Service<AutoService.AutoQuery, List<Plot>>
             Plot plot;
             PlotId nextId = autoQuery.getStartId();
             do {
-                synchronized (plotLock) {
+                synchronized (autoQuery.getPlotArea().getAutoClaimLock()) {
                     plot = autoQuery.getPlotArea().getNextFreePlot(autoQuery.getPlayer(), nextId);
                     if (plot != null && plotCandidateCache.getIfPresent(plot.getId()) == null) {
                         plotCandidateCache.put(plot.getId(), plot);
@@ -159,31 +163,24 @@ public interface AutoService extends Service<AutoService.AutoQuery, List<Plot>>
 
     final class MultiPlotService implements AutoService, Predicate<AutoQuery> {
 
+        @Nullable
         @Override
         public List<Plot> handle(final @NonNull AutoQuery autoQuery) {
-            /* TODO: Add timeout? */
-            outer:
-            while (true) {
-                synchronized (plotLock) {
-                    final PlotId start =
-                            autoQuery.getPlotArea().getMeta("lastPlot", PlotId.of(0, 0)).getNextId();
-                    final PlotId end = PlotId.of(
-                            start.getX() + autoQuery.getSizeX() - 1,
-                            start.getY() + autoQuery.getSizeZ() - 1
-                    );
-                    final List<Plot> plots =
-                            autoQuery.getPlotArea().canClaim(autoQuery.getPlayer(), start, end);
-                    autoQuery.getPlotArea().setMeta("lastPlot", start); // set entry point for next try
-                    if (plots != null && !plots.isEmpty()) {
-                        for (final Plot plot : plots) {
-                            if (plotCandidateCache.getIfPresent(plot.getId()) != null) {
-                                continue outer;
-                            }
-                            plotCandidateCache.put(plot.getId(), plot);
-                        }
-                        return plots;
-                    }
+            final PlotArea plotArea = autoQuery.getPlotArea();
+            synchronized (plotArea.getAutoClaimLock()) {
+                final List<Plot> plots = plotArea.getNextFreePlots(
+                        autoQuery.getPlayer(),
+                        autoQuery.getSizeX(),
+                        autoQuery.getSizeZ(),
+                        id -> plotCandidateCache.getIfPresent(id) != null
+                );
+                if (plots == null) {
+                    return null;
+                }
+                for (final Plot plot : plots) {
+                    plotCandidateCache.put(plot.getId(), plot);
                 }
+                return plots;
             }
         }
 
@@ -67,7 +67,6 @@ import com.plotsquared.core.plot.flag.implementations.MobPlaceFlag;
 import com.plotsquared.core.plot.flag.implementations.PlaceFlag;
 import com.plotsquared.core.plot.flag.implementations.UseFlag;
 import com.plotsquared.core.plot.flag.implementations.VehiclePlaceFlag;
-import com.plotsquared.core.plot.flag.types.BlockTypeWrapper;
 import com.plotsquared.core.plot.world.SinglePlotArea;
 import com.plotsquared.core.util.task.TaskManager;
 import com.sk89q.worldedit.WorldEdit;
@@ -354,11 +353,9 @@ public class EventDispatcher {
                 return true;
             case INTERACT_BLOCK: {
                 if (plot == null) {
-                    final List<BlockTypeWrapper> use = area.getRoadFlag(UseFlag.class);
-                    for (final BlockTypeWrapper blockTypeWrapper : use) {
-                        if (blockTypeWrapper.accepts(BlockTypes.AIR) || blockTypeWrapper.accepts(blockType)) {
-                            return true;
-                        }
+                    final UseFlag use = area.getRoadFlagContainer().getFlag(UseFlag.class);
+                    if (use.accepts(BlockTypes.AIR) || use.accepts(blockType)) {
+                        return true;
                     }
                     return Permissions.hasPermission(player,
                             Permission.PERMISSION_ADMIN_INTERACT_ROAD.toString(), notifyPerms
@@ -369,12 +366,9 @@ public class EventDispatcher {
                             Permission.PERMISSION_ADMIN_INTERACT_UNOWNED.toString(), notifyPerms
                     );
                 }
-                final List<BlockTypeWrapper> use = plot.getFlag(UseFlag.class);
-                for (final BlockTypeWrapper blockTypeWrapper : use) {
-                    if (blockTypeWrapper.accepts(BlockTypes.AIR) || blockTypeWrapper
-                            .accepts(blockType)) {
-                        return true;
-                    }
+                final UseFlag use = plot.getFlagContainer().getFlag(UseFlag.class);
+                if (use.accepts(BlockTypes.AIR) || use.accepts(blockType)) {
+                    return true;
                 }
                 if (Permissions.hasPermission(player, Permission.PERMISSION_ADMIN_INTERACT_OTHER.toString(), false)) {
                     return true;
@@ -389,11 +383,9 @@ public class EventDispatcher {
             }
             case TRIGGER_PHYSICAL: {
                 if (plot == null) {
-                    final List<BlockTypeWrapper> use = area.getRoadFlag(UseFlag.class);
-                    for (final BlockTypeWrapper blockTypeWrapper : use) {
-                        if (blockTypeWrapper.accepts(BlockTypes.AIR) || blockTypeWrapper.accepts(blockType)) {
-                            return true;
-                        }
+                    final UseFlag use = area.getRoadFlagContainer().getFlag(UseFlag.class);
+                    if (use.accepts(BlockTypes.AIR) || use.accepts(blockType)) {
+                        return true;
                     }
                     return Permissions.hasPermission(player,
                             Permission.PERMISSION_ADMIN_INTERACT_ROAD.toString(), false
@@ -407,12 +399,9 @@ public class EventDispatcher {
                 if (plot.getFlag(DeviceInteractFlag.class)) {
                     return true;
                 }
-                List<BlockTypeWrapper> use = plot.getFlag(UseFlag.class);
-                for (final BlockTypeWrapper blockTypeWrapper : use) {
-                    if (blockTypeWrapper.accepts(BlockTypes.AIR) || blockTypeWrapper
-                            .accepts(blockType)) {
-                        return true;
-                    }
+                final UseFlag use = plot.getFlagContainer().getFlag(UseFlag.class);
+                if (use.accepts(BlockTypes.AIR) || use.accepts(blockType)) {
+                    return true;
                 }
                 return Permissions
                         .hasPermission(player, Permission.PERMISSION_ADMIN_INTERACT_OTHER.toString(),
@@ -433,12 +422,9 @@ public class EventDispatcher {
                 if (plot.getFlag(MobPlaceFlag.class)) {
                     return true;
                 }
-                List<BlockTypeWrapper> place = plot.getFlag(PlaceFlag.class);
-                for (final BlockTypeWrapper blockTypeWrapper : place) {
-                    if (blockTypeWrapper.accepts(BlockTypes.AIR) || blockTypeWrapper
-                            .accepts(blockType)) {
-                        return true;
-                    }
+                final PlaceFlag place = plot.getFlagContainer().getFlag(PlaceFlag.class);
+                if (place.accepts(BlockTypes.AIR) || place.accepts(blockType)) {
+                    return true;
                 }
                 if (Permissions
                         .hasPermission(player, Permission.PERMISSION_ADMIN_INTERACT_OTHER.toString(),
@@ -469,12 +455,9 @@ public class EventDispatcher {
                 if (plot.getFlag(MiscPlaceFlag.class)) {
                     return true;
                 }
-                List<BlockTypeWrapper> place = plot.getFlag(PlaceFlag.class);
-                for (final BlockTypeWrapper blockTypeWrapper : place) {
-                    if (blockTypeWrapper.accepts(BlockTypes.AIR) || blockTypeWrapper
-                            .accepts(blockType)) {
-                        return true;
-                    }
+                final PlaceFlag place = plot.getFlagContainer().getFlag(PlaceFlag.class);
+                if (place.accepts(BlockTypes.AIR) || place.accepts(blockType)) {
+                    return true;
                 }
                 if (Permissions
                         .hasPermission(player, Permission.PERMISSION_ADMIN_INTERACT_OTHER.toString(),
@@ -43,14 +43,25 @@ public class PatternUtil {
 
     public static BaseBlock apply(@NonNull Pattern pattern, int x, int y, int z) {
         Preconditions.checkNotNull(pattern, "Pattern may not be null");
-        if (pattern instanceof BlockPattern
-                || pattern instanceof BlockState || pattern instanceof BlockType
-                || pattern instanceof BaseBlock) {
+        if (isConstant(pattern)) {
             return pattern.applyBlock(BlockVector3.ZERO);
         }
         return pattern.applyBlock(BlockVector3.at(x, y, z));
     }
 
+    /**
+     * Get if the given pattern applies the same block at every position
+     *
+     * @param pattern pattern to check
+     * @return {@code true} if the pattern does not depend on the position
+     * @since 6.11.0
+     */
+    public static boolean isConstant(@NonNull Pattern pattern) {
+        return pattern instanceof BlockPattern
+                || pattern instanceof BlockState || pattern instanceof BlockType
+                || pattern instanceof BaseBlock;
+    }
+
     public static Pattern parse(PlotPlayer<?> plotPlayer, String input) {
         return parse(plotPlayer, input, true);
     }
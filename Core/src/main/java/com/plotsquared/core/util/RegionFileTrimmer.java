@@ -0,0 +1,368 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.util;
+
+import com.plotsquared.core.PlotSquared;
+import com.plotsquared.core.location.Location;
+import com.plotsquared.core.plot.Plot;
+import com.plotsquared.core.util.task.TaskManager;
+import com.sk89q.worldedit.math.BlockVector2;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Rewrites Anvil region files so that they only contain a given set of chunks. Dropped chunks
+ * are removed from the location table and the remaining chunk sectors are compacted, so the
+ * dropped chunks are generated again by the server the next time they are loaded.
+ * <p>
+ * Region files must not be rewritten while the server has them open, so trims of loaded worlds
+ * are {@link #schedule(String, Map) scheduled} and {@link #runScheduled() applied} on the next
+ * startup, before any world is loaded. Plots that are claimed or merged while a trim is pending
+ * are {@link #keep(Plot) added} to the chunks it keeps.
+ *
+ * @since 6.11.0
+ */
+public final class RegionFileTrimmer {
+
+    /**
+     * The world sub directories containing region files indexed by chunk
+     */
+    public static final String[] REGION_DIRECTORIES = new String[]{"region", "entities", "poi"};
+
+    private static final Logger LOGGER = LogManager.getLogger("PlotSquared/" + RegionFileTrimmer.class.getSimpleName());
+    private static final int SECTOR_SIZE = 4096;
+    private static final int HEADER_SIZE = 2 * SECTOR_SIZE;
+    private static final int CHUNKS = 1024;
+    private static final Map<String, Map<BlockVector2, BitSet>> scheduled = new ConcurrentHashMap<>();
+
+    private RegionFileTrimmer() {
+    }
+
+    /**
+     * Get the index of a chunk in the location table of its region file
+     *
+     * @param chunkX Chunk x coordinate
+     * @param chunkZ Chunk z coordinate
+     * @return index in the range {@code [0, 1024)}
+     */
+    public static int getIndex(final int chunkX, final int chunkZ) {
+        return (chunkZ & 31) << 5 | chunkX & 31;
+    }
+
+    /**
+     * Rewrite a region file keeping only the given chunks. The file is deleted if no chunk is
+     * kept, and left untouched if every chunk is kept.
+     *
+     * @param file Region file
+     * @param keep Location table indices (see {@link #getIndex(int, int)}) of the chunks to keep
+     * @return the number of chunks that were removed
+     * @throws IOException if the file could not be read or written
+     */
+    public static int trim(final @NonNull Path file, final @NonNull BitSet keep) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        final int[] locations = new int[CHUNKS];
+        final int[] timestamps = new int[CHUNKS];
+        int removed = 0;
+        int kept = 0;
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (in.size() < HEADER_SIZE) {
+                return 0;
+            }
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (in.read(header, header.position()) < 0) {
+                    throw new EOFException(file.toString());
+                }
+            }
+            header.flip();
+            header.asIntBuffer().get(locations).get(timestamps);
+            final long sectors = (in.size() + SECTOR_SIZE - 1) / SECTOR_SIZE;
+            for (int index = 0; index < CHUNKS; index++) {
+                final int location = locations[index];
+                if (location == 0) {
+                    continue;
+                }
+                final int offset = location >>> 8;
+                final int count = location & 0xFF;
+                if (!keep.get(index)) {
+                    locations[index] = 0;
+                    removed++;
+                    deleteExternal(file, index);
+                } else if (offset < 2 || count == 0 || offset + count > sectors) {
+                    // The server cannot read this chunk either and will generate it again
+                    LOGGER.warn("Dropping invalid chunk entry {} of region file {}", index, file);
+                    locations[index] = 0;
+                    removed++;
+                } else {
+                    kept++;
+                }
+            }
+            if (removed == 0) {
+                return 0;
+            }
+            if (kept == 0) {
+                in.close();
+                Files.delete(file);
+                return removed;
+            }
+            final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(
+                    temporary,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE
+            )) {
+                // Copy the kept chunks in their original order, directly after the header
+                final Integer[] order = new Integer[kept];
+                for (int index = 0, i = 0; index < CHUNKS; index++) {
+                    if (locations[index] != 0) {
+                        order[i++] = index;
+                    }
+                }
+                Arrays.sort(order, (a, b) -> Integer.compare(locations[a] >>> 8, locations[b] >>> 8));
+                long position = HEADER_SIZE;
+                for (final int index : order) {
+                    final int count = locations[index] & 0xFF;
+                    final long source = (long) (locations[index] >>> 8) * SECTOR_SIZE;
+                    final long length = Math.min((long) count * SECTOR_SIZE, in.size() - source);
+                    long copied = 0;
+                    while (copied < length) {
+                        copied += in.transferTo(source + copied, length - copied, out.position(position + copied));
+                    }
+                    locations[index] = (int) (position / SECTOR_SIZE) << 8 | count;
+                    position += (long) count * SECTOR_SIZE;
+                }
+                for (int index = 0; index < CHUNKS; index++) {
+                    if (locations[index] == 0) {
+                        timestamps[index] = 0;
+                    }
+                }
+                final ByteBuffer newHeader = ByteBuffer.allocate(HEADER_SIZE);
+                newHeader.asIntBuffer().put(locations).put(timestamps);
+                while (newHeader.hasRemaining()) {
+                    out.write(newHeader, newHeader.position());
+                }
+                // Pad the last sector
+                if (out.size() < position) {
+                    out.write(ByteBuffer.allocate(1), position - 1);
+                }
+                out.force(true);
+            } catch (IOException e) {
+                Files.deleteIfExists(temporary);
+                throw e;
+            }
+            in.close();
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return removed;
+    }
+
+    private static void deleteExternal(final @NonNull Path file, final int index) throws IOException {
+        final String[] split = file.getFileName().toString().split("\\.");
+        if (split.length != 4) {
+            return;
+        }
+        try {
+            final int chunkX = (Integer.parseInt(split[1]) << 5) + (index & 31);
+            final int chunkZ = (Integer.parseInt(split[2]) << 5) + (index >> 5);
+            Files.deleteIfExists(file.resolveSibling("c." + chunkX + "." + chunkZ + ".mcc"));
+        } catch (NumberFormatException ignored) {
+        }
+    }
+
+    private static @NonNull Path getScheduleDirectory() {
+        return PlotSquared.platform().getDirectory().toPath().resolve("trim");
+    }
+
+    /**
+     * Schedule a trim of region files of a world, to be applied by {@link #runScheduled()} on the
+     * next startup. Replaces any trim that was previously scheduled for the world.
+     *
+     * @param world World name
+     * @param keep  Region file coordinates mapped to the location table indices of the chunks to keep
+     * @throws IOException if the schedule could not be written
+     */
+    public static void schedule(final @NonNull String world, final @NonNull Map<BlockVector2, BitSet> keep) throws
+            IOException {
+        final Map<BlockVector2, BitSet> copy = new HashMap<>();
+        for (final Map.Entry<BlockVector2, BitSet> entry : keep.entrySet()) {
+            copy.put(entry.getKey(), (BitSet) entry.getValue().clone());
+        }
+        // Registered first, so that plots claimed while the schedule is written are kept as well
+        scheduled.put(world, copy);
+        writeSchedule(world, copy);
+    }
+
+    /**
+     * Keep the chunks of a plot in the trim scheduled for its world, if any. Called whenever a
+     * plot is claimed or merged, so that a pending trim never removes chunks of plots that did
+     * not exist when it was scheduled.
+     *
+     * @param plot Plot
+     */
+    public static void keep(final @NonNull Plot plot) {
+        final String world = plot.getWorldName();
+        final Map<BlockVector2, BitSet> keep = world == null ? null : scheduled.get(world);
+        if (keep == null) {
+            return;
+        }
+        final Location bottom = plot.getBottomAbs();
+        final Location top = plot.getExtendedTopAbs();
+        boolean changed = false;
+        synchronized (keep) {
+            for (int chunkX = bottom.getX() >> 4; chunkX <= top.getX() >> 4; chunkX++) {
+                for (int chunkZ = bottom.getZ() >> 4; chunkZ <= top.getZ() >> 4; chunkZ++) {
+                    // Region files that are not part of the trim are not touched anyway
+                    final BitSet chunks = keep.get(BlockVector2.at(chunkX >> 5, chunkZ >> 5));
+                    final int index = getIndex(chunkX, chunkZ);
+                    if (chunks != null && !chunks.get(index)) {
+                        chunks.set(index);
+                        changed = true;
+                    }
+                }
+            }
+        }
+        if (changed) {
+            LOGGER.info("Plot {} was claimed or merged in a region scheduled for trimming, its chunks will be kept", plot);
+            TaskManager.runTaskAsync(() -> {
+                try {
+                    writeSchedule(world, keep);
+                } catch (IOException e) {
+                    LOGGER.error("Failed to update the trim scheduled for world {}, cancelling it", world, e);
+                    cancel(world);
+                }
+            });
+        }
+    }
+
+    private static void cancel(final @NonNull String world) {
+        scheduled.remove(world);
+        try {
+            Files.deleteIfExists(getScheduleDirectory().resolve(world + ".chunks"));
+        } catch (IOException e) {
+            LOGGER.error("Failed to cancel the trim scheduled for world {}, delete {} before restarting",
+                    world, getScheduleDirectory().resolve(world + ".chunks"), e
+            );
+        }
+    }
+
+    private static void writeSchedule(final @NonNull String world, final @NonNull Map<BlockVector2, BitSet> keep) throws
+            IOException {
+        // Concurrent updates are written one after another, the last one contains every change
+        synchronized (keep) {
+            if (scheduled.get(world) != keep) {
+                return;
+            }
+            final List<String> lines = new ArrayList<>(keep.size());
+            for (final Map.Entry<BlockVector2, BitSet> entry : keep.entrySet()) {
+                final StringBuilder line = new StringBuilder()
+                        .append(entry.getKey().getX()).append(';').append(entry.getKey().getZ()).append(';');
+                final long[] words = entry.getValue().toLongArray();
+                for (int i = 0; i < words.length; i++) {
+                    if (i > 0) {
+                        line.append(',');
+                    }
+                    line.append(Long.toHexString(words[i]));
+                }
+                lines.add(line.toString());
+            }
+            final Path file = getScheduleDirectory().resolve(world + ".chunks");
+            Files.createDirectories(file.getParent());
+            Files.write(file, lines, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Apply all scheduled trims. Must be called before the worlds are loaded.
+     */
+    public static void runScheduled() {
+        final Path directory = getScheduleDirectory();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        final List<Path> schedules;
+        try (Stream<Path> stream = Files.list(directory)) {
+            schedules = stream.filter(path -> path.getFileName().toString().endsWith(".chunks")).toList();
+        } catch (IOException e) {
+            LOGGER.error("Failed to list scheduled trims", e);
+            return;
+        }
+        for (final Path schedule : schedules) {
+            final String name = schedule.getFileName().toString();
+            final String world = name.substring(0, name.length() - ".chunks".length());
+            final Map<BlockVector2, BitSet> keep = new HashMap<>();
+            try {
+                for (final String line : Files.readAllLines(schedule, StandardCharsets.UTF_8)) {
+                    final String[] split = line.split(";");
+                    if (split.length < 2) {
+                        continue;
+                    }
+                    final String[] hex = split.length > 2 ? split[2].split(",") : new String[0];
+                    final long[] words = new long[hex.length];
+                    for (int i = 0; i < hex.length; i++) {
+                        words[i] = Long.parseUnsignedLong(hex[i], 16);
+                    }
+                    keep.put(BlockVector2.at(Integer.parseInt(split[0]), Integer.parseInt(split[1])), BitSet.valueOf(words));
+                }
+                LOGGER.info("Trimming {} region files of world {}", keep.size(), world);
+                int removed = 0;
+                for (final Map.Entry<BlockVector2, BitSet> entry : keep.entrySet()) {
+                    final String fileName = "r." + entry.getKey().getX() + "." + entry.getKey().getZ() + ".mca";
+                    for (final String sub : REGION_DIRECTORIES) {
+                        final Path file = PlotSquared.platform().worldContainer().toPath()
+                                .resolve(world + File.separator + sub).resolve(fileName);
+                        final int count = trim(file, entry.getValue());
+                        if (sub.equals(REGION_DIRECTORIES[0])) {
+                            removed += count;
+                        }
+                    }
+                }
+                LOGGER.info("Removed {} chunks from world {}", removed, world);
+                Files.delete(schedule);
+            } catch (IOException | RuntimeException e) {
+                LOGGER.error("Failed to trim world {}, the trim will be retried on the next startup", world, e);
+                // Plots claimed until then have to be kept by the retry
+                scheduled.put(world, keep);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,332 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.util;
+
+import com.plotsquared.core.util.task.TaskManager;
+import com.plotsquared.core.util.task.YieldRunnable;
+import com.sk89q.jnbt.CompoundTag;
+import com.sk89q.jnbt.IntArrayTag;
+import com.sk89q.jnbt.IntTag;
+import com.sk89q.jnbt.ListTag;
+import com.sk89q.jnbt.NBTConstants;
+import com.sk89q.jnbt.NBTOutputStream;
+import com.sk89q.jnbt.StringTag;
+import com.sk89q.jnbt.Tag;
+import com.sk89q.worldedit.math.BlockVector2;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.regions.RegionIntersection;
+import com.sk89q.worldedit.world.World;
+import com.sk89q.worldedit.world.biome.BiomeType;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockTypes;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the contents of a set of regions as a Sponge schematic (version 2) directly to a file.
+ * <p>
+ * Unlike {@link SchematicHandler#getCompoundTag(String, Set)}, the block data is never held in
+ * memory: the world is read row by row in time-limited slices, palette ids (keyed by block
+ * state rather than by their string representation) are varint encoded into a spool file next
+ * to the target and then copied into the gzip stream. Peak memory is bound by the palette, the
+ * biome layer and the tile entities of the exported area.
+ */
+final class SchematicExporter {
+
+    private static final int SPOOL_BUFFER_SIZE = 1 << 16;
+    private static final long MAX_SLICE_MILLIS = 40;
+
+    private final World world;
+    private final CuboidRegion aabb;
+    private final RegionIntersection intersection;
+    private final boolean multipleRegions;
+    private final Path file;
+    private final Map<String, Tag> header;
+    private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+    private final Map<BlockState, Integer> palette = new HashMap<>();
+    private final Map<String, Integer> biomePalette = new HashMap<>();
+    private final List<CompoundTag> tileEntities = new ArrayList<>();
+    private final ByteArrayOutputStream biomeBuffer;
+    private Path spoolFile;
+    private OutputStream spool;
+    private long blockDataLength;
+
+    SchematicExporter(
+            final @NonNull World world,
+            final @NonNull Set<CuboidRegion> regions,
+            final @NonNull Path file,
+            final @NonNull Map<String, Tag> header
+    ) {
+        this.world = world;
+        this.aabb = RegionUtil.getAxisAlignedBoundingBox(regions);
+        this.aabb.setWorld(world);
+        this.intersection = new RegionIntersection(new ArrayList<>(regions));
+        this.multipleRegions = regions.size() > 1;
+        this.file = file;
+        this.header = header;
+        this.biomeBuffer = new ByteArrayOutputStream(this.aabb.getWidth() * this.aabb.getLength());
+    }
+
+    static void writeVarInt(final @NonNull OutputStream stream, int value) throws IOException {
+        while ((value & -128) != 0) {
+            stream.write(value & 127 | 128);
+            value >>>= 7;
+        }
+        stream.write(value);
+    }
+
+    /**
+     * Start the export. Blocks are read in time-limited slices, the file is written asynchronously.
+     *
+     * @return a future completing with {@code true} once the file has been written
+     */
+    @NonNull CompletableFuture<Boolean> export() {
+        try {
+            Files.createDirectories(this.file.toAbsolutePath().getParent());
+            this.spoolFile = Files.createTempFile(this.file.toAbsolutePath().getParent(), "blocks", ".tmp");
+            this.spool = new BufferedOutputStream(Files.newOutputStream(this.spoolFile), SPOOL_BUFFER_SIZE);
+        } catch (IOException e) {
+            this.fail(e);
+            return this.future;
+        }
+        TaskManager.runTaskAsync(new ReadTask());
+        return this.future;
+    }
+
+    private int getPaletteId(final @NonNull BlockState state) {
+        Integer id = this.palette.get(state);
+        if (id == null) {
+            id = this.palette.size();
+            this.palette.put(state, id);
+        }
+        return id;
+    }
+
+    private int getBiomeId(final @NonNull BiomeType biome) {
+        Integer id = this.biomePalette.get(biome.getId());
+        if (id == null) {
+            id = this.biomePalette.size();
+            this.biomePalette.put(biome.getId(), id);
+        }
+        return id;
+    }
+
+    private void writeBlock(final int paletteId) throws IOException {
+        int value = paletteId;
+        do {
+            this.blockDataLength++;
+            value >>>= 7;
+        } while (value != 0);
+        writeVarInt(this.spool, paletteId);
+    }
+
+    private void addTileEntity(final @NonNull BaseBlock block, final int x, final int y, final int z) {
+        Map<String, Tag> values = new HashMap<>(block.getNbtData().getValue());
+        // Positions are kept in NBT, we don't want that.
+        values.remove("x");
+        values.remove("y");
+        values.remove("z");
+        values.put("Id", new StringTag(block.getNbtId()));
+        // Remove 'id' after reading the nbt id, which is based on it. We want 'Id'.
+        values.remove("id");
+        values.put("Pos", new IntArrayTag(new int[]{x, y, z}));
+        this.tileEntities.add(new CompoundTag(values));
+    }
+
+    /**
+     * Write a Sponge schematic (version 2) to a stream. The block data is copied from a file of
+     * varint encoded palette ids, one per block in x, z, y order.
+     *
+     * @param out             Target stream, closed once the schematic has been written
+     * @param header          Version, dimensions, offset and metadata tags
+     * @param palette         Block palette, by block state string
+     * @param tileEntities    Block entities, positioned relative to the schematic origin
+     * @param blockData       File holding the encoded block data
+     * @param blockDataLength Length of the encoded block data in bytes, at most {@link Integer#MAX_VALUE}
+     * @param biomePalette    Biome palette, by biome id
+     * @param biomeData       Varint encoded biome palette ids, one per column; may be empty
+     * @throws IOException if writing fails
+     */
+    static void writeSchematic(
+            final @NonNull OutputStream out,
+            final @NonNull Map<String, Tag> header,
+            final @NonNull Map<String, Integer> palette,
+            final @NonNull List<CompoundTag> tileEntities,
+            final @NonNull Path blockData,
+            final long blockDataLength,
+            final @NonNull Map<String, Integer> biomePalette,
+            final @NonNull ByteArrayOutputStream biomeData
+    ) throws IOException {
+        try (GZIPOutputStream gzip = new GZIPOutputStream(new BufferedOutputStream(out, SPOOL_BUFFER_SIZE));
+             NBTOutputStream nbt = new NBTOutputStream(gzip)) {
+            // NBTOutputStream doesn't buffer, so raw writes to the same stream can be interleaved
+            final DataOutputStream raw = new DataOutputStream(gzip);
+            raw.writeByte(NBTConstants.TYPE_COMPOUND);
+            raw.writeUTF("Schematic");
+            for (final Map.Entry<String, Tag> entry : header.entrySet()) {
+                nbt.writeNamedTag(entry.getKey(), entry.getValue());
+            }
+
+            final Map<String, Tag> paletteTag = new HashMap<>();
+            palette.forEach((state, id) -> paletteTag.put(state, new IntTag(id)));
+            nbt.writeNamedTag("PaletteMax", new IntTag(palette.size()));
+            nbt.writeNamedTag("Palette", new CompoundTag(paletteTag));
+            nbt.writeNamedTag("BlockEntities", new ListTag(CompoundTag.class, tileEntities));
+
+            raw.writeByte(NBTConstants.TYPE_BYTE_ARRAY);
+            raw.writeUTF("BlockData");
+            raw.writeInt((int) blockDataLength);
+            Files.copy(blockData, gzip);
+
+            if (biomeData.size() > 0 && !biomePalette.isEmpty()) {
+                final Map<String, Tag> biomePaletteTag = new HashMap<>();
+                biomePalette.forEach((key, value) -> biomePaletteTag.put(key, new IntTag(value)));
+                nbt.writeNamedTag("BiomePaletteMax", new IntTag(biomePalette.size()));
+                nbt.writeNamedTag("BiomePalette", new CompoundTag(biomePaletteTag));
+                raw.writeByte(NBTConstants.TYPE_BYTE_ARRAY);
+                raw.writeUTF("BiomeData");
+                raw.writeInt(biomeData.size());
+                biomeData.writeTo(gzip);
+            }
+            raw.writeByte(NBTConstants.TYPE_END);
+            raw.flush();
+        }
+    }
+
+    private void writeFile() throws IOException {
+        this.spool.close();
+        if (this.blockDataLength > Integer.MAX_VALUE) {
+            throw new IOException("Block data of " + this.blockDataLength + " bytes exceeds the schematic format limit");
+        }
+        final Map<String, Integer> palette = new HashMap<>();
+        this.palette.forEach((state, id) -> palette.put(state.getAsString(), id));
+        final Path target = Files.createTempFile(this.file.toAbsolutePath().getParent(), "schematic", ".tmp");
+        try {
+            writeSchematic(Files.newOutputStream(target), this.header, palette, this.tileEntities, this.spoolFile,
+                    this.blockDataLength, this.biomePalette, this.biomeBuffer
+            );
+            Files.move(target, this.file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(target);
+            Files.deleteIfExists(this.spoolFile);
+        }
+    }
+
+    private void fail(final @NonNull Throwable throwable) {
+        try {
+            if (this.spool != null) {
+                this.spool.close();
+            }
+            if (this.spoolFile != null) {
+                Files.deleteIfExists(this.spoolFile);
+            }
+        } catch (IOException e) {
+            throwable.addSuppressed(e);
+        }
+        this.future.completeExceptionally(throwable);
+    }
+
+    private final class ReadTask implements YieldRunnable {
+
+        private final int minX = aabb.getMinimumPoint().getX();
+        private final int minY = aabb.getMinimumPoint().getY();
+        private final int minZ = aabb.getMinimumPoint().getZ();
+        private final int maxX = aabb.getMaximumPoint().getX();
+        private final int maxY = aabb.getMaximumPoint().getY();
+        private final int maxZ = aabb.getMaximumPoint().getZ();
+        private final int airId = getPaletteId(BlockTypes.AIR.getDefaultState());
+        private int currentY = minY;
+        private int currentZ = minZ;
+        private int lastBiome = 0;
+
+        @Override
+        public void run() {
+            try {
+                final long start = System.currentTimeMillis();
+                // Rows are only read as a whole, so yielding never splits a row
+                for (; currentY <= maxY; currentY++) {
+                    for (; currentZ <= maxZ; currentZ++) {
+                        if (System.currentTimeMillis() - start > MAX_SLICE_MILLIS) {
+                            this.yield();
+                            return;
+                        }
+                        this.readRow();
+                    }
+                    currentZ = minZ;
+                }
+            } catch (Throwable throwable) {
+                fail(throwable);
+                return;
+            }
+            TaskManager.runTaskAsync(() -> {
+                try {
+                    writeFile();
+                    future.complete(true);
+                } catch (Throwable throwable) {
+                    fail(throwable);
+                }
+            });
+        }
+
+        private void readRow() throws IOException {
+            final int relativeY = currentY - minY;
+            final int relativeZ = currentZ - minZ;
+            for (int x = minX; x <= maxX; x++) {
+                final BlockVector3 point = BlockVector3.at(x, currentY, currentZ);
+                if (multipleRegions && !intersection.contains(point)) {
+                    writeBlock(airId);
+                    if (relativeY == 0) {
+                        // Write the last biome if we're not getting it from the plot
+                        writeVarInt(biomeBuffer, lastBiome);
+                    }
+                    continue;
+                }
+                final BaseBlock block = world.getFullBlock(point);
+                if (block.getNbtData() != null) {
+                    addTileEntity(block, x - minX, relativeY, relativeZ);
+                }
+                writeBlock(getPaletteId(block.toImmutableState()));
+                if (relativeY == 0) {
+                    lastBiome = getBiomeId(world.getBiome(BlockVector2.at(x, currentZ)));
+                    writeVarInt(biomeBuffer, lastBiome);
+                }
+            }
+        }
+
+    }
+
+}
@@ -88,6 +88,7 @@ import java.net.URLConnection;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -247,17 +248,15 @@ public abstract class SchematicHandler {
                 }
 
                 final Runnable THIS = this;
-                getCompoundTag(plot)
-                        .whenComplete((compoundTag, throwable) -> {
-                            if (compoundTag != null) {
-                                TaskManager.runTaskAsync(() -> {
-                                    boolean result = save(compoundTag, directory + File.separator + name + ".schem");
-                                    if (!result) {
-                                        LOGGER.error("Failed to save {}", plot.getId());
-                                    }
-                                    TaskManager.runTask(THIS);
-                                });
+                final File file = FileUtils.getFile(PlotSquared.platform().getDirectory(),
+                        directory + File.separator + name + ".schem"
+                );
+                exportSchematic(plot, file.toPath())
+                        .whenComplete((result, throwable) -> {
+                            if (throwable != null) {
+                                LOGGER.error("Failed to save {}", plot.getId(), throwable);
                             }
+                            TaskManager.runTask(THIS);
                         });
             }
         });
@@ -617,6 +616,42 @@ public abstract class SchematicHandler {
         return schematic;
     }
 
+    /**
+     * Write the given plot to a file in the Sponge schematic format. Unlike
+     * {@link #getCompoundTag(Plot)}, the schematic is streamed to disk and never fully held in memory.
+     *
+     * @param plot The plot to get the contents from.
+     * @param file The file to write the schematic to. Replaced once the schematic was written completely.
+     * @return a {@link CompletableFuture} that completes once the file has been written
+     * @since 6.11.0
+     */
+    public @NonNull CompletableFuture<Boolean> exportSchematic(final @NonNull Plot plot, final @NonNull Path file) {
+        return exportSchematic(Objects.requireNonNull(plot.getWorldName()), plot.getRegions(), file);
+    }
+
+    /**
+     * Write the contents of the given regions in the given world to a file in the Sponge
+     * schematic format, without holding the block data in memory.
+     *
+     * @param worldName The world to get the contents from.
+     * @param regions   The regions to get the contents from.
+     * @param file      The file to write the schematic to. Replaced once the schematic was written completely.
+     * @return a {@link CompletableFuture} that completes once the file has been written
+     * @since 6.11.0
+     */
+    public @NonNull CompletableFuture<Boolean> exportSchematic(
+            final @NonNull String worldName,
+            final @NonNull Set<CuboidRegion> regions,
+            final @NonNull Path file
+    ) {
+        final World world = this.worldUtil.getWeWorld(worldName);
+        final CuboidRegion aabb = RegionUtil.getAxisAlignedBoundingBox(regions);
+        final Map<String, Tag> header = initSchematic((short) aabb.getWidth(), (short) aabb.getHeight(),
+                (short) aabb.getLength()
+        );
+        return new SchematicExporter(world, regions, file, header).export();
+    }
+
     /**
      * Get the given plot as {@link CompoundTag} matching the Sponge schematic format.
      *
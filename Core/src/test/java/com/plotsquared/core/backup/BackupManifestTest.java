@@ -0,0 +1,99 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.backup;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class BackupManifestTest {
+
+    private static final String FIRST = "00".repeat(31) + "01";
+    private static final String SECOND = "00".repeat(31) + "02";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void sectionCounts() {
+        final BackupManifest manifest = new BackupManifest(17, 16, 33);
+        Assertions.assertEquals(2, manifest.getSectionsX());
+        Assertions.assertEquals(1, manifest.getSectionsY());
+        Assertions.assertEquals(3, manifest.getSectionsZ());
+    }
+
+    @Test
+    public void sectionIndexIsYZXOrdered() {
+        final BackupManifest manifest = new BackupManifest(32, 32, 32);
+        Assertions.assertEquals(0, manifest.getSectionIndex(0, 0, 0));
+        Assertions.assertEquals(1, manifest.getSectionIndex(1, 0, 0));
+        Assertions.assertEquals(2, manifest.getSectionIndex(0, 0, 1));
+        Assertions.assertEquals(4, manifest.getSectionIndex(0, 1, 0));
+        Assertions.assertEquals(7, manifest.getSectionIndex(1, 1, 1));
+    }
+
+    @Test
+    public void completeOnceAllSectionsAreSet() {
+        final BackupManifest manifest = new BackupManifest(32, 16, 16);
+        Assertions.assertFalse(manifest.isComplete());
+        manifest.setSection(0, FIRST);
+        Assertions.assertFalse(manifest.isComplete());
+        manifest.setSection(1, FIRST);
+        Assertions.assertTrue(manifest.isComplete());
+        Assertions.assertEquals(Set.of(FIRST), manifest.getSectionHashes());
+    }
+
+    @Test
+    public void writeAndRead() throws IOException {
+        final BackupManifest manifest = new BackupManifest(20, 40, 10);
+        for (int i = 0; i < 6; i++) {
+            manifest.setSection(i, i % 2 == 0 ? FIRST : SECOND);
+        }
+        final Path file = this.directory.resolve("backup" + BackupManifest.EXTENSION);
+        manifest.write(file);
+        Assertions.assertTrue(BackupManifest.isManifest(file));
+
+        final BackupManifest read = BackupManifest.read(file);
+        Assertions.assertEquals(20, read.getWidth());
+        Assertions.assertEquals(40, read.getHeight());
+        Assertions.assertEquals(10, read.getLength());
+        for (int i = 0; i < 6; i++) {
+            Assertions.assertEquals(manifest.getSection(i), read.getSection(i));
+        }
+        Assertions.assertEquals(Set.of(FIRST, SECOND), read.getSectionHashes());
+        try (Stream<Path> files = Files.list(this.directory)) {
+            // No temporary file is left behind
+            Assertions.assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void readRejectsOtherFiles() throws IOException {
+        final Path file = this.directory.resolve("other" + BackupManifest.EXTENSION);
+        Files.write(file, new byte[]{1, 2, 3, 4});
+        Assertions.assertThrows(IOException.class, () -> BackupManifest.read(file));
+    }
+
+}
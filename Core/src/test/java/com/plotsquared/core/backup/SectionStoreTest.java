@@ -0,0 +1,131 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.backup;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public class SectionStoreTest {
+
+    @TempDir
+    Path backupPath;
+
+    private static byte[] data(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String hash(final byte[] data) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+
+    private void writeManifest(final String name, final String... hashes) throws IOException {
+        final BackupManifest manifest = new BackupManifest(16, 16 * hashes.length, 16);
+        for (int i = 0; i < hashes.length; i++) {
+            manifest.setSection(i, hashes[i]);
+        }
+        final Path directory = Files.createDirectories(this.backupPath.resolve("plot"));
+        manifest.write(directory.resolve(name + BackupManifest.EXTENSION));
+    }
+
+    @Test
+    public void sectionsAreStoredOnce() throws Exception {
+        final SectionStore store = SectionStore.of(this.backupPath);
+        final byte[] data = data("section");
+        final String hash = hash(data);
+        Assertions.assertTrue(store.store(hash, data));
+        Assertions.assertFalse(store.store(hash, data));
+        Assertions.assertArrayEquals(data, store.read(hash));
+    }
+
+    @Test
+    public void storeIsSharedPerDirectory() {
+        Assertions.assertSame(SectionStore.of(this.backupPath), SectionStore.of(this.backupPath.resolve(".")));
+    }
+
+    @Test
+    public void readMissingSection() {
+        final SectionStore store = SectionStore.of(this.backupPath);
+        Assertions.assertThrows(IOException.class, () -> store.read(hash(data("missing"))));
+    }
+
+    @Test
+    public void garbageCollectionKeepsReferencedSections() throws Exception {
+        final SectionStore store = SectionStore.of(this.backupPath);
+        final byte[] shared = data("shared");
+        final byte[] first = data("first");
+        final byte[] second = data("second");
+        store.store(hash(shared), shared);
+        store.store(hash(first), first);
+        store.store(hash(second), second);
+        this.writeManifest("a", hash(shared), hash(first));
+
+        store.collectGarbage();
+        Assertions.assertArrayEquals(shared, store.read(hash(shared)));
+        Assertions.assertArrayEquals(first, store.read(hash(first)));
+        Assertions.assertThrows(IOException.class, () -> store.read(hash(second)));
+    }
+
+    @Test
+    public void garbageCollectionWithoutManifests() throws Exception {
+        final SectionStore store = SectionStore.of(this.backupPath);
+        final byte[] data = data("section");
+        store.store(hash(data), data);
+        store.collectGarbage();
+        Assertions.assertThrows(IOException.class, () -> store.read(hash(data)));
+    }
+
+    @Test
+    public void garbageCollectionWaitsForWriters() throws Exception {
+        final SectionStore store = SectionStore.of(this.backupPath);
+        final byte[] data = data("section");
+        store.beginWrite();
+        store.store(hash(data), data);
+        store.collectGarbage();
+        // The manifest referencing the section has not been written yet
+        Assertions.assertArrayEquals(data, store.read(hash(data)));
+        this.writeManifest("a", hash(data));
+        store.endWrite();
+        Assertions.assertArrayEquals(data, store.read(hash(data)));
+    }
+
+    @Test
+    public void postponedCollectionRunsAfterLastWriter() throws Exception {
+        final SectionStore store = SectionStore.of(this.backupPath);
+        final byte[] data = data("section");
+        store.beginWrite();
+        store.beginWrite();
+        store.store(hash(data), data);
+        store.collectGarbage();
+        store.endWrite();
+        Assertions.assertArrayEquals(data, store.read(hash(data)));
+        // The second writer failed without writing a manifest
+        store.endWrite();
+        Assertions.assertThrows(IOException.class, () -> store.read(hash(data)));
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.command;
+
+import com.plotsquared.core.util.RegionFileTrimmer;
+import com.sk89q.worldedit.math.BlockVector2;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class TrimPlannerTest {
+
+    private static BitSet indices(int... indices) {
+        BitSet bits = new BitSet();
+        for (int index : indices) {
+            bits.set(index);
+        }
+        return bits;
+    }
+
+    @Test
+    public void unknownRegionIsUnoccupied() {
+        TrimPlanner planner = new TrimPlanner();
+        BlockVector2 region = BlockVector2.at(3, -2);
+        Assertions.assertTrue(planner.getOccupiedChunks(region).isEmpty());
+        Set<BlockVector2> chunks = planner.getUnoccupiedChunks(region);
+        Assertions.assertEquals(1024, chunks.size());
+        Assertions.assertTrue(chunks.contains(BlockVector2.at(96, -64)));
+        Assertions.assertTrue(chunks.contains(BlockVector2.at(127, -33)));
+    }
+
+    @Test
+    public void areaMarksOverlappingChunks() {
+        TrimPlanner planner = new TrimPlanner();
+        // Touches the chunks 0..1 along x and 0 along z
+        planner.markOccupied(0, 0, 16, 15);
+        BlockVector2 region = BlockVector2.at(0, 0);
+        Assertions.assertEquals(indices(0, 1), planner.getOccupiedChunks(region));
+        Set<BlockVector2> unoccupied = planner.getUnoccupiedChunks(region);
+        Assertions.assertEquals(1022, unoccupied.size());
+        Assertions.assertFalse(unoccupied.contains(BlockVector2.at(0, 0)));
+        Assertions.assertFalse(unoccupied.contains(BlockVector2.at(1, 0)));
+        Assertions.assertTrue(unoccupied.contains(BlockVector2.at(0, 1)));
+    }
+
+    @Test
+    public void negativeCoordinates() {
+        TrimPlanner planner = new TrimPlanner();
+        planner.markOccupied(-16, -1, -1, -1);
+        BlockVector2 region = BlockVector2.at(-1, -1);
+        Assertions.assertEquals(indices(RegionFileTrimmer.getIndex(-1, -1)), planner.getOccupiedChunks(region));
+        Assertions.assertEquals(1023, RegionFileTrimmer.getIndex(-1, -1));
+        Assertions.assertFalse(planner.getUnoccupiedChunks(region).contains(BlockVector2.at(-1, -1)));
+        Assertions.assertTrue(planner.getOccupiedChunks(BlockVector2.at(0, 0)).isEmpty());
+    }
+
+    @Test
+    public void areaAcrossRegionBorder() {
+        TrimPlanner planner = new TrimPlanner();
+        // Chunks 31..32 along x, so the area is split between two region files
+        planner.markOccupied(500, 0, 520, 0);
+        Assertions.assertEquals(indices(31), planner.getOccupiedChunks(BlockVector2.at(0, 0)));
+        Assertions.assertEquals(indices(0), planner.getOccupiedChunks(BlockVector2.at(1, 0)));
+    }
+
+    @Test
+    public void overlappingAreas() {
+        TrimPlanner planner = new TrimPlanner();
+        planner.markOccupied(0, 0, 31, 31);
+        planner.markOccupied(16, 16, 47, 47);
+        Assertions.assertEquals(indices(0, 1, 32, 33, 34, 65, 66), planner.getOccupiedChunks(BlockVector2.at(0, 0)));
+        Assertions.assertEquals(1017, planner.getUnoccupiedChunks(BlockVector2.at(0, 0)).size());
+    }
+
+    @Test
+    public void classifyRegions() {
+        TrimPlanner planner = new TrimPlanner();
+        planner.markOccupied(0, 0, 0, 0);
+        planner.markOccupied(-600, 0, -600, 0);
+        Set<BlockVector2> viable = new HashSet<>();
+        Set<BlockVector2> nonViable = new HashSet<>();
+        planner.classify(
+                List.of(BlockVector2.at(0, 0), BlockVector2.at(-2, 0), BlockVector2.at(1, 0), BlockVector2.at(0, -1)),
+                viable,
+                nonViable
+        );
+        Assertions.assertEquals(Set.of(BlockVector2.at(0, 0), BlockVector2.at(-2, 0)), nonViable);
+        Assertions.assertEquals(Set.of(BlockVector2.at(1, 0), BlockVector2.at(0, -1)), viable);
+    }
+
+}
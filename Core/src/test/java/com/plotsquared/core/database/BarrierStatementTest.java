@@ -0,0 +1,243 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Flushes the queues of a moved plot and its target through two SQLite connections, as two
+ * database writers would, and checks that statements queued for the target after the move see
+ * the moved row.
+ */
+public class BarrierStatementTest {
+
+    @TempDir
+    Path directory;
+
+    private Connection source;
+    private Connection target;
+    private Connection connection;
+    private int reached;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        SQLite database = new SQLite(this.directory.resolve("test.db").toFile());
+        this.source = database.createConnection();
+        this.target = database.createConnection();
+        try (Statement statement = this.source.createStatement()) {
+            statement.executeUpdate("CREATE TABLE `plot` (`id` INTEGER PRIMARY KEY, `plot_id_x` INT, `plot_id_z` INT, "
+                    + "`owner` VARCHAR(40))");
+            statement.executeUpdate("INSERT INTO `plot` (`id`, `plot_id_x`, `plot_id_z`, `owner`) VALUES (1, 0, 0, 'old')");
+        }
+        this.source.setAutoCommit(false);
+        this.target.setAutoCommit(false);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        this.source.close();
+        this.target.close();
+    }
+
+    @Test
+    public void updateAfterMoveWaitsForCommit() throws Exception {
+        Queue<SQLManager.UniqueStatement> sourceQueue = new ArrayDeque<>();
+        Queue<SQLManager.UniqueStatement> targetQueue = new ArrayDeque<>();
+        BarrierStatement move = move(1, 0);
+        targetQueue.add(move.createMarker());
+        sourceQueue.add(move);
+        targetQueue.add(setOwner(1, 0, "new"));
+
+        List<BarrierStatement> barriers = new ArrayList<>();
+        // The target writer runs first, but must not update the row before it was moved
+        Assertions.assertFalse(flush(targetQueue, this.target, barriers));
+        Assertions.assertEquals(1, this.reached);
+        Assertions.assertTrue(flush(sourceQueue, this.source, barriers));
+        Assertions.assertEquals(List.of(move), barriers);
+        Assertions.assertFalse(flush(targetQueue, this.target, barriers));
+
+        this.source.commit();
+        barriers.forEach(BarrierStatement::release);
+
+        Assertions.assertTrue(flush(targetQueue, this.target, barriers));
+        Assertions.assertTrue(flush(targetQueue, this.target, barriers));
+        Assertions.assertTrue(targetQueue.isEmpty());
+        this.target.commit();
+
+        try (Statement statement = this.source.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT `plot_id_x`, `owner` FROM `plot` WHERE `id` = 1")) {
+            Assertions.assertTrue(resultSet.next());
+            Assertions.assertEquals(1, resultSet.getInt("plot_id_x"));
+            Assertions.assertEquals("new", resultSet.getString("owner"));
+        }
+    }
+
+    @Test
+    public void moveWaitsForEarlierTargetTasks() throws Exception {
+        Queue<SQLManager.UniqueStatement> sourceQueue = new ArrayDeque<>();
+        Queue<SQLManager.UniqueStatement> targetQueue = new ArrayDeque<>();
+        targetQueue.add(setOwner(1, 0, "before"));
+        BarrierStatement move = move(1, 0);
+        targetQueue.add(move.createMarker());
+        sourceQueue.add(move);
+
+        List<BarrierStatement> barriers = new ArrayList<>();
+        Assertions.assertFalse(flush(sourceQueue, this.source, barriers));
+        // Flushing the earlier task brings the marker to the head of the target queue
+        Assertions.assertTrue(flush(targetQueue, this.target, barriers));
+        this.target.commit();
+        Assertions.assertFalse(flush(targetQueue, this.target, barriers));
+        Assertions.assertTrue(flush(sourceQueue, this.source, barriers));
+        this.source.commit();
+        barriers.forEach(BarrierStatement::release);
+        Assertions.assertTrue(flush(targetQueue, this.target, barriers));
+        Assertions.assertTrue(targetQueue.isEmpty());
+    }
+
+    @Test
+    public void statementWithoutMarkerIsReady() {
+        BarrierStatement move = move(1, 0);
+        Assertions.assertFalse(BarrierStatement.isReady(move, () -> this.reached++));
+        move.withoutMarker();
+        Assertions.assertTrue(BarrierStatement.isReady(move, () -> this.reached++));
+        Assertions.assertEquals(0, this.reached);
+    }
+
+    @Test
+    public void releaseReportsCommit() {
+        List<Boolean> released = new ArrayList<>();
+        BarrierStatement committed = released(released);
+        BarrierStatement failed = released(released);
+        committed.markCommitted();
+        committed.release();
+        // Released after a failed commit, the other plot must not be blocked
+        failed.release();
+        Assertions.assertEquals(List.of(true, false), released);
+        Assertions.assertTrue(BarrierStatement.isReady(failed.createMarker(), () -> this.reached++));
+    }
+
+    @Test
+    public void barrierClassification() {
+        BarrierStatement move = move(1, 0);
+        SQLManager.UniqueStatement marker = move.createMarker();
+        SQLManager.UniqueStatement update = setOwner(0, 0, "owner");
+        Assertions.assertTrue(BarrierStatement.isBarrier(move));
+        Assertions.assertTrue(BarrierStatement.isBarrier(marker));
+        Assertions.assertFalse(BarrierStatement.isBarrier(update));
+        Assertions.assertTrue(BarrierStatement.isMarker(marker));
+        Assertions.assertFalse(BarrierStatement.isMarker(move));
+        Assertions.assertFalse(BarrierStatement.isReady(null, () -> this.reached++));
+        Assertions.assertTrue(BarrierStatement.isReady(update, () -> this.reached++));
+    }
+
+    /**
+     * Flush the head of a queue the way a writer does
+     *
+     * @return {@code true} if a statement was taken from the queue
+     */
+    private boolean flush(
+            Queue<SQLManager.UniqueStatement> queue,
+            Connection connection,
+            List<BarrierStatement> barriers
+    ) throws SQLException {
+        if (!BarrierStatement.isReady(queue.peek(), () -> this.reached++)) {
+            return false;
+        }
+        SQLManager.UniqueStatement task = queue.remove();
+        if (BarrierStatement.isMarker(task)) {
+            return true;
+        }
+        if (task instanceof BarrierStatement barrier) {
+            barriers.add(barrier);
+        }
+        this.connection = connection;
+        try (PreparedStatement statement = task.get()) {
+            task.set(statement);
+            task.addBatch(statement);
+            task.execute(statement);
+        }
+        return true;
+    }
+
+    private BarrierStatement move(int x, int z) {
+        return new BarrierStatement("movePlot") {
+            @Override
+            public PreparedStatement get() throws SQLException {
+                return connection.prepareStatement("UPDATE `plot` SET `plot_id_x` = ?, `plot_id_z` = ? WHERE `id` = ?");
+            }
+
+            @Override
+            public void set(PreparedStatement statement) throws SQLException {
+                statement.setInt(1, x);
+                statement.setInt(2, z);
+                statement.setInt(3, 1);
+            }
+        };
+    }
+
+    private BarrierStatement released(List<Boolean> released) {
+        return new BarrierStatement(null) {
+            @Override
+            public PreparedStatement get() {
+                return null;
+            }
+
+            @Override
+            public void set(PreparedStatement statement) {
+            }
+
+            @Override
+            void released(final boolean committed) {
+                released.add(committed);
+            }
+        };
+    }
+
+    private SQLManager.UniqueStatement setOwner(int x, int z, String owner) {
+        return new SQLManager.UniqueStatement("setOwner", "owner") {
+            @Override
+            public PreparedStatement get() throws SQLException {
+                return connection.prepareStatement("UPDATE `plot` SET `owner` = ? WHERE `plot_id_x` = ? AND `plot_id_z` = ?");
+            }
+
+            @Override
+            public void set(PreparedStatement statement) throws SQLException {
+                statement.setString(1, owner);
+                statement.setInt(2, x);
+                statement.setInt(3, z);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.database;
+
+import com.plotsquared.core.plot.PlotId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class PlotRowIndexTest {
+
+    private static final String AREA = "world";
+    private static final String OTHER_AREA = "other";
+    private static final PlotId FIRST = PlotId.of(1, 1);
+    private static final PlotId SECOND = PlotId.of(2, 1);
+
+    @Test
+    public void unknownPlot() {
+        PlotRowIndex index = new PlotRowIndex();
+        Assertions.assertEquals(0, index.get(AREA, FIRST));
+        index.put(AREA, FIRST, 5);
+        Assertions.assertEquals(0, index.get(AREA, SECOND));
+        Assertions.assertEquals(0, index.get(OTHER_AREA, FIRST));
+    }
+
+    @Test
+    public void loadAndInsert() {
+        PlotRowIndex index = new PlotRowIndex();
+        index.put(AREA, FIRST, 1);
+        index.put(OTHER_AREA, FIRST, 2);
+        index.put(AREA, SECOND, 3);
+        Assertions.assertEquals(1, index.get(AREA, FIRST));
+        Assertions.assertEquals(2, index.get(OTHER_AREA, FIRST));
+        Assertions.assertEquals(3, index.get(AREA, SECOND));
+        // A plot that is inserted again replaces its previous row
+        index.put(AREA, FIRST, 4);
+        Assertions.assertEquals(4, index.get(AREA, FIRST));
+    }
+
+    @Test
+    public void move() {
+        PlotRowIndex index = new PlotRowIndex();
+        index.put(AREA, FIRST, 1);
+        index.remove(AREA, FIRST, 1);
+        index.put(OTHER_AREA, SECOND, 1);
+        Assertions.assertEquals(0, index.get(AREA, FIRST));
+        Assertions.assertEquals(1, index.get(OTHER_AREA, SECOND));
+    }
+
+    @Test
+    public void swap() {
+        PlotRowIndex index = new PlotRowIndex();
+        index.put(AREA, FIRST, 1);
+        index.put(AREA, SECOND, 2);
+        index.put(AREA, FIRST, 2);
+        index.put(AREA, SECOND, 1);
+        Assertions.assertEquals(2, index.get(AREA, FIRST));
+        Assertions.assertEquals(1, index.get(AREA, SECOND));
+    }
+
+    @Test
+    public void deleteOnlyRemovesMatchingRow() {
+        PlotRowIndex index = new PlotRowIndex();
+        index.put(AREA, FIRST, 1);
+        // The plot was claimed again before the delete of its previous row ran
+        index.put(AREA, FIRST, 2);
+        index.remove(AREA, FIRST, 1);
+        Assertions.assertEquals(2, index.get(AREA, FIRST));
+        index.remove(AREA, FIRST, 2);
+        Assertions.assertEquals(0, index.get(AREA, FIRST));
+        // Removing from an unknown area is a no-op
+        index.remove(OTHER_AREA, FIRST, 2);
+    }
+
+    @Test
+    public void deleteRows() {
+        PlotRowIndex index = new PlotRowIndex();
+        index.put(AREA, FIRST, 1);
+        index.put(AREA, SECOND, 2);
+        index.put(OTHER_AREA, FIRST, 3);
+        index.removeRows(List.of(1, 3));
+        Assertions.assertEquals(0, index.get(AREA, FIRST));
+        Assertions.assertEquals(2, index.get(AREA, SECOND));
+        Assertions.assertEquals(0, index.get(OTHER_AREA, FIRST));
+    }
+
+}
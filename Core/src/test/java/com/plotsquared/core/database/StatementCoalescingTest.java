@@ -0,0 +1,144 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.database;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+
+public class StatementCoalescingTest {
+
+    private static SQLManager.UniqueStatement statement(String method, String key) {
+        return new SQLManager.UniqueStatement(method, key) {
+            @Override
+            public PreparedStatement get() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void set(PreparedStatement statement) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public String toString() {
+                return method + ":" + key;
+            }
+        };
+    }
+
+    private static BarrierStatement barrier() {
+        return new BarrierStatement("movePlot") {
+            @Override
+            public PreparedStatement get() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void set(PreparedStatement statement) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private static int add(Queue<SQLManager.UniqueStatement> queue, SQLManager.UniqueStatement task) {
+        queue.add(task);
+        return SQLManager.coalesce(queue, task);
+    }
+
+    @Test
+    public void lastWriteWins() {
+        Queue<SQLManager.UniqueStatement> queue = new ArrayDeque<>();
+        SQLManager.UniqueStatement first = statement("setAlias", "alias");
+        SQLManager.UniqueStatement second = statement("setAlias", "alias");
+        SQLManager.UniqueStatement third = statement("setAlias", "alias");
+        Assertions.assertEquals(0, add(queue, first));
+        Assertions.assertEquals(1, add(queue, second));
+        Assertions.assertEquals(1, add(queue, third));
+        Assertions.assertEquals(List.of(third), List.copyOf(queue));
+    }
+
+    @Test
+    public void differentKeysAreKept() {
+        Queue<SQLManager.UniqueStatement> queue = new ArrayDeque<>();
+        SQLManager.UniqueStatement alias = statement("setAlias", "alias");
+        SQLManager.UniqueStatement owner = statement("setOwner", "owner");
+        SQLManager.UniqueStatement flag = statement("setFlag", "flag:pvp");
+        SQLManager.UniqueStatement otherFlag = statement("setFlag", "flag:fly");
+        add(queue, alias);
+        add(queue, owner);
+        add(queue, flag);
+        Assertions.assertEquals(0, add(queue, otherFlag));
+        Assertions.assertEquals(List.of(alias, owner, flag, otherFlag), List.copyOf(queue));
+    }
+
+    @Test
+    public void statementsWithoutKeyAreNeverCoalesced() {
+        Queue<SQLManager.UniqueStatement> queue = new ArrayDeque<>();
+        SQLManager.UniqueStatement first = statement("createPlot", null);
+        SQLManager.UniqueStatement second = statement("createPlot", null);
+        add(queue, first);
+        Assertions.assertEquals(0, add(queue, second));
+        Assertions.assertEquals(List.of(first, second), List.copyOf(queue));
+    }
+
+    @Test
+    public void replacedStatementKeepsOrderOfOthers() {
+        Queue<SQLManager.UniqueStatement> queue = new ArrayDeque<>();
+        SQLManager.UniqueStatement alias = statement("setAlias", "alias");
+        SQLManager.UniqueStatement owner = statement("setOwner", "owner");
+        SQLManager.UniqueStatement newAlias = statement("setAlias", "alias");
+        add(queue, alias);
+        add(queue, owner);
+        add(queue, newAlias);
+        // The latest value is flushed after the statements queued in between
+        Assertions.assertEquals(List.of(owner, newAlias), List.copyOf(queue));
+    }
+
+    @Test
+    public void statementsBeforeBarrierAreKept() {
+        Queue<SQLManager.UniqueStatement> queue = new ArrayDeque<>();
+        SQLManager.UniqueStatement before = statement("setOwner", "owner");
+        BarrierStatement move = barrier();
+        SQLManager.UniqueStatement after = statement("setOwner", "owner");
+        SQLManager.UniqueStatement latest = statement("setOwner", "owner");
+        add(queue, before);
+        add(queue, move);
+        Assertions.assertEquals(0, add(queue, after));
+        Assertions.assertEquals(1, add(queue, latest));
+        Assertions.assertEquals(List.of(before, move, latest), List.copyOf(queue));
+    }
+
+    @Test
+    public void markerIsAFence() {
+        Queue<SQLManager.UniqueStatement> queue = new ArrayDeque<>();
+        SQLManager.UniqueStatement before = statement("setOwner", "owner");
+        SQLManager.UniqueStatement marker = barrier().createMarker();
+        SQLManager.UniqueStatement after = statement("setOwner", "owner");
+        add(queue, before);
+        add(queue, marker);
+        Assertions.assertEquals(0, add(queue, after));
+        Assertions.assertEquals(List.of(before, marker, after), List.copyOf(queue));
+    }
+
+}
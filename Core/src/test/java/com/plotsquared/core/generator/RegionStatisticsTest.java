@@ -0,0 +1,280 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.generator;
+
+import com.plotsquared.core.plot.expiration.PlotAnalysis;
+import com.plotsquared.core.util.MathMan;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class RegionStatisticsTest {
+
+    private static final TestBlock AIR = new TestBlock("air", true, false);
+    private static final TestBlock CAVE_AIR = new TestBlock("cave_air", true, false);
+    private static final TestBlock STONE = new TestBlock("stone", false, false);
+    private static final TestBlock STONE_DATA = new TestBlock("stone", false, true);
+    private static final TestBlock DIRT = new TestBlock("dirt", false, false);
+    private static final TestBlock[] SOLID = {STONE, STONE_DATA, DIRT};
+
+    private static final RegionStatistics.BlockClassifier<TestBlock> CLASSIFIER =
+            new RegionStatistics.BlockClassifier<>() {
+                @Override
+                public boolean isAir(final TestBlock block) {
+                    return block.air;
+                }
+
+                @Override
+                public Object getType(final TestBlock block) {
+                    return block.type;
+                }
+
+                @Override
+                public boolean hasData(final TestBlock block) {
+                    return block.data;
+                }
+
+                @Override
+                public boolean isChanged(final TestBlock old, final TestBlock now) {
+                    return now != old && !(old == null && now == AIR);
+                }
+            };
+
+    private static TestBlock[][][] randomBlocks(Random random, int height, int width, int length, boolean nullable) {
+        TestBlock[][][] blocks = new TestBlock[height][width][length];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                for (int z = 0; z < length; z++) {
+                    int roll = random.nextInt(8);
+                    if (roll < 3) {
+                        blocks[y][x][z] = nullable && roll == 0 ? null : AIR;
+                    } else if (roll == 3) {
+                        blocks[y][x][z] = CAVE_AIR;
+                    } else {
+                        blocks[y][x][z] = SOLID[random.nextInt(SOLID.length)];
+                    }
+                }
+            }
+        }
+        return blocks;
+    }
+
+    private static TestBlock[][][] slice(TestBlock[][][] blocks, int minX, int minZ, int maxX, int maxZ) {
+        TestBlock[][][] slice = new TestBlock[blocks.length][maxX - minX + 1][maxZ - minZ + 1];
+        for (int y = 0; y < blocks.length; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                System.arraycopy(blocks[y][x], minZ, slice[y][x - minX], 0, maxZ - minZ + 1);
+            }
+        }
+        return slice;
+    }
+
+    /**
+     * The whole-region analysis previously done by HybridUtils#analyzeRegion
+     */
+    private static PlotAnalysis analyzeWholeRegion(TestBlock[][][] oldBlocks, TestBlock[][][] newBlocks) {
+        int height = newBlocks.length;
+        int width = newBlocks[0].length;
+        int length = newBlocks[0][0].length;
+        int size = width * length;
+        int[] changes = new int[size];
+        int[] faces = new int[size];
+        int[] data = new int[size];
+        int[] air = new int[size];
+        int[] variety = new int[size];
+        int i = 0;
+        for (int x = 0; x < width; x++) {
+            for (int z = 0; z < length; z++) {
+                Set<Object> types = new HashSet<>();
+                for (int yIndex = 0; yIndex < height; yIndex++) {
+                    TestBlock old = oldBlocks[yIndex][x][z];
+                    TestBlock now = newBlocks[yIndex][x][z];
+                    if (CLASSIFIER.isChanged(old, now)) {
+                        changes[i]++;
+                    }
+                    if (now.air) {
+                        air[i]++;
+                    } else {
+                        if (x > 0 && z > 0 && yIndex > 0 && x < width - 1 && z < length - 1 && yIndex < (height - 1)) {
+                            if (newBlocks[yIndex - 1][x][z].air) {
+                                faces[i]++;
+                            }
+                            if (newBlocks[yIndex][x - 1][z].air) {
+                                faces[i]++;
+                            }
+                            if (newBlocks[yIndex][x][z - 1].air) {
+                                faces[i]++;
+                            }
+                            if (newBlocks[yIndex + 1][x][z].air) {
+                                faces[i]++;
+                            }
+                            if (newBlocks[yIndex][x + 1][z].air) {
+                                faces[i]++;
+                            }
+                            if (newBlocks[yIndex][x][z + 1].air) {
+                                faces[i]++;
+                            }
+                        }
+                        if (now.data) {
+                            data[i]++;
+                        }
+                        types.add(now.type);
+                    }
+                }
+                variety[i] = types.size();
+                i++;
+            }
+        }
+        PlotAnalysis analysis = new PlotAnalysis();
+        analysis.changes = (int) (MathMan.getMean(changes) * 100);
+        analysis.faces = (int) (MathMan.getMean(faces) * 100);
+        analysis.data = (int) (MathMan.getMean(data) * 100);
+        analysis.air = (int) (MathMan.getMean(air) * 100);
+        analysis.variety = (int) (MathMan.getMean(variety) * 100);
+
+        analysis.changes_sd = (int) (MathMan.getSD(changes, analysis.changes) * 100);
+        analysis.faces_sd = (int) (MathMan.getSD(faces, analysis.faces) * 100);
+        analysis.data_sd = (int) (MathMan.getSD(data, analysis.data) * 100);
+        analysis.air_sd = (int) (MathMan.getSD(air, analysis.air) * 100);
+        analysis.variety_sd = (int) (MathMan.getSD(variety, analysis.variety) * 100);
+        return analysis;
+    }
+
+    /**
+     * Compare a region chunk by chunk, in the given order of chunks
+     *
+     * @param bx region minimum x in world coordinates, used to split the region at chunk borders
+     * @param bz region minimum z in world coordinates
+     */
+    private static PlotAnalysis analyzeByChunk(
+            TestBlock[][][] oldBlocks, TestBlock[][][] newBlocks, int bx, int bz, Random order
+    ) {
+        int height = newBlocks.length;
+        int width = newBlocks[0].length;
+        int length = newBlocks[0][0].length;
+        int tx = bx + width - 1;
+        int tz = bz + length - 1;
+        List<int[]> chunks = new ArrayList<>();
+        for (int chunkX = bx >> 4; chunkX <= tx >> 4; chunkX++) {
+            for (int chunkZ = bz >> 4; chunkZ <= tz >> 4; chunkZ++) {
+                chunks.add(new int[]{chunkX, chunkZ});
+            }
+        }
+        if (order != null) {
+            Collections.shuffle(chunks, order);
+        }
+        RegionStatistics<TestBlock> statistics = new RegionStatistics<>(CLASSIFIER, width, length, height);
+        for (int[] chunk : chunks) {
+            int minX = Math.max(bx, chunk[0] << 4) - bx;
+            int minZ = Math.max(bz, chunk[1] << 4) - bz;
+            int maxX = Math.min(tx, (chunk[0] << 4) + 15) - bx;
+            int maxZ = Math.min(tz, (chunk[1] << 4) + 15) - bz;
+            statistics.compare(
+                    minX, minZ, maxX, maxZ,
+                    slice(oldBlocks, minX, minZ, maxX, maxZ),
+                    slice(newBlocks, minX, minZ, maxX, maxZ)
+            );
+        }
+        return statistics.complete();
+    }
+
+    private static void assertSameAnalysis(PlotAnalysis expected, PlotAnalysis actual) {
+        Assertions.assertEquals(expected.changes, actual.changes, "changes");
+        Assertions.assertEquals(expected.faces, actual.faces, "faces");
+        Assertions.assertEquals(expected.data, actual.data, "data");
+        Assertions.assertEquals(expected.air, actual.air, "air");
+        Assertions.assertEquals(expected.variety, actual.variety, "variety");
+        Assertions.assertEquals(expected.changes_sd, actual.changes_sd, "changes_sd");
+        Assertions.assertEquals(expected.faces_sd, actual.faces_sd, "faces_sd");
+        Assertions.assertEquals(expected.data_sd, actual.data_sd, "data_sd");
+        Assertions.assertEquals(expected.air_sd, actual.air_sd, "air_sd");
+        Assertions.assertEquals(expected.variety_sd, actual.variety_sd, "variety_sd");
+    }
+
+    @Test
+    public void matchesWholeRegionAnalysisAcrossChunkBorders() {
+        Random random = new Random(42);
+        // Not aligned to chunks: spans chunks -1 to 1 in x and 0 to 1 in z
+        TestBlock[][][] oldBlocks = randomBlocks(random, 20, 37, 21, true);
+        TestBlock[][][] newBlocks = randomBlocks(random, 20, 37, 21, false);
+        PlotAnalysis expected = analyzeWholeRegion(oldBlocks, newBlocks);
+        Assertions.assertTrue(expected.faces > 0);
+        assertSameAnalysis(expected, analyzeByChunk(oldBlocks, newBlocks, -7, 5, null));
+    }
+
+    @Test
+    public void chunkOrderDoesNotMatter() {
+        Random random = new Random(7);
+        TestBlock[][][] oldBlocks = randomBlocks(random, 70, 48, 33, true);
+        TestBlock[][][] newBlocks = randomBlocks(random, 70, 48, 33, false);
+        PlotAnalysis expected = analyzeWholeRegion(oldBlocks, newBlocks);
+        for (int seed = 0; seed < 5; seed++) {
+            assertSameAnalysis(expected, analyzeByChunk(oldBlocks, newBlocks, 3, -20, new Random(seed)));
+        }
+    }
+
+    @Test
+    public void singleChunkRegion() {
+        Random random = new Random(1);
+        TestBlock[][][] oldBlocks = randomBlocks(random, 16, 9, 12, true);
+        TestBlock[][][] newBlocks = randomBlocks(random, 16, 9, 12, false);
+        assertSameAnalysis(analyzeWholeRegion(oldBlocks, newBlocks), analyzeByChunk(oldBlocks, newBlocks, 2, 3, null));
+    }
+
+    @Test
+    public void facesAcrossChunkBorder() {
+        // Two columns on either side of the border between chunk 0 and 1, with air next to solid blocks only across it
+        TestBlock[][][] newBlocks = new TestBlock[3][4][3];
+        TestBlock[][][] oldBlocks = new TestBlock[3][4][3];
+        for (int y = 0; y < 3; y++) {
+            for (int x = 0; x < 4; x++) {
+                for (int z = 0; z < 3; z++) {
+                    newBlocks[y][x][z] = STONE;
+                }
+            }
+        }
+        newBlocks[1][2][1] = AIR;
+        // Region from x = 14 to 17: the solid column at x = 15 (relative 1) faces the air at x = 16 in the next chunk
+        PlotAnalysis expected = analyzeWholeRegion(oldBlocks, newBlocks);
+        Assertions.assertTrue(expected.faces > 0);
+        assertSameAnalysis(expected, analyzeByChunk(oldBlocks, newBlocks, 14, 0, null));
+        assertSameAnalysis(expected, analyzeByChunk(oldBlocks, newBlocks, 14, 0, new Random(3)));
+    }
+
+    private static final class TestBlock {
+
+        private final String type;
+        private final boolean air;
+        private final boolean data;
+
+        private TestBlock(final String type, final boolean air, final boolean data) {
+            this.type = type;
+            this.air = air;
+            this.data = data;
+        }
+
+    }
+
+}
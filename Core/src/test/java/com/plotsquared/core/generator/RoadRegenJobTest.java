@@ -0,0 +1,128 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.generator;
+
+import com.sk89q.worldedit.math.BlockVector2;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+public class RoadRegenJobTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testCheckpointRoundTrip() throws IOException {
+        final File file = this.tempDir.resolve("area.bin").toFile();
+        final List<BlockVector2> regions = List.of(BlockVector2.at(0, 0), BlockVector2.at(-1, 2));
+        final List<BlockVector2> chunks = List.of(BlockVector2.at(5, 7), BlockVector2.at(-32, 31));
+        RoadRegenJob.writeCheckpoint(file, regions, chunks, 3);
+
+        final RoadRegenJob.Checkpoint checkpoint = RoadRegenJob.readCheckpoint(file);
+        Assertions.assertEquals(regions, checkpoint.regions());
+        Assertions.assertEquals(chunks, checkpoint.chunks());
+        Assertions.assertEquals(3, checkpoint.extend());
+    }
+
+    @Test
+    public void testCheckpointReplacesPrevious() throws IOException {
+        final File file = this.tempDir.resolve("area.bin").toFile();
+        RoadRegenJob.writeCheckpoint(file, List.of(BlockVector2.at(0, 0), BlockVector2.at(1, 0)), List.of(), 0);
+        // Resuming after the first region was started, with its unfinished chunks kept
+        RoadRegenJob.writeCheckpoint(file, List.of(BlockVector2.at(1, 0)), List.of(BlockVector2.at(2, 2)), 0);
+
+        final RoadRegenJob.Checkpoint checkpoint = RoadRegenJob.readCheckpoint(file);
+        Assertions.assertEquals(List.of(BlockVector2.at(1, 0)), checkpoint.regions());
+        Assertions.assertEquals(List.of(BlockVector2.at(2, 2)), checkpoint.chunks());
+        Assertions.assertFalse(new File(file.getParentFile(), file.getName() + ".tmp").exists());
+    }
+
+    @Test
+    public void testReadLegacyCheckpoint() throws IOException {
+        // Format written by the persistent_regen_data file of earlier versions
+        final File file = this.tempDir.resolve("persistent_regen_data").toFile();
+        final List<int[]> regionInts = new ArrayList<>();
+        regionInts.add(new int[]{4, -2});
+        final List<int[]> chunkInts = new ArrayList<>();
+        chunkInts.add(new int[]{128, -64});
+        chunkInts.add(new int[]{129, -64});
+        final List<Object> list = new ArrayList<>();
+        list.add(regionInts);
+        list.add(chunkInts);
+        list.add(1);
+        try (ObjectOutputStream oos = new ObjectOutputStream(Files.newOutputStream(file.toPath()))) {
+            oos.writeObject(list);
+        }
+
+        final RoadRegenJob.Checkpoint checkpoint = RoadRegenJob.readCheckpoint(file);
+        Assertions.assertEquals(List.of(BlockVector2.at(4, -2)), checkpoint.regions());
+        Assertions.assertEquals(List.of(BlockVector2.at(128, -64), BlockVector2.at(129, -64)), checkpoint.chunks());
+        Assertions.assertEquals(1, checkpoint.extend());
+    }
+
+    @Test
+    public void testReadInvalidCheckpoint() throws IOException {
+        final File file = this.tempDir.resolve("area.bin").toFile();
+        try (ObjectOutputStream oos = new ObjectOutputStream(Files.newOutputStream(file.toPath()))) {
+            oos.writeObject(Collections.singletonList("regions"));
+        }
+        Assertions.assertThrows(IOException.class, () -> RoadRegenJob.readCheckpoint(file));
+
+        Files.write(file.toPath(), new byte[]{1, 2, 3});
+        Assertions.assertThrows(IOException.class, () -> RoadRegenJob.readCheckpoint(file));
+    }
+
+    @Test
+    public void testOverlappingRegions() {
+        final List<BlockVector2> regions = List.of(
+                BlockVector2.at(-2, 0), BlockVector2.at(-1, 0), BlockVector2.at(0, 0),
+                BlockVector2.at(1, 0), BlockVector2.at(2, 0), BlockVector2.at(0, 5)
+        );
+        // Blocks -1..1000 cover regions -1..1 on the x-axis
+        final CuboidRegion area = new CuboidRegion(BlockVector3.at(-1, 0, 0), BlockVector3.at(1000, 255, 100));
+        final Set<BlockVector2> overlapping = HybridUtils.getOverlappingRegions(regions, area);
+        Assertions.assertEquals(List.of(BlockVector2.at(-1, 0), BlockVector2.at(0, 0), BlockVector2.at(1, 0)),
+                new ArrayList<>(overlapping)
+        );
+    }
+
+    @Test
+    public void testOverlappingRegionsUnboundedArea() {
+        final List<BlockVector2> regions = List.of(BlockVector2.at(-58594, 0), BlockVector2.at(0, 0), BlockVector2.at(58593, 7));
+        final CuboidRegion area = new CuboidRegion(
+                BlockVector3.at(Integer.MIN_VALUE, 0, Integer.MIN_VALUE),
+                BlockVector3.at(Integer.MAX_VALUE, 255, Integer.MAX_VALUE)
+        );
+        Assertions.assertEquals(regions, new ArrayList<>(HybridUtils.getOverlappingRegions(regions, area)));
+    }
+
+}
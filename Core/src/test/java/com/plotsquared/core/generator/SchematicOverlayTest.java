@@ -0,0 +1,140 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.generator;
+
+import com.sk89q.worldedit.world.biome.BiomeType;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SchematicOverlayTest {
+
+    private static final BaseBlock STONE = block("stone");
+    private static final BaseBlock DIRT = block("dirt");
+
+    /**
+     * Create a block that does not need the block registry of a running platform
+     */
+    private static BaseBlock block(String name) {
+        return new BaseBlock((BlockState) null) {
+            @Override
+            public boolean equals(Object o) {
+                return this == o;
+            }
+
+            @Override
+            public int hashCode() {
+                return name.hashCode();
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+
+    @Test
+    public void emptyOverlay() {
+        SchematicOverlay overlay = new SchematicOverlay(8);
+        Assertions.assertEquals(0, overlay.getHeight());
+        Assertions.assertEquals(-1, overlay.getColumn(0, 0));
+        Assertions.assertNull(overlay.getColumnBlocks(0, 0));
+        Assertions.assertNull(overlay.getBiome(0, 0));
+    }
+
+    @Test
+    public void firstBlockDefinesHeight() {
+        SchematicOverlay overlay = new SchematicOverlay(8);
+        Assertions.assertTrue(overlay.setBlock(1, 2, 3, STONE, 4));
+        Assertions.assertTrue(overlay.setBlock(3, 1, 1, DIRT, 10));
+        Assertions.assertEquals(4, overlay.getHeight());
+        Assertions.assertFalse(overlay.setBlock(3, 5, 1, DIRT, 10));
+    }
+
+    @Test
+    public void getBlocks() {
+        SchematicOverlay overlay = new SchematicOverlay(8);
+        overlay.setBlock(1, 2, 3, STONE, 4);
+        overlay.setBlock(1, 0, 3, DIRT, 4);
+        overlay.setBlock(7, 3, 7, STONE, 4);
+
+        int column = overlay.getColumn(1, 3);
+        Assertions.assertNotEquals(-1, column);
+        Assertions.assertSame(DIRT, overlay.getBlock(column, 0));
+        Assertions.assertNull(overlay.getBlock(column, 1));
+        Assertions.assertSame(STONE, overlay.getBlock(column, 2));
+        Assertions.assertNull(overlay.getBlock(column, 3));
+        Assertions.assertArrayEquals(new BaseBlock[]{DIRT, null, STONE, null}, overlay.getColumnBlocks(1, 3));
+
+        Assertions.assertSame(STONE, overlay.getBlock(overlay.getColumn(7, 7), 3));
+        Assertions.assertEquals(-1, overlay.getColumn(3, 1));
+    }
+
+    @Test
+    public void outOfRangeHeightStillCreatesColumn() {
+        SchematicOverlay overlay = new SchematicOverlay(8);
+        overlay.setBlock(0, 0, 0, STONE, 2);
+        Assertions.assertFalse(overlay.setBlock(4, 2, 4, STONE, 2));
+        Assertions.assertFalse(overlay.setBlock(4, -1, 4, STONE, 2));
+        Assertions.assertArrayEquals(new BaseBlock[]{null, null}, overlay.getColumnBlocks(4, 4));
+    }
+
+    @Test
+    public void positionsOutsideTheCellAreIgnored() {
+        SchematicOverlay overlay = new SchematicOverlay(8);
+        Assertions.assertTrue(overlay.setBlock(8, 0, 0, STONE, 2));
+        Assertions.assertTrue(overlay.setBlock(0, 0, -1, STONE, 2));
+        Assertions.assertEquals(0, overlay.getHeight());
+        Assertions.assertEquals(-1, overlay.getColumn(8, 0));
+        Assertions.assertEquals(-1, overlay.getColumn(0, -1));
+    }
+
+    @Test
+    public void everyColumnKeepsItsBlocks() {
+        int size = 32;
+        SchematicOverlay overlay = new SchematicOverlay(size);
+        for (int x = 0; x < size; x++) {
+            for (int z = 0; z < size; z++) {
+                overlay.setBlock(x, (x + z) % 3, z, (x + z) % 2 == 0 ? STONE : DIRT, 3);
+            }
+        }
+        for (int x = 0; x < size; x++) {
+            for (int z = 0; z < size; z++) {
+                int column = overlay.getColumn(x, z);
+                Assertions.assertSame((x + z) % 2 == 0 ? STONE : DIRT, overlay.getBlock(column, (x + z) % 3));
+            }
+        }
+    }
+
+    @Test
+    public void biomes() {
+        SchematicOverlay overlay = new SchematicOverlay(8);
+        BiomeType plains = new BiomeType("minecraft:plains");
+        overlay.setBiome(2, 5, plains);
+        overlay.setBiome(8, 5, plains);
+        Assertions.assertSame(plains, overlay.getBiome(2, 5));
+        Assertions.assertNull(overlay.getBiome(5, 2));
+        Assertions.assertNull(overlay.getBiome(8, 5));
+        // biomes do not create block columns
+        Assertions.assertEquals(-1, overlay.getColumn(2, 5));
+    }
+
+}
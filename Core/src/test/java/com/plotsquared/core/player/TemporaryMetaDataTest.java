@@ -0,0 +1,106 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.player;
+
+import com.google.inject.TypeLiteral;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class TemporaryMetaDataTest {
+
+    private static final TypeLiteral<Integer> INTEGER = new TypeLiteral<>() {
+    };
+
+    @Test
+    public void testKeysGetDistinctIndices() {
+        final Set<Integer> indices = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            final MetaDataKey<Integer> key = MetaDataKey.of("temporary-test-distinct-" + i, INTEGER);
+            Assertions.assertTrue(indices.add(key.getIndex()));
+            // Creating the key again returns the same key and index
+            Assertions.assertSame(key, MetaDataKey.of(key.toString(), INTEGER));
+        }
+    }
+
+    @Test
+    public void testNamedAccessSharesKeySlot() {
+        final TemporaryMetaData meta = new TemporaryMetaData();
+        // The name is used before the key exists, the key must still resolve to the same index
+        meta.set("temporary-test-named", 5);
+        final MetaDataKey<Integer> key = MetaDataKey.of("temporary-test-named", INTEGER);
+        Assertions.assertEquals(MetaDataKey.getIndex("temporary-test-named"), key.getIndex());
+        Assertions.assertEquals(5, meta.get(key));
+
+        meta.set(key, 6);
+        Assertions.assertEquals(6, meta.get("temporary-test-named"));
+        Assertions.assertEquals(6, meta.remove("temporary-test-named"));
+        Assertions.assertNull(meta.get(key));
+    }
+
+    @Test
+    public void testValuesBeyondSlotLimit() {
+        final List<MetaDataKey<Integer>> keys = new ArrayList<>();
+        MetaDataKey<Integer> key;
+        int i = 0;
+        do {
+            key = MetaDataKey.of("temporary-test-limit-" + i++, INTEGER);
+            keys.add(key);
+        } while (key.getIndex() < TemporaryMetaData.SLOTS + 2);
+
+        final TemporaryMetaData meta = new TemporaryMetaData();
+        for (int j = 0; j < keys.size(); j++) {
+            meta.set(keys.get(j), j);
+        }
+        for (int j = 0; j < keys.size(); j++) {
+            Assertions.assertEquals(j, meta.get(keys.get(j)));
+            Assertions.assertEquals(j, meta.get(keys.get(j).toString()));
+        }
+
+        // Keys stored in the map behave like keys stored in a slot
+        final MetaDataKey<Integer> overflow = keys.get(keys.size() - 1);
+        Assertions.assertTrue(overflow.getIndex() >= TemporaryMetaData.SLOTS);
+        meta.set(overflow, null);
+        Assertions.assertNull(meta.get(overflow));
+        meta.set(overflow.toString(), 1);
+        Assertions.assertEquals(1, meta.remove(overflow));
+        Assertions.assertNull(meta.remove(overflow));
+    }
+
+    @Test
+    public void testSnapshotContainsAllValues() {
+        final MetaDataKey<Integer> key = MetaDataKey.of("temporary-test-snapshot", INTEGER);
+        final TemporaryMetaData meta = new TemporaryMetaData();
+        meta.set(key, 1);
+        meta.set("temporary-test-snapshot-named", 2);
+
+        final Map<String, Object> snapshot = meta.snapshot();
+        Assertions.assertEquals(Map.of("temporary-test-snapshot", 1, "temporary-test-snapshot-named", 2), snapshot);
+
+        // The snapshot is a copy
+        snapshot.clear();
+        Assertions.assertEquals(1, meta.get(key));
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.plot;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class PlotMergeIndexTest {
+
+    @Test
+    public void unchangedWithoutInvalidation() {
+        PlotMergeIndex index = new PlotMergeIndex();
+        long version = index.begin();
+        Assertions.assertTrue(index.isUnchangedSince(version, List.of(PlotId.of(1, 1), PlotId.of(1, 2))));
+    }
+
+    @Test
+    public void invalidatedMemberPreventsPublication() {
+        PlotMergeIndex index = new PlotMergeIndex();
+        long version = index.begin();
+        index.invalidate(PlotId.of(1, 2));
+        Assertions.assertFalse(index.isUnchangedSince(version, List.of(PlotId.of(1, 1), PlotId.of(1, 2))));
+    }
+
+    @Test
+    public void invalidatedNeighbourPreventsPublication() {
+        // a plot merging into the component from outside invalidates the adjacent member
+        PlotMergeIndex index = new PlotMergeIndex();
+        long version = index.begin();
+        index.invalidate(PlotId.of(2, 1));
+        Assertions.assertFalse(index.isUnchangedSince(version, List.of(PlotId.of(1, 1), PlotId.of(1, 2))));
+    }
+
+    @Test
+    public void unrelatedInvalidationAllowsPublication() {
+        PlotMergeIndex index = new PlotMergeIndex();
+        long version = index.begin();
+        index.invalidate(PlotId.of(10, 10));
+        index.invalidate(PlotId.of(-5, 3));
+        Assertions.assertTrue(index.isUnchangedSince(version, List.of(PlotId.of(1, 1), PlotId.of(1, 2))));
+    }
+
+    @Test
+    public void invalidationBeforeVersionAllowsPublication() {
+        PlotMergeIndex index = new PlotMergeIndex();
+        index.invalidate(PlotId.of(1, 1));
+        long version = index.begin();
+        Assertions.assertTrue(index.isUnchangedSince(version, List.of(PlotId.of(1, 1), PlotId.of(1, 2))));
+    }
+
+    @Test
+    public void clearPreventsPublication() {
+        PlotMergeIndex index = new PlotMergeIndex();
+        long version = index.begin();
+        index.clear();
+        Assertions.assertFalse(index.isUnchangedSince(version, List.of(PlotId.of(1, 1))));
+        Assertions.assertTrue(index.isUnchangedSince(index.begin(), List.of(PlotId.of(1, 1))));
+    }
+
+    @Test
+    public void invalidationsAreForgottenOnceComputationsEnd() {
+        PlotMergeIndex index = new PlotMergeIndex();
+        long first = index.begin();
+        index.invalidate(PlotId.of(1, 1));
+        long second = index.begin();
+        index.invalidate(PlotId.of(5, 5));
+        index.end(first);
+        // The second computation still sees the change made after it started
+        Assertions.assertFalse(index.isUnchangedSince(second, List.of(PlotId.of(5, 5))));
+        Assertions.assertTrue(index.isUnchangedSince(second, List.of(PlotId.of(1, 1))));
+        index.end(second);
+        Assertions.assertTrue(index.isUnchangedSince(first, List.of(PlotId.of(1, 1), PlotId.of(5, 5))));
+    }
+
+    @Test
+    public void invalidationWithoutComputationIsNotRecorded() {
+        PlotMergeIndex index = new PlotMergeIndex();
+        index.invalidate(PlotId.of(1, 1));
+        long version = index.begin();
+        Assertions.assertTrue(index.isUnchangedSince(version, List.of(PlotId.of(1, 1))));
+        index.end(version);
+    }
+
+    @Test
+    public void nestedComputationsOfTheSameVersion() {
+        PlotMergeIndex index = new PlotMergeIndex();
+        long first = index.begin();
+        long second = index.begin();
+        Assertions.assertEquals(first, second);
+        index.invalidate(PlotId.of(1, 1));
+        index.end(first);
+        Assertions.assertFalse(index.isUnchangedSince(second, List.of(PlotId.of(1, 1))));
+        index.end(second);
+    }
+
+    @Test
+    public void nothingCachedInitially() {
+        PlotMergeIndex index = new PlotMergeIndex();
+        Assertions.assertNull(index.get(PlotId.of(0, 0)));
+    }
+
+}
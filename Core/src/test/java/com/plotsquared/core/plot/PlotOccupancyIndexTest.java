@@ -0,0 +1,107 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.plot;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PlotOccupancyIndexTest {
+
+    @Test
+    public void ringOfId() {
+        Assertions.assertEquals(0, PlotOccupancyIndex.getRing(PlotId.of(0, 0)));
+        Assertions.assertEquals(1, PlotOccupancyIndex.getRing(PlotId.of(1, -1)));
+        Assertions.assertEquals(3, PlotOccupancyIndex.getRing(PlotId.of(-3, 2)));
+        Assertions.assertEquals(5, PlotOccupancyIndex.getRing(PlotId.of(2, -5)));
+    }
+
+    @Test
+    public void ringStartFollowsSpiral() {
+        // The spiral enters a ring right after the last id of the previous ring
+        PlotId id = PlotId.of(0, 0);
+        for (int ring = 1; ring <= 4; ring++) {
+            id = id.getNextId();
+            Assertions.assertEquals(PlotOccupancyIndex.getRingStart(ring), id);
+            Assertions.assertEquals(ring, PlotOccupancyIndex.getRing(id));
+            for (int i = 1; i < ring * 8; i++) {
+                id = id.getNextId();
+                Assertions.assertEquals(ring, PlotOccupancyIndex.getRing(id));
+            }
+        }
+    }
+
+    @Test
+    public void ringIsFullOnceEveryIdIsOccupied() {
+        PlotOccupancyIndex index = new PlotOccupancyIndex();
+        Assertions.assertFalse(index.isRingFull(0));
+        index.occupy(PlotId.of(0, 0));
+        Assertions.assertTrue(index.isRingFull(0));
+
+        PlotId id = PlotOccupancyIndex.getRingStart(1);
+        for (int i = 0; i < 7; i++) {
+            index.occupy(id);
+            id = id.getNextId();
+        }
+        Assertions.assertFalse(index.isRingFull(1));
+        index.occupy(id);
+        Assertions.assertTrue(index.isRingFull(1));
+        index.release(id);
+        Assertions.assertFalse(index.isRingFull(1));
+    }
+
+    @Test
+    public void occupyAndReleaseAreIdempotent() {
+        PlotOccupancyIndex index = new PlotOccupancyIndex();
+        PlotId id = PlotId.of(0, 0);
+        index.occupy(id);
+        index.occupy(id);
+        index.release(id);
+        Assertions.assertFalse(index.isRingFull(0));
+        Assertions.assertTrue(index.isEmpty(id, id));
+        index.release(id);
+        index.occupy(id);
+        Assertions.assertTrue(index.isRingFull(0));
+    }
+
+    @Test
+    public void maxRingIsKeptAfterRelease() {
+        PlotOccupancyIndex index = new PlotOccupancyIndex();
+        Assertions.assertEquals(-1, index.getMaxRing());
+        index.occupy(PlotId.of(2, -3));
+        index.occupy(PlotId.of(1, 1));
+        Assertions.assertEquals(3, index.getMaxRing());
+        index.release(PlotId.of(2, -3));
+        Assertions.assertEquals(3, index.getMaxRing());
+    }
+
+    @Test
+    public void emptyRectangles() {
+        PlotOccupancyIndex index = new PlotOccupancyIndex();
+        Assertions.assertTrue(index.isEmpty(PlotId.of(-100, -100), PlotId.of(100, 100)));
+        index.occupy(PlotId.of(20, 5));
+        Assertions.assertFalse(index.isEmpty(PlotId.of(20, 5), PlotId.of(20, 5)));
+        Assertions.assertFalse(index.isEmpty(PlotId.of(0, 0), PlotId.of(40, 40)));
+        // Negative ids are in different tiles than their positive counterparts
+        Assertions.assertTrue(index.isEmpty(PlotId.of(-40, -40), PlotId.of(-1, -1)));
+        Assertions.assertTrue(index.isEmpty(PlotId.of(32, 0), PlotId.of(40, 15)));
+        index.release(PlotId.of(20, 5));
+        Assertions.assertTrue(index.isEmpty(PlotId.of(0, 0), PlotId.of(40, 40)));
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.plot;
+
+import com.plotsquared.core.database.DBFunc;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+
+public class PlotOwnerIndexTest {
+
+    private static final UUID ALICE = UUID.fromString("f0a8a1c2-0b1e-4d0e-9a5c-4e2b1c3d4e5f");
+    private static final UUID BOB = UUID.fromString("0c9d2e3f-4a5b-4c6d-8e7f-9a0b1c2d3e4f");
+
+    @Test
+    public void claimIndexesPlotUnderOwner() {
+        PlotOwnerIndex<TestPlot> index = new PlotOwnerIndex<>();
+        TestPlot first = new TestPlot(PlotId.of(0, 0), ALICE, false);
+        TestPlot second = new TestPlot(PlotId.of(1, 0), ALICE, false);
+        index.update(first.id, null, first.owner, first);
+        index.update(second.id, null, second.owner, second);
+
+        Assertions.assertEquals(Set.of(first, second), Set.copyOf(index.get(ALICE)));
+        Assertions.assertTrue(index.get(BOB).isEmpty());
+        Assertions.assertTrue(index.anyMatch(ALICE, plot -> plot.isOwner(ALICE)));
+        Assertions.assertFalse(index.anyMatch(BOB, plot -> plot.isOwner(BOB)));
+    }
+
+    @Test
+    public void unclaimRemovesPlot() {
+        PlotOwnerIndex<TestPlot> index = new PlotOwnerIndex<>();
+        TestPlot plot = new TestPlot(PlotId.of(0, 0), ALICE, false);
+        index.update(plot.id, null, ALICE, plot);
+
+        // Unclaiming keeps the plot registered without an owner
+        index.update(plot.id, ALICE, null, plot);
+        Assertions.assertTrue(index.get(ALICE).isEmpty());
+        Assertions.assertFalse(index.anyMatch(ALICE, p -> true));
+
+        // Removing an unindexed plot is a no-op
+        index.remove(plot.id, ALICE);
+        index.remove(plot.id, null);
+        Assertions.assertTrue(index.get(ALICE).isEmpty());
+    }
+
+    @Test
+    public void ownerChangeMovesPlot() {
+        PlotOwnerIndex<TestPlot> index = new PlotOwnerIndex<>();
+        TestPlot plot = new TestPlot(PlotId.of(2, -3), ALICE, false);
+        TestPlot kept = new TestPlot(PlotId.of(4, 4), ALICE, false);
+        index.update(plot.id, null, ALICE, plot);
+        index.update(kept.id, null, ALICE, kept);
+
+        TestPlot changed = new TestPlot(plot.id, BOB, false);
+        index.update(changed.id, ALICE, BOB, changed);
+
+        Assertions.assertEquals(Set.of(kept), Set.copyOf(index.get(ALICE)));
+        Assertions.assertEquals(Set.of(changed), Set.copyOf(index.get(BOB)));
+    }
+
+    @Test
+    public void ownersTrackIndexedPlots() {
+        PlotOwnerIndex<TestPlot> index = new PlotOwnerIndex<>();
+        TestPlot plot = new TestPlot(PlotId.of(0, 0), ALICE, false);
+        TestPlot other = new TestPlot(PlotId.of(1, 1), BOB, false);
+        index.update(plot.id, null, ALICE, plot);
+        index.update(other.id, null, BOB, other);
+        Assertions.assertEquals(Set.of(ALICE, BOB), Set.copyOf(index.owners()));
+
+        // An owner without plots left is dropped
+        index.update(other.id, BOB, null, other);
+        Assertions.assertEquals(Set.of(ALICE), Set.copyOf(index.owners()));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> index.owners().remove(ALICE));
+    }
+
+    @Test
+    public void replacedPlotIsReindexed() {
+        PlotOwnerIndex<TestPlot> index = new PlotOwnerIndex<>();
+        TestPlot previous = new TestPlot(PlotId.of(0, 0), ALICE, false);
+        index.update(previous.id, null, ALICE, previous);
+
+        // Registering a new instance for the same id replaces the indexed one
+        TestPlot replacement = new TestPlot(PlotId.of(0, 0), ALICE, false);
+        index.update(replacement.id, ALICE, ALICE, replacement);
+
+        Assertions.assertEquals(1, index.get(ALICE).size());
+        Assertions.assertSame(replacement, index.get(ALICE).iterator().next());
+    }
+
+    @Test
+    public void serverPlotsStayIndexedUnderStoredOwner() {
+        PlotOwnerIndex<TestPlot> index = new PlotOwnerIndex<>();
+        TestPlot serverPlot = new TestPlot(PlotId.of(0, 0), ALICE, true);
+        index.update(serverPlot.id, null, ALICE, serverPlot);
+
+        // The server-plot flag doesn't change the stored owner
+        Assertions.assertEquals(Set.of(serverPlot), Set.copyOf(index.get(ALICE)));
+        Assertions.assertTrue(index.get(DBFunc.SERVER).isEmpty());
+        // but the effective owner filter excludes it from the player's plots
+        Assertions.assertFalse(index.anyMatch(ALICE, plot -> plot.isOwner(ALICE)));
+
+        // Plots stored with the server uuid as owner are indexed under it
+        TestPlot stored = new TestPlot(PlotId.of(1, 1), DBFunc.SERVER, false);
+        index.update(stored.id, null, DBFunc.SERVER, stored);
+        Assertions.assertTrue(index.anyMatch(DBFunc.SERVER, plot -> plot.isOwner(DBFunc.SERVER)));
+    }
+
+    @Test
+    public void viewIsUnmodifiable() {
+        PlotOwnerIndex<TestPlot> index = new PlotOwnerIndex<>();
+        TestPlot plot = new TestPlot(PlotId.of(0, 0), ALICE, false);
+        index.update(plot.id, null, ALICE, plot);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> index.get(ALICE).clear());
+    }
+
+    /**
+     * Mirrors {@link Plot#getOwner()}: server plots are effectively owned by the server
+     */
+    private static final class TestPlot {
+
+        private final PlotId id;
+        private final UUID owner;
+        private final boolean server;
+
+        private TestPlot(final PlotId id, final UUID owner, final boolean server) {
+            this.id = id;
+            this.owner = owner;
+            this.server = server;
+        }
+
+        private boolean isOwner(final UUID uuid) {
+            return uuid.equals(this.server ? DBFunc.SERVER : this.owner);
+        }
+
+    }
+
+}
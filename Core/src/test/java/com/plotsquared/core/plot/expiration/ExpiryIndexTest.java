@@ -0,0 +1,78 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.plot.expiration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+
+public class ExpiryIndexTest {
+
+    private static final UUID FIRST = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID SECOND = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID THIRD = UUID.fromString("00000000-0000-0000-0000-000000000003");
+
+    @Test
+    public void emptyIndex() {
+        Assertions.assertTrue(new ExpiryIndex().getSeenBefore(Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    public void cutoffIsInclusive() {
+        ExpiryIndex index = new ExpiryIndex();
+        index.update(FIRST, null, 100L);
+        index.update(SECOND, null, 200L);
+        index.update(THIRD, null, 300L);
+        Assertions.assertEquals(Set.of(), index.getSeenBefore(99L));
+        Assertions.assertEquals(Set.of(FIRST), index.getSeenBefore(100L));
+        Assertions.assertEquals(Set.of(FIRST, SECOND), index.getSeenBefore(250L));
+        Assertions.assertEquals(Set.of(FIRST, SECOND, THIRD), index.getSeenBefore(300L));
+    }
+
+    @Test
+    public void playersSeenAtTheSameTime() {
+        ExpiryIndex index = new ExpiryIndex();
+        index.update(SECOND, null, 100L);
+        index.update(FIRST, null, 100L);
+        index.update(THIRD, null, 101L);
+        Assertions.assertEquals(Set.of(FIRST, SECOND), index.getSeenBefore(100L));
+    }
+
+    @Test
+    public void updateMovesPlayer() {
+        ExpiryIndex index = new ExpiryIndex();
+        index.update(FIRST, null, 100L);
+        index.update(FIRST, 100L, 500L);
+        Assertions.assertEquals(Set.of(), index.getSeenBefore(499L));
+        Assertions.assertEquals(Set.of(FIRST), index.getSeenBefore(500L));
+    }
+
+    @Test
+    public void unchangedTimeKeepsSingleEntry() {
+        ExpiryIndex index = new ExpiryIndex();
+        index.update(FIRST, null, 100L);
+        index.update(FIRST, 100L, 100L);
+        index.update(FIRST, 100L, 200L);
+        Assertions.assertEquals(Set.of(), index.getSeenBefore(199L));
+        Assertions.assertEquals(Set.of(FIRST), index.getSeenBefore(200L));
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.plot.flag;
+
+import com.plotsquared.core.plot.flag.implementations.ExplosionFlag;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FlagContainerTest {
+
+    @Test
+    public void testEffectiveFlagIsInherited() {
+        final FlagContainer root = new FlagContainer(null);
+        root.addFlag(ExplosionFlag.EXPLOSION_FALSE);
+        final FlagContainer child = new FlagContainer(root);
+
+        Assertions.assertSame(ExplosionFlag.EXPLOSION_FALSE, child.getFlag(ExplosionFlag.class));
+        // Answered from the cached effective flags
+        Assertions.assertSame(ExplosionFlag.EXPLOSION_FALSE, child.getFlag(ExplosionFlag.class));
+        Assertions.assertSame(ExplosionFlag.EXPLOSION_FALSE, child.getFlagErased(ExplosionFlag.class));
+    }
+
+    @Test
+    public void testLocalChangeInvalidatesEffectiveFlag() {
+        final FlagContainer root = new FlagContainer(null);
+        root.addFlag(ExplosionFlag.EXPLOSION_FALSE);
+        final FlagContainer child = new FlagContainer(root);
+        Assertions.assertSame(ExplosionFlag.EXPLOSION_FALSE, child.getFlag(ExplosionFlag.class));
+
+        child.addFlag(ExplosionFlag.EXPLOSION_TRUE);
+        Assertions.assertSame(ExplosionFlag.EXPLOSION_TRUE, child.getFlag(ExplosionFlag.class));
+
+        child.removeFlag(ExplosionFlag.EXPLOSION_TRUE);
+        Assertions.assertSame(ExplosionFlag.EXPLOSION_FALSE, child.getFlag(ExplosionFlag.class));
+
+        child.addFlag(ExplosionFlag.EXPLOSION_TRUE);
+        Assertions.assertSame(ExplosionFlag.EXPLOSION_TRUE, child.getFlag(ExplosionFlag.class));
+        child.clearLocal();
+        Assertions.assertSame(ExplosionFlag.EXPLOSION_FALSE, child.getFlag(ExplosionFlag.class));
+    }
+
+    @Test
+    public void testParentChangeInvalidatesEffectiveFlag() {
+        final FlagContainer root = new FlagContainer(null);
+        root.addFlag(ExplosionFlag.EXPLOSION_FALSE);
+        final FlagContainer middle = new FlagContainer(root);
+        final FlagContainer child = new FlagContainer(middle);
+        Assertions.assertSame(ExplosionFlag.EXPLOSION_FALSE, child.getFlag(ExplosionFlag.class));
+
+        // Modifications anywhere along the hierarchy change the stamp of the child
+        middle.addFlag(ExplosionFlag.EXPLOSION_TRUE);
+        Assertions.assertSame(ExplosionFlag.EXPLOSION_TRUE, child.getFlag(ExplosionFlag.class));
+        middle.removeFlag(ExplosionFlag.EXPLOSION_TRUE);
+        Assertions.assertSame(ExplosionFlag.EXPLOSION_FALSE, child.getFlag(ExplosionFlag.class));
+        root.clearLocal();
+        Assertions.assertNull(child.getFlag(ExplosionFlag.class));
+    }
+
+    @Test
+    public void testParentReplacementInvalidatesEffectiveFlag() {
+        final FlagContainer root = new FlagContainer(null);
+        root.addFlag(ExplosionFlag.EXPLOSION_FALSE);
+        final FlagContainer otherRoot = new FlagContainer(null);
+        otherRoot.addFlag(ExplosionFlag.EXPLOSION_TRUE);
+        final FlagContainer middle = new FlagContainer(root);
+        final FlagContainer child = new FlagContainer(middle);
+        Assertions.assertSame(ExplosionFlag.EXPLOSION_FALSE, child.getFlag(ExplosionFlag.class));
+
+        middle.setParentContainer(otherRoot);
+        Assertions.assertSame(ExplosionFlag.EXPLOSION_TRUE, child.getFlag(ExplosionFlag.class));
+    }
+
+    @Test
+    public void testSlotAssignedAfterCaching() {
+        final FlagContainer root = new FlagContainer(null);
+        root.addFlag(ExplosionFlag.EXPLOSION_TRUE);
+        Assertions.assertSame(ExplosionFlag.EXPLOSION_TRUE, root.getFlag(ExplosionFlag.class));
+
+        // A class that has never been queried is assigned a slot beyond the cached array
+        final Class<?> unseen = new Object() {
+        }.getClass();
+        Assertions.assertNull(root.getFlagErased(unseen));
+        Assertions.assertTrue(FlagContainer.getFlagSlot(unseen) > FlagContainer.getFlagSlot(ExplosionFlag.class));
+        Assertions.assertSame(ExplosionFlag.EXPLOSION_TRUE, root.getFlag(ExplosionFlag.class));
+    }
+
+    @Test
+    public void testSubscriberMayUnsubscribeWhileNotified() {
+        final FlagContainer container = new FlagContainer(null);
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger otherCalls = new AtomicInteger();
+        final FlagContainer.PlotFlagUpdateHandler[] handler = new FlagContainer.PlotFlagUpdateHandler[1];
+        handler[0] = (flag, type) -> {
+            calls.incrementAndGet();
+            container.unsubscribe(handler[0]);
+        };
+        container.subscribe(handler[0]);
+        container.subscribe((flag, type) -> otherCalls.incrementAndGet());
+
+        container.addFlag(ExplosionFlag.EXPLOSION_TRUE);
+        container.addFlag(ExplosionFlag.EXPLOSION_FALSE);
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals(2, otherCalls.get());
+    }
+
+}
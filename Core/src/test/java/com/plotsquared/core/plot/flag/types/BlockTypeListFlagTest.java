@@ -0,0 +1,117 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.plot.flag.types;
+
+import com.plotsquared.core.plot.flag.implementations.PlaceFlag;
+import com.sk89q.worldedit.world.block.BlockCategory;
+import com.sk89q.worldedit.world.block.BlockType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class BlockTypeListFlagTest {
+
+    private static final BlockType STONE = new BlockType("minecraft:stone");
+    private static final BlockType DIRT = new BlockType("minecraft:dirt");
+    private static final BlockType OAK_LOG = new BlockType("minecraft:oak_log");
+    private static final BlockType BIRCH_LOG = new BlockType("minecraft:birch_log");
+
+    @Test
+    public void testEmptyFlagAcceptsNothing() {
+        Assertions.assertFalse(PlaceFlag.PLACE_NONE.accepts(STONE));
+    }
+
+    @Test
+    public void testAcceptsListedTypes() {
+        final PlaceFlag flag = PlaceFlag.PLACE_NONE.createFlagInstance(List.of(BlockTypeWrapper.get(STONE)));
+        Assertions.assertTrue(flag.accepts(STONE));
+        Assertions.assertTrue(flag.accepts(new BlockType("minecraft:stone")));
+        Assertions.assertFalse(flag.accepts(DIRT));
+        // The compiled values are reused
+        Assertions.assertTrue(flag.accepts(STONE));
+        Assertions.assertFalse(flag.accepts(DIRT));
+    }
+
+    @Test
+    public void testAcceptsCategoryTypes() {
+        final TestCategory logs = new TestCategory("plotsquared:test_logs", OAK_LOG);
+        final PlaceFlag flag = PlaceFlag.PLACE_NONE.createFlagInstance(List.of(
+                BlockTypeWrapper.get(STONE),
+                BlockTypeWrapper.get(logs)
+        ));
+        Assertions.assertTrue(flag.accepts(STONE));
+        Assertions.assertTrue(flag.accepts(OAK_LOG));
+        Assertions.assertFalse(flag.accepts(BIRCH_LOG));
+
+        // Changed block tags are only picked up once the compiled values are invalidated
+        logs.blockTypes.add(BIRCH_LOG);
+        Assertions.assertFalse(flag.accepts(BIRCH_LOG));
+        BlockTypeListFlag.invalidateCompiledBlockTypes();
+        Assertions.assertTrue(flag.accepts(BIRCH_LOG));
+        Assertions.assertTrue(flag.accepts(OAK_LOG));
+    }
+
+    @Test
+    public void testUnresolvedCategory() {
+        // Block categories are not loaded, so the category cannot be resolved and nothing is cached
+        final PlaceFlag flag = PlaceFlag.PLACE_NONE.createFlagInstance(List.of(
+                BlockTypeWrapper.get("plotsquared:test_unresolved"),
+                BlockTypeWrapper.get(DIRT)
+        ));
+        Assertions.assertTrue(flag.accepts(DIRT));
+        Assertions.assertFalse(flag.accepts(STONE));
+    }
+
+    @Test
+    public void testAcceptsMatchesWrappers() {
+        final TestCategory logs = new TestCategory("plotsquared:test_parity", OAK_LOG, BIRCH_LOG);
+        final List<BlockTypeWrapper> value = List.of(BlockTypeWrapper.get(DIRT), BlockTypeWrapper.get(logs));
+        final PlaceFlag flag = PlaceFlag.PLACE_NONE.createFlagInstance(value);
+        for (final BlockType blockType : List.of(STONE, DIRT, OAK_LOG, BIRCH_LOG)) {
+            final boolean expected = value.stream().anyMatch(wrapper -> wrapper.accepts(blockType));
+            Assertions.assertEquals(expected, flag.accepts(blockType), blockType.getId());
+        }
+    }
+
+    private static final class TestCategory extends BlockCategory {
+
+        private final Set<BlockType> blockTypes = new HashSet<>();
+
+        private TestCategory(final String id, final BlockType... blockTypes) {
+            super(id);
+            Collections.addAll(this.blockTypes, blockTypes);
+        }
+
+        @Override
+        public Set<BlockType> getAll() {
+            return Collections.unmodifiableSet(new HashSet<>(this.blockTypes));
+        }
+
+        @Override
+        public boolean contains(final BlockType blockType) {
+            return this.blockTypes.contains(blockType);
+        }
+
+    }
+
+}
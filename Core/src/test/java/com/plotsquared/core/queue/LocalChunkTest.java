@@ -0,0 +1,193 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.queue;
+
+import com.plotsquared.core.util.ChunkUtil;
+import com.sk89q.worldedit.world.biome.BiomeType;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LocalChunkTest {
+
+    private static final BaseBlock STONE = block("stone");
+    private static final BaseBlock DIRT = block("dirt");
+    private static final BaseBlock GLASS = block("glass");
+
+    /**
+     * Create a block that does not need the block registry of a running platform
+     */
+    private static BaseBlock block(String name) {
+        return new BaseBlock((BlockState) null) {
+            @Override
+            public boolean equals(Object o) {
+                return this == o;
+            }
+
+            @Override
+            public int hashCode() {
+                return name.hashCode();
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+
+    /**
+     * Chunk with sections from y = -64 to y = 319, the queue is not needed for storing blocks
+     */
+    private static LocalChunk chunk() {
+        return new LocalChunk(null, 2, -3, -4, 19);
+    }
+
+    private static BaseBlock getBlock(LocalChunk chunk, int x, int y, int z) {
+        return chunk.getBlock((y >> 4) - chunk.getMinSection(), ChunkUtil.getJ(x, y, z));
+    }
+
+    @Test
+    public void cuboidAcrossSectionBorder() {
+        LocalChunk chunk = chunk();
+        chunk.fillCuboid(2, 10, 3, 5, 20, 7, STONE);
+        for (int y = 0; y < 32; y++) {
+            for (int x = 0; x < 16; x++) {
+                for (int z = 0; z < 16; z++) {
+                    boolean inside = x >= 2 && x <= 5 && y >= 10 && y <= 20 && z >= 3 && z <= 7;
+                    Assertions.assertEquals(inside ? STONE : null, getBlock(chunk, x, y, z), x + "," + y + "," + z);
+                }
+            }
+        }
+        Assertions.assertTrue(chunk.hasBlocks(4));
+        Assertions.assertTrue(chunk.hasBlocks(5));
+        Assertions.assertFalse(chunk.hasBlocks(3));
+        Assertions.assertFalse(chunk.hasBlocks(6));
+        Assertions.assertNull(chunk.getUniformBlock(4));
+    }
+
+    @Test
+    public void cuboidBelowZero() {
+        LocalChunk chunk = chunk();
+        chunk.fillCuboid(0, -64, 0, 15, -60, 15, DIRT);
+        Assertions.assertEquals(DIRT, getBlock(chunk, 0, -64, 0));
+        Assertions.assertEquals(DIRT, getBlock(chunk, 15, -60, 15));
+        Assertions.assertNull(getBlock(chunk, 15, -59, 15));
+        Assertions.assertFalse(chunk.hasBlocks(1));
+    }
+
+    @Test
+    public void fullSectionCuboidIsUniform() {
+        LocalChunk chunk = chunk();
+        chunk.fillCuboid(0, 0, 0, 15, 47, 15, STONE);
+        Assertions.assertEquals(STONE, chunk.getUniformBlock(4));
+        Assertions.assertEquals(STONE, chunk.getUniformBlock(5));
+        Assertions.assertEquals(STONE, chunk.getUniformBlock(6));
+        Assertions.assertNull(chunk.getUniformBlock(7));
+    }
+
+    @Test
+    public void laterWritesTakePrecedence() {
+        LocalChunk chunk = chunk();
+        chunk.setBlock(3, 5, 3, GLASS);
+        chunk.fillCuboid(0, 0, 0, 15, 15, 15, STONE);
+        chunk.setBlock(4, 5, 4, GLASS);
+        chunk.fillCuboid(4, 5, 4, 4, 6, 4, DIRT);
+
+        // The fill covers the block set before it, but not the one set after it
+        Assertions.assertEquals(STONE, getBlock(chunk, 3, 5, 3));
+        Assertions.assertEquals(DIRT, getBlock(chunk, 4, 5, 4));
+        Assertions.assertEquals(DIRT, getBlock(chunk, 4, 6, 4));
+        Assertions.assertEquals(STONE, getBlock(chunk, 4, 7, 4));
+        chunk.setBlock(4, 6, 4, GLASS);
+        Assertions.assertEquals(GLASS, getBlock(chunk, 4, 6, 4));
+    }
+
+    @Test
+    public void sectionsAreRasterisedIndependently() {
+        LocalChunk chunk = chunk();
+        chunk.fillCuboid(0, 0, 0, 0, 31, 0, STONE);
+        // Read the lower section only, then record a fill covering both
+        Assertions.assertEquals(STONE, getBlock(chunk, 0, 0, 0));
+        chunk.fillCuboid(0, 8, 0, 0, 23, 0, DIRT);
+        Assertions.assertEquals(STONE, getBlock(chunk, 0, 7, 0));
+        Assertions.assertEquals(DIRT, getBlock(chunk, 0, 8, 0));
+        Assertions.assertEquals(DIRT, getBlock(chunk, 0, 23, 0));
+        Assertions.assertEquals(STONE, getBlock(chunk, 0, 24, 0));
+    }
+
+    @Test
+    public void fillSectionDiscardsEarlierFills() {
+        LocalChunk chunk = chunk();
+        chunk.fillCuboid(0, 0, 0, 7, 20, 7, STONE);
+        chunk.fillSection(4, DIRT);
+        Assertions.assertEquals(DIRT, chunk.getUniformBlock(4));
+        // The fill still applies to the other section it covers
+        Assertions.assertEquals(STONE, getBlock(chunk, 7, 20, 7));
+        Assertions.assertNull(getBlock(chunk, 8, 20, 8));
+    }
+
+    @Test
+    @SuppressWarnings("removal")
+    public void legacyBlockArraysAreLive() {
+        LocalChunk chunk = chunk();
+        chunk.fillCuboid(0, 0, 0, 15, 15, 15, STONE);
+        chunk.setBlock(1, 1, 1, DIRT);
+
+        BaseBlock[][] blocks = chunk.getBaseblocks();
+        Assertions.assertEquals(chunk.getSectionCount(), blocks.length);
+        Assertions.assertNull(blocks[0]);
+        Assertions.assertEquals(DIRT, blocks[4][ChunkUtil.getJ(1, 1, 1)]);
+        Assertions.assertEquals(STONE, blocks[4][ChunkUtil.getJ(2, 1, 1)]);
+
+        // Changes to the arrays are visible to the chunk and the other way around
+        blocks[4][ChunkUtil.getJ(2, 1, 1)] = GLASS;
+        Assertions.assertEquals(GLASS, getBlock(chunk, 2, 1, 1));
+        chunk.setBlock(3, 1, 1, GLASS);
+        Assertions.assertEquals(GLASS, blocks[4][ChunkUtil.getJ(3, 1, 1)]);
+        chunk.fillCuboid(0, 16, 0, 0, 16, 0, DIRT);
+        Assertions.assertSame(blocks, chunk.getBaseblocks());
+        Assertions.assertEquals(DIRT, blocks[5][ChunkUtil.getJ(0, 16, 0)]);
+        Assertions.assertTrue(chunk.hasBlocks(5));
+
+        chunk.fillSection(6, STONE);
+        Assertions.assertEquals(STONE, chunk.getUniformBlock(6));
+        Assertions.assertEquals(STONE, blocks[6][0]);
+        Assertions.assertNull(chunk.getUniformBlock(4));
+    }
+
+    @Test
+    @SuppressWarnings("removal")
+    public void legacyBiomeArraysAreLive() {
+        LocalChunk chunk = chunk();
+        BiomeType plains = new BiomeType("minecraft:plains");
+        BiomeType desert = new BiomeType("minecraft:desert");
+        chunk.setBiome(0, 0, 0, plains);
+
+        BiomeType[][] biomes = chunk.getBiomes();
+        Assertions.assertEquals(plains, biomes[4][0]);
+        biomes[4][1] = desert;
+        Assertions.assertEquals(desert, chunk.getBiome(4, 1));
+        chunk.setBiome(0, 32, 0, desert);
+        Assertions.assertTrue(chunk.hasBiomes(6));
+        Assertions.assertEquals(desert, biomes[6][0]);
+    }
+
+}
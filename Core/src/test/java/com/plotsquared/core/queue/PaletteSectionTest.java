@@ -0,0 +1,119 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.queue;
+
+import com.plotsquared.core.util.ChunkUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PaletteSectionTest {
+
+    @Test
+    public void emptySection() {
+        PaletteSection<String> section = new PaletteSection<>();
+        Assertions.assertEquals(0, section.getCount());
+        Assertions.assertNull(section.get(0));
+        Assertions.assertNull(section.getUniform());
+    }
+
+    @Test
+    public void setAndGet() {
+        PaletteSection<String> section = new PaletteSection<>();
+        int j = ChunkUtil.getJ(3, 7, 11);
+        section.set(j, "stone");
+        Assertions.assertEquals("stone", section.get(j));
+        Assertions.assertNull(section.get(ChunkUtil.getJ(3, 7, 12)));
+        Assertions.assertNull(section.getUniform());
+        Assertions.assertEquals(1, section.getCount());
+    }
+
+    @Test
+    public void overwriteDoesNotCountTwice() {
+        PaletteSection<String> section = new PaletteSection<>();
+        section.set(5, "stone");
+        section.set(5, "dirt");
+        section.set(6, "dirt");
+        Assertions.assertEquals("dirt", section.get(5));
+        Assertions.assertEquals(2, section.getCount());
+    }
+
+    @Test
+    public void fillIsUniform() {
+        PaletteSection<String> section = new PaletteSection<>();
+        section.set(1, "dirt");
+        section.fill("stone");
+        Assertions.assertEquals("stone", section.getUniform());
+        Assertions.assertEquals("stone", section.get(1));
+        Assertions.assertEquals(PaletteSection.SIZE, section.getCount());
+
+        // setting the value the section is filled with keeps it uniform
+        section.set(1, "stone");
+        Assertions.assertEquals("stone", section.getUniform());
+
+        section.set(1, "dirt");
+        Assertions.assertNull(section.getUniform());
+        Assertions.assertEquals("dirt", section.get(1));
+        Assertions.assertEquals("stone", section.get(2));
+        Assertions.assertEquals(PaletteSection.SIZE, section.getCount());
+    }
+
+    @Test
+    public void largePalette() {
+        PaletteSection<Integer> section = new PaletteSection<>();
+        for (int j = 0; j < PaletteSection.SIZE; j++) {
+            section.set(j, j % 100);
+        }
+        for (int j = 0; j < PaletteSection.SIZE; j++) {
+            Assertions.assertEquals(j % 100, section.get(j));
+        }
+        Assertions.assertEquals(PaletteSection.SIZE, section.getCount());
+    }
+
+    @Test
+    public void compactsExhaustedPalette() {
+        PaletteSection<Integer> section = new PaletteSection<>();
+        // every value is only used once, so the palette runs out of indices several times
+        int values = Character.MAX_VALUE * 3;
+        for (int i = 0; i < values; i++) {
+            section.set(i % PaletteSection.SIZE, i);
+        }
+        for (int j = 0; j < PaletteSection.SIZE; j++) {
+            int last = values - 1 - ((values - 1 - j) % PaletteSection.SIZE);
+            Assertions.assertEquals(last, section.get(j));
+        }
+        Assertions.assertEquals(PaletteSection.SIZE, section.getCount());
+    }
+
+    @Test
+    public void toArray() {
+        PaletteSection<String> section = new PaletteSection<>();
+        section.set(0, "stone");
+        section.set(4095, "dirt");
+        String[] array = section.toArray(new String[PaletteSection.SIZE]);
+        Assertions.assertEquals("stone", array[0]);
+        Assertions.assertNull(array[1]);
+        Assertions.assertEquals("dirt", array[4095]);
+
+        section.fill("air");
+        array = section.toArray(array);
+        Assertions.assertEquals("air", array[0]);
+        Assertions.assertEquals("air", array[4095]);
+    }
+
+}
@@ -0,0 +1,208 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Trims synthetic region files. Every chunk is stored as sectors filled with a byte derived from
+ * its index, so that moved chunks can be recognised.
+ */
+public class RegionFileTrimmerTest {
+
+    private static final int SECTOR = 4096;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Write a region file
+     *
+     * @param file    Region file
+     * @param indices Chunk indices, in the order their sectors are laid out in the file
+     * @param counts  Sector count per chunk
+     */
+    private static void writeRegion(Path file, int[] indices, int[] counts) throws IOException {
+        int sectors = 2;
+        for (int count : counts) {
+            sectors += count;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(sectors * SECTOR);
+        IntBuffer header = buffer.asIntBuffer();
+        int offset = 2;
+        for (int i = 0; i < indices.length; i++) {
+            header.put(indices[i], offset << 8 | counts[i]);
+            header.put(1024 + indices[i], timestamp(indices[i]));
+            Arrays.fill(buffer.array(), offset * SECTOR, (offset + counts[i]) * SECTOR, fill(indices[i]));
+            offset += counts[i];
+        }
+        Files.write(file, buffer.array());
+    }
+
+    private static byte fill(int index) {
+        return (byte) (index * 7 + 1);
+    }
+
+    private static int timestamp(int index) {
+        return 1_600_000_000 + index;
+    }
+
+    private static BitSet keep(int... indices) {
+        BitSet keep = new BitSet();
+        for (int index : indices) {
+            keep.set(index);
+        }
+        return keep;
+    }
+
+    private static IntBuffer header(byte[] data) {
+        return ByteBuffer.wrap(data, 0, 2 * SECTOR).asIntBuffer();
+    }
+
+    private static void assertChunk(byte[] data, int index, int expectedOffset, int expectedCount) {
+        IntBuffer header = header(data);
+        int location = header.get(index);
+        Assertions.assertEquals(expectedOffset, location >>> 8, "offset of chunk " + index);
+        Assertions.assertEquals(expectedCount, location & 0xFF, "sector count of chunk " + index);
+        Assertions.assertEquals(timestamp(index), header.get(1024 + index), "timestamp of chunk " + index);
+        for (int i = expectedOffset * SECTOR; i < (expectedOffset + expectedCount) * SECTOR; i++) {
+            if (data[i] != fill(index)) {
+                Assertions.fail("Chunk " + index + " data differs at byte " + i);
+            }
+        }
+    }
+
+    private static void assertDropped(byte[] data, int index) {
+        IntBuffer header = header(data);
+        Assertions.assertEquals(0, header.get(index), "location of chunk " + index);
+        Assertions.assertEquals(0, header.get(1024 + index), "timestamp of chunk " + index);
+    }
+
+    @Test
+    public void chunkIndex() {
+        Assertions.assertEquals(0, RegionFileTrimmer.getIndex(0, 0));
+        Assertions.assertEquals(31, RegionFileTrimmer.getIndex(31, 0));
+        Assertions.assertEquals(32, RegionFileTrimmer.getIndex(32, 1));
+        Assertions.assertEquals(1023, RegionFileTrimmer.getIndex(-1, -1));
+    }
+
+    @Test
+    public void missingFile() throws IOException {
+        Assertions.assertEquals(0, RegionFileTrimmer.trim(this.directory.resolve("r.0.0.mca"), keep()));
+    }
+
+    @Test
+    public void droppedEntriesAreCompacted() throws IOException {
+        Path file = this.directory.resolve("r.0.0.mca");
+        // Sectors are not laid out in index order
+        writeRegion(file, new int[]{5, 0, 40, 7}, new int[]{1, 2, 3, 1});
+
+        Assertions.assertEquals(2, RegionFileTrimmer.trim(file, keep(0, 7)));
+
+        byte[] data = Files.readAllBytes(file);
+        Assertions.assertEquals((2 + 2 + 1) * SECTOR, data.length);
+        // Kept chunks keep their relative order, directly after the header
+        assertChunk(data, 0, 2, 2);
+        assertChunk(data, 7, 4, 1);
+        assertDropped(data, 5);
+        assertDropped(data, 40);
+        Assertions.assertFalse(Files.exists(this.directory.resolve("r.0.0.mca.tmp")));
+    }
+
+    @Test
+    public void keptChunksBeforeGapAreMoved() throws IOException {
+        Path file = this.directory.resolve("r.0.0.mca");
+        writeRegion(file, new int[]{1, 2, 3}, new int[]{4, 1, 2});
+
+        Assertions.assertEquals(1, RegionFileTrimmer.trim(file, keep(2, 3)));
+
+        byte[] data = Files.readAllBytes(file);
+        Assertions.assertEquals((2 + 1 + 2) * SECTOR, data.length);
+        assertChunk(data, 2, 2, 1);
+        assertChunk(data, 3, 3, 2);
+        assertDropped(data, 1);
+    }
+
+    @Test
+    public void fileIsDeletedWhenNoChunkIsKept() throws IOException {
+        Path file = this.directory.resolve("r.0.0.mca");
+        writeRegion(file, new int[]{0, 1, 2}, new int[]{1, 1, 1});
+        Assertions.assertEquals(3, RegionFileTrimmer.trim(file, keep(5)));
+        Assertions.assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void fileIsUntouchedWhenAllChunksAreKept() throws IOException {
+        Path file = this.directory.resolve("r.0.0.mca");
+        writeRegion(file, new int[]{3, 1, 2}, new int[]{1, 2, 1});
+        byte[] before = Files.readAllBytes(file);
+        Assertions.assertEquals(0, RegionFileTrimmer.trim(file, keep(1, 2, 3, 4)));
+        Assertions.assertArrayEquals(before, Files.readAllBytes(file));
+    }
+
+    @Test
+    public void invalidEntriesAreDropped() throws IOException {
+        Path file = this.directory.resolve("r.0.0.mca");
+        writeRegion(file, new int[]{0, 1}, new int[]{1, 1});
+        byte[] data = Files.readAllBytes(file);
+        // Chunk 2 points past the end of the file
+        header(data).put(2, 50 << 8 | 1);
+        Files.write(file, data);
+
+        Assertions.assertEquals(1, RegionFileTrimmer.trim(file, keep(0, 1, 2)));
+
+        data = Files.readAllBytes(file);
+        assertChunk(data, 0, 2, 1);
+        assertChunk(data, 1, 3, 1);
+        Assertions.assertEquals(0, header(data).get(2));
+    }
+
+    @Test
+    public void externalChunksOfDroppedEntriesAreDeleted() throws IOException {
+        Path file = this.directory.resolve("r.1.-1.mca");
+        writeRegion(file, new int[]{0, 33}, new int[]{1, 1});
+        // Chunk 33 is at 1;1 within the region file
+        Path dropped = Files.createFile(this.directory.resolve("c.33.-31.mcc"));
+        Path kept = Files.createFile(this.directory.resolve("c.32.-32.mcc"));
+
+        Assertions.assertEquals(1, RegionFileTrimmer.trim(file, keep(0)));
+
+        Assertions.assertFalse(Files.exists(dropped));
+        Assertions.assertTrue(Files.exists(kept));
+    }
+
+    @Test
+    public void truncatedFileIsIgnored() throws IOException {
+        Path file = this.directory.resolve("r.0.0.mca");
+        Files.write(file, new byte[100]);
+        Assertions.assertEquals(0, RegionFileTrimmer.trim(file, keep()));
+        Assertions.assertEquals(100, Files.size(file));
+    }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * PlotSquared, a land and world management plugin for Minecraft.
+ * Copyright (C) IntellectualSites <https://intellectualsites.com>
+ * Copyright (C) IntellectualSites team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.util;
+
+import com.sk89q.jnbt.ByteArrayTag;
+import com.sk89q.jnbt.CompoundTag;
+import com.sk89q.jnbt.IntArrayTag;
+import com.sk89q.jnbt.IntTag;
+import com.sk89q.jnbt.ListTag;
+import com.sk89q.jnbt.NBTInputStream;
+import com.sk89q.jnbt.NamedTag;
+import com.sk89q.jnbt.ShortTag;
+import com.sk89q.jnbt.StringTag;
+import com.sk89q.jnbt.Tag;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+public class SchematicExporterTest {
+
+    private static final int WIDTH = 5;
+    private static final int HEIGHT = 3;
+    private static final int LENGTH = 4;
+
+    @TempDir
+    Path directory;
+
+    private static Map<String, Tag> header() {
+        Map<String, Tag> header = new HashMap<>();
+        header.put("Version", new IntTag(2));
+        header.put("DataVersion", new IntTag(2975));
+        header.put("Width", new ShortTag((short) WIDTH));
+        header.put("Height", new ShortTag((short) HEIGHT));
+        header.put("Length", new ShortTag((short) LENGTH));
+        header.put("Offset", new IntArrayTag(new int[]{0, 0, 0}));
+        return header;
+    }
+
+    /**
+     * Decode varints the way the Sponge schematic reader of WorldEdit does
+     */
+    private static int[] readVarInts(byte[] data, int count) {
+        int[] values = new int[count];
+        int index = 0;
+        int i = 0;
+        while (i < data.length) {
+            int value = 0;
+            int varintLength = 0;
+            while (true) {
+                value |= (data[i] & 127) << (varintLength++ * 7);
+                Assertions.assertTrue(varintLength <= 5, "VarInt too big");
+                if ((data[i] & 128) != 128) {
+                    i++;
+                    break;
+                }
+                i++;
+            }
+            Assertions.assertTrue(index < count, "More block data than blocks");
+            values[index++] = value;
+        }
+        Assertions.assertEquals(count, index);
+        return values;
+    }
+
+    private static CompoundTag read(Path file) throws IOException {
+        try (NBTInputStream stream = new NBTInputStream(new GZIPInputStream(Files.newInputStream(file)))) {
+            NamedTag root = stream.readNamedTag();
+            Assertions.assertEquals("Schematic", root.getName());
+            return (CompoundTag) root.getTag();
+        }
+    }
+
+    private static long writeVarInts(Path file, int[] values) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            for (int value : values) {
+                SchematicExporter.writeVarInt(buffer, value);
+            }
+            buffer.writeTo(out);
+            return buffer.size();
+        }
+    }
+
+    @Test
+    public void schematicReadsBack() throws IOException {
+        // Enough palette entries for ids that need two varint bytes
+        Map<String, Integer> palette = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            palette.put("minecraft:block_" + i, i);
+        }
+        int[] blocks = new int[WIDTH * HEIGHT * LENGTH];
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = i * 37 % 200;
+        }
+        Path blockData = this.directory.resolve("blocks.tmp");
+        long blockDataLength = writeVarInts(blockData, blocks);
+        Assertions.assertTrue(blockDataLength > blocks.length);
+
+        Map<String, Tag> chest = new HashMap<>();
+        chest.put("Id", new StringTag("minecraft:chest"));
+        chest.put("Pos", new IntArrayTag(new int[]{1, 2, 3}));
+        List<CompoundTag> tileEntities = new ArrayList<>();
+        tileEntities.add(new CompoundTag(chest));
+
+        Map<String, Integer> biomePalette = new HashMap<>();
+        biomePalette.put("minecraft:plains", 0);
+        biomePalette.put("minecraft:desert", 1);
+        ByteArrayOutputStream biomeData = new ByteArrayOutputStream();
+        for (int i = 0; i < WIDTH * LENGTH; i++) {
+            SchematicExporter.writeVarInt(biomeData, i % 2);
+        }
+
+        Path file = this.directory.resolve("plot.schem");
+        SchematicExporter.writeSchematic(Files.newOutputStream(file), header(), palette, tileEntities, blockData,
+                blockDataLength, biomePalette, biomeData
+        );
+
+        Map<String, Tag> schematic = read(file).getValue();
+        Assertions.assertEquals(2, ((IntTag) schematic.get("Version")).getValue());
+        Assertions.assertEquals(WIDTH, ((ShortTag) schematic.get("Width")).getValue().intValue());
+        Assertions.assertEquals(HEIGHT, ((ShortTag) schematic.get("Height")).getValue().intValue());
+        Assertions.assertEquals(LENGTH, ((ShortTag) schematic.get("Length")).getValue().intValue());
+
+        Assertions.assertEquals(palette.size(), ((IntTag) schematic.get("PaletteMax")).getValue());
+        Map<String, Tag> paletteTag = ((CompoundTag) schematic.get("Palette")).getValue();
+        Assertions.assertEquals(palette.size(), paletteTag.size());
+        palette.forEach((state, id) -> Assertions.assertEquals(id, ((IntTag) paletteTag.get(state)).getValue()));
+
+        byte[] readBlocks = ((ByteArrayTag) schematic.get("BlockData")).getValue();
+        Assertions.assertEquals(blockDataLength, readBlocks.length);
+        Assertions.assertArrayEquals(blocks, readVarInts(readBlocks, blocks.length));
+
+        List<Tag> readTileEntities = ((ListTag) schematic.get("BlockEntities")).getValue();
+        Assertions.assertEquals(1, readTileEntities.size());
+        Map<String, Tag> readChest = ((CompoundTag) readTileEntities.get(0)).getValue();
+        Assertions.assertEquals("minecraft:chest", ((StringTag) readChest.get("Id")).getValue());
+        Assertions.assertArrayEquals(new int[]{1, 2, 3}, ((IntArrayTag) readChest.get("Pos")).getValue());
+
+        Assertions.assertEquals(2, ((IntTag) schematic.get("BiomePaletteMax")).getValue());
+        Map<String, Tag> biomePaletteTag = ((CompoundTag) schematic.get("BiomePalette")).getValue();
+        Assertions.assertEquals(1, ((IntTag) biomePaletteTag.get("minecraft:desert")).getValue());
+        int[] biomes = readVarInts(((ByteArrayTag) schematic.get("BiomeData")).getValue(), WIDTH * LENGTH);
+        for (int i = 0; i < biomes.length; i++) {
+            Assertions.assertEquals(i % 2, biomes[i]);
+        }
+    }
+
+    @Test
+    public void biomesAreOmittedWithoutData() throws IOException {
+        Path blockData = this.directory.resolve("blocks.tmp");
+        long blockDataLength = writeVarInts(blockData, new int[WIDTH * HEIGHT * LENGTH]);
+        Map<String, Integer> palette = new HashMap<>();
+        palette.put("minecraft:air", 0);
+
+        Path file = this.directory.resolve("empty.schem");
+        SchematicExporter.writeSchematic(Files.newOutputStream(file), header(), palette, new ArrayList<>(), blockData,
+                blockDataLength, new HashMap<>(), new ByteArrayOutputStream()
+        );
+
+        Map<String, Tag> schematic = read(file).getValue();
+        Assertions.assertArrayEquals(
+                new int[WIDTH * HEIGHT * LENGTH],
+                readVarInts(((ByteArrayTag) schematic.get("BlockData")).getValue(), WIDTH * HEIGHT * LENGTH)
+        );
+        Assertions.assertTrue(((ListTag) schematic.get("BlockEntities")).getValue().isEmpty());
+        Assertions.assertFalse(schematic.containsKey("BiomeData"));
+        Assertions.assertFalse(schematic.containsKey("BiomePalette"));
+    }
+
+}